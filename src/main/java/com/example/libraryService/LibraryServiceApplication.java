@@ -2,6 +2,7 @@ package com.example.libraryService;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.annotation.Bean;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.web.client.RestTemplate;
@@ -12,8 +13,13 @@ import org.springframework.web.client.RestTemplate;
 
 public class LibraryServiceApplication {
 
+	/** Number of startup steps buffered for the actuator /startup endpoint. */
+	private static final int STARTUP_STEP_CAPACITY = 2048;
+
 	public static void main(String[] args) {
-		SpringApplication.run(LibraryServiceApplication.class, args);
+		SpringApplication application = new SpringApplication(LibraryServiceApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+		application.run(args);
 	}
 	
 	@Bean
@@ -0,0 +1,25 @@
+package com.example.libraryService.analytics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.libraryService.catalog.CatalogState;
+
+/**
+ * Keeps {@link CatalogAnalytics} current from the in-process catalog. Without
+ * the catalog, analytics are computed per request from the database.
+ */
+@Configuration
+@EnableConfigurationProperties(AnalyticsProperties.class)
+public class AnalyticsConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "library.catalog", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public CatalogAnalytics catalogAnalytics(CatalogState catalogState, AnalyticsProperties properties) {
+        CatalogAnalytics analytics = new CatalogAnalytics(properties, id -> catalogState.getStore().get(id));
+        catalogState.addListener(analytics);
+        return analytics;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.libraryService.analytics;
+
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings under {@code library.analytics}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "library.analytics")
+public class AnalyticsProperties {
+
+    /** Books at or below this stock are tracked for the low-stock report. */
+    private int lowStockThreshold = 10;
+
+    /** Upper bounds of the price histogram buckets, ascending; a last open bucket is added. */
+    private List<Double> priceBuckets = List.of(5.0, 10.0, 20.0, 50.0, 100.0);
+}
@@ -0,0 +1,280 @@
+package com.example.libraryService.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.example.libraryService.catalog.CatalogState;
+import com.example.libraryService.catalog.CatalogStore;
+import com.example.libraryService.dto.AuthorStockValueDTO;
+import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.dto.PriceBucketDTO;
+import com.example.libraryService.entity.Book;
+
+/**
+ * ============================================================================
+ * Class: CatalogAnalytics
+ *
+ * Description:
+ *   Aggregates over the catalog: stock value per author, low-stock books and
+ *   a price histogram.
+ *
+ *   - onReset rebuilds everything from a columnar copy of the catalog with
+ *     parallel streams (common fork-join pool).
+ *   - onChange applies the difference between the old and new image of one
+ *     book, so the aggregates follow the BOOKS events without rescans.
+ *
+ *   Authors are grouped by their normalized name (see Book#normalize), and
+ *   stock values are summed in whole cents so that adding and removing
+ *   books many times over does not drift.
+ *
+ *   The author ranking is sorted lazily and cached until the next change, so
+ *   repeated dashboard queries cost O(1).
+ * ============================================================================
+ */
+public class CatalogAnalytics implements CatalogState.ChangeListener {
+
+    static final String UNKNOWN_AUTHOR = "(unknown)";
+
+    private final int lowStockThreshold;
+    private final double[] bucketBounds;
+    private final LongFunction<Optional<BookResponseDTO>> lookup;
+
+    private volatile Map<String, AuthorTotals> byAuthor = new ConcurrentHashMap<>();
+    private volatile NavigableSet<StockKey> lowStock = new ConcurrentSkipListSet<>();
+    private volatile AtomicLongArray histogram;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Ranking ranking;
+    private volatile boolean ready;
+
+    public CatalogAnalytics(AnalyticsProperties properties, LongFunction<Optional<BookResponseDTO>> lookup) {
+        this.lowStockThreshold = properties.getLowStockThreshold();
+        this.bucketBounds = properties.getPriceBuckets().stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        this.histogram = new AtomicLongArray(bucketBounds.length + 1);
+        this.lookup = lookup;
+    }
+
+    /** One-off analytics over a list of books, for when there is no live catalog. */
+    public static CatalogAnalytics of(List<BookResponseDTO> books, AnalyticsProperties properties) {
+        Map<Long, BookResponseDTO> byId = books.stream()
+                .collect(Collectors.toMap(BookResponseDTO::getId, Function.identity(), (a, b) -> b));
+        CatalogAnalytics analytics = new CatalogAnalytics(properties, id -> Optional.ofNullable(byId.get(id)));
+        analytics.rebuild(Columns.of(books));
+        return analytics;
+    }
+
+    /** True once the aggregates have been built from the whole catalog. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void onReset(CatalogStore store) {
+        rebuild(Columns.of(store));
+    }
+
+    @Override
+    public void onChange(BookResponseDTO before, BookResponseDTO after) {
+        if (before != null) {
+            remove(before);
+        }
+        if (after != null) {
+            add(after);
+        }
+        version.incrementAndGet();
+    }
+
+    /** Authors ordered by the value of their stock (price x units), highest first. */
+    public List<AuthorStockValueDTO> stockValueByAuthor(int limit) {
+        long current = version.get();
+        Ranking cached = ranking;
+        if (cached == null || cached.version() != current) {
+            List<AuthorStockValueDTO> rows = byAuthor.entrySet().stream()
+                    .map(entry -> new AuthorStockValueDTO(entry.getValue().author(),
+                            entry.getValue().books(), entry.getValue().units(), entry.getValue().valueCents() / 100.0))
+                    .sorted(Comparator.comparingDouble(AuthorStockValueDTO::getStockValue).reversed()
+                            .thenComparing(AuthorStockValueDTO::getAuthor))
+                    .toList();
+            cached = new Ranking(current, rows);
+            ranking = cached;
+        }
+        return cached.rows().subList(0, Math.min(limit, cached.rows().size()));
+    }
+
+    /** Books with at most {@code threshold} units, lowest stock first. */
+    public List<BookResponseDTO> lowStock(int threshold, int limit) {
+        if (threshold > lowStockThreshold) {
+            throw new IllegalArgumentException("Only stock up to " + lowStockThreshold + " is tracked");
+        }
+        List<BookResponseDTO> books = new ArrayList<>();
+        for (StockKey key : lowStock.headSet(new StockKey(threshold, Long.MAX_VALUE), true)) {
+            if (books.size() == limit) {
+                break;
+            }
+            lookup.apply(key.id()).ifPresent(books::add);
+        }
+        return books;
+    }
+
+    public List<PriceBucketDTO> priceHistogram() {
+        AtomicLongArray counts = histogram;
+        List<PriceBucketDTO> buckets = new ArrayList<>(counts.length());
+        double from = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            Double to = i < bucketBounds.length ? bucketBounds[i] : null;
+            buckets.add(new PriceBucketDTO(from, to, counts.get(i)));
+            from = to != null ? to : from;
+        }
+        return buckets;
+    }
+
+    private void rebuild(Columns columns) {
+        int n = columns.size;
+
+        ConcurrentHashMap<String, AuthorTotals> authors = IntStream.range(0, n).parallel().boxed()
+                .collect(Collectors.toConcurrentMap(
+                        i -> authorKey(columns.authors[i]),
+                        i -> AuthorTotals.of(columns.authors[i], columns.prices[i], columns.stocks[i]),
+                        AuthorTotals::plus,
+                        ConcurrentHashMap::new));
+
+        NavigableSet<StockKey> low = IntStream.range(0, n).parallel()
+                .filter(i -> columns.stocks[i] <= lowStockThreshold)
+                .mapToObj(i -> new StockKey(columns.stocks[i], columns.ids[i]))
+                .collect(Collectors.toCollection(ConcurrentSkipListSet::new));
+
+        long[] counts = IntStream.range(0, n).parallel().collect(
+                () -> new long[bucketBounds.length + 1],
+                (acc, i) -> acc[bucketOf(columns.prices[i])]++,
+                (a, b) -> Arrays.setAll(a, j -> a[j] + b[j]));
+
+        byAuthor = authors;
+        lowStock = low;
+        histogram = new AtomicLongArray(counts);
+        version.incrementAndGet();
+        ready = true;
+    }
+
+    private void add(BookResponseDTO book) {
+        double price = priceOf(book);
+        byAuthor.merge(authorKey(book.getAuthor()), AuthorTotals.of(book.getAuthor(), price, book.getStock()),
+                AuthorTotals::plus);
+        if (book.getStock() <= lowStockThreshold) {
+            lowStock.add(new StockKey(book.getStock(), book.getId()));
+        }
+        histogram.incrementAndGet(bucketOf(price));
+    }
+
+    private void remove(BookResponseDTO book) {
+        double price = priceOf(book);
+        AuthorTotals removed = AuthorTotals.of(book.getAuthor(), price, book.getStock());
+        byAuthor.computeIfPresent(authorKey(book.getAuthor()), (author, totals) -> {
+            AuthorTotals left = totals.minus(removed);
+            return left.books() == 0 ? null : left;
+        });
+        lowStock.remove(new StockKey(book.getStock(), book.getId()));
+        histogram.decrementAndGet(bucketOf(price));
+    }
+
+    private int bucketOf(double price) {
+        int bucket = Arrays.binarySearch(bucketBounds, price);
+        // an exact bound belongs to the bucket above it
+        return bucket >= 0 ? bucket + 1 : -bucket - 1;
+    }
+
+    private static double priceOf(BookResponseDTO book) {
+        return book.getPrice() != null ? book.getPrice() : 0;
+    }
+
+    private static String authorKey(String author) {
+        return author == null || author.isBlank() ? UNKNOWN_AUTHOR : Book.normalize(author);
+    }
+
+    /**
+     * @param author     the name shown: of the spellings added, the first in
+     *                   alphabetical order, so a rebuild picks the same one
+     * @param valueCents price x units, in whole cents
+     */
+    private record AuthorTotals(String author, long books, long units, long valueCents) {
+
+        static AuthorTotals of(String author, double price, int stock) {
+            String shown = author == null || author.isBlank() ? UNKNOWN_AUTHOR : author.trim();
+            return new AuthorTotals(shown, 1, stock, Math.round(price * 100) * stock);
+        }
+
+        AuthorTotals plus(AuthorTotals other) {
+            String shown = author.compareTo(other.author) <= 0 ? author : other.author;
+            return new AuthorTotals(shown, books + other.books, units + other.units, valueCents + other.valueCents);
+        }
+
+        AuthorTotals minus(AuthorTotals other) {
+            return new AuthorTotals(author, books - other.books, units - other.units, valueCents - other.valueCents);
+        }
+    }
+
+    private record StockKey(int stock, long id) implements Comparable<StockKey> {
+        @Override
+        public int compareTo(StockKey other) {
+            int byStock = Integer.compare(stock, other.stock);
+            return byStock != 0 ? byStock : Long.compare(id, other.id);
+        }
+    }
+
+    private record Ranking(long version, List<AuthorStockValueDTO> rows) {}
+
+    /** Column-wise copy of the catalog that parallel streams can split by index. */
+    private static final class Columns {
+        long[] ids;
+        double[] prices;
+        int[] stocks;
+        String[] authors;
+        int size;
+
+        Columns(int capacity) {
+            ids = new long[capacity];
+            prices = new double[capacity];
+            stocks = new int[capacity];
+            authors = new String[capacity];
+        }
+
+        void add(long id, String author, double price, int stock) {
+            if (size == ids.length) {
+                int capacity = Math.max(16, size * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                stocks = Arrays.copyOf(stocks, capacity);
+                authors = Arrays.copyOf(authors, capacity);
+            }
+            ids[size] = id;
+            prices[size] = price;
+            stocks[size] = stock;
+            authors[size] = author;
+            size++;
+        }
+
+        static Columns of(CatalogStore store) {
+            Columns columns = new Columns(store.size());
+            store.forEach((id, title, author, price, stock) -> columns.add(id, author, price, stock));
+            return columns;
+        }
+
+        static Columns of(List<BookResponseDTO> books) {
+            Columns columns = new Columns(books.size());
+            books.forEach(book -> columns.add(book.getId(), book.getAuthor(), priceOf(book), book.getStock()));
+            return columns;
+        }
+    }
+}
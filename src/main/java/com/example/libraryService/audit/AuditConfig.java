@@ -0,0 +1,48 @@
+package com.example.libraryService.audit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wires the book audit log when {@code library.audit.enabled} is true
+ * (the default).
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(AuditProperties.class)
+@ConditionalOnProperty(prefix = "library.audit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AuditConfig {
+
+    /** Segments are recovered and checked at startup, not on the first write. */
+    @Bean
+    static LazyInitializationExcludeFilter eagerAuditLog() {
+        return LazyInitializationExcludeFilter.forBeanTypes(BookAuditLog.class);
+    }
+
+    @Bean
+    public BookAuditLog bookAuditLog(AuditProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        BookAuditLog auditLog = new BookAuditLog(properties);
+        meterRegistry.ifAvailable(registry -> {
+            FunctionCounter.builder("library.audit.records", auditLog, BookAuditLog::records)
+                    .description("Book writes appended to the audit log")
+                    .register(registry);
+            FunctionCounter.builder("library.audit.flushes", auditLog, BookAuditLog::flushes)
+                    .description("Forces of appended records to disk, each covering many records")
+                    .register(registry);
+            Gauge.builder("library.audit.segments", auditLog, BookAuditLog::segmentCount)
+                    .register(registry);
+            Gauge.builder("library.audit.size", auditLog, BookAuditLog::sizeInBytes)
+                    .baseUnit("bytes")
+                    .description("Retained audit records")
+                    .register(registry);
+        });
+        return auditLog;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.libraryService.audit;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings under {@code library.audit}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "library.audit")
+public class AuditProperties {
+
+    private boolean enabled = true;
+
+    /** Directory holding the log segments and their indexes. */
+    private String dir = "data/audit";
+
+    /** Size of a segment file; a record that does not fit starts the next one. */
+    private int segmentBytes = 64 << 20;
+
+    /** Bytes of records summarised by one entry of a segment's sparse index. */
+    private int indexIntervalBytes = 4096;
+
+    /** Appended records are forced to disk together at least this often. */
+    private Duration flushInterval = Duration.ofMillis(10);
+
+    /**
+     * Whether a write waits until its record is on disk. Waiting writers share
+     * one force, so this costs about one flush interval per write, not one
+     * fsync each.
+     */
+    private boolean syncWrites = false;
+
+    /** Segments whose newest record is older than this are deleted. */
+    private Duration retention = Duration.ofDays(30);
+
+    /** The oldest segments are deleted while the log is larger than this. */
+    private long retentionBytes = 1L << 30;
+}
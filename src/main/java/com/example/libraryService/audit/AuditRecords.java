@@ -0,0 +1,144 @@
+package com.example.libraryService.audit;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import com.example.libraryService.dto.BookAuditEntryDTO;
+import com.example.libraryService.dto.BookResponseDTO;
+
+/**
+ * ============================================================================
+ * Class: AuditRecords
+ *
+ * Description:
+ *   Binary form of one audit record (big endian):
+ *
+ *     int payloadLength, int crc32c(payload), payload
+ *     payload: long bookId, long epochMillis, byte action, image before, image after
+ *     image:   byte 0 (no book) | byte 1, double price, int stock,
+ *              int titleLength, utf8 title, int authorLength, utf8 author
+ *
+ *   Records are encoded before the log's lock is taken, so appending one is
+ *   a copy into the mapped segment.
+ * ============================================================================
+ */
+final class AuditRecords {
+
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    static final List<String> ACTIONS = List.of("CREATE", "UPDATE", "PATCH", "DELETE");
+
+    private static final byte ABSENT = 0;
+    private static final byte PRESENT = 1;
+
+    private AuditRecords() {}
+
+    static byte[] encode(long bookId, long epochMillis, String action, BookResponseDTO before, BookResponseDTO after) {
+        int actionCode = ACTIONS.indexOf(action);
+        if (actionCode < 0) {
+            throw new IllegalArgumentException("Unknown audit action " + action);
+        }
+        byte[][] strings = {utf8(before, true), utf8(before, false), utf8(after, true), utf8(after, false)};
+        int payloadLength = 2 * Long.BYTES + 1 + imageBytes(before, strings[0], strings[1])
+                + imageBytes(after, strings[2], strings[3]);
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payloadLength);
+        record.putInt(payloadLength).putInt(0);
+        record.putLong(bookId).putLong(epochMillis).put((byte) actionCode);
+        putImage(record, before, strings[0], strings[1]);
+        putImage(record, after, strings[2], strings[3]);
+        record.putInt(Integer.BYTES, checksum(record, HEADER_BYTES, payloadLength));
+        return record.array();
+    }
+
+    /**
+     * @return the bytes of the valid record at {@code position}, or 0 where
+     *         the records end: unwritten space or a write torn by a crash
+     */
+    static int validLength(ByteBuffer segment, int position, int end) {
+        if (position + HEADER_BYTES > end) {
+            return 0;
+        }
+        int payloadLength = segment.getInt(position);
+        if (payloadLength <= 0 || payloadLength > end - position - HEADER_BYTES) {
+            return 0;
+        }
+        int crc = segment.getInt(position + Integer.BYTES);
+        return crc == checksum(segment, position + HEADER_BYTES, payloadLength) ? HEADER_BYTES + payloadLength : 0;
+    }
+
+    static int length(ByteBuffer segment, int position) {
+        return HEADER_BYTES + segment.getInt(position);
+    }
+
+    static long bookId(ByteBuffer segment, int position) {
+        return segment.getLong(position + HEADER_BYTES);
+    }
+
+    static long epochMillis(ByteBuffer segment, int position) {
+        return segment.getLong(position + HEADER_BYTES + Long.BYTES);
+    }
+
+    static BookAuditEntryDTO decode(ByteBuffer segment, int position) {
+        ByteBuffer record = segment.duplicate().position(position + HEADER_BYTES);
+        long bookId = record.getLong();
+        long epochMillis = record.getLong();
+        String action = ACTIONS.get(record.get());
+        return BookAuditEntryDTO.builder()
+                .timestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()))
+                .action(action)
+                .before(getImage(record, bookId))
+                .after(getImage(record, bookId))
+                .build();
+    }
+
+    private static byte[] utf8(BookResponseDTO book, boolean title) {
+        if (book == null) {
+            return null;
+        }
+        String value = title ? book.getTitle() : book.getAuthor();
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int imageBytes(BookResponseDTO book, byte[] title, byte[] author) {
+        return book == null ? 1 : 1 + Double.BYTES + 3 * Integer.BYTES + title.length + author.length;
+    }
+
+    private static void putImage(ByteBuffer record, BookResponseDTO book, byte[] title, byte[] author) {
+        if (book == null) {
+            record.put(ABSENT);
+            return;
+        }
+        record.put(PRESENT);
+        record.putDouble(book.getPrice() != null ? book.getPrice() : 0);
+        record.putInt(book.getStock());
+        record.putInt(title.length).put(title);
+        record.putInt(author.length).put(author);
+    }
+
+    private static BookResponseDTO getImage(ByteBuffer record, long bookId) {
+        if (record.get() == ABSENT) {
+            return null;
+        }
+        double price = record.getDouble();
+        int stock = record.getInt();
+        return new BookResponseDTO(bookId, getString(record), getString(record), price, stock);
+    }
+
+    private static String getString(ByteBuffer record) {
+        byte[] bytes = new byte[record.getInt()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(offset).limit(offset + length));
+        return (int) crc.getValue();
+    }
+}
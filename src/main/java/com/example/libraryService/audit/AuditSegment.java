@@ -0,0 +1,263 @@
+package com.example.libraryService.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import com.example.libraryService.dto.BookAuditEntryDTO;
+
+/**
+ * ============================================================================
+ * Class: AuditSegment
+ *
+ * Description:
+ *   One file of the audit log, memory-mapped whole and named after the log
+ *   offset of its first byte. Records (see AuditRecords) follow each other
+ *   from position 0; the first zero length or checksum mismatch ends them.
+ *
+ *   Sparse index: the records are cut into blocks of about
+ *   library.audit.index-interval-bytes. For every block the index keeps its
+ *   start and a 512-bit filter of the book ids in it, so reading a book's
+ *   history only decodes the few blocks whose filter has the id. A segment
+ *   that is sealed stores its index next to it in {@code <segment>.index}
+ *   (int magic, int end, long newestMillis, int blocks, int start * blocks,
+ *   long filter * 8 * blocks, long crc32).
+ *
+ *   Not thread-safe: BookAuditLog appends under its lock and readers only
+ *   look at the records and blocks that existed when they took it.
+ * ============================================================================
+ */
+final class AuditSegment {
+
+    static final String LOG_SUFFIX = ".log";
+    static final String INDEX_SUFFIX = ".index";
+
+    private static final int INDEX_MAGIC = 0x4C424149; // "LBAI"
+    private static final int FILTER_LONGS = 8;
+    private static final int FILTER_MASK = FILTER_LONGS * Long.SIZE - 1;
+
+    /** Records and index blocks a reader may look at. */
+    record View(AuditSegment segment, int end, int blocks, int[] blockStarts, long[] blockFilters) {}
+
+    private final long baseOffset;
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int indexInterval;
+
+    private int[] blockStarts = new int[64];
+    private long[] blockFilters = new long[64 * FILTER_LONGS];
+    private int blocks;
+    private int end;
+    private long newestMillis = Long.MIN_VALUE;
+    private boolean sealed;
+
+    private AuditSegment(long baseOffset, Path file, MappedByteBuffer buffer, int indexInterval) {
+        this.baseOffset = baseOffset;
+        this.file = file;
+        this.buffer = buffer;
+        this.indexInterval = indexInterval;
+    }
+
+    /** A new, empty segment of {@code capacity} bytes to append to. */
+    static AuditSegment create(Path dir, long baseOffset, int capacity, int indexInterval) throws IOException {
+        Path file = dir.resolve(fileName(baseOffset) + LOG_SUFFIX);
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new AuditSegment(baseOffset, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity),
+                    indexInterval);
+        }
+    }
+
+    /**
+     * An existing segment, read-only. Its index is loaded, or rebuilt from
+     * the records when it is missing: the segment was active when the
+     * service stopped.
+     */
+    static AuditSegment open(Path file, int indexInterval) throws IOException {
+        String name = file.getFileName().toString();
+        long baseOffset = Long.parseLong(name.substring(0, name.length() - LOG_SUFFIX.length()));
+        AuditSegment segment;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            segment = new AuditSegment(baseOffset, file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+                    indexInterval);
+        }
+        if (!segment.loadIndex()) {
+            segment.recover();
+            segment.writeIndex();
+        }
+        segment.sealed = true;
+        return segment;
+    }
+
+    static String fileName(long baseOffset) {
+        return String.format("%020d", baseOffset);
+    }
+
+    long baseOffset() {
+        return baseOffset;
+    }
+
+    /** Log offset just past the last record. */
+    long endOffset() {
+        return baseOffset + end;
+    }
+
+    int end() {
+        return end;
+    }
+
+    long newestMillis() {
+        return newestMillis;
+    }
+
+    boolean hasRoom(int recordBytes) {
+        return !sealed && recordBytes <= buffer.capacity() - end;
+    }
+
+    void append(byte[] record, long bookId, long epochMillis) {
+        buffer.put(end, record);
+        index(end, bookId);
+        end += record.length;
+        newestMillis = Math.max(newestMillis, epochMillis);
+    }
+
+    /** Forces the records in {@code [from, to)} to disk. */
+    void force(int from, int to) {
+        if (to > from) {
+            buffer.force(from, to - from);
+        }
+    }
+
+    /** Forces the records to disk and stores the index; no more appends. */
+    void seal() throws IOException {
+        force(0, end);
+        writeIndex();
+        sealed = true;
+    }
+
+    View view() {
+        return new View(this, end, blocks, blockStarts, blockFilters);
+    }
+
+    /** Adds the records of {@code bookId} in {@code view}, oldest first. */
+    static void collect(View view, long bookId, List<BookAuditEntryDTO> history) {
+        ByteBuffer records = view.segment().buffer;
+        int bit = filterBit(bookId);
+        for (int block = 0; block < view.blocks(); block++) {
+            if ((view.blockFilters()[block * FILTER_LONGS + (bit >>> 6)] & (1L << bit)) == 0) {
+                continue;
+            }
+            int blockEnd = block + 1 < view.blocks() ? view.blockStarts()[block + 1] : view.end();
+            for (int position = view.blockStarts()[block]; position < blockEnd;
+                 position += AuditRecords.length(records, position)) {
+                if (AuditRecords.bookId(records, position) == bookId) {
+                    history.add(AuditRecords.decode(records, position));
+                }
+            }
+        }
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(indexFile());
+        Files.deleteIfExists(file);
+    }
+
+    private void index(int position, long bookId) {
+        if (blocks == 0 || position - blockStarts[blocks - 1] >= indexInterval) {
+            if (blocks == blockStarts.length) {
+                blockStarts = Arrays.copyOf(blockStarts, blocks * 2);
+                blockFilters = Arrays.copyOf(blockFilters, blocks * 2 * FILTER_LONGS);
+            }
+            blockStarts[blocks++] = position;
+        }
+        int bit = filterBit(bookId);
+        blockFilters[(blocks - 1) * FILTER_LONGS + (bit >>> 6)] |= 1L << bit;
+    }
+
+    /** Rebuilds the index from the records, stopping at the first invalid one. */
+    private void recover() {
+        int position = 0;
+        int length;
+        while ((length = AuditRecords.validLength(buffer, position, buffer.capacity())) > 0) {
+            long bookId = AuditRecords.bookId(buffer, position);
+            index(position, bookId);
+            newestMillis = Math.max(newestMillis, AuditRecords.epochMillis(buffer, position));
+            position += length;
+        }
+        end = position;
+    }
+
+    private boolean loadIndex() throws IOException {
+        Path index = indexFile();
+        if (!Files.exists(index)) {
+            return false;
+        }
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(index));
+        if (content.limit() < 4 * Integer.BYTES + 2 * Long.BYTES || content.getInt() != INDEX_MAGIC
+                || content.getLong(content.limit() - Long.BYTES) != crc(content, content.limit() - Long.BYTES)) {
+            return false;
+        }
+        end = content.getInt();
+        newestMillis = content.getLong();
+        blocks = content.getInt();
+        blockStarts = new int[Math.max(blocks, 1)];
+        blockFilters = new long[Math.max(blocks, 1) * FILTER_LONGS];
+        content.asIntBuffer().get(blockStarts, 0, blocks);
+        content.position(content.position() + blocks * Integer.BYTES);
+        content.asLongBuffer().get(blockFilters, 0, blocks * FILTER_LONGS);
+        return true;
+    }
+
+    private void writeIndex() throws IOException {
+        ByteBuffer content = ByteBuffer.allocate(3 * Integer.BYTES + 2 * Long.BYTES
+                + blocks * (Integer.BYTES + FILTER_LONGS * Long.BYTES) + Long.BYTES);
+        content.putInt(INDEX_MAGIC).putInt(end).putLong(newestMillis).putInt(blocks);
+        content.asIntBuffer().put(blockStarts, 0, blocks);
+        content.position(content.position() + blocks * Integer.BYTES);
+        content.asLongBuffer().put(blockFilters, 0, blocks * FILTER_LONGS);
+        content.position(content.position() + blocks * FILTER_LONGS * Long.BYTES);
+        content.putLong(crc(content, content.position()));
+
+        Path temp = Files.createTempFile(file.getParent(), "audit", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            content.flip();
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, indexFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path indexFile() {
+        return file.resolveSibling(fileName(baseOffset) + INDEX_SUFFIX);
+    }
+
+    private static long crc(ByteBuffer content, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(content.duplicate().position(0).limit(length));
+        return crc.getValue();
+    }
+
+    private static int filterBit(long bookId) {
+        // murmur3 fmix64: Snowflake ids differ mostly in their high bits
+        long hash = bookId;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (int) hash & FILTER_MASK;
+    }
+}
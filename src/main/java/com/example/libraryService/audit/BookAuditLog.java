@@ -0,0 +1,336 @@
+package com.example.libraryService.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import com.example.libraryService.dto.BookAuditEntryDTO;
+import com.example.libraryService.dto.BookResponseDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: BookAuditLog
+ *
+ * Description:
+ *   Append-only local log of the book writes made through this instance,
+ *   with the book before and after each one. It lives next to the service
+ *   instead of in MySQL, so auditing adds no database round trip.
+ *
+ *   - Appending copies an encoded record into the active memory-mapped
+ *     segment under a short lock; no system call is made.
+ *   - Group commit: a flusher thread forces everything appended since its
+ *     last pass to disk every library.audit.flush-interval. With
+ *     library.audit.sync-writes the writers wait for that force, many
+ *     writers to one fsync; otherwise a crash loses at most one interval.
+ *   - A record that does not fit starts a new segment; the flusher seals
+ *     the full one (fsync, index file) off the write path. Every start of
+ *     the service starts a segment too, so a write torn by a crash is never
+ *     appended to; reading stops at it through the record checksums.
+ *   - Segments past library.audit.retention or beyond
+ *     library.audit.retention-bytes are deleted, oldest first.
+ * ============================================================================
+ */
+@Slf4j
+public class BookAuditLog implements SmartInitializingSingleton, DisposableBean {
+
+    private static final long RETENTION_CHECK_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final AuditProperties properties;
+    private final Path dir;
+
+    /** Guards the segments and the active segment's appends. */
+    private final Object lock = new Object();
+    private final Deque<AuditSegment> segments = new ArrayDeque<>();
+    private AuditSegment active;
+    /** Full segments the flusher has not sealed yet. */
+    private final List<AuditSegment> unsealed = new ArrayList<>();
+
+    /** Log offsets just past the last appended and the last forced record. */
+    private long appendedOffset;
+    private long forcedOffset;
+    private final Object forced = new Object();
+
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+
+    private Thread flusher;
+    private volatile boolean running;
+
+    public BookAuditLog(AuditProperties properties) {
+        this.properties = properties;
+        this.dir = Path.of(properties.getDir());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the audit log in " + dir, e);
+        }
+    }
+
+    void open() throws IOException {
+        Files.createDirectories(dir);
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + AuditSegment.LOG_SUFFIX)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                files.put(Long.parseLong(name.substring(0, name.length() - AuditSegment.LOG_SUFFIX.length())), file);
+            }
+        }
+        long nextOffset = 0;
+        for (Path file : files.values()) {
+            AuditSegment segment = AuditSegment.open(file, properties.getIndexIntervalBytes());
+            segments.addLast(segment);
+            nextOffset = segment.endOffset();
+        }
+        if (!segments.isEmpty() && segments.getLast().endOffset() == segments.getLast().baseOffset()) {
+            // nothing readable was written since the last start; the new segment takes its name
+            segments.removeLast().delete();
+        }
+        synchronized (lock) {
+            active = AuditSegment.create(dir, nextOffset, properties.getSegmentBytes(),
+                    properties.getIndexIntervalBytes());
+            segments.addLast(active);
+            appendedOffset = nextOffset;
+            forcedOffset = nextOffset;
+        }
+        enforceRetention();
+        log.info("📜 Audit log opened in {} ({} segments)", dir, segments.size());
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "book-audit-flush");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Records a write of one book.
+     *
+     * @param before the book before the write; null for a create
+     * @param after  the book after the write; null for a delete
+     */
+    public void append(String action, BookResponseDTO before, BookResponseDTO after) {
+        long bookId = (after != null ? after : before).getId();
+        long now = System.currentTimeMillis();
+        byte[] record = AuditRecords.encode(bookId, now, action, before, after);
+        if (record.length > properties.getSegmentBytes()) {
+            throw new IllegalArgumentException("Audit record of " + record.length + " bytes exceeds the segment size");
+        }
+
+        long end;
+        synchronized (lock) {
+            if (active == null) {
+                throw new IllegalStateException("The audit log is not open");
+            }
+            if (!active.hasRoom(record.length)) {
+                roll();
+            }
+            active.append(record, bookId, now);
+            appendedOffset = active.endOffset();
+            end = appendedOffset;
+        }
+        records.incrementAndGet();
+
+        if (properties.isSyncWrites()) {
+            awaitForced(end);
+        }
+    }
+
+    /**
+     * @return the retained writes of {@code bookId}, oldest first, at most
+     *         the {@code limit} newest
+     */
+    public List<BookAuditEntryDTO> history(long bookId, int limit) {
+        List<AuditSegment.View> views = new ArrayList<>();
+        synchronized (lock) {
+            segments.forEach(segment -> views.add(segment.view()));
+        }
+        List<BookAuditEntryDTO> history = new ArrayList<>();
+        for (AuditSegment.View view : views) {
+            AuditSegment.collect(view, bookId, history);
+        }
+        return history.size() > limit ? history.subList(history.size() - limit, history.size()) : history;
+    }
+
+    public long records() {
+        return records.get();
+    }
+
+    public long flushes() {
+        return flushes.get();
+    }
+
+    public int segmentCount() {
+        synchronized (lock) {
+            return segments.size();
+        }
+    }
+
+    /** Bytes of retained records. */
+    public long sizeInBytes() {
+        synchronized (lock) {
+            return active == null ? 0 : active.endOffset() - segments.getFirst().baseOffset();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<AuditSegment> toSeal;
+        synchronized (lock) {
+            toSeal = new ArrayList<>(unsealed);
+            unsealed.clear();
+            if (active != null) {
+                toSeal.add(active);
+                active = null;
+            }
+        }
+        toSeal.forEach(this::seal);
+        synchronized (forced) {
+            forcedOffset = Long.MAX_VALUE;
+            forced.notifyAll();
+        }
+    }
+
+    /**
+     * Called under {@link #lock}. Only opens the next segment: the flusher
+     * seals the full one, so no writer waits for a whole segment's fsync.
+     */
+    private void roll() {
+        unsealed.add(active);
+        try {
+            active = AuditSegment.create(dir, active.endOffset(), properties.getSegmentBytes(),
+                    properties.getIndexIntervalBytes());
+        } catch (IOException e) {
+            active = unsealed.remove(unsealed.size() - 1);
+            throw new UncheckedIOException("Cannot roll the audit log", e);
+        }
+        segments.addLast(active);
+    }
+
+    private void awaitForced(long offset) {
+        synchronized (forced) {
+            while (forcedOffset < offset) {
+                try {
+                    forced.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void flushLoop() {
+        long intervalMillis = Math.max(1, properties.getFlushInterval().toMillis());
+        long nextRetentionCheck = System.currentTimeMillis() + RETENTION_CHECK_MILLIS;
+        while (running) {
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                break;
+            }
+            try {
+                flush();
+                if (System.currentTimeMillis() >= nextRetentionCheck) {
+                    enforceRetention();
+                    nextRetentionCheck = System.currentTimeMillis() + RETENTION_CHECK_MILLIS;
+                }
+            } catch (RuntimeException | IOException e) {
+                log.error("Audit log flush failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void flush() {
+        List<AuditSegment> toSeal;
+        AuditSegment segment;
+        long from;
+        long to;
+        synchronized (lock) {
+            if (active == null) {
+                return;
+            }
+            toSeal = new ArrayList<>(unsealed);
+            segment = active;
+            to = appendedOffset;
+        }
+        for (AuditSegment full : toSeal) {
+            seal(full);
+            synchronized (lock) {
+                unsealed.remove(full);
+            }
+            synchronized (forced) {
+                forcedOffset = Math.max(forcedOffset, full.endOffset());
+                forced.notifyAll();
+            }
+        }
+        synchronized (forced) {
+            from = Math.max(forcedOffset, segment.baseOffset());
+        }
+        if (to <= from) {
+            return;
+        }
+        // appends go on while the range before them is forced
+        segment.force((int) (from - segment.baseOffset()), (int) (to - segment.baseOffset()));
+        flushes.incrementAndGet();
+        synchronized (forced) {
+            forcedOffset = Math.max(forcedOffset, to);
+            forced.notifyAll();
+        }
+    }
+
+    private void seal(AuditSegment segment) {
+        try {
+            segment.seal();
+        } catch (IOException | RuntimeException e) {
+            // its records are read back by scanning on the next start
+            log.error("Failed to seal audit segment {}: {}", AuditSegment.fileName(segment.baseOffset()),
+                    e.getMessage(), e);
+        }
+    }
+
+    private void enforceRetention() throws IOException {
+        long oldestKept = System.currentTimeMillis() - properties.getRetention().toMillis();
+        List<AuditSegment> expired = new ArrayList<>();
+        synchronized (lock) {
+            while (segments.size() > 1 && !unsealed.contains(segments.getFirst())) {
+                AuditSegment oldest = segments.getFirst();
+                boolean tooOld = oldest.newestMillis() < oldestKept;
+                boolean tooBig = active.endOffset() - oldest.baseOffset() > properties.getRetentionBytes();
+                if (!tooOld && !tooBig) {
+                    break;
+                }
+                expired.add(segments.removeFirst());
+            }
+        }
+        for (AuditSegment segment : expired) {
+            segment.delete();
+            log.info("📜 Deleted audit segment {}", AuditSegment.fileName(segment.baseOffset()));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.libraryService.bulkimport;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.hibernate.Cache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.libraryService.catalog.CatalogState;
+import com.example.libraryService.dto.BookRequestDTO;
+import com.example.libraryService.entity.Book;
+import com.example.libraryService.idfilter.BookIdFilter;
+import com.example.libraryService.kafka.BookKafkaEvent;
+import com.example.libraryService.kafka.LibraryKafkaProducer;
+import com.example.libraryService.repository.BookRepository;
+import com.example.libraryService.repository.BookSearchGrams;
+import com.example.libraryService.shard.ShardTemplate;
+
+/**
+ * ============================================================================
+ * Class: BookImportWriter
+ *
+ * Description:
+ *   Writes one chunk of imported books the way the write path would, minus
+ *   the emails:
+ *
+ *   - Upserts (INSERT ... ON DUPLICATE KEY UPDATE) in JDBC batches, one
+ *     transaction per shard, together with the rows' search grams. Writing
+ *     the same rows again only updates them.
+ *   - Publishes one BOOKS event per row in bulk and waits for the acks
+ *     (skipped in CDC mode, where the binlog produces them).
+ *   - Applies the events to this node's catalog and id filter and evicts the
+ *     rows from the Hibernate cache, which JDBC writes bypass.
+ * ============================================================================
+ */
+class BookImportWriter {
+
+    private static final String UPSERT = "INSERT INTO books (id, title, author, price, stock, email, template_type, "
+            + "recipient_name, title_normalized, author_normalized) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE title = VALUES(title), author = VALUES(author), price = VALUES(price), "
+            + "stock = VALUES(stock), email = VALUES(email), template_type = VALUES(template_type), "
+            + "recipient_name = VALUES(recipient_name), title_normalized = VALUES(title_normalized), "
+            + "author_normalized = VALUES(author_normalized)";
+
+    /** Ids per {@code WHERE id IN (...)} query. */
+    private static final int IN_LIST_SIZE = 500;
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    record BookRow(long id, BookRequestDTO book) {}
+
+    /** Rows of a chunk that were inserted and updated. */
+    record Result(int created, int updated) {}
+
+    private final JdbcTemplate jdbc;
+    private final BookSearchGrams searchGrams;
+    private final TransactionTemplate transactions;
+    private final ShardTemplate shards;
+    private final LibraryKafkaProducer kafkaProducer;
+    private final CatalogState catalog;
+    private final BookIdFilter idFilter;
+    private final Cache cache;
+    private final boolean cdcEnabled;
+    private final ImportProperties properties;
+
+    BookImportWriter(JdbcTemplate jdbc, TransactionTemplate transactions, ShardTemplate shards,
+                     LibraryKafkaProducer kafkaProducer, CatalogState catalog, BookIdFilter idFilter, Cache cache,
+                     boolean cdcEnabled, ImportProperties properties) {
+        this.jdbc = jdbc;
+        this.searchGrams = new BookSearchGrams(jdbc);
+        this.transactions = transactions;
+        this.shards = shards;
+        this.kafkaProducer = kafkaProducer;
+        this.catalog = catalog;
+        this.idFilter = idFilter;
+        this.cache = cache;
+        this.cdcEnabled = cdcEnabled;
+        this.properties = properties;
+    }
+
+    Result write(String file, List<BookRow> rows) throws InterruptedException {
+        if (rows.isEmpty()) {
+            return new Result(0, 0);
+        }
+        Map<Integer, List<BookRow>> byShard = new TreeMap<>();
+        for (BookRow row : rows) {
+            byShard.computeIfAbsent(shards.shardFor(row.id()), shard -> new ArrayList<>()).add(row);
+        }
+        Set<Long> existing = new HashSet<>();
+        byShard.forEach((shard, shardRows) ->
+                existing.addAll(shards.onShard(shard, () -> transactions.execute(status -> upsert(shardRows)))));
+
+        // a row repeating an id earlier in the chunk updates it
+        Set<Long> stored = new HashSet<>(existing);
+        int created = 0;
+        String timestamp = TIMESTAMP.format(LocalDateTime.now());
+        List<BookKafkaEvent> events = new ArrayList<>(rows.size());
+        for (BookRow row : rows) {
+            boolean inserted = stored.add(row.id());
+            if (inserted) {
+                created++;
+            }
+            BookRequestDTO book = row.book();
+            events.add(BookKafkaEvent.builder()
+                    .id(row.id())
+                    .title(book.getTitle())
+                    .author(book.getAuthor())
+                    .price(book.getPrice())
+                    .stock(book.getStock())
+                    .action(inserted ? "CREATE" : "UPDATE")
+                    .timestamp(timestamp)
+                    .build());
+        }
+
+        for (BookKafkaEvent event : events) {
+            if (catalog != null) {
+                catalog.apply(event);
+            }
+            if (idFilter != null) {
+                idFilter.apply(event);
+            }
+            if ("UPDATE".equals(event.getAction())) {
+                cache.evictEntityData(Book.class, event.getId());
+            }
+        }
+        cache.evictQueryRegion(BookRepository.SEARCH_CACHE_REGION);
+
+        if (!cdcEnabled) {
+            publish(file, events);
+        }
+        return new Result(created, rows.size() - created);
+    }
+
+    /** @return the ids among {@code rows} that were already stored */
+    private Set<Long> upsert(List<BookRow> rows) {
+        Set<Long> existing = new HashSet<>();
+        for (int from = 0; from < rows.size(); from += IN_LIST_SIZE) {
+            List<BookRow> slice = rows.subList(from, Math.min(from + IN_LIST_SIZE, rows.size()));
+            String placeholders = String.join(",", Collections.nCopies(slice.size(), "?"));
+            existing.addAll(jdbc.queryForList("SELECT id FROM books WHERE id IN (" + placeholders + ")", Long.class,
+                    slice.stream().map(BookRow::id).toArray()));
+        }
+        jdbc.batchUpdate(UPSERT, rows, properties.getBatchSize(), BookImportWriter::bind);
+        Map<Long, Set<String>> grams = new LinkedHashMap<>();
+        for (BookRow row : rows) {
+            grams.put(row.id(), BookSearchGrams.of(row.book().getTitle(), row.book().getAuthor()));
+        }
+        searchGrams.replace(grams);
+        return existing;
+    }
+
+    private void publish(String file, List<BookKafkaEvent> events) throws InterruptedException {
+        try {
+            kafkaProducer.sendJsonEvents(events).get(properties.getPublishTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            kafkaProducer.sendStringEvent("IMPORT " + events.size() + " Books from " + file);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Kafka did not acknowledge " + events.size() + " events: " + e.getMessage(), e);
+        }
+    }
+
+    private static void bind(PreparedStatement statement, BookRow row) throws SQLException {
+        BookRequestDTO book = row.book();
+        statement.setLong(1, row.id());
+        statement.setString(2, book.getTitle());
+        statement.setString(3, book.getAuthor());
+        statement.setDouble(4, book.getPrice());
+        statement.setInt(5, book.getStock());
+        statement.setString(6, book.getEmail());
+        setNullable(statement, 7, book.getTemplateType());
+        setNullable(statement, 8, book.getRecipientName());
+        statement.setString(9, Book.normalize(book.getTitle()));
+        statement.setString(10, Book.normalize(book.getAuthor()));
+    }
+
+    private static void setNullable(PreparedStatement statement, int index, String value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.VARCHAR);
+        } else {
+            statement.setString(index, value);
+        }
+    }
+}
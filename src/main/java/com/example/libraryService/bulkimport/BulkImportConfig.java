@@ -0,0 +1,59 @@
+package com.example.libraryService.bulkimport;
+
+import java.nio.file.Path;
+
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.libraryService.catalog.CatalogState;
+import com.example.libraryService.id.IdGenerator;
+import com.example.libraryService.idfilter.BookIdFilter;
+import com.example.libraryService.kafka.LibraryKafkaProducer;
+import com.example.libraryService.shard.ShardTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+
+/**
+ * Wires bulk catalog imports when {@code library.import.enabled} is true
+ * (the default).
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ImportProperties.class)
+@ConditionalOnProperty(prefix = "library.import", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BulkImportConfig {
+
+    /** Unfinished imports resume at startup rather than on the next import request. */
+    @Bean
+    static LazyInitializationExcludeFilter eagerBulkImport() {
+        return LazyInitializationExcludeFilter.forBeanTypes(BulkImportService.class);
+    }
+
+    @Bean
+    public BulkImportService bulkImportService(ImportProperties properties, DataSource dataSource,
+                                              PlatformTransactionManager transactionManager, ShardTemplate shards,
+                                              LibraryKafkaProducer kafkaProducer, ObjectProvider<CatalogState> catalog,
+                                              ObjectProvider<BookIdFilter> idFilter,
+                                              EntityManagerFactory entityManagerFactory, IdGenerator idGenerator,
+                                              ObjectMapper objectMapper, Validator validator,
+                                              @Value("${library.cdc.enabled:false}") boolean cdcEnabled) {
+        BookImportWriter writer = new BookImportWriter(new JdbcTemplate(dataSource),
+                new TransactionTemplate(transactionManager), shards, kafkaProducer,
+                catalog.getIfAvailable(), idFilter.getIfAvailable(),
+                entityManagerFactory.unwrap(SessionFactory.class).getCache(), cdcEnabled, properties);
+        return new BulkImportService(properties, new ImportJobStore(Path.of(properties.getWorkDir()), objectMapper),
+                writer, idGenerator, objectMapper, validator);
+    }
+}
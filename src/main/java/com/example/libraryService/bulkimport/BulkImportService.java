@@ -0,0 +1,398 @@
+package com.example.libraryService.bulkimport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import com.example.libraryService.bulkimport.BookImportWriter.BookRow;
+import com.example.libraryService.bulkimport.ImportJobStore.PendingIds;
+import com.example.libraryService.bulkimport.ImportRowParser.ParsedChunk;
+import com.example.libraryService.bulkimport.ImportRowParser.Row;
+import com.example.libraryService.bulkimport.ImportRowParser.RowError;
+import com.example.libraryService.dto.ImportErrorDTO;
+import com.example.libraryService.dto.ImportJobDTO;
+import com.example.libraryService.dto.ImportJobDTO.Status;
+import com.example.libraryService.exception.BadRequestException;
+import com.example.libraryService.exception.ResourceNotFoundException;
+import com.example.libraryService.id.IdGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: BulkImportService
+ *
+ * Description:
+ *   Imports supplier catalog files (CSV or NDJSON) from the inbox directory
+ *   as background jobs, one job at a time.
+ *
+ *   The file is cut into chunks of about library.import.chunk-bytes that end
+ *   at a line break. Each chunk is memory-mapped, parsed and validated on
+ *   the parse pool while the job thread writes the chunks before it, in
+ *   file order. At most two chunks per parse thread are in flight, so memory
+ *   stays bounded whatever the file size.
+ *
+ *   After a chunk is written the job's checkpoint moves past it. A job that
+ *   was interrupted (crash, shutdown) is resumed from its checkpoint when
+ *   the service starts; the chunk in progress is written again, which the
+ *   upsert and the pending ids of ImportJobStore make harmless.
+ * ============================================================================
+ */
+@Slf4j
+public class BulkImportService implements SmartInitializingSingleton, DisposableBean {
+
+    private static final int MAX_HEADER_BYTES = 64 * 1024;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final ImportProperties properties;
+    private final ImportJobStore store;
+    private final BookImportWriter writer;
+    private final IdGenerator idGenerator;
+    private final ObjectMapper mapper;
+    private final Validator validator;
+    private final Path inbox;
+
+    private final Map<Long, ImportJobDTO> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService jobRunner = Executors.newSingleThreadExecutor(threadFactory("book-import-"));
+    private final ExecutorService parsers;
+
+    BulkImportService(ImportProperties properties, ImportJobStore store, BookImportWriter writer,
+                      IdGenerator idGenerator, ObjectMapper mapper, Validator validator) {
+        this.properties = properties;
+        this.store = store;
+        this.writer = writer;
+        this.idGenerator = idGenerator;
+        this.mapper = mapper;
+        this.validator = validator;
+        this.inbox = Path.of(properties.getInboxDir()).toAbsolutePath().normalize();
+        this.parsers = Executors.newFixedThreadPool(properties.getParallelism(), threadFactory("book-import-parse-"));
+    }
+
+    /** Resumes the jobs an earlier run did not finish. */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            store.loadAll().stream()
+                    .sorted(Comparator.comparing(ImportJobDTO::getSubmittedAt))
+                    .forEach(job -> {
+                        jobs.put(job.getId(), job);
+                        if (job.getStatus() == Status.QUEUED || job.getStatus() == Status.RUNNING) {
+                            log.info("📥 Resuming import {} of {} at byte {}", job.getId(), job.getFile(),
+                                    job.getProcessedBytes());
+                            jobRunner.execute(() -> run(job.getId()));
+                        }
+                    });
+        } catch (IOException e) {
+            log.error("Failed to read import checkpoints from {}: {}", properties.getWorkDir(), e.getMessage(), e);
+        }
+    }
+
+    public ImportJobDTO submit(String file, String format) {
+        Path path = resolve(file);
+        ImportFormat resolved = ImportFormat.resolve(format, file);
+        // reject a bad CSV header now rather than in the background
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            parserFor(resolved, channel);
+        } catch (IOException e) {
+            throw new BadRequestException("Cannot read " + file + ": " + e.getMessage());
+        }
+
+        ImportJobDTO job = ImportJobDTO.builder()
+                .id(idGenerator.nextId())
+                .file(inbox.relativize(path).toString())
+                .format(resolved.name())
+                .status(Status.QUEUED)
+                .errors(new ArrayList<>())
+                .submittedAt(LocalDateTime.now())
+                .build();
+        save(job);
+        jobs.put(job.getId(), job);
+        jobRunner.execute(() -> run(job.getId()));
+        log.info("📥 Import {} queued for {}", job.getId(), job.getFile());
+        return snapshot(job);
+    }
+
+    /** Continues a failed job from its last checkpoint. */
+    public ImportJobDTO resume(long id) {
+        ImportJobDTO job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job not found with ID: " + id);
+        }
+        synchronized (job) {
+            if (job.getStatus() != Status.FAILED) {
+                throw new BadRequestException("Only failed imports can be resumed; import " + id + " is " + job.getStatus());
+            }
+            job.setStatus(Status.QUEUED);
+            job.setMessage(null);
+            job.setFinishedAt(null);
+        }
+        save(job);
+        jobRunner.execute(() -> run(id));
+        log.info("📥 Import {} of {} queued again at byte {}", id, job.getFile(), job.getProcessedBytes());
+        return snapshot(job);
+    }
+
+    public ImportJobDTO getJob(long id) {
+        ImportJobDTO job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job not found with ID: " + id);
+        }
+        return snapshot(job);
+    }
+
+    public List<ImportJobDTO> getJobs() {
+        return jobs.values().stream()
+                .map(this::snapshot)
+                .sorted(Comparator.comparing(ImportJobDTO::getSubmittedAt).reversed())
+                .toList();
+    }
+
+    @Override
+    public void destroy() {
+        // a job stopped here stays RUNNING on disk and is resumed on the next start
+        jobRunner.shutdownNow();
+        parsers.shutdownNow();
+        try {
+            jobRunner.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(long jobId) {
+        ImportJobDTO job = jobs.get(jobId);
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(inbox.resolve(job.getFile()), StandardOpenOption.READ)) {
+            ImportFormat format = ImportFormat.valueOf(job.getFormat());
+            ImportRowParser parser = parserFor(format, channel);
+            long dataStart = dataStart(format, channel);
+            long size = channel.size();
+            synchronized (job) {
+                job.setStatus(Status.RUNNING);
+                job.setTotalBytes(size);
+                if (job.getProcessedBytes() < dataStart) {
+                    job.setProcessedBytes(dataStart);
+                    job.setLinesProcessed(format == ImportFormat.CSV ? 1 : 0);
+                }
+            }
+            save(job);
+
+            PendingIds pending = store.loadPending(jobId);
+            Deque<CompletableFuture<ParsedChunk>> inFlight = new ArrayDeque<>();
+            long next = job.getProcessedBytes();
+            while (next < size || !inFlight.isEmpty()) {
+                while (next < size && inFlight.size() < 2 * properties.getParallelism()) {
+                    long start = next;
+                    long end = chunkEnd(channel, start, size);
+                    inFlight.add(CompletableFuture.supplyAsync(
+                            () -> parser.parse(start, end, read(channel, start, end)), parsers));
+                    next = end;
+                }
+                ParsedChunk chunk = inFlight.poll().join();
+                commit(job, chunk, pending != null && pending.start() == chunk.start() ? pending.ids() : null);
+                pending = null;
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+
+            finish(job, Status.COMPLETED, null);
+            log.info("📥 Import {} of {} finished in {} ms: {} created, {} updated, {} rejected", jobId,
+                    job.getFile(), (System.nanoTime() - started) / 1_000_000,
+                    job.getCreated(), job.getUpdated(), job.getRejected());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Import {} interrupted at byte {}; it resumes on the next start", jobId, job.getProcessedBytes());
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Import {} of {} failed: {}", jobId, job.getFile(), cause.getMessage(), cause);
+            finish(job, Status.FAILED, cause.getMessage());
+        }
+    }
+
+    /**
+     * Stores the final status before it becomes visible, so a job seen as
+     * finished is not resumed by the next start.
+     */
+    private void finish(ImportJobDTO job, Status status, String message) {
+        LocalDateTime finishedAt = LocalDateTime.now();
+        try {
+            store.save(snapshot(job).toBuilder().status(status).message(message).finishedAt(finishedAt).build());
+        } catch (IOException e) {
+            log.error("Failed to checkpoint import {}: {}", job.getId(), e.getMessage(), e);
+        }
+        synchronized (job) {
+            job.setStatus(status);
+            job.setMessage(message);
+            job.setFinishedAt(finishedAt);
+        }
+    }
+
+    /**
+     * Writes the rows of a chunk and moves the checkpoint past it.
+     *
+     * @param pendingIds ids already generated for this chunk by an interrupted run, or null
+     */
+    private void commit(ImportJobDTO job, ParsedChunk chunk, long[] pendingIds) throws IOException, InterruptedException {
+        int withoutId = (int) chunk.rows().stream().filter(row -> row.id() == null).count();
+        long[] ids = pendingIds != null && pendingIds.length == withoutId ? pendingIds : null;
+        if (ids == null && withoutId > 0) {
+            ids = new long[withoutId];
+            for (int i = 0; i < withoutId; i++) {
+                ids[i] = idGenerator.nextId();
+            }
+            store.savePending(job.getId(), new PendingIds(chunk.start(), ids));
+        }
+
+        List<BookRow> rows = new ArrayList<>(chunk.rows().size());
+        int generated = 0;
+        for (Row row : chunk.rows()) {
+            rows.add(new BookRow(row.id() != null ? row.id() : ids[generated++], row.book()));
+        }
+        BookImportWriter.Result result = writer.write(job.getFile(), rows);
+
+        synchronized (job) {
+            for (RowError error : chunk.errors()) {
+                if (job.getErrors().size() < properties.getMaxErrors()) {
+                    job.getErrors().add(new ImportErrorDTO(job.getLinesProcessed() + error.line(), error.message()));
+                }
+            }
+            job.setProcessedBytes(chunk.end());
+            job.setLinesProcessed(job.getLinesProcessed() + chunk.lines());
+            job.setCreated(job.getCreated() + result.created());
+            job.setUpdated(job.getUpdated() + result.updated());
+            job.setRejected(job.getRejected() + chunk.errors().size());
+        }
+        save(job);
+        store.deletePending(job.getId());
+    }
+
+    private ImportRowParser parserFor(ImportFormat format, FileChannel channel) throws IOException {
+        if (format == ImportFormat.NDJSON) {
+            return ImportRowParser.ndjson(mapper, validator);
+        }
+        long headerEnd = dataStart(format, channel);
+        if (headerEnd == 0) {
+            throw new BadRequestException("CSV file is empty");
+        }
+        int skip = startsWithBom(channel) ? UTF8_BOM.length : 0;
+        String header = new String(read(channel, skip, headerEnd), StandardCharsets.UTF_8).strip();
+        return ImportRowParser.csv(header, mapper, validator);
+    }
+
+    /** Offset of the first data row: after the CSV header line and any byte order mark. */
+    private long dataStart(ImportFormat format, FileChannel channel) throws IOException {
+        long start = startsWithBom(channel) ? UTF8_BOM.length : 0;
+        if (format == ImportFormat.NDJSON || channel.size() == start) {
+            return start;
+        }
+        long end = lineEnd(channel, start, channel.size());
+        if (end - start > MAX_HEADER_BYTES) {
+            throw new BadRequestException("CSV header is longer than " + MAX_HEADER_BYTES + " bytes");
+        }
+        return end;
+    }
+
+    /** The end of the chunk starting at {@code start}: chunk-bytes further, moved to just after a line break. */
+    private long chunkEnd(FileChannel channel, long start, long size) throws IOException {
+        long end = start + properties.getChunkBytes();
+        return end >= size ? size : lineEnd(channel, end - 1, size);
+    }
+
+    /** The offset just after the first line break at or after {@code from}, or the file size. */
+    private static long lineEnd(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = from;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static byte[] read(FileChannel channel, long start, long end) {
+        try {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            byte[] data = new byte[Math.toIntExact(end - start)];
+            mapped.get(data);
+            return data;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean startsWithBom(FileChannel channel) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(UTF8_BOM.length);
+        channel.read(head, 0);
+        return head.position() == UTF8_BOM.length && head.get(0) == UTF8_BOM[0]
+                && head.get(1) == UTF8_BOM[1] && head.get(2) == UTF8_BOM[2];
+    }
+
+    /** An existing regular file below the inbox. */
+    private Path resolve(String file) {
+        Path path = inbox.resolve(file).normalize();
+        if (!path.startsWith(inbox)) {
+            throw new BadRequestException("File must be inside the import inbox: " + file);
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new BadRequestException("No such file in the import inbox: " + file);
+        }
+        return path;
+    }
+
+    private void save(ImportJobDTO job) {
+        try {
+            store.save(snapshot(job));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to checkpoint import " + job.getId(), e);
+        }
+    }
+
+    private ImportJobDTO snapshot(ImportJobDTO job) {
+        synchronized (job) {
+            return job.toBuilder().errors(List.copyOf(job.getErrors())).build();
+        }
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
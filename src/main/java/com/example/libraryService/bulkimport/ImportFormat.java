@@ -0,0 +1,32 @@
+package com.example.libraryService.bulkimport;
+
+import java.util.Locale;
+
+import com.example.libraryService.exception.BadRequestException;
+
+public enum ImportFormat {
+
+    /** Comma separated with a header row; quoted fields may hold commas and "" but no line breaks. */
+    CSV,
+    /** One JSON object per line, in the shape of BookRequestDTO plus an optional id. */
+    NDJSON;
+
+    /** The explicit format when given, otherwise the one implied by the file extension. */
+    public static ImportFormat resolve(String format, String file) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unsupported import format: " + format);
+            }
+        }
+        String name = file.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new BadRequestException("Cannot tell the format of " + file + "; pass format=csv or format=ndjson");
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.libraryService.bulkimport;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.libraryService.dto.ImportJobDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * ============================================================================
+ * Class: ImportJobStore
+ *
+ * Description:
+ *   Checkpoints of import jobs in library.import.work-dir:
+ *
+ *   - {@code <job>.json}: the job status, rewritten after every committed
+ *     chunk; its processedBytes is where a resumed job continues.
+ *   - {@code <job>.pending}: ids generated for the rows without one of the
+ *     chunk being written. A chunk replayed after a crash gets the same ids
+ *     again, so rows that were already committed are updated, not copied.
+ *
+ *   Both are written to a temporary file, forced to disk and moved into
+ *   place atomically.
+ * ============================================================================
+ */
+class ImportJobStore {
+
+    private static final String JOB_SUFFIX = ".json";
+    private static final String PENDING_SUFFIX = ".pending";
+
+    /** Ids generated for the chunk starting at {@code start}. */
+    record PendingIds(long start, long[] ids) {}
+
+    private final Path dir;
+    private final ObjectMapper mapper;
+
+    ImportJobStore(Path dir, ObjectMapper mapper) {
+        this.dir = dir;
+        this.mapper = mapper;
+    }
+
+    List<ImportJobDTO> loadAll() throws IOException {
+        List<ImportJobDTO> jobs = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return jobs;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + JOB_SUFFIX)) {
+            for (Path file : files) {
+                jobs.add(mapper.readValue(file.toFile(), ImportJobDTO.class));
+            }
+        }
+        return jobs;
+    }
+
+    void save(ImportJobDTO job) throws IOException {
+        writeAtomically(dir.resolve(job.getId() + JOB_SUFFIX), ByteBuffer.wrap(mapper.writeValueAsBytes(job)));
+    }
+
+    PendingIds loadPending(long jobId) throws IOException {
+        Path file = dir.resolve(jobId + PENDING_SUFFIX);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        long start = buffer.getLong();
+        long[] ids = new long[buffer.getInt()];
+        buffer.asLongBuffer().get(ids);
+        return new PendingIds(start, ids);
+    }
+
+    void savePending(long jobId, PendingIds pending) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + pending.ids().length * Long.BYTES);
+        buffer.putLong(pending.start()).putInt(pending.ids().length);
+        buffer.asLongBuffer().put(pending.ids());
+        buffer.rewind();
+        writeAtomically(dir.resolve(jobId + PENDING_SUFFIX), buffer);
+    }
+
+    void deletePending(long jobId) throws IOException {
+        Files.deleteIfExists(dir.resolve(jobId + PENDING_SUFFIX));
+    }
+
+    private void writeAtomically(Path file, ByteBuffer content) throws IOException {
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, "import", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.libraryService.bulkimport;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings under {@code library.import}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "library.import")
+public class ImportProperties {
+
+    private boolean enabled = true;
+
+    /** Only files below this directory can be imported. */
+    private String inboxDir = "data/import/inbox";
+
+    /** Job checkpoints; unfinished jobs found here are resumed at startup. */
+    private String workDir = "data/import/jobs";
+
+    /** Bytes parsed as one unit (extended to the next line break); also the unit of commit. */
+    private int chunkBytes = 1 << 20;
+
+    /** Threads parsing and validating chunks. */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /** Rows per JDBC batch. */
+    private int batchSize = 1000;
+
+    /** Rejected rows reported with their line and reason; further ones are only counted. */
+    private int maxErrors = 100;
+
+    /** How long to wait for Kafka to acknowledge a chunk's events. */
+    private Duration publishTimeout = Duration.ofSeconds(60);
+}
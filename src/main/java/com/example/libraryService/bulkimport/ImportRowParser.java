@@ -0,0 +1,237 @@
+package com.example.libraryService.bulkimport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.example.libraryService.dto.BookRequestDTO;
+import com.example.libraryService.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * ============================================================================
+ * Class: ImportRowParser
+ *
+ * Description:
+ *   Turns the lines of one chunk of an import file into rows validated
+ *   against the BookRequestDTO constraints, or into per-line errors.
+ *   It holds no mutable state, so chunks are parsed in parallel.
+ *
+ *   CSV columns are matched by header name (case, '_' and '-' ignored);
+ *   unknown columns are skipped. Line numbers are relative to the chunk.
+ * ============================================================================
+ */
+class ImportRowParser {
+
+    record Row(int line, Long id, BookRequestDTO book) {}
+
+    record RowError(int line, String message) {}
+
+    record ParsedChunk(long start, long end, int lines, List<Row> rows, List<RowError> errors) {}
+
+    private static final Set<String> REQUIRED_COLUMNS = Set.of("title", "author", "price", "stock", "email");
+
+    private final ImportFormat format;
+    /** CSV only: column name -> field index */
+    private final Map<String, Integer> columns;
+    private final ObjectMapper mapper;
+    private final Validator validator;
+
+    private ImportRowParser(ImportFormat format, Map<String, Integer> columns, ObjectMapper mapper, Validator validator) {
+        this.format = format;
+        this.columns = columns;
+        this.mapper = mapper;
+        this.validator = validator;
+    }
+
+    static ImportRowParser ndjson(ObjectMapper mapper, Validator validator) {
+        return new ImportRowParser(ImportFormat.NDJSON, Map.of(), mapper, validator);
+    }
+
+    static ImportRowParser csv(String header, ObjectMapper mapper, Validator validator) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.putIfAbsent(columnKey(names.get(i)), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(name -> !columns.containsKey(name)).sorted().toList();
+        if (!missing.isEmpty()) {
+            throw new BadRequestException("CSV header lacks the columns " + missing);
+        }
+        return new ImportRowParser(ImportFormat.CSV, columns, mapper, validator);
+    }
+
+    /** Parses {@code data}, the bytes of the file from {@code start} to {@code end}. */
+    ParsedChunk parse(long start, long end, byte[] data) {
+        List<Row> rows = new ArrayList<>();
+        List<RowError> errors = new ArrayList<>();
+        int line = 0;
+        int from = 0;
+        while (from < data.length) {
+            int to = from;
+            while (to < data.length && data[to] != '\n') {
+                to++;
+            }
+            int next = to + 1;
+            if (to > from && data[to - 1] == '\r') {
+                to--;
+            }
+            line++;
+            if (!isBlank(data, from, to)) {
+                try {
+                    Row row = format == ImportFormat.CSV ? csvRow(line, data, from, to) : jsonRow(line, data, from, to);
+                    String violations = violations(row.book());
+                    if (violations == null) {
+                        rows.add(row);
+                    } else {
+                        errors.add(new RowError(line, violations));
+                    }
+                } catch (IllegalArgumentException e) {
+                    errors.add(new RowError(line, e.getMessage()));
+                }
+            }
+            from = next;
+        }
+        return new ParsedChunk(start, end, line, rows, errors);
+    }
+
+    private Row csvRow(int line, byte[] data, int from, int to) {
+        List<String> fields = splitCsv(new String(data, from, to - from, StandardCharsets.UTF_8));
+        Long id = parse(field(fields, "id"), "id", Long::valueOf);
+        Integer stock = parse(field(fields, "stock"), "stock", Integer::valueOf);
+        BookRequestDTO book = BookRequestDTO.builder()
+                .title(field(fields, "title"))
+                .author(field(fields, "author"))
+                .price(parse(field(fields, "price"), "price", Double::valueOf))
+                .stock(stock != null ? stock : 0)
+                .email(field(fields, "email"))
+                .templateType(field(fields, "templatetype"))
+                .recipientName(field(fields, "recipientname"))
+                .build();
+        return new Row(line, checkId(id), book);
+    }
+
+    private Row jsonRow(int line, byte[] data, int from, int to) {
+        try {
+            JsonNode node = mapper.readTree(data, from, to - from);
+            if (!(node instanceof ObjectNode object)) {
+                throw new IllegalArgumentException("Expected a JSON object");
+            }
+            JsonNode idNode = object.remove("id");
+            Long id;
+            if (idNode == null || idNode.isNull()) {
+                id = null;
+            } else if (idNode.isIntegralNumber() && idNode.canConvertToLong()) {
+                id = idNode.asLong();
+            } else if (idNode.isTextual()) {
+                id = parse(idNode.asText(), "id", Long::valueOf);
+            } else {
+                throw new IllegalArgumentException("Invalid id '" + idNode + "'");
+            }
+            return new Row(line, checkId(id), mapper.treeToValue(object, BookRequestDTO.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String violations(BookRequestDTO book) {
+        Set<ConstraintViolation<BookRequestDTO>> violations = validator.validate(book);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).strip();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parse(String value, String column, Function<String, T> parser) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+        }
+    }
+
+    private static Long checkId(Long id) {
+        if (id != null && id <= 0) {
+            throw new IllegalArgumentException("Invalid id '" + id + "'");
+        }
+        return id;
+    }
+
+    /** Splits one CSV record (RFC 4180 quoting, without embedded line breaks). */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.toString().isBlank()) {
+                field.setLength(0);
+                quoted = true;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String columnKey(String name) {
+        return name.strip().replace("_", "").replace("-", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(byte[] data, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (data[i] != ' ' && data[i] != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.libraryService.catalog;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.example.libraryService.kafka.BookKafkaEvent;
+import com.example.libraryService.repository.BookRepository;
+import com.example.libraryService.shard.ShardTemplate;
+
+/**
+ * Wires the in-process catalog when {@code library.catalog.enabled} is true
+ * (the default).
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(CatalogProperties.class)
+@ConditionalOnProperty(prefix = "library.catalog", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogConfig {
+
+    /**
+     * The catalog is warmed from the snapshot before the replay listener's
+     * container starts, so neither may wait for first use under the startup
+     * profile's lazy initialization.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerCatalogBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(CatalogSnapshotService.class, CatalogReplayListener.class);
+    }
+
+    @Bean
+    public CatalogState catalogState(CatalogProperties properties) {
+        CatalogStore store = properties.getStore() == CatalogProperties.Store.HEAP
+                ? new HeapCatalogStore()
+                : new OffHeapCatalogStore(properties.getExpectedBooks());
+        return new CatalogState(store);
+    }
+
+    @Bean
+    public CatalogSnapshotService catalogSnapshotService(CatalogState catalogState, BookRepository bookRepository,
+                                                         ShardTemplate shards, CatalogProperties properties,
+                                                         ConsumerFactory<String, BookKafkaEvent> jsonConsumerFactory) {
+        return new CatalogSnapshotService(catalogState, bookRepository, shards, properties, jsonConsumerFactory);
+    }
+
+    @Bean
+    public CatalogReplayListener catalogReplayListener(CatalogState catalogState) {
+        return new CatalogReplayListener(catalogState);
+    }
+}
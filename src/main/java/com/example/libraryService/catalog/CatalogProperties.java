@@ -0,0 +1,43 @@
+package com.example.libraryService.catalog;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings under {@code library.catalog}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "library.catalog")
+public class CatalogProperties {
+
+    private boolean enabled = true;
+
+    /** Directory holding the local catalog snapshot. */
+    private String snapshotDir = "data/catalog";
+
+    private Duration snapshotInterval = Duration.ofMinutes(5);
+
+    /**
+     * How long a warm-up from the database waits for the BOOKS topic's end
+     * offsets; without them the replay starts from the beginning.
+     */
+    private Duration endOffsetsTimeout = Duration.ofSeconds(10);
+
+    /** Books read per query while the catalog is warmed from the database. */
+    private int loadBatchSize = 1_000;
+
+    /** off-heap (columnar direct buffers) or heap (a map of DTOs). */
+    private Store store = Store.OFF_HEAP;
+
+    /** Initial capacity of the off-heap store; it grows by doubling. */
+    private int expectedBooks = 1 << 16;
+
+    public enum Store {
+        OFF_HEAP, HEAP
+    }
+}
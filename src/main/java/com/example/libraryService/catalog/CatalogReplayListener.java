@@ -0,0 +1,46 @@
+package com.example.libraryService.catalog;
+
+import java.util.Map;
+
+import com.example.libraryService.kafka.BookEventFanOut;
+import com.example.libraryService.kafka.BookEventHandler;
+import com.example.libraryService.kafka.BookKafkaEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: CatalogReplayListener
+ *
+ * Description:
+ *   Keeps the catalog current from the BOOKS topic, through this instance's
+ *   {@link BookEventFanOut}. On assignment it starts at the offsets the
+ *   warm-up recorded (the snapshot's, or the topic's end offsets before a
+ *   database load; the beginning for a partition without one).
+ * ============================================================================
+ */
+@Slf4j
+public class CatalogReplayListener implements BookEventHandler {
+
+    private final CatalogState state;
+
+    public CatalogReplayListener(CatalogState state) {
+        this.state = state;
+    }
+
+    @Override
+    public Long startOffset(int partition) {
+        Long next = state.nextOffset(partition);
+        return next != null ? next : 0L;
+    }
+
+    @Override
+    public void assigned(Map<Integer, Long> startOffsets) {
+        log.info("📚 Catalog replay assigned {} partitions from offsets {}", startOffsets.size(), startOffsets);
+    }
+
+    @Override
+    public void onBookEvent(BookKafkaEvent event, int partition, long offset) {
+        state.apply(event, partition, offset);
+    }
+}
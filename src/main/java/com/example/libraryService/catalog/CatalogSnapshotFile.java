@@ -0,0 +1,217 @@
+package com.example.libraryService.catalog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * ============================================================================
+ * Class: CatalogSnapshotFile
+ *
+ * Description:
+ *   Compact binary snapshot of the catalog plus the Kafka offsets it covers.
+ *   Written from a {@link CatalogStore#snapshot}, so writers are not held
+ *   up by the disk, to a temporary file moved into place atomically; read
+ *   back through a read-only memory mapping, so loading needs no read() copies.
+ *
+ *   Layout (big endian):
+ *     int magic, int version
+ *     int partitionCount, { int partition, long nextOffset } * partitionCount
+ *     { byte 1, long id, double price, int stock,
+ *       int titleLength, utf8 title, int authorLength, utf8 author } * n
+ *     byte 0, int n, long crc32(all preceding bytes)
+ * ============================================================================
+ */
+public final class CatalogSnapshotFile {
+
+    static final int MAGIC = 0x4C424353; // "LBCS"
+    static final int VERSION = 1;
+
+    private static final byte RECORD = 1;
+    private static final byte END = 0;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private CatalogSnapshotFile() {}
+
+    /**
+     * @param nextOffsets per partition of the books topic, the offset of the
+     *                    first event that is not contained in the snapshot
+     */
+    public static void write(Path file, CatalogStore store, Map<Integer, Long> nextOffsets) throws IOException {
+        CatalogStore rows = store.snapshot();
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "catalog", ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            Writer writer = new Writer(channel);
+            writer.putInt(MAGIC);
+            writer.putInt(VERSION);
+            writer.putInt(nextOffsets.size());
+            for (Map.Entry<Integer, Long> entry : new TreeMap<>(nextOffsets).entrySet()) {
+                writer.putInt(entry.getKey());
+                writer.putLong(entry.getValue());
+            }
+
+            int[] count = {0};
+            rows.forEach((id, title, author, price, stock) -> {
+                writer.put(RECORD);
+                writer.putLong(id);
+                writer.putDouble(price);
+                writer.putInt(stock);
+                writer.putString(title);
+                writer.putString(author);
+                count[0]++;
+            });
+
+            writer.put(END);
+            writer.putInt(count[0]);
+            writer.finish();
+            channel.force(true);
+        } catch (RuntimeException | IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads the snapshot into {@code store}.
+     *
+     * @return the next Kafka offset per partition stored with the snapshot
+     */
+    public static Map<Integer, Long> load(Path file, CatalogStore store) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            verifyChecksum(buffer, file);
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a catalog snapshot (or unsupported version): " + file);
+            }
+
+            Map<Integer, Long> nextOffsets = new TreeMap<>();
+            int partitions = buffer.getInt();
+            for (int i = 0; i < partitions; i++) {
+                nextOffsets.put(buffer.getInt(), buffer.getLong());
+            }
+
+            while (buffer.get() == RECORD) {
+                long id = buffer.getLong();
+                double price = buffer.getDouble();
+                int stock = buffer.getInt();
+                String title = getString(buffer);
+                String author = getString(buffer);
+                store.upsert(id, title, author, price, stock);
+            }
+            return nextOffsets;
+        }
+    }
+
+    private static void verifyChecksum(MappedByteBuffer buffer, Path file) throws IOException {
+        int bodyLength = buffer.limit() - Long.BYTES;
+        if (bodyLength < 0) {
+            throw new IOException("Truncated catalog snapshot: " + file);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, bodyLength));
+        if (crc.getValue() != buffer.getLong(bodyLength)) {
+            throw new IOException("Corrupt catalog snapshot (checksum mismatch): " + file);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Buffered channel writer that maintains the running checksum. */
+    private static final class Writer {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final CRC32 crc = new CRC32();
+
+        Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void put(byte value) {
+            ensure(Byte.BYTES);
+            buffer.put(value);
+        }
+
+        void putInt(int value) {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putDouble(double value) {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        void putString(String value) {
+            if (value == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            int written = 0;
+            while (written < bytes.length) {
+                ensure(1);
+                int chunk = Math.min(buffer.remaining(), bytes.length - written);
+                buffer.put(bytes, written, chunk);
+                written += chunk;
+            }
+        }
+
+        void finish() throws IOException {
+            flush();
+            buffer.putLong(crc.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                try {
+                    flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.libraryService.catalog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.example.libraryService.entity.Book;
+import com.example.libraryService.kafka.BookKafkaEvent;
+import com.example.libraryService.kafka.KafkaTopics;
+import com.example.libraryService.repository.BookRepository;
+import com.example.libraryService.shard.ShardTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: CatalogSnapshotService
+ *
+ * Description:
+ *   Warms the catalog before the Kafka listeners start: from the local
+ *   snapshot when there is one, otherwise from the database. The replay
+ *   listener then continues from the snapshot's offsets, or after a
+ *   database load from the BOOKS topic's end offsets taken just before
+ *   reading the books: everything earlier is already in the database.
+ *   The database is read shard by shard in keyset pages of
+ *   library.catalog.load-batch-size books.
+ *   Afterwards a new snapshot is written every library.catalog.snapshot-interval.
+ * ============================================================================
+ */
+@Slf4j
+public class CatalogSnapshotService implements SmartInitializingSingleton {
+
+    static final String SNAPSHOT_FILE = "catalog.snapshot";
+
+    private final CatalogState state;
+    private final BookRepository bookRepository;
+    private final ShardTemplate shards;
+    private final Path snapshotFile;
+    private final ConsumerFactory<String, BookKafkaEvent> consumerFactory;
+    private final Duration endOffsetsTimeout;
+    private final int loadBatchSize;
+
+    public CatalogSnapshotService(CatalogState state, BookRepository bookRepository, ShardTemplate shards,
+                                  CatalogProperties properties,
+                                  ConsumerFactory<String, BookKafkaEvent> consumerFactory) {
+        this.state = state;
+        this.bookRepository = bookRepository;
+        this.shards = shards;
+        this.snapshotFile = Path.of(properties.getSnapshotDir(), SNAPSHOT_FILE);
+        this.consumerFactory = consumerFactory;
+        this.endOffsetsTimeout = properties.getEndOffsetsTimeout();
+        this.loadBatchSize = properties.getLoadBatchSize();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.nanoTime();
+        if (!loadSnapshot()) {
+            loadFromDatabase();
+        }
+        state.markReady();
+        log.info("📸 Catalog warmed with {} books in {} ms",
+                state.getStore().size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Scheduled(initialDelayString = "${library.catalog.snapshot-interval:PT5M}",
+            fixedDelayString = "${library.catalog.snapshot-interval:PT5M}")
+    public void writeSnapshot() {
+        // offsets first: anything applied while the store is written gets replayed again
+        Map<Integer, Long> offsets = state.nextOffsets();
+        try {
+            CatalogSnapshotFile.write(snapshotFile, state.getStore(), offsets);
+            log.info("📸 Catalog snapshot written: {} books, offsets {}", state.getStore().size(), offsets);
+        } catch (IOException e) {
+            log.error("Failed to write catalog snapshot {}: {}", snapshotFile, e.getMessage(), e);
+        }
+    }
+
+    private boolean loadSnapshot() {
+        if (!Files.exists(snapshotFile)) {
+            return false;
+        }
+        try {
+            state.restoreOffsets(CatalogSnapshotFile.load(snapshotFile, state.getStore()));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable catalog snapshot {}: {}", snapshotFile, e.getMessage());
+            state.getStore().clear();
+            state.restoreOffsets(Map.of());
+            return false;
+        }
+    }
+
+    private void loadFromDatabase() {
+        // before the read: events from here on may or may not be in it, and replaying them is harmless
+        state.restoreOffsets(endOffsets());
+        for (int shard = 0; shard < shards.shardCount(); shard++) {
+            load(shard);
+        }
+    }
+
+    private void load(int shard) {
+        PageRequest page = PageRequest.of(0, loadBatchSize);
+        long after = Long.MIN_VALUE;
+        while (true) {
+            long from = after;
+            List<Book> books = shards.onShard(shard, () -> bookRepository.findBooksAfter(from, page));
+            for (Book book : books) {
+                double price = book.getPrice() != null ? book.getPrice() : 0;
+                state.getStore().upsert(book.getId(), book.getTitle(), book.getAuthor(), price, book.getStock());
+            }
+            if (books.size() < page.getPageSize()) {
+                return;
+            }
+            after = books.get(books.size() - 1).getId();
+        }
+    }
+
+    /** partition -> end offset of the BOOKS topic; empty when the brokers cannot tell in time. */
+    private Map<Integer, Long> endOffsets() {
+        try (Consumer<String, BookKafkaEvent> consumer = consumerFactory.createConsumer()) {
+            List<TopicPartition> partitions = consumer.partitionsFor(KafkaTopics.BOOKS, endOffsetsTimeout).stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            Map<Integer, Long> offsets = new HashMap<>();
+            consumer.endOffsets(partitions, endOffsetsTimeout)
+                    .forEach((partition, offset) -> offsets.put(partition.partition(), offset));
+            return offsets;
+        } catch (KafkaException e) {
+            log.warn("⚠️ No end offsets for {}, the catalog replays it from the beginning: {}",
+                    KafkaTopics.BOOKS, e.getMessage());
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.libraryService.catalog;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.kafka.BookKafkaEvent;
+
+import lombok.Getter;
+
+/**
+ * The in-process catalog together with the Kafka position it reflects.
+ * Events are full images of a book, so re-applying an event is harmless;
+ * events at or below the recorded offset of their partition are skipped.
+ *
+ * Changes are applied one at a time so that {@link ChangeListener}s see a
+ * consistent before/after pair.
+ */
+public class CatalogState {
+
+    @Getter
+    private final CatalogStore store;
+
+    /** partition -> offset of the next event to apply */
+    private final Map<Integer, Long> nextOffsets = new ConcurrentHashMap<>();
+
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean ready;
+
+    public CatalogState(CatalogStore store) {
+        this.store = store;
+    }
+
+    public synchronized void apply(BookKafkaEvent event, int partition, long offset) {
+        Long next = nextOffsets.get(partition);
+        if (next != null && offset < next) {
+            return;
+        }
+        apply(event);
+        nextOffsets.put(partition, offset + 1);
+    }
+
+    /** Applies an event that did not come from Kafka (e.g. the local write path). */
+    public synchronized void apply(BookKafkaEvent event) {
+        if (event.getId() == null) {
+            return;
+        }
+        Optional<BookResponseDTO> before = listeners.isEmpty() ? Optional.empty() : store.get(event.getId());
+        if ("DELETE".equals(event.getAction())) {
+            store.remove(event.getId());
+        } else {
+            store.upsert(event.getId(), event.getTitle(), event.getAuthor(), event.getPrice(), event.getStock());
+        }
+        if (!listeners.isEmpty()) {
+            Optional<BookResponseDTO> after = store.get(event.getId());
+            listeners.forEach(listener -> listener.onChange(before.orElse(null), after.orElse(null)));
+        }
+    }
+
+    /**
+     * Registers a listener. It is reset with the whole store once the catalog
+     * is ready (immediately when it already is) and then told about every change.
+     */
+    public synchronized void addListener(ChangeListener listener) {
+        listeners.add(listener);
+        if (ready) {
+            listener.onReset(store);
+        }
+    }
+
+    public Long nextOffset(int partition) {
+        return nextOffsets.get(partition);
+    }
+
+    public Map<Integer, Long> nextOffsets() {
+        return new TreeMap<>(nextOffsets);
+    }
+
+    void restoreOffsets(Map<Integer, Long> offsets) {
+        nextOffsets.clear();
+        nextOffsets.putAll(offsets);
+    }
+
+    /** True once the store has been loaded from a snapshot or the database. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    synchronized void markReady() {
+        this.ready = true;
+        listeners.forEach(listener -> listener.onReset(store));
+    }
+
+    /** Derived state (indexes, aggregates) maintained from catalog changes. */
+    public interface ChangeListener {
+
+        /** Rebuild from scratch; called while no changes are applied. */
+        void onReset(CatalogStore store);
+
+        /**
+         * @param before the book before the change, null when it was created
+         * @param after  the book after the change, null when it was deleted
+         */
+        void onChange(BookResponseDTO before, BookResponseDTO after);
+    }
+}
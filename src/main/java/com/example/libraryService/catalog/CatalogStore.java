@@ -0,0 +1,36 @@
+package com.example.libraryService.catalog;
+
+import java.util.Optional;
+
+import com.example.libraryService.dto.BookResponseDTO;
+
+/**
+ * In-process copy of the catalog, kept current from {@code KafkaTopics.BOOKS}.
+ * Implementations must be safe for concurrent readers and writers.
+ */
+public interface CatalogStore {
+
+    void upsert(long id, String title, String author, double price, int stock);
+
+    boolean remove(long id);
+
+    Optional<BookResponseDTO> get(long id);
+
+    int size();
+
+    void clear();
+
+    /** Visits every book; the order is unspecified. */
+    void forEach(BookVisitor visitor);
+
+    /**
+     * A point-in-time copy for slow walks such as writing it to disk.
+     * A store whose {@link #forEach} holds up no writers may return itself.
+     */
+    CatalogStore snapshot();
+
+    @FunctionalInterface
+    interface BookVisitor {
+        void visit(long id, String title, String author, double price, int stock);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.libraryService.catalog;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.example.libraryService.dto.BookResponseDTO;
+
+/**
+ * {@link CatalogStore} backed by a {@link ConcurrentHashMap} of response DTOs.
+ */
+public class HeapCatalogStore implements CatalogStore {
+
+    private final Map<Long, BookResponseDTO> books = new ConcurrentHashMap<>();
+
+    @Override
+    public void upsert(long id, String title, String author, double price, int stock) {
+        books.put(id, new BookResponseDTO(id, title, author, price, stock));
+    }
+
+    @Override
+    public boolean remove(long id) {
+        return books.remove(id) != null;
+    }
+
+    @Override
+    public Optional<BookResponseDTO> get(long id) {
+        return Optional.ofNullable(books.get(id));
+    }
+
+    @Override
+    public int size() {
+        return books.size();
+    }
+
+    @Override
+    public void clear() {
+        books.clear();
+    }
+
+    @Override
+    public void forEach(BookVisitor visitor) {
+        books.values().forEach(book ->
+                visitor.visit(book.getId(), book.getTitle(), book.getAuthor(), book.getPrice(), book.getStock()));
+    }
+
+    /** {@link #forEach} takes no lock, so the store serves as its own snapshot. */
+    @Override
+    public CatalogStore snapshot() {
+        return this;
+    }
+}
@@ -0,0 +1,396 @@
+package com.example.libraryService.catalog;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+
+import com.example.libraryService.dto.BookResponseDTO;
+
+/**
+ * ============================================================================
+ * Class: OffHeapCatalogStore
+ *
+ * Description:
+ *   {@link CatalogStore} that keeps no per-book objects on the heap apart from
+ *   the title and author strings, which are interned and reference counted.
+ *
+ *   - Rows are dense: id, price, stock and the title/author string refs live
+ *     in direct buffers, one column each. A removed row is filled with the
+ *     last row so the columns stay compact.
+ *   - An open-addressing (linear probing) table of id -> row, also in direct
+ *     memory. Removal shifts the following entries back, so there are no
+ *     tombstones.
+ *
+ *   Lookups take a shared lock and writers an exclusive one; both are short
+ *   and allocation free. {@link #forEach} holds the shared lock for the whole
+ *   walk so a concurrent remove cannot move an unvisited row behind the cursor;
+ *   slow walks go over a {@link #snapshot}, whose columns are bulk copies
+ *   taken under the shared lock.
+ * ============================================================================
+ */
+public class OffHeapCatalogStore implements CatalogStore {
+
+    private static final int NO_STRING = -1;
+    private static final int EMPTY = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+    private final StringPool strings = new StringPool();
+
+    // columns, indexed by row
+    private ByteBuffer ids;
+    private ByteBuffer prices;
+    private ByteBuffer stocks;
+    private ByteBuffer titleRefs;
+    private ByteBuffer authorRefs;
+    private int rowCapacity;
+    private int size;
+
+    // index: slot -> key, slot -> row (EMPTY when free); its length is a power of two
+    private ByteBuffer indexKeys;
+    private ByteBuffer indexRows;
+    private int indexMask;
+
+    public OffHeapCatalogStore() {
+        this(MIN_CAPACITY);
+    }
+
+    public OffHeapCatalogStore(int expectedBooks) {
+        allocateRows(Math.max(MIN_CAPACITY, expectedBooks));
+        allocateIndex(indexCapacityFor(rowCapacity));
+    }
+
+    /** Copies {@code source}; the caller holds its shared lock. */
+    private OffHeapCatalogStore(OffHeapCatalogStore source) {
+        int rows = source.size;
+        ids = copy(source.ids, rows * Long.BYTES, rows * Long.BYTES);
+        prices = copy(source.prices, rows * Double.BYTES, rows * Double.BYTES);
+        stocks = copy(source.stocks, rows * Integer.BYTES, rows * Integer.BYTES);
+        titleRefs = copy(source.titleRefs, rows * Integer.BYTES, rows * Integer.BYTES);
+        authorRefs = copy(source.authorRefs, rows * Integer.BYTES, rows * Integer.BYTES);
+        rowCapacity = rows;
+        size = rows;
+        indexKeys = copy(source.indexKeys, source.indexKeys.capacity(), source.indexKeys.capacity());
+        indexRows = copy(source.indexRows, source.indexRows.capacity(), source.indexRows.capacity());
+        indexMask = source.indexMask;
+        strings.copyFrom(source.strings);
+    }
+
+    @Override
+    public void upsert(long id, String title, String author, double price, int stock) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = findSlot(id);
+            int row = indexRows.getInt(slot * Integer.BYTES);
+            if (row == EMPTY) {
+                if (size == rowCapacity) {
+                    growRows();
+                    slot = findSlot(id);
+                }
+                row = size++;
+                indexKeys.putLong(slot * Long.BYTES, id);
+                indexRows.putInt(slot * Integer.BYTES, row);
+                ids.putLong(row * Long.BYTES, id);
+            } else {
+                strings.release(titleRefs.getInt(row * Integer.BYTES));
+                strings.release(authorRefs.getInt(row * Integer.BYTES));
+            }
+            prices.putDouble(row * Double.BYTES, price);
+            stocks.putInt(row * Integer.BYTES, stock);
+            titleRefs.putInt(row * Integer.BYTES, strings.acquire(title));
+            authorRefs.putInt(row * Integer.BYTES, strings.acquire(author));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean remove(long id) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = findSlot(id);
+            int row = indexRows.getInt(slot * Integer.BYTES);
+            if (row == EMPTY) {
+                return false;
+            }
+            strings.release(titleRefs.getInt(row * Integer.BYTES));
+            strings.release(authorRefs.getInt(row * Integer.BYTES));
+
+            int last = --size;
+            if (row != last) {
+                long movedId = ids.getLong(last * Long.BYTES);
+                ids.putLong(row * Long.BYTES, movedId);
+                prices.putDouble(row * Double.BYTES, prices.getDouble(last * Double.BYTES));
+                stocks.putInt(row * Integer.BYTES, stocks.getInt(last * Integer.BYTES));
+                titleRefs.putInt(row * Integer.BYTES, titleRefs.getInt(last * Integer.BYTES));
+                authorRefs.putInt(row * Integer.BYTES, authorRefs.getInt(last * Integer.BYTES));
+                indexRows.putInt(findSlot(movedId) * Integer.BYTES, row);
+            }
+            deleteSlot(slot);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Optional<BookResponseDTO> get(long id) {
+        long stamp = lock.readLock();
+        try {
+            int row = indexRows.getInt(findSlot(id) * Integer.BYTES);
+            if (row == EMPTY) {
+                return Optional.empty();
+            }
+            return Optional.of(new BookResponseDTO(id,
+                    strings.get(titleRefs.getInt(row * Integer.BYTES)),
+                    strings.get(authorRefs.getInt(row * Integer.BYTES)),
+                    prices.getDouble(row * Double.BYTES),
+                    stocks.getInt(row * Integer.BYTES)));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            size = 0;
+            strings.clear();
+            allocateRows(MIN_CAPACITY);
+            allocateIndex(indexCapacityFor(rowCapacity));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void forEach(BookVisitor visitor) {
+        long stamp = lock.readLock();
+        try {
+            for (int row = 0; row < size; row++) {
+                visitor.visit(ids.getLong(row * Long.BYTES),
+                        strings.get(titleRefs.getInt(row * Integer.BYTES)),
+                        strings.get(authorRefs.getInt(row * Integer.BYTES)),
+                        prices.getDouble(row * Double.BYTES),
+                        stocks.getInt(row * Integer.BYTES));
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public CatalogStore snapshot() {
+        long stamp = lock.readLock();
+        try {
+            return new OffHeapCatalogStore(this);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Direct memory held by the columns and the index, in bytes. */
+    public long offHeapBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) ids.capacity() + prices.capacity() + stocks.capacity()
+                    + titleRefs.capacity() + authorRefs.capacity()
+                    + indexKeys.capacity() + indexRows.capacity();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Number of distinct title and author strings currently referenced. */
+    public int internedStrings() {
+        long stamp = lock.readLock();
+        try {
+            return strings.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // ------------------------------------------------------------------ index
+
+    /** The slot holding {@code id}, or the empty slot where it would go. */
+    private int findSlot(long id) {
+        int slot = mix(id) & indexMask;
+        while (indexRows.getInt(slot * Integer.BYTES) != EMPTY
+                && indexKeys.getLong(slot * Long.BYTES) != id) {
+            slot = (slot + 1) & indexMask;
+        }
+        return slot;
+    }
+
+    /** Backward-shift deletion: pulls later entries of the probe run into the gap. */
+    private void deleteSlot(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & indexMask;
+            int row = indexRows.getInt(slot * Integer.BYTES);
+            if (row == EMPTY) {
+                break;
+            }
+            long key = indexKeys.getLong(slot * Long.BYTES);
+            int home = mix(key) & indexMask;
+            // move the entry unless its home lies cyclically in (gap, slot]
+            boolean reachable = gap <= slot ? (home > gap && home <= slot) : (home > gap || home <= slot);
+            if (!reachable) {
+                indexKeys.putLong(gap * Long.BYTES, key);
+                indexRows.putInt(gap * Integer.BYTES, row);
+                gap = slot;
+            }
+        }
+        indexRows.putInt(gap * Integer.BYTES, EMPTY);
+    }
+
+    private static int mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int indexCapacityFor(int rows) {
+        // load factor of at most 0.5 keeps probe runs short
+        return Integer.highestOneBit(Math.max(MIN_CAPACITY, rows) - 1) << 2;
+    }
+
+    private void allocateIndex(int capacity) {
+        indexKeys = direct(capacity * Long.BYTES);
+        indexRows = direct(capacity * Integer.BYTES);
+        for (int slot = 0; slot < capacity; slot++) {
+            indexRows.putInt(slot * Integer.BYTES, EMPTY);
+        }
+        indexMask = capacity - 1;
+    }
+
+    // ------------------------------------------------------------------- rows
+
+    private void allocateRows(int capacity) {
+        ids = direct(capacity * Long.BYTES);
+        prices = direct(capacity * Double.BYTES);
+        stocks = direct(capacity * Integer.BYTES);
+        titleRefs = direct(capacity * Integer.BYTES);
+        authorRefs = direct(capacity * Integer.BYTES);
+        rowCapacity = capacity;
+    }
+
+    private void growRows() {
+        int capacity = Math.multiplyExact(Math.max(MIN_CAPACITY / 2, rowCapacity), 2);
+        ids = copy(ids, capacity * Long.BYTES, size * Long.BYTES);
+        prices = copy(prices, capacity * Double.BYTES, size * Double.BYTES);
+        stocks = copy(stocks, capacity * Integer.BYTES, size * Integer.BYTES);
+        titleRefs = copy(titleRefs, capacity * Integer.BYTES, size * Integer.BYTES);
+        authorRefs = copy(authorRefs, capacity * Integer.BYTES, size * Integer.BYTES);
+        rowCapacity = capacity;
+
+        allocateIndex(indexCapacityFor(capacity));
+        for (int row = 0; row < size; row++) {
+            long id = ids.getLong(row * Long.BYTES);
+            int slot = findSlot(id);
+            indexKeys.putLong(slot * Long.BYTES, id);
+            indexRows.putInt(slot * Integer.BYTES, row);
+        }
+    }
+
+    private static ByteBuffer direct(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    private static ByteBuffer copy(ByteBuffer source, int bytes, int used) {
+        ByteBuffer target = direct(bytes);
+        target.put(0, source, 0, used);
+        return target;
+    }
+
+    /**
+     * Interned strings with reference counts. Authors repeat across many books,
+     * so each distinct value is held once; freed refs are reused.
+     */
+    private static final class StringPool {
+
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private int[] counts = new int[MIN_CAPACITY];
+        private int[] free = new int[MIN_CAPACITY];
+        private int freeCount;
+
+        int acquire(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            Integer existing = refs.get(value);
+            if (existing != null) {
+                counts[existing]++;
+                return existing;
+            }
+            int ref;
+            if (freeCount > 0) {
+                ref = free[--freeCount];
+                values.set(ref, value);
+            } else {
+                ref = values.size();
+                values.add(value);
+                if (ref == counts.length) {
+                    counts = Arrays.copyOf(counts, ref * 2);
+                }
+            }
+            counts[ref] = 1;
+            refs.put(value, ref);
+            return ref;
+        }
+
+        void release(int ref) {
+            if (ref == NO_STRING || --counts[ref] > 0) {
+                return;
+            }
+            refs.remove(values.get(ref));
+            values.set(ref, null);
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount * 2);
+            }
+            free[freeCount++] = ref;
+        }
+
+        String get(int ref) {
+            return ref == NO_STRING ? null : values.get(ref);
+        }
+
+        int size() {
+            return refs.size();
+        }
+
+        void copyFrom(StringPool source) {
+            refs.putAll(source.refs);
+            values.addAll(source.values);
+            counts = source.counts.clone();
+            free = source.free.clone();
+            freeCount = source.freeCount;
+        }
+
+        void clear() {
+            refs.clear();
+            values.clear();
+            counts = new int[MIN_CAPACITY];
+            free = new int[MIN_CAPACITY];
+            freeCount = 0;
+        }
+    }
+}
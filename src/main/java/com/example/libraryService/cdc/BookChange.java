@@ -0,0 +1,14 @@
+package com.example.libraryService.cdc;
+
+import com.example.libraryService.kafka.BookKafkaEvent;
+
+/**
+ * One row change read from the change log.
+ *
+ * @param event          event to publish, or {@code null} for a position
+ *                       reached without changes to publish
+ * @param commitPosition set on the last change of a transaction: the position
+ *                       to resume from once this change is acknowledged
+ */
+public record BookChange(BookKafkaEvent event, ChangePosition commitPosition) {
+}
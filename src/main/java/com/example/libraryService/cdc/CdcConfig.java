@@ -0,0 +1,94 @@
+package com.example.libraryService.cdc;
+
+import java.net.URI;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.libraryService.id.IdGenerator;
+import com.example.libraryService.id.SnowflakeIdGenerator;
+import com.example.libraryService.kafka.LibraryKafkaProducer;
+import com.example.libraryService.shard.ShardTemplate;
+import com.example.libraryService.shard.ShardingProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Configuration Class: CdcConfig
+ *
+ * Description:
+ *   Change-data-capture mode ({@code library.cdc.enabled=true}). One binlog
+ *   reader per shard, run by whichever instance holds the CDC lease. The
+ *   MySQL binlog is the default change source; declare a @Primary
+ *   ChangeSource.Factory bean to replace it (tests use an embedded stand-in).
+ * ============================================================================
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(CdcProperties.class)
+@ConditionalOnProperty(prefix = "library.cdc", name = "enabled", havingValue = "true")
+public class CdcConfig {
+
+    /** Server-ids reserved per node id, one per shard. */
+    static final int SERVER_IDS_PER_NODE = 1024;
+
+    @Bean
+    public ChangeSource.Factory mysqlBinlogChangeSources(CdcProperties properties, ShardingProperties sharding,
+                                                         IdGenerator idGenerator) {
+        CdcProperties.Binlog binlog = properties.getBinlog();
+        long firstServerId = binlog.getServerId() + nodeId(idGenerator) * SERVER_IDS_PER_NODE;
+        return shard -> {
+            if (!sharding.isEnabled()) {
+                return new MysqlBinlogChangeSource(binlog, binlog.getHost(), binlog.getPort(), binlog.getDatabase(),
+                        firstServerId);
+            }
+            // jdbc:mysql://host[:port]/database[?options]
+            URI url = URI.create(sharding.getShards().get(shard).getUrl().substring("jdbc:".length()));
+            return new MysqlBinlogChangeSource(binlog, url.getHost(), url.getPort() < 0 ? 3306 : url.getPort(),
+                    url.getPath().substring(1), firstServerId + shard);
+        };
+    }
+
+    @Bean
+    public CdcLeader cdcLeader(ChangeSource.Factory changeSources, LibraryKafkaProducer kafkaProducer,
+                               CdcProperties properties, DataSource dataSource, ShardTemplate shards,
+                               @Value("${spring.application.name:library-service}") String applicationName) {
+        if (shards.shardCount() > SERVER_IDS_PER_NODE) {
+            throw new IllegalStateException("Change data capture supports up to " + SERVER_IDS_PER_NODE + " shards");
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        CdcLeaderLease lease = new CdcLeaderLease(jdbc, shards,
+                applicationName + "-" + UUID.randomUUID().toString().substring(0, 8), properties.getLeaseTtl());
+        return new CdcLeader(lease, shards.shardCount(), shard -> new CdcPipeline(shard, changeSources.forShard(shard),
+                kafkaProducer, new JdbcPositionStore(jdbc, shards, shard), properties), properties);
+    }
+
+    /** {@code cdc} health: down while the last capture attempt on this instance failed. */
+    @Bean
+    public HealthIndicator cdcHealthIndicator(CdcLeader cdcLeader) {
+        return () -> {
+            Exception failure = cdcLeader.getLastFailure();
+            Health.Builder health = failure == null ? Health.up() : Health.down(failure);
+            return health.withDetail("leading", cdcLeader.isLeading()).build();
+        };
+    }
+
+    private static long nodeId(IdGenerator idGenerator) {
+        if (idGenerator instanceof SnowflakeIdGenerator snowflake) {
+            return snowflake.getNodeId();
+        }
+        log.warn("No Snowflake node id to derive the binlog server-id from; every instance uses {}",
+                "library.cdc.binlog.server-id");
+        return 0;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.libraryService.cdc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.springframework.context.SmartLifecycle;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: CdcLeader
+ *
+ * Description:
+ *   Runs change data capture on one instance of the service at a time.
+ *   Every instance competes for the {@link CdcLeaderLease}; the one holding
+ *   it runs a {@link CdcPipeline} per shard, and the others stand by.
+ *
+ *   The lease is renewed every third of its TTL. A leader that cannot renew
+ *   it (lost to another instance, or the database is unreachable) stops its
+ *   pipelines at once rather than risk publishing alongside a new leader.
+ *   A stopping instance releases the lease so another one takes over
+ *   without waiting for it to expire.
+ *
+ *   A pipeline whose source failed is noticed on the next renewal: all
+ *   pipelines stop, the lease is released and capture starts over from the
+ *   stored positions on whichever instance takes it. The failure is kept
+ *   for the health endpoint until a fresh start survives a renewal.
+ * ============================================================================
+ */
+@Slf4j
+public class CdcLeader implements SmartLifecycle {
+
+    private final CdcLeaderLease lease;
+    private final int shardCount;
+    private final IntFunction<CdcPipeline> pipelineFactory;
+    private final long renewIntervalMillis;
+
+    private final List<CdcPipeline> pipelines = new ArrayList<>();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+    private volatile Exception lastFailure;
+
+    /**
+     * @param pipelineFactory creates a fresh pipeline for a shard each time
+     *                        this instance takes the lead
+     */
+    public CdcLeader(CdcLeaderLease lease, int shardCount, IntFunction<CdcPipeline> pipelineFactory,
+                     CdcProperties properties) {
+        this.lease = lease;
+        this.shardCount = shardCount;
+        this.pipelineFactory = pipelineFactory;
+        this.renewIntervalMillis = Math.max(1, properties.getLeaseTtl().toMillis() / 3);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        // first attempt on the caller's thread, so a sole instance is capturing once the context is up
+        tick();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cdc-leader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, renewIntervalMillis, renewIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            try {
+                scheduler.awaitTermination(renewIntervalMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (isLeading()) {
+                stopPipelines();
+                releaseLease();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public synchronized boolean isLeading() {
+        return !pipelines.isEmpty();
+    }
+
+    /** The last failure of change data capture on this instance, {@code null} once it runs again. */
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    synchronized void tick() {
+        if (!running) {
+            return;
+        }
+        boolean held;
+        try {
+            held = lease.acquire();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Cannot reach the CDC lease: {}", e.getMessage());
+            held = false;
+        }
+
+        if (held && !isLeading()) {
+            log.info("👑 {} leads change data capture of {} shard(s)", lease.getOwner(), shardCount);
+            try {
+                for (int shard = 0; shard < shardCount; shard++) {
+                    CdcPipeline pipeline = pipelineFactory.apply(shard);
+                    pipelines.add(pipeline);
+                    pipeline.start();
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to start change data capture, giving up the lead: {}", e.getMessage(), e);
+                lastFailure = e;
+                stopPipelines();
+                releaseLease();
+            }
+        } else if (!held && isLeading()) {
+            log.warn("⚠️ {} lost the CDC lease, stopping change data capture", lease.getOwner());
+            stopPipelines();
+        } else if (held) {
+            Exception failure = pipelineFailure();
+            if (failure != null) {
+                log.error("Change data capture failed, giving up the lead: {}", failure.getMessage(), failure);
+                lastFailure = failure;
+                stopPipelines();
+                releaseLease();
+            } else {
+                lastFailure = null;
+            }
+        }
+    }
+
+    private Exception pipelineFailure() {
+        for (CdcPipeline pipeline : pipelines) {
+            if (pipeline.getFailure() != null) {
+                return pipeline.getFailure();
+            }
+        }
+        return null;
+    }
+
+    private void releaseLease() {
+        try {
+            lease.release();
+        } catch (RuntimeException e) {
+            log.warn("Failed to release the CDC lease, it expires by itself: {}", e.getMessage());
+        }
+    }
+
+    private void stopPipelines() {
+        for (CdcPipeline pipeline : pipelines) {
+            pipeline.stop();
+        }
+        pipelines.clear();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.libraryService.cdc;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.libraryService.shard.ShardTemplate;
+
+/**
+ * A lease in the {@code cdc_leader} table of shard 0, held by at most one
+ * instance at a time. Taking it over needs the previous holder to have let
+ * it expire, so a leader that stops renewing is replaced after one TTL.
+ */
+public class CdcLeaderLease {
+
+    private static final String NAME = "books";
+
+    private final JdbcTemplate jdbc;
+    private final ShardTemplate shards;
+    private final String owner;
+    private final Duration ttl;
+    private final Clock clock;
+
+    public CdcLeaderLease(JdbcTemplate jdbc, ShardTemplate shards, String owner, Duration ttl) {
+        this(jdbc, shards, owner, ttl, Clock.systemUTC());
+    }
+
+    CdcLeaderLease(JdbcTemplate jdbc, ShardTemplate shards, String owner, Duration ttl, Clock clock) {
+        this.jdbc = jdbc;
+        this.shards = shards;
+        this.owner = owner;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /** Takes or renews the lease; false while another instance holds it. */
+    public boolean acquire() {
+        long now = clock.millis();
+        return shards.onShard(0, () -> {
+            int updated = jdbc.update("UPDATE cdc_leader SET owner = ?, expires_at = ? "
+                    + "WHERE name = ? AND (owner = ? OR expires_at < ?)", owner, now + ttl.toMillis(), NAME, owner, now);
+            if (updated > 0) {
+                return true;
+            }
+            try {
+                return jdbc.update("INSERT INTO cdc_leader (name, owner, expires_at) VALUES (?, ?, ?)",
+                        NAME, owner, now + ttl.toMillis()) > 0;
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+        });
+    }
+
+    /** Lets the next instance take over at once instead of after the TTL. */
+    public void release() {
+        shards.onShard(0, () -> jdbc.update("DELETE FROM cdc_leader WHERE name = ? AND owner = ?", NAME, owner));
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.libraryService.cdc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.example.libraryService.kafka.BookKafkaEvent;
+import com.example.libraryService.kafka.LibraryKafkaProducer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: CdcPipeline
+ *
+ * Description:
+ *   Moves changes from one shard's {@link ChangeSource} to Kafka. Started
+ *   and stopped by {@link CdcLeader}, on the leading instance only.
+ *
+ *   - Back-pressure: the source hands changes over through a bounded queue;
+ *     when Kafka falls behind the queue fills up and the source blocks.
+ *   - Batching: a single publisher thread drains up to batchSize changes,
+ *     sends them and waits for all acknowledgements.
+ *   - Resumable: after a batch is acknowledged the last transaction commit
+ *     position in it is stored in the shard's database; the next leader
+ *     continues from there. Delivery is at-least-once (a batch that failed
+ *     mid-way, or was in flight during a change of leader, is sent again).
+ *   - Failures: a source that cannot read the log any more reports it here;
+ *     {@link CdcLeader} finds it through {@link #getFailure()} and restarts
+ *     capture from the stored position.
+ * ============================================================================
+ */
+@Slf4j
+public class CdcPipeline {
+
+    private static final long SEND_TIMEOUT_SECONDS = 30;
+    private static final long RETRY_BACKOFF_MILLIS = 1_000;
+
+    private final ChangeSource source;
+    private final LibraryKafkaProducer kafkaProducer;
+    private final int shard;
+    private final JdbcPositionStore positionStore;
+    private final int batchSize;
+    private final BlockingQueue<BookChange> queue;
+
+    private volatile boolean running;
+    private volatile Exception failure;
+    private Thread publisher;
+
+    public CdcPipeline(int shard, ChangeSource source, LibraryKafkaProducer kafkaProducer,
+                       JdbcPositionStore positionStore, CdcProperties properties) {
+        this.shard = shard;
+        this.source = source;
+        this.kafkaProducer = kafkaProducer;
+        this.positionStore = positionStore;
+        this.batchSize = properties.getBatchSize();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    public void start() {
+        ChangePosition resumeFrom = positionStore.load();
+        running = true;
+        publisher = new Thread(this::publishLoop, "cdc-publisher-" + shard);
+        publisher.setDaemon(true);
+        publisher.start();
+
+        try {
+            source.start(resumeFrom, new ChangeSource.TransactionSink() {
+                @Override
+                public void accept(List<BookChange> transaction) throws InterruptedException {
+                    enqueue(transaction);
+                }
+
+                @Override
+                public void skipTo(ChangePosition position) throws InterruptedException {
+                    queue.put(new BookChange(null, position));
+                }
+
+                @Override
+                public void fail(Exception error) {
+                    log.error("Change data capture of shard {} failed: {}", shard, error.getMessage());
+                    failure = error;
+                }
+            });
+        } catch (Exception e) {
+            stop();
+            throw new IllegalStateException("Cannot start change data capture of shard " + shard, e);
+        }
+        log.info("CDC pipeline of shard {} started, resuming from {}", shard,
+                resumeFrom == null ? "the end of the log" : resumeFrom.format());
+    }
+
+    public void stop() {
+        try {
+            source.stop();
+        } catch (Exception e) {
+            log.warn("Failed to stop change source: {}", e.getMessage(), e);
+        }
+        running = false;
+        if (publisher != null) {
+            try {
+                publisher.join(TimeUnit.SECONDS.toMillis(SEND_TIMEOUT_SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /** Why the source stopped delivering changes, or {@code null} while it is healthy. */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    private void enqueue(List<BookChange> transaction) throws InterruptedException {
+        for (BookChange change : transaction) {
+            queue.put(change);
+        }
+    }
+
+    private void publishLoop() {
+        List<BookChange> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                BookChange first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                if (!publishUntilAcknowledged(batch)) {
+                    return;
+                }
+                commit(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /** @return false when stopped before Kafka acknowledged the batch; it is left to the next leader */
+    private boolean publishUntilAcknowledged(List<BookChange> batch) throws InterruptedException {
+        while (true) {
+            try {
+                List<CompletableFuture<?>> acks = new ArrayList<>(batch.size() * 2);
+                for (BookChange change : batch) {
+                    BookKafkaEvent event = change.event();
+                    if (event == null) {
+                        continue;
+                    }
+                    acks.add(kafkaProducer.sendStringEvent(event.getAction() + " Book: " + event.getTitle()));
+                    acks.add(kafkaProducer.sendJsonEvent(event));
+                }
+                CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new))
+                        .get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                log.debug("Published CDC batch of {} changes", batch.size());
+                return true;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                if (!running) {
+                    log.warn("Stopped with an unacknowledged CDC batch of {} changes on shard {}", batch.size(), shard);
+                    return false;
+                }
+                log.error("Failed to publish CDC batch of {} changes, retrying: {}", batch.size(), e.getMessage(), e);
+                Thread.sleep(RETRY_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private void commit(List<BookChange> batch) {
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            ChangePosition position = batch.get(i).commitPosition();
+            if (position != null) {
+                positionStore.save(position);
+                return;
+            }
+        }
+    }
+}
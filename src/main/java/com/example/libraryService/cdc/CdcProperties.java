@@ -0,0 +1,52 @@
+package com.example.libraryService.cdc;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings under {@code library.cdc}. When enabled, book events are produced
+ * from the database change log instead of by the write methods of the service.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "library.cdc")
+public class CdcProperties {
+
+    private boolean enabled;
+
+    /** Maximum number of changes sent to Kafka before waiting for acknowledgements. */
+    private int batchSize = 500;
+
+    /** Changes buffered between the log reader and the publisher; a full buffer pauses the reader. */
+    private int queueCapacity = 10_000;
+
+    /**
+     * How long the reading instance keeps the lead without renewing it; renewed
+     * every third of it. Must exceed the clock skew between instances.
+     */
+    private Duration leaseTtl = Duration.ofSeconds(15);
+
+    private Binlog binlog = new Binlog();
+
+    @Getter
+    @Setter
+    public static class Binlog {
+        /** Used without sharding; with sharding each shard's JDBC URL names its server and database. */
+        private String host = "localhost";
+        private int port = 3306;
+        private String database = "library";
+        private String username;
+        private String password;
+        /**
+         * First server-id of this service. The instance with node id n reads
+         * shard s as server-id + n * 1024 + s; keep that range clear of other
+         * replicas of the MySQL servers.
+         */
+        private long serverId = 65_001;
+        private String table = "books";
+    }
+}
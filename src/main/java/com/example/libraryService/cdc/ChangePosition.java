@@ -0,0 +1,19 @@
+package com.example.libraryService.cdc;
+
+/**
+ * A position in the database change log (binlog file and byte offset).
+ */
+public record ChangePosition(String file, long offset) {
+
+    public String format() {
+        return file + ":" + offset;
+    }
+
+    public static ChangePosition parse(String value) {
+        int separator = value.lastIndexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid change log position: " + value);
+        }
+        return new ChangePosition(value.substring(0, separator), Long.parseLong(value.substring(separator + 1).trim()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.libraryService.cdc;
+
+import java.util.List;
+
+/**
+ * Reads committed row changes of the books table from a database change log.
+ */
+public interface ChangeSource {
+
+    /**
+     * Starts reading after {@code from} (or from the current end of the log when
+     * {@code null}). Each committed transaction is handed to {@code sink} in
+     * commit order; the sink may block, which must pause reading.
+     */
+    void start(ChangePosition from, TransactionSink sink) throws Exception;
+
+    void stop() throws Exception;
+
+    @FunctionalInterface
+    interface TransactionSink {
+        void accept(List<BookChange> transaction) throws InterruptedException;
+
+        /**
+         * The log reached {@code position} with nothing to publish (only
+         * transactions of other tables since the last call), so a restart
+         * may resume from there. Sources call this now and then, not for
+         * every transaction.
+         */
+        default void skipTo(ChangePosition position) throws InterruptedException {
+        }
+
+        /**
+         * Reading failed. Nothing after the last accepted transaction is
+         * delivered any more; the source has to be stopped and started again.
+         */
+        default void fail(Exception error) {
+        }
+    }
+
+    /** Creates the source reading a shard's change log, each time this instance takes the lead. */
+    @FunctionalInterface
+    interface Factory {
+        ChangeSource forShard(int shard);
+    }
+}
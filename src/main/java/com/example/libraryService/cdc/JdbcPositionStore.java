@@ -0,0 +1,42 @@
+package com.example.libraryService.cdc;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.libraryService.shard.ShardTemplate;
+
+/**
+ * Persists how far a shard's change log has been published, in the
+ * {@code cdc_positions} table of that shard, so whichever instance leads
+ * next resumes from it.
+ */
+public class JdbcPositionStore {
+
+    private final JdbcTemplate jdbc;
+    private final ShardTemplate shards;
+    private final int shard;
+    private final String source;
+
+    public JdbcPositionStore(JdbcTemplate jdbc, ShardTemplate shards, int shard) {
+        this.jdbc = jdbc;
+        this.shards = shards;
+        this.shard = shard;
+        this.source = "shard-" + shard;
+    }
+
+    public ChangePosition load() {
+        List<String> positions = shards.onShard(shard, () ->
+                jdbc.queryForList("SELECT position FROM cdc_positions WHERE source = ?", String.class, source));
+        return positions.isEmpty() ? null : ChangePosition.parse(positions.get(0));
+    }
+
+    public void save(ChangePosition position) {
+        shards.onShard(shard, () -> {
+            if (jdbc.update("UPDATE cdc_positions SET position = ? WHERE source = ?", position.format(), source) == 0) {
+                jdbc.update("INSERT INTO cdc_positions (source, position) VALUES (?, ?)", source, position.format());
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.libraryService.cdc;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.libraryService.kafka.BookKafkaEvent;
+import com.github.shyiko.mysql.binlog.BinaryLogClient;
+import com.github.shyiko.mysql.binlog.event.DeleteRowsEventData;
+import com.github.shyiko.mysql.binlog.event.Event;
+import com.github.shyiko.mysql.binlog.event.EventHeaderV4;
+import com.github.shyiko.mysql.binlog.event.EventType;
+import com.github.shyiko.mysql.binlog.event.RotateEventData;
+import com.github.shyiko.mysql.binlog.event.TableMapEventData;
+import com.github.shyiko.mysql.binlog.event.UpdateRowsEventData;
+import com.github.shyiko.mysql.binlog.event.WriteRowsEventData;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: MysqlBinlogChangeSource
+ *
+ * Description:
+ *   Tails the binlog of one MySQL server (one shard) as a replica and turns
+ *   row events of its books table into BookKafkaEvents. Rows are buffered until the transaction's
+ *   XID event, so only committed changes are emitted, in commit order.
+ *   Transactions of other tables only move the resume position forward,
+ *   at most once a second.
+ *
+ *   The binlog client swallows exceptions thrown by listeners, so a failed
+ *   event is handed to the sink's fail() instead, and nothing after it is
+ *   delivered until the source is restarted from the stored position.
+ *
+ *   Requires binlog_format=ROW and binlog_row_metadata=FULL (column names),
+ *   and a user with REPLICATION SLAVE / REPLICATION CLIENT privileges.
+ * ============================================================================
+ */
+@Slf4j
+public class MysqlBinlogChangeSource implements ChangeSource {
+
+    private static final long POSITION_INTERVAL_MILLIS = 1_000;
+
+    private static final DateTimeFormatter FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private final CdcProperties.Binlog settings;
+    private final String host;
+    private final int port;
+    private final String database;
+    private final long serverId;
+
+    /** table id -> column names, for the books table only */
+    private final Map<Long, List<String>> bookTables = new HashMap<>();
+    private final List<BookChange> pending = new ArrayList<>();
+
+    private BinaryLogClient client;
+    /** Set once an event could not be handled; later events would skip it. */
+    private volatile boolean halted;
+    private long lastPositionMillis;
+
+    public MysqlBinlogChangeSource(CdcProperties.Binlog settings, String host, int port, String database,
+                                   long serverId) {
+        this.settings = settings;
+        this.host = host;
+        this.port = port;
+        this.database = database;
+        this.serverId = serverId;
+    }
+
+    @Override
+    public void start(ChangePosition from, TransactionSink sink) throws Exception {
+        client = new BinaryLogClient(host, port, settings.getUsername(), settings.getPassword());
+        client.setServerId(serverId);
+        if (from != null) {
+            client.setBinlogFilename(from.file());
+            client.setBinlogPosition(from.offset());
+        }
+
+        client.registerEventListener(event -> {
+            if (halted) {
+                return;
+            }
+            try {
+                onEvent(event, sink);
+            } catch (InterruptedException e) {
+                halted = true;
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                halted = true;
+                pending.clear();
+                log.error("Failed to read binlog event {} on {}:{}: {}", event.getHeader(), host, port,
+                        e.getMessage(), e);
+                sink.fail(e);
+            }
+        });
+
+        log.info("Starting binlog reader on {}:{} as server-id {} from {}", host, port, serverId,
+                from == null ? "the current end of the log" : from.format());
+        client.connect(10_000);
+    }
+
+    @Override
+    public void stop() throws Exception {
+        if (client != null) {
+            client.disconnect();
+        }
+    }
+
+    private void onEvent(Event event, TransactionSink sink) throws InterruptedException {
+        EventHeaderV4 header = event.getHeader();
+        EventType type = header.getEventType();
+
+        if (type == EventType.TABLE_MAP) {
+            TableMapEventData data = event.getData();
+            if (database.equalsIgnoreCase(data.getDatabase())
+                    && settings.getTable().equalsIgnoreCase(data.getTable())) {
+                if (data.getEventMetadata() == null || data.getEventMetadata().getColumnNames() == null) {
+                    throw new IllegalStateException("binlog_row_metadata=FULL is required for change data capture");
+                }
+                bookTables.put(data.getTableId(), data.getEventMetadata().getColumnNames());
+            }
+        } else if (EventType.isWrite(type)) {
+            WriteRowsEventData data = event.getData();
+            List<String> columns = bookTables.get(data.getTableId());
+            if (columns != null) {
+                data.getRows().forEach(row -> pending.add(change(columns, row, "CREATE", header)));
+            }
+        } else if (EventType.isUpdate(type)) {
+            UpdateRowsEventData data = event.getData();
+            List<String> columns = bookTables.get(data.getTableId());
+            if (columns != null) {
+                data.getRows().forEach(row -> pending.add(change(columns, row.getValue(), "UPDATE", header)));
+            }
+        } else if (EventType.isDelete(type)) {
+            DeleteRowsEventData data = event.getData();
+            List<String> columns = bookTables.get(data.getTableId());
+            if (columns != null) {
+                data.getRows().forEach(row -> pending.add(change(columns, row, "DELETE", header)));
+            }
+        } else if (type == EventType.XID) {
+            // commit: the next transaction starts at this event's next position
+            ChangePosition commit = new ChangePosition(client.getBinlogFilename(), header.getNextPosition());
+            if (pending.isEmpty()) {
+                skipTo(commit, sink);
+                return;
+            }
+            int last = pending.size() - 1;
+            pending.set(last, new BookChange(pending.get(last).event(), commit));
+            List<BookChange> transaction = List.copyOf(pending);
+            pending.clear();
+            sink.accept(transaction);
+            lastPositionMillis = System.currentTimeMillis();
+        } else if (type == EventType.ROTATE && pending.isEmpty()) {
+            RotateEventData data = event.getData();
+            skipTo(new ChangePosition(data.getBinlogFilename(), data.getBinlogPosition()), sink);
+        }
+    }
+
+    private void skipTo(ChangePosition position, TransactionSink sink) throws InterruptedException {
+        long now = System.currentTimeMillis();
+        if (now - lastPositionMillis >= POSITION_INTERVAL_MILLIS) {
+            sink.skipTo(position);
+            lastPositionMillis = now;
+        }
+    }
+
+    private static BookChange change(List<String> columns, Serializable[] row, String action, EventHeaderV4 header) {
+        Map<String, Serializable> values = new HashMap<>();
+        for (int i = 0; i < columns.size() && i < row.length; i++) {
+            values.put(columns.get(i).toLowerCase(), row[i]);
+        }
+
+        BookKafkaEvent event = BookKafkaEvent.builder()
+                .id(number(values.get("id")).longValue())
+                .title(text(values.get("title")))
+                .author(text(values.get("author")))
+                .price(number(values.get("price")).doubleValue())
+                .stock(number(values.get("stock")).intValue())
+                .action(action)
+                .timestamp(FORMATTER.format(Instant.ofEpochMilli(header.getTimestamp())))
+                .build();
+        return new BookChange(event, null);
+    }
+
+    private static Number number(Serializable value) {
+        return value == null ? 0 : (Number) value;
+    }
+
+    /** The binlog client returns character columns as raw bytes. */
+    private static String text(Serializable value) {
+        if (value instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value == null ? null : value.toString();
+    }
+}
@@ -3,17 +3,25 @@ import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
+import com.example.libraryService.kafka.BookEventFanOut;
+import com.example.libraryService.kafka.BookEventHandler;
 import com.example.libraryService.kafka.BookKafkaEvent;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -100,4 +108,38 @@ public class KafkaConfig {
         factory.setConsumerFactory(jsonConsumerFactory());
         return factory;
     }
+
+    // ---------------- LOCAL FAN-OUT ----------------
+    /** The handlers follow the topic from startup, not from first use. */
+    @Bean
+    static LazyInitializationExcludeFilter eagerBookEventFanOut() {
+        return LazyInitializationExcludeFilter.forBeanTypes(BookEventFanOut.class);
+    }
+
+    @Bean
+    public BookEventFanOut bookEventFanOut(ObjectProvider<BookEventHandler> handlers,
+                                           @Value("${spring.application.name:library-service}") String applicationName,
+                                           @Value("${server.port:8080}") int port) {
+        // one group per running instance, the same after a restart
+        return new BookEventFanOut(handlers.orderedStream().toList(),
+                applicationName + "-local-" + hostName() + "-" + port);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, BookKafkaEvent> localKafkaListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, BookKafkaEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(jsonConsumerFactory());
+        // never acknowledged: the fan-out chooses its start offsets itself and commits none
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
 }
@@ -0,0 +1,75 @@
+package com.example.libraryService.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.example.libraryService.dto.BookPatchDTO;
+import com.example.libraryService.dto.BookRequestDTO;
+import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.entity.Book;
+import com.example.libraryService.entity.BookSearchGram;
+import com.example.libraryService.kafka.BookKafkaEvent;
+import com.example.libraryService.response.ApiCode;
+import com.example.libraryService.response.ApiResponse;
+import com.example.libraryService.service.InventoryClientService;
+
+/**
+ * ============================================================================
+ * Configuration Class: NativeHintsConfig
+ *
+ * Description:
+ *   Reachability metadata for the GraalVM native image. Everything that is
+ *   reached through reflection or resource lookups at runtime (Jackson
+ *   binding, JPA, Thymeleaf templates, Resilience4j fallbacks) is declared
+ *   here so that `mvn -Pnative native:compile` produces a working binary.
+ * ============================================================================
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.LibraryRuntimeHints.class)
+@RegisterReflectionForBinding({
+        BookRequestDTO.class,
+        BookPatchDTO.class,
+        BookResponseDTO.class,
+        BookKafkaEvent.class,
+        ApiResponse.class,
+        ApiCode.class
+})
+public class NativeHintsConfig {
+
+    static class LibraryRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // JPA entity: Hibernate instantiates it and accesses fields reflectively
+            hints.reflection().registerType(Book.class,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+            hints.reflection().registerType(BookSearchGram.class,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.DECLARED_FIELDS);
+            hints.reflection().registerType(BookSearchGram.Key.class,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.DECLARED_FIELDS);
+
+            // Flyway instantiates Java migrations found on the classpath
+            hints.reflection().registerType(TypeReference.of("db.migration.V7__Backfill_book_search_grams"),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+            // Resilience4j resolves fallback methods by name at runtime
+            hints.reflection().registerType(InventoryClientService.class,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            // Thymeleaf email templates
+            hints.resources().registerPattern("templates/*.html");
+
+            // Caffeine JCache regions of the second-level cache, read through the ClassLoader
+            hints.resources().registerPattern("hibernate-jcache.conf");
+        }
+    }
+}
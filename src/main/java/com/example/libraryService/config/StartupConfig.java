@@ -0,0 +1,98 @@
+package com.example.libraryService.config;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import com.example.libraryService.kafka.KafkaEventConsumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Configuration Class: StartupConfig
+ *
+ * Description:
+ *   Support for the startup-optimized profile. Keeps the beans that must be
+ *   eager (Kafka listeners) out of global lazy initialization and records
+ *   startup timings so the build can track them.
+ * ============================================================================
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+    @Value("${library.startup.report-file:}")
+    private String reportFile;
+
+    @Value("${library.startup.max-millis:0}")
+    private long maxMillis;
+
+    @Value("${library.startup.exit-on-ready:false}")
+    private boolean exitOnReady;
+
+    /**
+     * Listener containers are registered while their bean is created, so a lazy
+     * consumer would never subscribe to its topics. Feature configurations
+     * declare their own eager beans the same way.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerKafkaListeners() {
+        return LazyInitializationExcludeFilter.forBeanTypes(KafkaEventConsumer.class);
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        long readyMillis = event.getTimeTaken().toMillis();
+        long jvmUptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        int beanCount = event.getApplicationContext().getBeanDefinitionCount();
+
+        log.info("🚀 Startup finished: ready in {} ms (JVM uptime {} ms, {} beans)",
+                readyMillis, jvmUptimeMillis, beanCount);
+
+        if (!reportFile.isBlank()) {
+            writeReport(readyMillis, jvmUptimeMillis, beanCount);
+        }
+
+        if (exitOnReady) {
+            boolean overBudget = maxMillis > 0 && readyMillis > maxMillis;
+            if (overBudget) {
+                log.error("Startup took {} ms, exceeding the budget of {} ms", readyMillis, maxMillis);
+            }
+            int exitCode = SpringApplication.exit(event.getApplicationContext(), () -> overBudget ? 1 : 0);
+            System.exit(exitCode);
+        }
+    }
+
+    private void writeReport(long readyMillis, long jvmUptimeMillis, int beanCount) {
+        Properties report = new Properties();
+        report.setProperty("startup.ready.millis", String.valueOf(readyMillis));
+        report.setProperty("startup.jvm-uptime.millis", String.valueOf(jvmUptimeMillis));
+        report.setProperty("startup.bean-count", String.valueOf(beanCount));
+        report.setProperty("startup.max.millis", String.valueOf(maxMillis));
+
+        Path path = Path.of(reportFile);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                report.store(writer, "library-service startup benchmark");
+            }
+        } catch (IOException e) {
+            log.error("Failed to write startup report to {}: {}", path, e.getMessage(), e);
+        }
+    }
+}
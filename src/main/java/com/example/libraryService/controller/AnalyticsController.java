@@ -0,0 +1,130 @@
+package com.example.libraryService.controller;
+
+import com.example.libraryService.dto.AuthorStockValueDTO;
+import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.dto.PriceBucketDTO;
+import com.example.libraryService.exception.BadRequestException;
+import com.example.libraryService.response.ApiCode;
+import com.example.libraryService.response.ApiResponse;
+import com.example.libraryService.service.AnalyticsService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+/**
+ * ============================================================================
+ * Controller Class: AnalyticsController
+ *
+ * Description:
+ *   Read-only aggregate views over the catalog for dashboards: stock value
+ *   per author, low-stock books and the price distribution.
+ *
+ * Base Path: /api/analytics
+ * ============================================================================
+ */
+
+@Slf4j
+@RestController
+@RequestMapping("/api/analytics")
+@Tag(name = "Analytics Controller", description = "Aggregate views over the library catalog")
+public class AnalyticsController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    /** Service computing the catalog aggregates */
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    // -----------------------------------------------------------
+    // GET: Stock value per author
+    // -----------------------------------------------------------
+
+    /**
+     * Lists authors by the value of the books they have in stock.
+     *
+     * @param limit Maximum number of authors to return.
+     * @return ApiResponse with authors, highest stock value first.
+     */
+    @GetMapping("/stock-value-by-author")
+    @Operation(
+        summary = "Stock value per author",
+        description = "Sums price x stock over each author's books, highest value first.",
+        parameters = {
+            @Parameter(name = "limit", in = ParameterIn.QUERY, required = false, description = "Maximum number of authors (default 20)")
+        },
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Authors ranked by stock value")
+        }
+    )
+    public ApiResponse<List<AuthorStockValueDTO>> getStockValueByAuthor(@RequestParam(defaultValue = "20") int limit) {
+        log.debug("📊 Getting stock value by author (limit {})", limit);
+        return ApiResponse.of(ApiCode.SUCCESS, analyticsService.getStockValueByAuthor(checkLimit(limit)));
+    }
+
+    // -----------------------------------------------------------
+    // GET: Low-stock report
+    // -----------------------------------------------------------
+
+    /**
+     * Lists books that are running out of stock.
+     *
+     * @param threshold Books with at most this many units are reported.
+     * @param limit     Maximum number of books to return.
+     * @return ApiResponse with books, lowest stock first.
+     */
+    @GetMapping("/low-stock")
+    @Operation(
+        summary = "Low-stock report",
+        description = "Fetches books with at most the given number of units in stock, lowest first.",
+        parameters = {
+            @Parameter(name = "threshold", in = ParameterIn.QUERY, required = false, description = "Stock threshold (default 5)"),
+            @Parameter(name = "limit", in = ParameterIn.QUERY, required = false, description = "Maximum number of books (default 100)")
+        },
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Books with low stock"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Threshold outside the tracked range")
+        }
+    )
+    public ApiResponse<List<BookResponseDTO>> getLowStock(
+            @RequestParam(defaultValue = "5") int threshold,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.debug("📉 Getting low-stock books (threshold {}, limit {})", threshold, limit);
+        return ApiResponse.of(ApiCode.SUCCESS, analyticsService.getLowStock(threshold, checkLimit(limit)));
+    }
+
+    // -----------------------------------------------------------
+    // GET: Price histogram
+    // -----------------------------------------------------------
+
+    /**
+     * Counts books per price range.
+     *
+     * @return ApiResponse with one entry per price bucket.
+     */
+    @GetMapping("/price-histogram")
+    @Operation(
+        summary = "Price histogram",
+        description = "Counts books per configured price range (library.analytics.price-buckets).",
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Books per price bucket")
+        }
+    )
+    public ApiResponse<List<PriceBucketDTO>> getPriceHistogram() {
+        log.debug("📊 Getting price histogram");
+        return ApiResponse.of(ApiCode.SUCCESS, analyticsService.getPriceHistogram());
+    }
+
+    private static int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+}
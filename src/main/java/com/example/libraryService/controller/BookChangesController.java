@@ -0,0 +1,112 @@
+package com.example.libraryService.controller;
+
+import com.example.libraryService.exception.BadRequestException;
+import com.example.libraryService.exception.ServiceUnavailableException;
+import com.example.libraryService.feed.ChangeFeed;
+import com.example.libraryService.feed.ChangeFeedProperties;
+import com.example.libraryService.feed.SseChangeFeedSink;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ============================================================================
+ * Controller Class: BookChangesController
+ *
+ * Description:
+ *   Streams book changes as server-sent events, so clients no longer poll
+ *   GET /api/books to notice them. Each event carries the BookKafkaEvent
+ *   and a resumable cursor as its id.
+ *
+ * Base Path: /api/books
+ * ============================================================================
+ */
+
+@Slf4j
+@RestController
+@RequestMapping("/api/books")
+@Tag(name = "Book Changes Controller", description = "Streaming feed of book changes")
+public class BookChangesController {
+
+    private static final int MAX_FILTER_IDS = 1000;
+
+    /** Absent when library.change-feed.enabled=false. */
+    @Autowired(required = false)
+    private ChangeFeed changeFeed;
+
+    @Autowired(required = false)
+    private ChangeFeedProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // -----------------------------------------------------------
+    // GET: Stream of book changes
+    // -----------------------------------------------------------
+
+    /**
+     * Opens a server-sent events stream of book changes. Event names are the
+     * action (create, update, patch, delete); a "reset" event means changes
+     * since the cursor are no longer available and the client should reload.
+     *
+     * @param author      Only changes to books by this author (case-insensitive).
+     * @param ids         Only changes to these books.
+     * @param cursor      Resume after this event id.
+     * @param lastEventId Sent by EventSource on reconnect; same as cursor.
+     */
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Stream book changes",
+        description = "Server-sent events for every created, updated, patched or deleted book, optionally filtered "
+                + "by author or ids. Reconnect with the last event id (Last-Event-ID header or cursor) to resume.",
+        parameters = {
+            @Parameter(name = "author", in = ParameterIn.QUERY, required = false, description = "Author to follow"),
+            @Parameter(name = "ids", in = ParameterIn.QUERY, required = false, description = "Comma-separated book ids to follow (at most " + MAX_FILTER_IDS + ")"),
+            @Parameter(name = "cursor", in = ParameterIn.QUERY, required = false, description = "Id of the last event received"),
+            @Parameter(name = "Last-Event-ID", in = ParameterIn.HEADER, required = false, description = "Id of the last event received")
+        },
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor or too many ids"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Feed disabled or too many subscribers")
+        }
+    )
+    public void streamChanges(
+            @RequestParam Optional<String> author,
+            @RequestParam Optional<List<Long>> ids,
+            @RequestParam Optional<String> cursor,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+
+        if (changeFeed == null) {
+            throw new ServiceUnavailableException("The change feed is disabled");
+        }
+        if (ids.isPresent() && ids.get().size() > MAX_FILTER_IDS) {
+            throw new BadRequestException("At most " + MAX_FILTER_IDS + " ids can be followed");
+        }
+
+        SseChangeFeedSink sink = new SseChangeFeedSink(request, response, objectMapper,
+                properties.getConnectionTimeout());
+        ChangeFeed.Subscription subscription = changeFeed.subscribe(ChangeFeed.filter(author.orElse(null),
+                ids.orElse(null)), cursor.orElse(lastEventId), sink);
+        sink.onDisconnect(subscription::cancel);
+
+        log.debug("📡 Change feed subscriber connected (author='{}', ids={}), {} connected",
+                author.orElse(""), ids.map(List::size).orElse(0), changeFeed.subscriberCount());
+    }
+}
@@ -1,7 +1,14 @@
 package com.example.libraryService.controller;
 
+import com.example.libraryService.dto.BookAuditEntryDTO;
+import com.example.libraryService.dto.BookBatchRequestDTO;
+import com.example.libraryService.dto.BookBatchResponseDTO;
+import com.example.libraryService.dto.BookPatchDTO;
 import com.example.libraryService.dto.BookRequestDTO;
 import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.dto.SuggestionDTO;
+import com.example.libraryService.exception.BadRequestException;
+import com.example.libraryService.idfilter.BookIdFilter;
 import com.example.libraryService.response.ApiCode;
 import com.example.libraryService.response.ApiResponse;
 import com.example.libraryService.service.BookService;
@@ -12,13 +19,13 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
-import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.annotation.RequestBody;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -42,6 +49,13 @@ import java.util.concurrent.CompletableFuture;
 @Tag(name = "Book Controller", description = "Library API for book operations")
 public class BookController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_IDS = 5000;
+    private static final int MAX_SUGGESTIONS = 10;
+    private static final int DEFAULT_HISTORY_SIZE = 100;
+    private static final int MAX_HISTORY_SIZE = 1000;
+
 	 /** Service responsible for book operations */
     @Autowired
     private BookService bookService;
@@ -50,6 +64,10 @@ public class BookController {
     @Autowired
     private InventoryClientService inventoryClientService;
 
+    /** Bloom filter of existing ids; absent when library.id-filter.enabled=false. */
+    @Autowired(required = false)
+    private BookIdFilter bookIdFilter;
+
     // -----------------------------------------------------------
     // POST: Creating a new book
     // -----------------------------------------------------------
@@ -64,7 +82,7 @@ public class BookController {
     @Operation(
         summary = "Create a new book",
         description = "Creates a new book entry in the library with the given details.",
-        requestBody = @RequestBody(
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
             required = true,
             description = "Book request payload",
             content = @Content(schema = @Schema(implementation = BookRequestDTO.class))
@@ -90,19 +108,38 @@ public class BookController {
     // -----------------------------------------------------------
 
     /**
-     * Retrieves all book entries.
+     * Retrieves all book entries, or a single page of them when both
+     * {@code page} and {@code size} are given.
      *
-     * @return ApiResponse containing list of all books.
+     * @param page Optional zero-based page number.
+     * @param size Optional page size.
+     * @return ApiResponse containing list of books.
      */
     @GetMapping
     @Operation(
         summary = "Get all books",
-        description = "Fetches a list of all books stored in the library.",
+        description = "Fetches all books stored in the library, or one page of them ordered by ID.",
+        parameters = {
+            @Parameter(name = "page", in = ParameterIn.QUERY, required = false, description = "Zero-based page number (optional)"),
+            @Parameter(name = "size", in = ParameterIn.QUERY, required = false, description = "Page size (optional)")
+        },
         responses = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "List of all books")
         }
     )
-    public ApiResponse<List<BookResponseDTO>> getAllBooks() {
+    public ApiResponse<List<BookResponseDTO>> getAllBooks(
+            @RequestParam Optional<Integer> page,
+            @RequestParam Optional<Integer> size) {
+        if (page.isPresent() || size.isPresent()) {
+            int pageNumber = page.orElse(0);
+            int pageSize = size.orElse(DEFAULT_PAGE_SIZE);
+            if (pageNumber < 0 || pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                throw new BadRequestException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+            }
+            log.debug("📚 Getting books page {} (size {})", pageNumber, pageSize);
+            return ApiResponse.of(ApiCode.SUCCESS, bookService.getBooks(pageNumber, pageSize));
+        }
+
         log.debug("📚 Getting all books");
         List<BookResponseDTO> books = bookService.getAllBooks();
         return ApiResponse.of(ApiCode.SUCCESS, books);
@@ -135,9 +172,77 @@ public class BookController {
     )
     public ApiResponse<BookResponseDTO> getBookById(@PathVariable Long id) {
         log.debug("🔍 Getting book by ID: {}", id);
+        if (bookIdFilter != null && bookIdFilter.definitelyAbsent(id)) {
+            return bookNotFound(id);
+        }
         return ApiResponse.of(ApiCode.SUCCESS, bookService.getBookById(id));
     }
 
+    /**
+     * The same body GlobalExceptionHandler gives a ResourceNotFoundException,
+     * without the query, the exception and its stack trace, or the warning.
+     */
+    private static ApiResponse<BookResponseDTO> bookNotFound(Long id) {
+        return ApiResponse.<BookResponseDTO>builder()
+                .status(ApiCode.NOT_FOUND.getStatusCode())
+                .message("Book not found with ID: " + id)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    // -----------------------------------------------------------
+    // GET / POST: Retrieve many books by ID
+    // -----------------------------------------------------------
+
+    /**
+     * Retrieves several books in one call, e.g. {@code GET /api/books?ids=1,2,3}.
+     * Prefer {@link #batchGetBooks} for long id lists to stay within URL limits.
+     *
+     * @param ids IDs of the books to fetch.
+     * @return ApiResponse with the found books in request order and the missing IDs.
+     */
+    @GetMapping(params = "ids")
+    @Operation(
+        summary = "Get books by IDs",
+        description = "Retrieves up to " + MAX_BATCH_IDS + " books by ID in request order; unknown IDs are listed in missingIds.",
+        parameters = {
+            @Parameter(name = "ids", in = ParameterIn.QUERY, required = true, description = "Comma-separated book IDs")
+        },
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Books found and missing IDs"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "No IDs or too many IDs")
+        }
+    )
+    public ApiResponse<BookBatchResponseDTO> getBooksByIds(@RequestParam List<Long> ids) {
+        log.debug("🔍 Getting {} books by ID", ids.size());
+        return ApiResponse.of(ApiCode.SUCCESS, bookService.getBooksByIds(checkBatch(ids)));
+    }
+
+    /**
+     * Retrieves several books in one call, with the IDs in the request body.
+     *
+     * @param request Body holding the IDs of the books to fetch.
+     * @return ApiResponse with the found books in request order and the missing IDs.
+     */
+    @PostMapping("/batch-get")
+    @Operation(
+        summary = "Get books by IDs (request body)",
+        description = "Retrieves up to " + MAX_BATCH_IDS + " books by ID in request order; unknown IDs are listed in missingIds.",
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            required = true,
+            description = "IDs to fetch",
+            content = @Content(schema = @Schema(implementation = BookBatchRequestDTO.class))
+        ),
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Books found and missing IDs"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "No IDs or too many IDs")
+        }
+    )
+    public ApiResponse<BookBatchResponseDTO> batchGetBooks(@Valid @RequestBody BookBatchRequestDTO request) {
+        log.debug("🔍 Batch-getting {} books", request.getIds().size());
+        return ApiResponse.of(ApiCode.SUCCESS, bookService.getBooksByIds(checkBatch(request.getIds())));
+    }
+
  // ============================================================================
     // PUT: Full update of a book
     // ============================================================================
@@ -156,7 +261,7 @@ public class BookController {
         parameters = {
             @Parameter(name = "id", in = ParameterIn.PATH, required = true, description = "Book ID")
         },
-        requestBody = @RequestBody(
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
             required = true,
             description = "Updated book information",
             content = @Content(schema = @Schema(implementation = BookRequestDTO.class))
@@ -189,17 +294,18 @@ public class BookController {
         parameters = {
             @Parameter(name = "id", in = ParameterIn.PATH, required = true, description = "Book ID")
         },
-        requestBody = @RequestBody(
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
             required = true,
-            description = "Partial book data",
-            content = @Content(schema = @Schema(implementation = BookRequestDTO.class))
+            description = "Fields to change; absent fields stay as they are, a stock of 0 sells the book out",
+            content = @Content(schema = @Schema(implementation = BookPatchDTO.class))
         ),
         responses = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Book updated successfully"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid field value"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Book not found")
         }
     )
-    public ApiResponse<BookResponseDTO> patchBook(@PathVariable Long id, @RequestBody BookRequestDTO dto) {
+    public ApiResponse<BookResponseDTO> patchBook(@PathVariable Long id, @Valid @RequestBody BookPatchDTO dto) {
         log.info("🩹 Patching book ID: {}", id);
         return ApiResponse.of(ApiCode.UPDATED, bookService.patchBook(id, dto));
     }
@@ -232,6 +338,43 @@ public class BookController {
         return ApiResponse.of(ApiCode.DELETED, "Book deleted successfully");
     }
 
+    // -----------------------------------------------------------
+    // GET: Audit history of a book
+    // -----------------------------------------------------------
+
+    /**
+     * Retrieves the recorded writes of a book with its state before and
+     * after each one. Deleted books keep their history.
+     *
+     * @param id    ID of the book.
+     * @param limit Maximum number of entries, the newest are kept.
+     * @return ApiResponse with the book's writes, oldest first.
+     */
+    @GetMapping("/{id}/audit")
+    @Operation(
+        summary = "Get the audit history of a book",
+        description = "Creates, updates, patches and deletes of the book made through this instance, with before and "
+                + "after images, oldest first. Reads the instance's local audit log, within its retention.",
+        parameters = {
+            @Parameter(name = "id", in = ParameterIn.PATH, required = true, description = "Book ID"),
+            @Parameter(name = "limit", in = ParameterIn.QUERY, required = false, description = "Maximum entries (default " + DEFAULT_HISTORY_SIZE + ", at most " + MAX_HISTORY_SIZE + ")")
+        },
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "History fetched, empty if none is retained"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid limit"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Audit log disabled")
+        }
+    )
+    public ApiResponse<List<BookAuditEntryDTO>> getBookHistory(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "" + DEFAULT_HISTORY_SIZE) int limit) {
+        if (limit < 1 || limit > MAX_HISTORY_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_HISTORY_SIZE);
+        }
+        log.debug("📜 Getting audit history of book ID: {}", id);
+        return ApiResponse.of(ApiCode.SUCCESS, bookService.getBookHistory(id, limit));
+    }
+
     // ============================================================================
     // GET: Inventory products via Resilience4j
     // ============================================================================
@@ -287,6 +430,47 @@ public class BookController {
         List<BookResponseDTO> result = bookService.searchBooks(title, author);
         return ApiResponse.of(ApiCode.SUCCESS, result);
     }
-    
+
+    // ============================================================================
+    // GET: Typeahead suggestions
+    // ============================================================================
+
+    /**
+     * Suggests titles and authors for a typeahead. Served from an in-memory
+     * prefix trie, so it is meant to be called on every keystroke.
+     *
+     * @param q     What the user has typed so far.
+     * @param limit Maximum number of suggestions.
+     * @return ApiResponse with suggestions, best stocked first.
+     */
+    @GetMapping("/suggest")
+    @Operation(
+        summary = "Typeahead suggestions",
+        description = "Titles and authors (or one of their words) starting with the given text, case-insensitive, highest stock first.",
+        parameters = {
+            @Parameter(name = "q", in = ParameterIn.QUERY, required = true, description = "Typed prefix"),
+            @Parameter(name = "limit", in = ParameterIn.QUERY, required = false, description = "Maximum suggestions (default and maximum " + MAX_SUGGESTIONS + ")")
+        },
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Suggestions fetched successfully"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Empty prefix or invalid limit")
+        }
+    )
+    public ApiResponse<List<SuggestionDTO>> suggestBooks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + MAX_SUGGESTIONS) int limit) {
+        if (q.isBlank() || limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new BadRequestException("q must not be blank and limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        log.debug("💡 Suggesting books for '{}'", q);
+        return ApiResponse.of(ApiCode.SUCCESS, bookService.suggestBooks(q, limit));
+    }
+
+    private static List<Long> checkBatch(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_IDS) {
+            throw new BadRequestException("between 1 and " + MAX_BATCH_IDS + " ids are allowed per request");
+        }
+        return ids;
+    }
 
 } 
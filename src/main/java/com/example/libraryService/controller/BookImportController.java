@@ -0,0 +1,134 @@
+package com.example.libraryService.controller;
+
+import com.example.libraryService.bulkimport.BulkImportService;
+import com.example.libraryService.dto.ImportJobDTO;
+import com.example.libraryService.dto.ImportRequestDTO;
+import com.example.libraryService.exception.ServiceUnavailableException;
+import com.example.libraryService.response.ApiCode;
+import com.example.libraryService.response.ApiResponse;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+/**
+ * ============================================================================
+ * Controller Class: BookImportController
+ *
+ * Description:
+ *   Starts bulk imports of supplier catalog files (CSV or NDJSON) from the
+ *   service's import inbox and reports their progress. Imported books are
+ *   upserted without confirmation emails.
+ *
+ * Base Path: /api/books/imports
+ * ============================================================================
+ */
+
+@Slf4j
+@RestController
+@RequestMapping("/api/books/imports")
+@Tag(name = "Book Import Controller", description = "Bulk catalog imports from files")
+public class BookImportController {
+
+    /** Absent when library.import.enabled=false. */
+    @Autowired(required = false)
+    private BulkImportService bulkImportService;
+
+    // -----------------------------------------------------------
+    // POST: Start an import
+    // -----------------------------------------------------------
+
+    /**
+     * Queues the import of a file from the import inbox.
+     *
+     * @param request File (relative to the inbox) and optional format.
+     * @return ApiResponse with the queued job; poll its status by id.
+     */
+    @PostMapping
+    @Operation(
+        summary = "Start a bulk import",
+        description = "Queues a background import of a CSV or NDJSON file from the import inbox. Rows are validated "
+                + "like POST /api/books and upserted by id; rows without an id become new books.",
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Import queued"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unknown file, format or CSV header")
+        }
+    )
+    public ApiResponse<ImportJobDTO> startImport(@Valid @org.springframework.web.bind.annotation.RequestBody ImportRequestDTO request) {
+        log.info("📥 Import requested for {}", request.getFile());
+        return ApiResponse.of(ApiCode.ACCEPTED, service().submit(request.getFile(), request.getFormat()));
+    }
+
+    // -----------------------------------------------------------
+    // GET: Import status
+    // -----------------------------------------------------------
+
+    /**
+     * @param id ID of the import job.
+     * @return ApiResponse with the job's progress, counts and first rejected rows.
+     */
+    @GetMapping("/{id}")
+    @Operation(
+        summary = "Get import status",
+        description = "Progress in bytes and lines, created/updated/rejected counts and the first rejected rows.",
+        parameters = {
+            @Parameter(name = "id", in = ParameterIn.PATH, required = true, description = "Import job ID")
+        },
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Job found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Job not found")
+        }
+    )
+    public ApiResponse<ImportJobDTO> getImport(@PathVariable long id) {
+        return ApiResponse.of(ApiCode.SUCCESS, service().getJob(id));
+    }
+
+    /**
+     * @return ApiResponse with all known import jobs, newest first.
+     */
+    @GetMapping
+    @Operation(summary = "List imports", description = "All import jobs known to this instance, newest first.")
+    public ApiResponse<List<ImportJobDTO>> getImports() {
+        return ApiResponse.of(ApiCode.SUCCESS, service().getJobs());
+    }
+
+    // -----------------------------------------------------------
+    // POST: Resume a failed import
+    // -----------------------------------------------------------
+
+    /**
+     * @param id ID of a failed import job.
+     * @return ApiResponse with the job, queued again from its last checkpoint.
+     */
+    @PostMapping("/{id}/resume")
+    @Operation(
+        summary = "Resume a failed import",
+        description = "Continues a failed import after the last committed chunk. Interrupted imports resume by themselves on startup.",
+        parameters = {
+            @Parameter(name = "id", in = ParameterIn.PATH, required = true, description = "Import job ID")
+        },
+        responses = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Import queued again"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Job has not failed"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Job not found")
+        }
+    )
+    public ApiResponse<ImportJobDTO> resumeImport(@PathVariable long id) {
+        log.info("📥 Resuming import {}", id);
+        return ApiResponse.of(ApiCode.ACCEPTED, service().resume(id));
+    }
+
+    private BulkImportService service() {
+        if (bulkImportService == null) {
+            throw new ServiceUnavailableException("Bulk imports are disabled");
+        }
+        return bulkImportService;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.libraryService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorStockValueDTO {
+    private String author;
+    private long books;
+    private long units;
+    private double stockValue;
+}
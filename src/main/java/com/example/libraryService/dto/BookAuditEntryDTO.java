@@ -0,0 +1,29 @@
+package com.example.libraryService.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookAuditEntryDTO {
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss.SSS")
+    private LocalDateTime timestamp;
+
+    /** CREATE, UPDATE, PATCH or DELETE. */
+    private String action;
+
+    /** The book before the write; null for a create. */
+    private BookResponseDTO before;
+
+    /** The book after the write; null for a delete. */
+    private BookResponseDTO after;
+}
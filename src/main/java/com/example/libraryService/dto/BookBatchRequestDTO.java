@@ -0,0 +1,19 @@
+package com.example.libraryService.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBatchRequestDTO {
+
+    @NotEmpty(message = "ids must not be empty")
+    private List<Long> ids;
+}
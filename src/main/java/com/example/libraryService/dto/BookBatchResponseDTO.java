@@ -0,0 +1,19 @@
+package com.example.libraryService.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBatchResponseDTO {
+    /** Found books, in the order their ids were requested. */
+    private List<BookResponseDTO> books;
+    /** Requested ids with no book, in request order. */
+    private List<Long> missingIds;
+}
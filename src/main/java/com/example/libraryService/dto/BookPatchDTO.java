@@ -0,0 +1,81 @@
+package com.example.libraryService.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Body of a PATCH: only the fields that are present change. Presence is
+ * tracked per field, so a stock of 0 sells the book out instead of being
+ * taken for "unchanged". A field sent as null counts as absent. The
+ * has-methods are the presence checks BookMapper applies.
+ */
+@Getter
+@ToString
+public class BookPatchDTO {
+
+    private static final int TITLE = 1;
+    private static final int AUTHOR = 1 << 1;
+    private static final int PRICE = 1 << 2;
+    private static final int STOCK = 1 << 3;
+
+    @Size(min = 2, max = 100, message = "Title must be between 2 and 100 characters")
+    private String title;
+
+    @Pattern(regexp = ".*\\S.*", message = "Author must not be blank")
+    private String author;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
+    private Double price;
+
+    @Min(value = 0, message = "Stock cannot be negative")
+    private int stock;
+
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private int present;
+
+    public void setTitle(String title) {
+        this.title = title;
+        mark(TITLE, title != null);
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+        mark(AUTHOR, author != null);
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+        mark(PRICE, price != null);
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock != null ? stock : 0;
+        mark(STOCK, stock != null);
+    }
+
+    public boolean hasTitle() {
+        return (present & TITLE) != 0;
+    }
+
+    public boolean hasAuthor() {
+        return (present & AUTHOR) != 0;
+    }
+
+    public boolean hasPrice() {
+        return (present & PRICE) != 0;
+    }
+
+    public boolean hasStock() {
+        return (present & STOCK) != 0;
+    }
+
+    private void mark(int field, boolean isPresent) {
+        present = isPresent ? present | field : present & ~field;
+    }
+}
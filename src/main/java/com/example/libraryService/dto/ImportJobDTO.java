@@ -0,0 +1,46 @@
+package com.example.libraryService.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a bulk import. It is also the job's checkpoint on disk:
+ * {@code processedBytes} is where a resumed job continues.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDTO {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private long id;
+    private String file;
+    private String format;
+    private Status status;
+    private long totalBytes;
+    /** Bytes of the file whose rows are committed. */
+    private long processedBytes;
+    private long linesProcessed;
+    private long created;
+    private long updated;
+    private long rejected;
+    /** The first rejected rows; {@code rejected} counts all of them. */
+    private List<ImportErrorDTO> errors;
+    /** Why the job failed. */
+    private String message;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime submittedAt;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,19 @@
+package com.example.libraryService.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRequestDTO {
+    /** File to import, relative to library.import.inbox-dir. */
+    @NotBlank(message = "File is required")
+    private String file;
+    /** csv or ndjson; taken from the file extension when omitted. */
+    private String format;
+}
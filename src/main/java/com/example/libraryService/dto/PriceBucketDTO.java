@@ -0,0 +1,18 @@
+package com.example.libraryService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceBucketDTO {
+    /** Inclusive lower bound. */
+    private double from;
+    /** Exclusive upper bound, null for the open-ended last bucket. */
+    private Double to;
+    private long books;
+}
@@ -0,0 +1,20 @@
+package com.example.libraryService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDTO {
+    private String text;
+    /** "title" or "author" */
+    private String type;
+    /** Set for title suggestions. */
+    private Long bookId;
+    /** Units in stock, summed over the author's books for authors. */
+    private long score;
+}
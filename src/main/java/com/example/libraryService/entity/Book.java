@@ -1,43 +1,86 @@
 package com.example.libraryService.entity;
 
 import java.util.List;
+import java.util.Locale;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.domain.Persistable;
 
 import jakarta.persistence.*;
-import jakarta.validation.constraints.*;
 import lombok.*;
 
 @Entity
-@Table(name = "books")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Book.CACHE_REGION)
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_title_normalized", columnList = "title_normalized"),
+        @Index(name = "idx_books_author_normalized", columnList = "author_normalized"),
+        @Index(name = "idx_books_email", columnList = "email")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @ToString
-public class Book {
+public class Book implements Persistable<Long> {
+
+    /** Second-level cache region of books by id, see hibernate-jcache.conf. */
+    public static final String CACHE_REGION = "books";
 
+    /** Assigned by the service from an {@code IdGenerator} before the first save. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @NotBlank(message = "Book title must not be blank")
-    @Size(min = 2, max = 100, message = "Title must be between 2 and 100 characters")
+    // validated once, as BookRequestDTO/BookPatchDTO at the API boundary, not again on flush
     private String title;
-
-    @NotBlank(message = "Author must not be blank")
     private String author;
-
-    @NotNull(message = "Price must not be null")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
     private Double price;
-
-    @Min(value = 1, message = "Minimum stock should be 1")
     private int stock;
-
-    @Email(message = "Invalid email format")
-    @NotBlank(message = "Email is required")
-    private String email; 
+    private String email;
     private String templateType; 
     private String recipientName;
 
+    /** Lower-cased title, indexed for case-insensitive prefix search. */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "title_normalized", length = 100)
+    private String titleNormalized;
+
+    /** Lower-cased author, indexed for case-insensitive prefix search. */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "author_normalized")
+    private String authorNormalized;
+
+    /** Ids are assigned up front, so newness cannot be derived from a null id. */
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private boolean newEntity = true;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeSearchColumns() {
+        this.titleNormalized = normalize(title);
+        this.authorNormalized = normalize(author);
+    }
+
+    /** Normalization shared by the stored columns and the search terms. */
+    public static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
 }
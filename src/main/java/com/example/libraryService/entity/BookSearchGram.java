@@ -0,0 +1,43 @@
+package com.example.libraryService.entity;
+
+import java.io.Serializable;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * One trigram of a book's title or author, read by the search query. Rows
+ * are written with JDBC by {@code BookSearchGrams}, never through JPA.
+ */
+@Entity
+@Immutable
+@IdClass(BookSearchGram.Key.class)
+@Table(name = "book_search_grams")
+@Getter
+@NoArgsConstructor
+public class BookSearchGram {
+
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Id
+    private String gram;
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long bookId;
+        private String gram;
+    }
+}
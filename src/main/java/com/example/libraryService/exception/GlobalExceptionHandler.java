@@ -43,6 +43,17 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ApiResponse<Object> handleServiceUnavailable(ServiceUnavailableException ex) {
+        log.warn("Service unavailable: {}", ex.getMessage());
+        return ApiResponse.builder()
+                .status(ApiCode.SERVICE_UNAVAILABLE.getStatusCode())
+                .message(ex.getMessage())
+                .data(null)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ApiResponse<Object> handleValidation(MethodArgumentNotValidException ex) {
         Map<String, String> errorMap = ex.getBindingResult().getFieldErrors()
@@ -0,0 +1,363 @@
+package com.example.libraryService.feed;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import com.example.libraryService.entity.Book;
+import com.example.libraryService.exception.BadRequestException;
+import com.example.libraryService.exception.ServiceUnavailableException;
+import com.example.libraryService.kafka.BookKafkaEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: ChangeFeed
+ *
+ * Description:
+ *   Fans BOOKS events out to many streaming subscribers.
+ *
+ *   - The id of every event is a cursor: the last offset seen on each Kafka
+ *     partition, e.g. "0:118,1:97". All nodes read the same topic, so a
+ *     cursor can be resumed on any of them.
+ *   - The last {@code replayBuffer} events are kept in a ring. A subscriber
+ *     that comes back with a cursor gets what it missed from the ring. When
+ *     the ring no longer reaches back that far, or the cursor predates the
+ *     offsets this node started reading from or names a partition it does
+ *     not read, it gets a "reset" event and should reload before following
+ *     the feed again.
+ *   - Publishing never waits for a subscriber. Each one has a bounded queue
+ *     drained by a small pool of sender threads, which only write while the
+ *     sink is ready and never block on a slow connection; a subscriber whose
+ *     queue overflows is disconnected and can resume from its last event id.
+ * ============================================================================
+ */
+@Slf4j
+public class ChangeFeed implements DisposableBean {
+
+    public static final String RESET = "reset";
+    private static final Message HEARTBEAT = new Message(null, null, null);
+
+    private final int subscriberBuffer;
+    private final int maxSubscribers;
+
+    // ring of recent events, guarded by this
+    private final Entry[] ring;
+    private int next;
+    /** partition -> last offset published */
+    private final Map<Integer, Long> positions = new TreeMap<>();
+    /** partition -> lowest offset still replayable; a partition without one is unknown here */
+    private final Map<Integer, Long> replayableFrom = new HashMap<>();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong evictions = new AtomicLong();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+
+    public ChangeFeed(ChangeFeedProperties properties) {
+        this.ring = new Entry[properties.getReplayBuffer()];
+        this.subscriberBuffer = properties.getSubscriberBuffer();
+        this.maxSubscribers = properties.getMaxSubscribers();
+        this.senders = Executors.newFixedThreadPool(properties.getSenderThreads(), threadFactory("change-feed-sender-"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(threadFactory("change-feed-heartbeat-"));
+        long period = properties.getHeartbeat().toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records where reading starts on newly assigned partitions, the first
+     * offset this feed will publish on each: a cursor before it cannot be
+     * resumed here.
+     */
+    public synchronized void assigned(Map<Integer, Long> startOffsets) {
+        startOffsets.forEach((partition, start) -> {
+            positions.merge(partition, start - 1, Math::max);
+            replayableFrom.merge(partition, start, Math::max);
+        });
+    }
+
+    /** Publishes an event read from {@code partition} at {@code offset}; redeliveries are dropped. */
+    public synchronized void publish(BookKafkaEvent event, int partition, long offset) {
+        Long last = positions.get(partition);
+        if (last != null && offset <= last) {
+            return;
+        }
+        positions.put(partition, offset);
+        replayableFrom.putIfAbsent(partition, offset);
+
+        Entry entry = new Entry(event, partition, offset, format(positions));
+        Entry dropped = ring[next];
+        if (dropped != null) {
+            replayableFrom.merge(dropped.partition(), dropped.offset() + 1, Math::max);
+        }
+        ring[next] = entry;
+        next = (next + 1) % ring.length;
+
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(entry);
+        }
+    }
+
+    /**
+     * Subscribes {@code sink} to the events that pass {@code filter}.
+     *
+     * @param cursor id of the last event the client received, or null to start with the next event
+     * @return handle to cancel the subscription when the connection ends
+     */
+    public synchronized Subscription subscribe(Predicate<BookKafkaEvent> filter, String cursor, ChangeFeedSink sink) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceUnavailableException("Too many change feed subscribers, retry later");
+        }
+        Subscriber subscriber = new Subscriber(filter, sink);
+        // an immediate first write commits the response, so the client sees the stream open
+        subscriber.queue.add(HEARTBEAT);
+        if (cursor != null) {
+            replay(subscriber, parse(cursor));
+        }
+        sink.open(subscriber::wake);
+        subscribers.add(subscriber);
+        subscriber.schedule();
+        return subscriber;
+    }
+
+    private void replay(Subscriber subscriber, Map<Integer, Long> seen) {
+        boolean complete = replayableFrom.keySet().containsAll(seen.keySet())
+                && replayableFrom.entrySet().stream()
+                        .allMatch(start -> seen.getOrDefault(start.getKey(), -1L) + 1 >= start.getValue());
+        List<Entry> missed = new ArrayList<>();
+        if (complete) {
+            for (int i = 0; i < ring.length; i++) {
+                Entry entry = ring[(next + i) % ring.length];
+                if (entry != null && entry.offset() > seen.getOrDefault(entry.partition(), -1L)
+                        && subscriber.filter.test(entry.event())) {
+                    missed.add(entry);
+                }
+            }
+        }
+        if (!complete || missed.size() > subscriberBuffer) {
+            subscriber.queue.add(new Message(format(positions), RESET, "Events since the cursor are gone; reload and resume from this event"));
+            return;
+        }
+        missed.forEach(entry -> subscriber.queue.add(Message.of(entry)));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.offer(HEARTBEAT)) {
+                subscriber.schedule();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.cancel();
+            subscriber.closeSink();
+        }
+        senders.shutdown();
+    }
+
+    /**
+     * Events of books by {@code author} (case-insensitive) and among
+     * {@code ids}; a null criterion matches every event.
+     */
+    public static Predicate<BookKafkaEvent> filter(String author, Collection<Long> ids) {
+        Predicate<BookKafkaEvent> filter = event -> true;
+        if (author != null) {
+            String normalized = Book.normalize(author);
+            filter = filter.and(event -> normalized.equals(Book.normalize(event.getAuthor())));
+        }
+        if (ids != null) {
+            Set<Long> followed = Set.copyOf(ids);
+            filter = filter.and(event -> followed.contains(event.getId()));
+        }
+        return filter;
+    }
+
+    /** "0:118,1:97" -> {0=118, 1=97} */
+    static Map<Integer, Long> parse(String cursor) {
+        Map<Integer, Long> positions = new HashMap<>();
+        if (cursor.isBlank()) {
+            return positions;
+        }
+        try {
+            for (String position : cursor.split(",")) {
+                String[] parts = position.split(":");
+                positions.put(Integer.parseInt(parts[0].trim()), Long.parseLong(parts[1].trim()));
+            }
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid change feed cursor: " + cursor);
+        }
+        return positions;
+    }
+
+    static String format(Map<Integer, Long> positions) {
+        return positions.entrySet().stream()
+                .map(position -> position.getKey() + ":" + position.getValue())
+                .collect(Collectors.joining(","));
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public interface Subscription {
+        void cancel();
+    }
+
+    private record Entry(BookKafkaEvent event, int partition, long offset, String cursor) {}
+
+    /** One queued write; the heartbeat has no name. */
+    private record Message(String id, String name, Object data) {
+        static Message of(Entry entry) {
+            String action = entry.event().getAction();
+            return new Message(entry.cursor(), action != null ? action.toLowerCase(Locale.ROOT) : "change", entry.event());
+        }
+    }
+
+    private final class Subscriber implements Subscription {
+
+        final Predicate<BookKafkaEvent> filter;
+        final ChangeFeedSink sink;
+        final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(subscriberBuffer + 2);
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        /** The sink became ready while a drain was finishing. */
+        final AtomicBoolean woken = new AtomicBoolean();
+        final AtomicBoolean sinkClosed = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(Predicate<BookKafkaEvent> filter, ChangeFeedSink sink) {
+            this.filter = filter;
+            this.sink = sink;
+        }
+
+        void offer(Entry entry) {
+            if (closed || !filter.test(entry.event())) {
+                return;
+            }
+            if (queue.offer(Message.of(entry))) {
+                schedule();
+            } else {
+                evict();
+            }
+        }
+
+        void schedule() {
+            if (!queue.isEmpty()) {
+                execute();
+            }
+        }
+
+        /** The sink is ready again: drain, and let a finishing drain know. */
+        void wake() {
+            woken.set(true);
+            execute();
+        }
+
+        private void execute() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            woken.set(false);
+            boolean ready = false;
+            try {
+                Message message;
+                while (!closed && (ready = sink.isReady()) && (message = queue.poll()) != null) {
+                    if (message == HEARTBEAT) {
+                        sink.comment("keep-alive");
+                    } else {
+                        sink.send(message.id(), message.name(), message.data());
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // the client went away
+                log.debug("Change feed subscriber dropped: {}", e.toString());
+                cancel();
+            } finally {
+                scheduled.set(false);
+            }
+            if (closed) {
+                closeSink();
+            } else if (woken.get()) {
+                execute();
+            } else if (ready) {
+                schedule();
+            }
+            // otherwise the sink wakes the subscriber once it has room
+        }
+
+        private void evict() {
+            if (closed) {
+                return;
+            }
+            cancel();
+            evictions.incrementAndGet();
+            log.warn("Change feed subscriber fell {} events behind and was disconnected", subscriberBuffer);
+            // a drain in progress closes the sink once its current write returns
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::closeSink);
+                } catch (RejectedExecutionException e) {
+                    closeSink();
+                }
+            }
+        }
+
+        private void closeSink() {
+            if (sinkClosed.compareAndSet(false, true)) {
+                sink.close();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.libraryService.feed;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wires the streaming change feed when {@code library.change-feed.enabled}
+ * is true (the default).
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ChangeFeedProperties.class)
+@ConditionalOnProperty(prefix = "library.change-feed", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeFeedConfig {
+
+    /** The listener fills the replay rings before anyone subscribes. */
+    @Bean
+    static LazyInitializationExcludeFilter eagerChangeFeedListener() {
+        return LazyInitializationExcludeFilter.forBeanTypes(ChangeFeedListener.class);
+    }
+
+    @Bean
+    public ChangeFeed changeFeed(ChangeFeedProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        ChangeFeed feed = new ChangeFeed(properties);
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("library.change_feed.subscribers", feed, ChangeFeed::subscriberCount)
+                    .description("Connected change feed subscribers")
+                    .register(registry);
+            FunctionCounter.builder("library.change_feed.evictions", feed, ChangeFeed::evictions)
+                    .description("Subscribers disconnected for falling behind")
+                    .register(registry);
+        });
+        return feed;
+    }
+
+    @Bean
+    public ChangeFeedListener changeFeedListener(ChangeFeed changeFeed) {
+        return new ChangeFeedListener(changeFeed);
+    }
+}
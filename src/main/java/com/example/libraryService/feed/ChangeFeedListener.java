@@ -0,0 +1,31 @@
+package com.example.libraryService.feed;
+
+import java.util.Map;
+
+import com.example.libraryService.kafka.BookEventHandler;
+import com.example.libraryService.kafka.BookKafkaEvent;
+
+/**
+ * Feeds the BOOKS topic into the {@link ChangeFeed}, from the latest offset
+ * of this instance's BookEventFanOut: the feed only carries changes made
+ * while this node is up. The offsets it starts from are handed to the feed,
+ * so cursors from before them are reset rather than silently resumed.
+ */
+public class ChangeFeedListener implements BookEventHandler {
+
+    private final ChangeFeed feed;
+
+    public ChangeFeedListener(ChangeFeed feed) {
+        this.feed = feed;
+    }
+
+    @Override
+    public void assigned(Map<Integer, Long> startOffsets) {
+        feed.assigned(startOffsets);
+    }
+
+    @Override
+    public void onBookEvent(BookKafkaEvent event, int partition, long offset) {
+        feed.publish(event, partition, offset);
+    }
+}
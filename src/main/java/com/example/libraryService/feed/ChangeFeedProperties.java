@@ -0,0 +1,36 @@
+package com.example.libraryService.feed;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings under {@code library.change-feed}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "library.change-feed")
+public class ChangeFeedProperties {
+
+    private boolean enabled = true;
+
+    /** Recent events kept so that reconnecting clients can resume from their cursor. */
+    private int replayBuffer = 10_000;
+
+    /** Events queued per subscriber; a subscriber that falls further behind is disconnected. */
+    private int subscriberBuffer = 256;
+
+    private int maxSubscribers = 10_000;
+
+    /** Threads writing to subscriber connections. */
+    private int senderThreads = 4;
+
+    /** Comment sent to idle connections so proxies keep them open and dead ones are noticed. */
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    /** Connections are closed after this long; clients reconnect with their last event id. */
+    private Duration connectionTimeout = Duration.ofMinutes(30);
+}
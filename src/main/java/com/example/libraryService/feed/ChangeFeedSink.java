@@ -0,0 +1,31 @@
+package com.example.libraryService.feed;
+
+import java.io.IOException;
+
+/**
+ * Connection of one change-feed subscriber. Only ever called by one sender
+ * thread at a time, and only while {@link #isReady()}: writes must not block
+ * that thread, so a sink buffers them and reports when it has room again.
+ */
+public interface ChangeFeedSink {
+
+    /**
+     * Called once the subscription is accepted, before the first write.
+     *
+     * @param onReady to run (from any thread) whenever the sink becomes ready
+     *                again after {@link #isReady()} returned false
+     */
+    default void open(Runnable onReady) {
+    }
+
+    /** Whether the connection takes another write now. */
+    default boolean isReady() {
+        return true;
+    }
+
+    void send(String id, String name, Object data) throws IOException;
+
+    void comment(String text) throws IOException;
+
+    void close();
+}
@@ -0,0 +1,150 @@
+package com.example.libraryService.feed;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes change-feed events to a server-sent events response with servlet
+ * non-blocking I/O: a write only hands the event to the container, which
+ * sends it as the client reads, and the sink is not ready again until the
+ * container has room. A slow client therefore never holds a sender thread.
+ */
+public class SseChangeFeedSink implements ChangeFeedSink {
+
+    private final HttpServletRequest request;
+    private final HttpServletResponse response;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+
+    private AsyncContext async;
+    private ServletOutputStream out;
+    /** Written but not yet flushed because the container had no room. */
+    private boolean unflushed;
+    private volatile Runnable onDisconnect = () -> { };
+
+    public SseChangeFeedSink(HttpServletRequest request, HttpServletResponse response, ObjectMapper objectMapper,
+                             Duration timeout) {
+        this.request = request;
+        this.response = response;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+    }
+
+    /** Runs {@code callback} when the client goes away or the connection times out. */
+    public void onDisconnect(Runnable callback) {
+        this.onDisconnect = callback;
+    }
+
+    @Override
+    public void open(Runnable onReady) {
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        async = request.startAsync(request, response);
+        async.setTimeout(timeout.toMillis());
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                onDisconnect.run();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                onDisconnect.run();
+                event.getAsyncContext().complete();
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                onDisconnect.run();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        try {
+            out = response.getOutputStream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        out.setWriteListener(new WriteListener() {
+            @Override
+            public void onWritePossible() {
+                onReady.run();
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                onDisconnect.run();
+            }
+        });
+    }
+
+    @Override
+    public boolean isReady() {
+        if (!out.isReady()) {
+            return false;
+        }
+        if (unflushed) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.isReady();
+        }
+        return true;
+    }
+
+    @Override
+    public void send(String id, String name, Object data) throws IOException {
+        StringBuilder event = new StringBuilder();
+        event.append("id:").append(id).append('\n');
+        event.append("event:").append(name).append('\n');
+        event.append("data:").append(objectMapper.writeValueAsString(data).replace("\n", "\ndata:")).append("\n\n");
+        write(event.toString());
+    }
+
+    @Override
+    public void comment(String text) throws IOException {
+        write(":" + text + "\n\n");
+    }
+
+    @Override
+    public void close() {
+        try {
+            async.complete();
+        } catch (IllegalStateException e) {
+            // already completed by a timeout or a disconnect
+        }
+    }
+
+    private void write(String frame) throws IOException {
+        out.write(frame.getBytes(StandardCharsets.UTF_8));
+        unflushed = true;
+        if (out.isReady()) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        out.flush();
+        unflushed = false;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.libraryService.grpc;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import com.example.libraryService.dto.BookBatchResponseDTO;
+import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.exception.BadRequestException;
+import com.example.libraryService.exception.ResourceNotFoundException;
+import com.example.libraryService.exception.ServiceUnavailableException;
+import com.example.libraryService.feed.ChangeFeed;
+import com.example.libraryService.grpc.proto.Book;
+import com.example.libraryService.grpc.proto.BookChange;
+import com.example.libraryService.grpc.proto.BookLookupGrpc;
+import com.example.libraryService.grpc.proto.GetBookRequest;
+import com.example.libraryService.grpc.proto.GetBooksRequest;
+import com.example.libraryService.grpc.proto.GetBooksResponse;
+import com.example.libraryService.grpc.proto.ListBooksRequest;
+import com.example.libraryService.grpc.proto.SearchBooksRequest;
+import com.example.libraryService.grpc.proto.SearchBooksResponse;
+import com.example.libraryService.grpc.proto.WatchChangesRequest;
+import com.example.libraryService.idfilter.BookIdFilter;
+import com.example.libraryService.service.BookService;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: BookGrpcService
+ *
+ * Description:
+ *   The BookLookup gRPC service (src/main/proto/book_lookup.proto) for
+ *   other services. Calls go to the same BookService, id filter and change
+ *   feed as the REST endpoints, with the same limits. The service's
+ *   exceptions become status codes: ResourceNotFoundException NOT_FOUND,
+ *   BadRequestException INVALID_ARGUMENT, ServiceUnavailableException
+ *   UNAVAILABLE, anything else INTERNAL.
+ *
+ *   The streaming calls send only as fast as the client reads.
+ * ============================================================================
+ */
+@Slf4j
+public class BookGrpcService extends BookLookupGrpc.BookLookupImplBase {
+
+    /** Same limits as BookController and BookChangesController. */
+    private static final int MAX_BATCH_IDS = 5000;
+    private static final int MAX_FILTER_IDS = 1000;
+
+    private final BookService bookService;
+    private final BookIdFilter bookIdFilter;
+    private final ChangeFeed changeFeed;
+
+    /**
+     * @param bookIdFilter null when library.id-filter.enabled=false
+     * @param changeFeed   null when library.change-feed.enabled=false
+     */
+    public BookGrpcService(BookService bookService, BookIdFilter bookIdFilter, ChangeFeed changeFeed) {
+        this.bookService = bookService;
+        this.bookIdFilter = bookIdFilter;
+        this.changeFeed = changeFeed;
+    }
+
+    @Override
+    public void getBook(GetBookRequest request, StreamObserver<Book> observer) {
+        long id = request.getId();
+        if (bookIdFilter != null && bookIdFilter.definitelyAbsent(id)) {
+            observer.onError(Status.NOT_FOUND.withDescription("Book not found with ID: " + id).asRuntimeException());
+            return;
+        }
+        unary(observer, () -> BookMessages.toMessage(bookService.getBookById(id)));
+    }
+
+    @Override
+    public void getBooks(GetBooksRequest request, StreamObserver<GetBooksResponse> observer) {
+        unary(observer, () -> {
+            if (request.getIdsCount() == 0 || request.getIdsCount() > MAX_BATCH_IDS) {
+                throw new BadRequestException("between 1 and " + MAX_BATCH_IDS + " ids are allowed per request");
+            }
+            BookBatchResponseDTO found = bookService.getBooksByIds(request.getIdsList());
+            GetBooksResponse.Builder response = GetBooksResponse.newBuilder().addAllMissingIds(found.getMissingIds());
+            found.getBooks().forEach(book -> response.addBooks(BookMessages.toMessage(book)));
+            return response.build();
+        });
+    }
+
+    @Override
+    public void searchBooks(SearchBooksRequest request, StreamObserver<SearchBooksResponse> observer) {
+        unary(observer, () -> {
+            List<BookResponseDTO> books = bookService.searchBooks(
+                    request.hasTitle() ? Optional.of(request.getTitle()) : Optional.empty(),
+                    request.hasAuthor() ? Optional.of(request.getAuthor()) : Optional.empty());
+            SearchBooksResponse.Builder response = SearchBooksResponse.newBuilder();
+            books.forEach(book -> response.addBooks(BookMessages.toMessage(book)));
+            return response.build();
+        });
+    }
+
+    @Override
+    public void listBooks(ListBooksRequest request, StreamObserver<Book> observer) {
+        ServerCallStreamObserver<Book> call = (ServerCallStreamObserver<Book>) observer;
+        List<BookResponseDTO> books;
+        try {
+            books = bookService.getAllBooks();
+        } catch (RuntimeException e) {
+            observer.onError(toStatus(e));
+            return;
+        }
+        // called once the call starts and whenever the client has room again
+        Iterator<BookResponseDTO> remaining = books.iterator();
+        AtomicBoolean completed = new AtomicBoolean();
+        call.setOnReadyHandler(() -> {
+            while (call.isReady() && remaining.hasNext()) {
+                call.onNext(BookMessages.toMessage(remaining.next()));
+            }
+            if (!remaining.hasNext() && completed.compareAndSet(false, true)) {
+                call.onCompleted();
+            }
+        });
+        call.setOnCancelHandler(() -> log.debug("ListBooks cancelled by the client"));
+    }
+
+    @Override
+    public void watchChanges(WatchChangesRequest request, StreamObserver<BookChange> observer) {
+        ServerCallStreamObserver<BookChange> call = (ServerCallStreamObserver<BookChange>) observer;
+        try {
+            if (changeFeed == null) {
+                throw new ServiceUnavailableException("The change feed is disabled");
+            }
+            if (request.getIdsCount() > MAX_FILTER_IDS) {
+                throw new BadRequestException("At most " + MAX_FILTER_IDS + " ids can be followed");
+            }
+            GrpcChangeFeedSink sink = new GrpcChangeFeedSink(call);
+            ChangeFeed.Subscription subscription = changeFeed.subscribe(
+                    ChangeFeed.filter(request.hasAuthor() ? request.getAuthor() : null,
+                            request.getIdsCount() > 0 ? request.getIdsList() : null),
+                    request.hasCursor() ? request.getCursor() : null, sink);
+            call.setOnCancelHandler(subscription::cancel);
+            log.debug("📡 gRPC change feed subscriber connected, {} connected", changeFeed.subscriberCount());
+        } catch (RuntimeException e) {
+            observer.onError(toStatus(e));
+        }
+    }
+
+    private static <T> void unary(StreamObserver<T> observer, Supplier<T> call) {
+        T response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            observer.onError(toStatus(e));
+            return;
+        }
+        observer.onNext(response);
+        observer.onCompleted();
+    }
+
+    private static StatusRuntimeException toStatus(RuntimeException e) {
+        Status status;
+        if (e instanceof ResourceNotFoundException) {
+            status = Status.NOT_FOUND;
+        } else if (e instanceof BadRequestException) {
+            status = Status.INVALID_ARGUMENT;
+        } else if (e instanceof ServiceUnavailableException) {
+            status = Status.UNAVAILABLE;
+        } else {
+            log.error("gRPC call failed: {}", e.getMessage(), e);
+            return Status.INTERNAL.withDescription("Internal error").asRuntimeException();
+        }
+        return status.withDescription(e.getMessage()).asRuntimeException();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.libraryService.grpc;
+
+import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.grpc.proto.Book;
+import com.example.libraryService.kafka.BookKafkaEvent;
+
+/** DTOs and events to protobuf messages; proto3 strings cannot be null. */
+final class BookMessages {
+
+    private BookMessages() {}
+
+    static Book toMessage(BookResponseDTO book) {
+        return Book.newBuilder()
+                .setId(book.getId())
+                .setTitle(nullToEmpty(book.getTitle()))
+                .setAuthor(nullToEmpty(book.getAuthor()))
+                .setPrice(book.getPrice() != null ? book.getPrice() : 0)
+                .setStock(book.getStock())
+                .build();
+    }
+
+    static Book toMessage(BookKafkaEvent event) {
+        return Book.newBuilder()
+                .setId(event.getId())
+                .setTitle(nullToEmpty(event.getTitle()))
+                .setAuthor(nullToEmpty(event.getAuthor()))
+                .setPrice(event.getPrice())
+                .setStock(event.getStock())
+                .build();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
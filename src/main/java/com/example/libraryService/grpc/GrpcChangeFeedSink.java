@@ -0,0 +1,61 @@
+package com.example.libraryService.grpc;
+
+import com.example.libraryService.feed.ChangeFeed;
+import com.example.libraryService.feed.ChangeFeedSink;
+import com.example.libraryService.grpc.proto.BookChange;
+import com.example.libraryService.kafka.BookKafkaEvent;
+
+import io.grpc.stub.ServerCallStreamObserver;
+
+/**
+ * Writes change-feed events to a WatchChanges call. The feed only sends
+ * while the call is ready, so gRPC never buffers more than its flow-control
+ * window; meanwhile events wait in the subscriber's queue, and the call's
+ * onReadyHandler resumes sending. A client that reads nothing until that
+ * queue overflows is dropped, like an SSE client.
+ */
+class GrpcChangeFeedSink implements ChangeFeedSink {
+
+    private final ServerCallStreamObserver<BookChange> observer;
+
+    /** The call must not have returned yet: {@link #open} sets its onReadyHandler. */
+    GrpcChangeFeedSink(ServerCallStreamObserver<BookChange> observer) {
+        this.observer = observer;
+    }
+
+    @Override
+    public void open(Runnable onReady) {
+        observer.setOnReadyHandler(onReady);
+    }
+
+    @Override
+    public boolean isReady() {
+        return observer.isReady();
+    }
+
+    @Override
+    public void send(String id, String name, Object data) {
+        BookChange.Builder change = BookChange.newBuilder().setCursor(id);
+        if (ChangeFeed.RESET.equals(name)) {
+            change.setReset(true);
+        } else {
+            BookKafkaEvent event = (BookKafkaEvent) data;
+            change.setAction(event.getAction() != null ? event.getAction() : "").setBook(BookMessages.toMessage(event));
+        }
+        observer.onNext(change.build());
+    }
+
+    /** HTTP/2 pings keep gRPC connections alive; nothing to send. */
+    @Override
+    public void comment(String text) {
+    }
+
+    @Override
+    public void close() {
+        try {
+            observer.onCompleted();
+        } catch (RuntimeException e) {
+            // already cancelled by the client
+        }
+    }
+}
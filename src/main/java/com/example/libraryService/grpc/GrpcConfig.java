@@ -0,0 +1,45 @@
+package com.example.libraryService.grpc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.libraryService.feed.ChangeFeed;
+import com.example.libraryService.idfilter.BookIdFilter;
+import com.example.libraryService.service.BookService;
+import com.netflix.appinfo.ApplicationInfoManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wires the internal gRPC API when {@code library.grpc.enabled} is true
+ * (the default).
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(GrpcProperties.class)
+@ConditionalOnProperty(prefix = "library.grpc", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcConfig {
+
+    /** The port has to be open before Eureka advertises it. */
+    @Bean
+    static LazyInitializationExcludeFilter eagerGrpcServer() {
+        return LazyInitializationExcludeFilter.forBeanTypes(GrpcServer.class);
+    }
+
+    @Bean
+    public BookGrpcService bookGrpcService(BookService bookService, ObjectProvider<BookIdFilter> bookIdFilter,
+                                           ObjectProvider<ChangeFeed> changeFeed) {
+        return new BookGrpcService(bookService, bookIdFilter.getIfAvailable(), changeFeed.getIfAvailable());
+    }
+
+    @Bean
+    public GrpcServer grpcServer(BookGrpcService bookGrpcService, GrpcProperties properties,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 ObjectProvider<ApplicationInfoManager> applicationInfoManager) {
+        return new GrpcServer(bookGrpcService, properties, meterRegistry.getIfAvailable(),
+                applicationInfoManager.getIfAvailable());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.libraryService.grpc;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times each call from its start until the server closes it, tagged with the
+ * method and the status code, as {@code library.grpc.server.calls}. Streams
+ * count until they end, like the SSE requests in http.server.requests.
+ */
+class GrpcMetricsInterceptor implements ServerInterceptor {
+
+    private final MeterRegistry registry;
+
+    GrpcMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                        ServerCallHandler<Q, R> next) {
+        Timer.Sample sample = Timer.start(registry);
+        String method = call.getMethodDescriptor().getBareMethodName();
+        return next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                sample.stop(Timer.builder("library.grpc.server.calls")
+                        .description("gRPC calls handled by the BookLookup service")
+                        .tag("method", method)
+                        .tag("status", status.getCode().name())
+                        .register(registry));
+                super.close(status, trailers);
+            }
+        }, headers);
+    }
+}
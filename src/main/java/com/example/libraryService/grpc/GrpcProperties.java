@@ -0,0 +1,27 @@
+package com.example.libraryService.grpc;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings under {@code library.grpc}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "library.grpc")
+public class GrpcProperties {
+
+    private boolean enabled = true;
+
+    /** Port of the gRPC server, next to the HTTP port; 0 picks a free one. */
+    private int port = 9090;
+
+    private int maxInboundMessageBytes = 4 << 20;
+
+    /** On shutdown, calls in flight get this long to finish. */
+    private Duration shutdownGracePeriod = Duration.ofSeconds(10);
+}
@@ -0,0 +1,107 @@
+package com.example.libraryService.grpc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.SmartLifecycle;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: GrpcServer
+ *
+ * Description:
+ *   Runs the gRPC server on library.grpc.port, next to the embedded HTTP
+ *   server. It starts with the web server and, on shutdown, stops taking
+ *   calls and gives those in flight library.grpc.shutdown-grace-period
+ *   before cancelling them.
+ *
+ *   The bound port goes into the instance's Eureka metadata as grpc.port,
+ *   so callers find it the same way they find the HTTP port.
+ * ============================================================================
+ */
+@Slf4j
+public class GrpcServer implements SmartLifecycle {
+
+    public static final String EUREKA_PORT_KEY = "grpc.port";
+
+    private final BindableService service;
+    private final GrpcProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationInfoManager applicationInfoManager;
+
+    private volatile Server server;
+
+    /**
+     * @param meterRegistry          null when there is no registry; calls are then not timed
+     * @param applicationInfoManager null when the Eureka client is disabled
+     */
+    public GrpcServer(BindableService service, GrpcProperties properties, MeterRegistry meterRegistry,
+                      ApplicationInfoManager applicationInfoManager) {
+        this.service = service;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.applicationInfoManager = applicationInfoManager;
+    }
+
+    @Override
+    public void start() {
+        NettyServerBuilder builder = NettyServerBuilder.forPort(properties.getPort())
+                .maxInboundMessageSize(properties.getMaxInboundMessageBytes());
+        if (meterRegistry != null) {
+            builder.addService(ServerInterceptors.intercept(service, new GrpcMetricsInterceptor(meterRegistry)));
+        } else {
+            builder.addService(service);
+        }
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the gRPC server on port " + properties.getPort(), e);
+        }
+        log.info("🛰️ gRPC server listening on port {}", server.getPort());
+        if (applicationInfoManager != null) {
+            applicationInfoManager.registerAppMetadata(Map.of(EUREKA_PORT_KEY, String.valueOf(server.getPort())));
+        }
+    }
+
+    @Override
+    public void stop() {
+        Server running = server;
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(properties.getShutdownGracePeriod().toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("⚠️ gRPC calls still running after {}, cancelling them", properties.getShutdownGracePeriod());
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running.shutdownNow();
+        }
+        server = null;
+        log.info("🛑 gRPC server stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /** The bound port, or -1 while stopped. */
+    public int getPort() {
+        Server running = server;
+        return running != null ? running.getPort() : -1;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.libraryService.id;
+
+/**
+ * Source of globally unique, time-ordered 64-bit identifiers.
+ *
+ * Ids are assigned before the row is written so that the shard of a new book
+ * is known up front and the insert does not need a database round-trip.
+ */
+public interface IdGenerator {
+
+    long nextId();
+}
@@ -0,0 +1,84 @@
+package com.example.libraryService.id;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Configuration Class: IdGeneratorConfig
+ *
+ * Description:
+ *   Provides the default {@link IdGenerator}. Declare another IdGenerator bean
+ *   to plug in a different strategy.
+ *
+ *   Node id resolution, first match wins:
+ *     1. library.id.node-id
+ *     2. the "node-id" entry of this instance's Eureka metadata
+ *     3. a hash of the Eureka instance id / host name (logged as a warning,
+ *        collisions between nodes are possible)
+ *   The chosen node id is published back into the Eureka metadata.
+ * ============================================================================
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+public class IdGeneratorConfig {
+
+    static final String NODE_ID_METADATA_KEY = "node-id";
+
+    @Bean
+    @ConditionalOnMissingBean(IdGenerator.class)
+    public SnowflakeIdGenerator snowflakeIdGenerator(
+            @Value("${library.id.node-id:-1}") long configuredNodeId,
+            @Value("${library.id.max-backward-skew-millis:5000}") long maxBackwardSkewMillis,
+            ObjectProvider<ApplicationInfoManager> applicationInfoManager) {
+
+        ApplicationInfoManager eureka = applicationInfoManager.getIfAvailable();
+        long nodeId = resolveNodeId(configuredNodeId, eureka);
+
+        if (eureka != null) {
+            eureka.registerAppMetadata(Map.of(NODE_ID_METADATA_KEY, String.valueOf(nodeId)));
+        }
+        log.info("Snowflake id generator using node id {}", nodeId);
+        return new SnowflakeIdGenerator(nodeId, maxBackwardSkewMillis);
+    }
+
+    private static long resolveNodeId(long configuredNodeId, ApplicationInfoManager eureka) {
+        if (configuredNodeId >= 0) {
+            return configuredNodeId;
+        }
+
+        InstanceInfo instance = eureka != null ? eureka.getInfo() : null;
+        if (instance != null) {
+            String fromMetadata = instance.getMetadata().get(NODE_ID_METADATA_KEY);
+            if (fromMetadata != null) {
+                return Long.parseLong(fromMetadata);
+            }
+        }
+
+        String identity = instance != null ? instance.getInstanceId() : hostName();
+        long derived = Math.floorMod(identity.hashCode(), SnowflakeIdGenerator.MAX_NODE_ID + 1);
+        log.warn("No library.id.node-id or Eureka '{}' metadata; derived node id {} from '{}'. "
+                + "Configure unique node ids to rule out collisions.", NODE_ID_METADATA_KEY, derived, identity);
+        return derived;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
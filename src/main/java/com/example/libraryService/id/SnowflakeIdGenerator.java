@@ -0,0 +1,97 @@
+package com.example.libraryService.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * ============================================================================
+ * Class: SnowflakeIdGenerator
+ *
+ * Description:
+ *   Lock-free, time-ordered 64-bit ids:
+ *
+ *     | 1 bit 0 | 41 bits millis since EPOCH | 10 bits node | 12 bits sequence |
+ *
+ *   The last timestamp and sequence are packed into one AtomicLong and
+ *   advanced with a CAS loop, so concurrent callers never block.
+ *
+ *   Clock skew: when the wall clock goes backwards the generator keeps using
+ *   its own (logical) last timestamp and continues the sequence. When the
+ *   sequence of a millisecond is exhausted it borrows the next millisecond.
+ *   If the logical clock runs more than {@code maxBackwardSkewMillis} ahead
+ *   of the wall clock, ids are refused instead of silently drifting further.
+ * ============================================================================
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    /** 2024-01-01T00:00:00Z */
+    public static final long EPOCH = 1704067200000L;
+
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+
+    private final long nodeBits;
+    private final long maxBackwardSkewMillis;
+    private final LongSupplier clock;
+
+    /** (millis since EPOCH << SEQUENCE_BITS) | sequence of the last issued id. */
+    private final AtomicLong state = new AtomicLong(-1L);
+
+    public SnowflakeIdGenerator(long nodeId, long maxBackwardSkewMillis) {
+        this(nodeId, maxBackwardSkewMillis, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(long nodeId, long maxBackwardSkewMillis, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + " but was " + nodeId);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+        this.maxBackwardSkewMillis = maxBackwardSkewMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long now = clock.getAsLong() - EPOCH;
+            long last = current >> SEQUENCE_BITS;
+
+            long next;
+            if (now > last) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                if (last - now > maxBackwardSkewMillis) {
+                    throw new IllegalStateException("Clock is " + (last - now)
+                            + " ms behind the last issued id; refusing to generate ids");
+                }
+                // same millisecond, clock moved backwards, or sequence exhausted:
+                // keep counting on the logical clock (overflow carries into the timestamp)
+                next = current + 1;
+            }
+
+            if (state.compareAndSet(current, next)) {
+                long timestamp = next >> SEQUENCE_BITS;
+                return (timestamp << TIMESTAMP_SHIFT) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /** This node's id; unique among the running instances. */
+    public long getNodeId() {
+        return nodeBits >> SEQUENCE_BITS;
+    }
+
+    /** Milliseconds since the Unix epoch at which the id was generated. */
+    public static long timestampOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH;
+    }
+
+    public static long nodeIdOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.libraryService.idempotency;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.example.libraryService.ratelimit.ClientResolver;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Registers the {@link IdempotencyFilter} for the API when
+ * {@code library.idempotency.enabled} is true (the default). Keys are scoped
+ * by the rate limiter's client id when rate limiting is on, else by the
+ * authenticated user or the caller's address.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@ConditionalOnProperty(prefix = "library.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "library.idempotency", name = "backing", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(IdempotencyProperties properties) {
+        return new InMemoryIdempotencyStore(properties.getMaxEntries());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "library.idempotency", name = "backing", havingValue = "jdbc")
+    public IdempotencyStore jdbcIdempotencyStore(DataSource dataSource, IdempotencyProperties properties) {
+        // without a shard in ShardContext the routing DataSource uses shard 0
+        return new JdbcIdempotencyStore(new JdbcTemplate(dataSource),
+                new InMemoryIdempotencyStore(properties.getMaxEntries()));
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store,
+                                                                        IdempotencyProperties properties,
+                                                                        ObjectMapper objectMapper,
+                                                                        ObjectProvider<ClientResolver> clientResolver) {
+        ClientResolver resolver = clientResolver.getIfAvailable();
+        IdempotencyFilter filter = resolver != null
+                ? new IdempotencyFilter(store, properties, objectMapper, resolver::clientId)
+                : new IdempotencyFilter(store, properties, objectMapper);
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.libraryService.idempotency;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.example.libraryService.response.ApiCode;
+import com.example.libraryService.response.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Filter: IdempotencyFilter
+ *
+ * Description:
+ *   Makes POST/PUT/PATCH/DELETE requests that carry an Idempotency-Key header
+ *   run at most once per key:
+ *   - a retry after completion replays the recorded response (marked with
+ *     the Idempotent-Replayed header) without touching the database, Kafka
+ *     or SMTP;
+ *   - a duplicate arriving while the first request is still running waits
+ *     for its response instead of running again, on this instance through
+ *     a shared future and across instances by polling the shared store;
+ *   - reusing a key for a different request (method, path or body) is
+ *     rejected with 422.
+ *   Keys are scoped by client, so two clients picking the same key neither
+ *   see each other's responses nor block each other.
+ *   Failed requests release their key so they can be retried: exceptions,
+ *   and 5xx statuses either on the response or, since GlobalExceptionHandler
+ *   answers HTTP 200, in the {@link ApiResponse} status of its body.
+ * ============================================================================
+ */
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long MAX_POLL_MILLIS = 200;
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Function<HttpServletRequest, String> clientIds;
+
+    /** Requests running on this instance, by client-scoped key */
+    private final Map<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties, ObjectMapper objectMapper) {
+        this(store, properties, objectMapper, IdempotencyFilter::authenticatedClient);
+    }
+
+    /** @param clientIds names the client of a request; its keys are kept apart from other clients' */
+    public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties, ObjectMapper objectMapper,
+                             Function<HttpServletRequest, String> clientIds) {
+        this.store = store;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.clientIds = clientIds;
+    }
+
+    /** The authenticated user, or else the caller's address. */
+    static String authenticatedClient(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "user:" + principal.getName() : "addr:" + request.getRemoteAddr();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !WRITE_METHODS.contains(request.getMethod()) || request.getHeader(properties.getHeaderName()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(properties.getHeaderName()).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            reject(response, ApiCode.VALIDATION_ERROR,
+                    properties.getHeaderName() + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        ServletInputStream in = request.getInputStream();
+        byte[] body = in.readNBytes(properties.getMaxBodyBytes() + 1);
+        if (body.length > properties.getMaxBodyBytes()) {
+            log.debug("Request body too large to deduplicate, key {} ignored", key);
+            chain.doFilter(new CachedBodyRequest(request, body, in), response);
+            return;
+        }
+        HttpServletRequest cached = new CachedBodyRequest(request, body, null);
+        String fingerprint = fingerprint(request, body);
+        String scopedKey = scope(clientIds.apply(request), key);
+
+        CompletableFuture<IdempotentResponse> mine = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> first = inFlight.putIfAbsent(scopedKey, mine);
+        if (first != null) {
+            log.info("Duplicate request for idempotency key {} waits for the first one", key);
+            respondWith(awaitLocal(first), fingerprint, response);
+            return;
+        }
+
+        try {
+            Optional<IdempotentResponse> recorded = store.find(scopedKey);
+            if (recorded.isPresent()) {
+                mine.complete(recorded.get());
+                respondWith(recorded.get(), fingerprint, response);
+                return;
+            }
+
+            if (!store.tryClaim(scopedKey, properties.getWaitTimeout().multipliedBy(2))) {
+                log.info("Idempotency key {} is being processed elsewhere, waiting for its response", key);
+                IdempotentResponse other = awaitStore(scopedKey);
+                mine.complete(other);
+                respondWith(other, fingerprint, response);
+                return;
+            }
+
+            IdempotentResponse result;
+            try {
+                result = execute(cached, response, chain, fingerprint);
+            } catch (IOException | ServletException | RuntimeException e) {
+                store.release(scopedKey);
+                throw e;
+            }
+            if (failed(result)) {
+                store.release(scopedKey);
+            } else {
+                store.complete(scopedKey, result, properties.getTtl());
+            }
+            mine.complete(result);
+        } finally {
+            inFlight.remove(scopedKey, mine);
+            // waiters of a request that threw get null
+            mine.complete(null);
+        }
+    }
+
+    private IdempotentResponse execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                                       String fingerprint) throws IOException, ServletException {
+        ContentCachingResponseWrapper capturing = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, capturing);
+        IdempotentResponse result = new IdempotentResponse(fingerprint, capturing.getStatus(),
+                capturing.getContentType(), capturing.getContentAsByteArray());
+        capturing.copyBodyToResponse();
+        return result;
+    }
+
+    private boolean failed(IdempotentResponse result) {
+        if (result.status() >= 500) {
+            return true;
+        }
+        if (result.contentType() == null || result.body().length == 0
+                || !MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(result.contentType()))) {
+            return false;
+        }
+        try {
+            return objectMapper.readTree(result.body()).path("status").asInt() >= 500;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** @return the first request's response, or null when it failed or took too long */
+    private IdempotentResponse awaitLocal(CompletableFuture<IdempotentResponse> first) {
+        try {
+            return first.get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    /** Polls the shared store, backing off, until the other instance has recorded its response. */
+    private IdempotentResponse awaitStore(String key) {
+        long deadline = System.currentTimeMillis() + properties.getWaitTimeout().toMillis();
+        long pause = 10;
+        while (System.currentTimeMillis() < deadline) {
+            Optional<IdempotentResponse> recorded = store.find(key);
+            if (recorded.isPresent()) {
+                return recorded.get();
+            }
+            try {
+                Thread.sleep(pause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            pause = Math.min(pause * 2, MAX_POLL_MILLIS);
+        }
+        return null;
+    }
+
+    private void respondWith(IdempotentResponse recorded, String fingerprint, HttpServletResponse response)
+            throws IOException {
+        if (recorded == null) {
+            reject(response, ApiCode.CONFLICT,
+                    "A request with this " + properties.getHeaderName() + " is still in progress or failed; retry later");
+            return;
+        }
+        if (!recorded.fingerprint().equals(fingerprint)) {
+            reject(response, ApiCode.UNPROCESSABLE,
+                    properties.getHeaderName() + " was already used for a different request");
+            return;
+        }
+        response.setStatus(recorded.status());
+        if (recorded.contentType() != null) {
+            response.setContentType(recorded.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(recorded.body().length);
+        response.getOutputStream().write(recorded.body());
+    }
+
+    private void reject(HttpServletResponse response, ApiCode code, String message) throws IOException {
+        response.setStatus(code.getStatusCode());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.builder()
+                .status(code.getStatusCode())
+                .message(message)
+                .data(null)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    static String fingerprint(HttpServletRequest request, byte[] body) {
+        MessageDigest sha256 = sha256();
+        sha256.update((request.getMethod() + ' ' + request.getRequestURI() + '?' + request.getQueryString() + '\n')
+                .getBytes(StandardCharsets.UTF_8));
+        sha256.update(body);
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    /** The stored key: the client and its key, hashed when together they exceed the store's key length. */
+    static String scope(String client, String key) {
+        String scoped = client + ' ' + key;
+        if (scoped.length() <= MAX_KEY_LENGTH) {
+            return scoped;
+        }
+        return HexFormat.of().formatHex(sha256().digest(scoped.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Request whose body, or its first part, has already been read by the filter. */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final ServletInputStream body;
+
+        /** @param rest the original stream when {@code head} is only the start of the body, else null */
+        CachedBodyRequest(HttpServletRequest request, byte[] head, ServletInputStream rest) {
+            super(request);
+            ByteArrayInputStream cached = new ByteArrayInputStream(head);
+            InputStream all = rest == null ? cached : new SequenceInputStream(cached, rest);
+            this.body = new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return all.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    return all.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return cached.available() == 0 && (rest == null || rest.isFinished());
+                }
+
+                @Override
+                public boolean isReady() {
+                    return cached.available() > 0 || rest == null || rest.isReady();
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    if (rest != null && !rest.isFinished()) {
+                        // the container calls back as the rest arrives; reads take the cached part first
+                        rest.setReadListener(listener);
+                        return;
+                    }
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return body;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(body, Charset.forName(encoding)));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.libraryService.idempotency;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings under {@code library.idempotency}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "library.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+
+    private String headerName = "Idempotency-Key";
+
+    /** How long a completed response is replayed for its key. */
+    private Duration ttl = Duration.ofHours(24);
+
+    /** Responses kept in memory; the least recently used are evicted first. */
+    private int maxEntries = 10_000;
+
+    /** How long a duplicate waits for the first request with its key to finish. */
+    private Duration waitTimeout = Duration.ofSeconds(30);
+
+    /** Larger request bodies are passed through without deduplication. */
+    private int maxBodyBytes = 1 << 20;
+
+    /** memory (per instance) or jdbc (shared by all instances through the database). */
+    private Backing backing = Backing.MEMORY;
+
+    public enum Backing {
+        MEMORY, JDBC
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.libraryService.idempotency;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Records which idempotency keys are being processed and their responses.
+ */
+public interface IdempotencyStore {
+
+    /** The completed response for {@code key}, if any. */
+    Optional<IdempotentResponse> find(String key);
+
+    /**
+     * Claims {@code key} for a new request.
+     *
+     * @param timeout how long the claim holds if it is never completed or released
+     * @return false when the key is already claimed or completed
+     */
+    boolean tryClaim(String key, Duration timeout);
+
+    /** Stores the response of a claimed key and keeps it for {@code ttl}. */
+    void complete(String key, IdempotentResponse response, Duration ttl);
+
+    /** Drops a claim whose request failed, so that a retry runs again. */
+    void release(String key);
+}
@@ -0,0 +1,9 @@
+package com.example.libraryService.idempotency;
+
+/**
+ * A completed response recorded for an idempotency key.
+ *
+ * @param fingerprint hash of the request that produced it, to detect a key reused for another request
+ */
+public record IdempotentResponse(String fingerprint, int status, String contentType, byte[] body) {
+}
@@ -0,0 +1,75 @@
+package com.example.libraryService.idempotency;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link IdempotencyStore} local to this instance: an access-ordered map
+ * bounded to {@code maxEntries}, with entries expiring after their TTL.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, Entry> entries;
+    private final Clock clock;
+
+    public InMemoryIdempotencyStore(int maxEntries) {
+        this(maxEntries, Clock.systemUTC());
+    }
+
+    InMemoryIdempotencyStore(int maxEntries, Clock clock) {
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<IdempotentResponse> find(String key) {
+        Entry entry = live(key);
+        return entry != null ? Optional.ofNullable(entry.response()) : Optional.empty();
+    }
+
+    @Override
+    public synchronized boolean tryClaim(String key, Duration timeout) {
+        if (live(key) != null) {
+            return false;
+        }
+        entries.put(key, new Entry(null, clock.millis() + timeout.toMillis()));
+        return true;
+    }
+
+    @Override
+    public synchronized void complete(String key, IdempotentResponse response, Duration ttl) {
+        entries.put(key, new Entry(response, clock.millis() + ttl.toMillis()));
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.response() == null) {
+            entries.remove(key);
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private Entry live(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() <= clock.millis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    /** A claim while {@code response} is null. */
+    private record Entry(IdempotentResponse response, long expiresAt) {}
+}
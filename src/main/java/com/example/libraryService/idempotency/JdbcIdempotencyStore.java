@@ -0,0 +1,95 @@
+package com.example.libraryService.idempotency;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link IdempotencyStore} shared by all instances through the
+ * {@code idempotency_keys} table, so a retry that lands on another instance
+ * is still deduplicated. The primary key makes a claim atomic. Completed
+ * responses are also kept in memory to spare the database on replays.
+ */
+@Slf4j
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private final JdbcTemplate jdbc;
+    private final InMemoryIdempotencyStore local;
+    private final Clock clock;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbc, InMemoryIdempotencyStore local) {
+        this(jdbc, local, Clock.systemUTC());
+    }
+
+    JdbcIdempotencyStore(JdbcTemplate jdbc, InMemoryIdempotencyStore local, Clock clock) {
+        this.jdbc = jdbc;
+        this.local = local;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String key) {
+        Optional<IdempotentResponse> cached = local.find(key);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        List<IdempotentResponse> rows = jdbc.query(
+                "SELECT fingerprint, status, content_type, body FROM idempotency_keys "
+                        + "WHERE idempotency_key = ? AND status IS NOT NULL AND expires_at > ?",
+                (rs, rowNum) -> new IdempotentResponse(rs.getString("fingerprint"), rs.getInt("status"),
+                        rs.getString("content_type"), rs.getBytes("body")),
+                key, clock.millis());
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public boolean tryClaim(String key, Duration timeout) {
+        long expiresAt = clock.millis() + timeout.toMillis();
+        try {
+            jdbc.update("INSERT INTO idempotency_keys (idempotency_key, expires_at) VALUES (?, ?)", key, expiresAt);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // an expired row (e.g. left behind by a crashed instance) does not block the key
+            int removed = jdbc.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at <= ?",
+                    key, clock.millis());
+            if (removed == 0) {
+                return false;
+            }
+            try {
+                jdbc.update("INSERT INTO idempotency_keys (idempotency_key, expires_at) VALUES (?, ?)", key, expiresAt);
+                return true;
+            } catch (DuplicateKeyException lost) {
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response, Duration ttl) {
+        jdbc.update("UPDATE idempotency_keys SET fingerprint = ?, status = ?, content_type = ?, body = ?, expires_at = ? "
+                        + "WHERE idempotency_key = ?",
+                response.fingerprint(), response.status(), response.contentType(), response.body(),
+                clock.millis() + ttl.toMillis(), key);
+        local.complete(key, response, ttl);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbc.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status IS NULL", key);
+    }
+
+    @Scheduled(fixedDelayString = "${library.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        int purged = jdbc.update("DELETE FROM idempotency_keys WHERE expires_at <= ?", clock.millis());
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+}
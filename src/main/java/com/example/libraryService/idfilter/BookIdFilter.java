@@ -0,0 +1,188 @@
+package com.example.libraryService.idfilter;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.example.libraryService.id.SnowflakeIdGenerator;
+import com.example.libraryService.kafka.BookKafkaEvent;
+import com.example.libraryService.repository.BookRepository;
+import com.example.libraryService.shard.ShardTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: BookIdFilter
+ *
+ * Description:
+ *   Answers "this book certainly does not exist" without a database query,
+ *   from a {@link ScalableBloomFilter} of every book id.
+ *
+ *   - Built from the ids of all shards before the Kafka listeners start,
+ *     like the catalog, and rebuilt every library.id-filter.rebuild-interval.
+ *   - Creates are added on the local write path and from BOOKS events, so
+ *     other nodes' books show up too. Deleted ids stay in the filter (they
+ *     only cost a query) until the next rebuild.
+ *   - Ids generated within library.id-filter.recent-id-grace always go to
+ *     the database, which covers the delay before a remote create arrives.
+ *
+ *   A lookup the filter let through that then misses in the database is a
+ *   false positive; their share of all unknown ids is exported as a metric.
+ * ============================================================================
+ */
+@Slf4j
+public class BookIdFilter implements SmartInitializingSingleton {
+
+    private final BookRepository bookRepository;
+    private final ShardTemplate shards;
+    private final IdFilterProperties properties;
+
+    private volatile ScalableBloomFilter filter;
+    /** The filter being loaded by a rebuild; it receives concurrent adds as well. */
+    private volatile ScalableBloomFilter building;
+    private volatile boolean ready;
+
+    private final LongAdder definiteMisses = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder deletedSinceBuild = new LongAdder();
+
+    public BookIdFilter(BookRepository bookRepository, ShardTemplate shards, IdFilterProperties properties) {
+        this.bookRepository = bookRepository;
+        this.shards = shards;
+        this.properties = properties;
+        this.filter = new ScalableBloomFilter(properties.getExpectedIds(), properties.getFalsePositiveRate());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /** True only when the book certainly does not exist; false means "ask the database". */
+    public boolean definitelyAbsent(long id) {
+        if (!ready || isRecent(id) || filter.mightContain(id)) {
+            return false;
+        }
+        definiteMisses.increment();
+        return true;
+    }
+
+    /** Reports that the database had no book {@code id}; counted when the filter claimed it might. */
+    public void recordMiss(long id) {
+        if (ready && !isRecent(id) && filter.mightContain(id)) {
+            falsePositives.increment();
+        }
+    }
+
+    /** Follows a book change, from this node's write path or from Kafka. */
+    public void apply(BookKafkaEvent event) {
+        if (event.getId() == null) {
+            return;
+        }
+        if ("DELETE".equals(event.getAction())) {
+            deletedSinceBuild.increment();
+        } else {
+            add(event.getId());
+        }
+    }
+
+    /** Called once the book is stored, so a rebuild that starts later loads it from the database. */
+    public void add(long id) {
+        // building first: when no rebuild is loading yet, one starting later reads this id from the
+        // database; when one is, the id goes to both filters. Reading filter first could see the old
+        // filter and then find building already cleared by the swap, losing the id from the new one.
+        ScalableBloomFilter next = building;
+        if (next != null) {
+            next.add(id);
+        }
+        filter.add(id);
+    }
+
+    @Scheduled(initialDelayString = "${library.id-filter.rebuild-interval:PT1H}",
+            fixedDelayString = "${library.id-filter.rebuild-interval:PT1H}")
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        ScalableBloomFilter next = new ScalableBloomFilter(
+                Math.max(properties.getExpectedIds(), filter.approximateSize()), properties.getFalsePositiveRate());
+        building = next;
+        try {
+            long ids = 0;
+            for (int shard = 0; shard < shards.shardCount(); shard++) {
+                ids += load(shard, next);
+            }
+            filter = next;
+            deletedSinceBuild.reset();
+            ready = true;
+            log.info("🧮 Book id filter built with {} ids ({} KB, {} stage(s)) in {} ms", ids,
+                    next.sizeInBytes() / 1024, next.stageCount(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            // keep the previous filter; before the first build every lookup goes to the database
+            log.error("Failed to build the book id filter: {}", e.getMessage(), e);
+        } finally {
+            building = null;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long definiteMisses() {
+        return definiteMisses.sum();
+    }
+
+    public long falsePositives() {
+        return falsePositives.sum();
+    }
+
+    /** Share of unknown ids that were not recognized as such by the filter. */
+    public double observedFalsePositiveRate() {
+        long wrong = falsePositives.sum();
+        long total = wrong + definiteMisses.sum();
+        return total == 0 ? 0 : (double) wrong / total;
+    }
+
+    public double expectedFalsePositiveRate() {
+        return filter.expectedFalsePositiveRate();
+    }
+
+    public long approximateSize() {
+        return filter.approximateSize();
+    }
+
+    /** Deleted ids still answering "might exist" until the next rebuild. */
+    public long deletedSinceBuild() {
+        return deletedSinceBuild.sum();
+    }
+
+    public long sizeInBytes() {
+        return filter.sizeInBytes();
+    }
+
+    private long load(int shard, ScalableBloomFilter target) {
+        PageRequest page = PageRequest.of(0, properties.getLoadBatchSize());
+        long loaded = 0;
+        long after = Long.MIN_VALUE;
+        while (true) {
+            long from = after;
+            List<Long> ids = shards.onShard(shard, () -> bookRepository.findIdsAfter(from, page));
+            ids.forEach(target::add);
+            loaded += ids.size();
+            if (ids.size() < page.getPageSize()) {
+                return loaded;
+            }
+            after = ids.get(ids.size() - 1);
+        }
+    }
+
+    private boolean isRecent(long id) {
+        long grace = properties.getRecentIdGrace().toMillis();
+        long age = System.currentTimeMillis() - SnowflakeIdGenerator.timestampOf(id);
+        // another node's clock may run a little ahead of ours
+        return age < grace && age > -grace;
+    }
+}
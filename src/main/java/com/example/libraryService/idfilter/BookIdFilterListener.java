@@ -0,0 +1,23 @@
+package com.example.libraryService.idfilter;
+
+import com.example.libraryService.kafka.BookEventHandler;
+import com.example.libraryService.kafka.BookKafkaEvent;
+
+/**
+ * Adds books created on any node to the {@link BookIdFilter}, from the
+ * latest offset of this instance's BookEventFanOut: older books were loaded
+ * when the filter was built.
+ */
+public class BookIdFilterListener implements BookEventHandler {
+
+    private final BookIdFilter filter;
+
+    public BookIdFilterListener(BookIdFilter filter) {
+        this.filter = filter;
+    }
+
+    @Override
+    public void onBookEvent(BookKafkaEvent event, int partition, long offset) {
+        filter.apply(event);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.libraryService.idfilter;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.example.libraryService.repository.BookRepository;
+import com.example.libraryService.shard.ShardTemplate;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wires the book id filter when {@code library.id-filter.enabled} is true
+ * (the default).
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+@EnableConfigurationProperties(IdFilterProperties.class)
+@ConditionalOnProperty(prefix = "library.id-filter", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdFilterConfig {
+
+    /** Built at startup, and kept current by its listener from then on. */
+    @Bean
+    static LazyInitializationExcludeFilter eagerIdFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(BookIdFilter.class, BookIdFilterListener.class);
+    }
+
+    @Bean
+    public BookIdFilter bookIdFilter(BookRepository bookRepository, ShardTemplate shards,
+                                     IdFilterProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        BookIdFilter filter = new BookIdFilter(bookRepository, shards, properties);
+        meterRegistry.ifAvailable(registry -> {
+            FunctionCounter.builder("library.id_filter.definite_misses", filter, BookIdFilter::definiteMisses)
+                    .description("Lookups of unknown ids answered without the database")
+                    .register(registry);
+            FunctionCounter.builder("library.id_filter.false_positives", filter, BookIdFilter::falsePositives)
+                    .description("Lookups the filter let through that the database did not find")
+                    .register(registry);
+            Gauge.builder("library.id_filter.false_positive_rate", filter, BookIdFilter::observedFalsePositiveRate)
+                    .description("Observed share of unknown ids that still reached the database")
+                    .register(registry);
+            Gauge.builder("library.id_filter.expected_false_positive_rate", filter,
+                            BookIdFilter::expectedFalsePositiveRate)
+                    .description("False positive rate implied by the filter's fill")
+                    .register(registry);
+            Gauge.builder("library.id_filter.ids", filter, BookIdFilter::approximateSize)
+                    .description("Ids in the filter, including deleted ones")
+                    .register(registry);
+            Gauge.builder("library.id_filter.deleted_ids", filter, BookIdFilter::deletedSinceBuild)
+                    .description("Deletes since the last rebuild")
+                    .register(registry);
+            Gauge.builder("library.id_filter.size", filter, BookIdFilter::sizeInBytes)
+                    .baseUnit("bytes")
+                    .register(registry);
+        });
+        return filter;
+    }
+
+    @Bean
+    public BookIdFilterListener bookIdFilterListener(BookIdFilter bookIdFilter) {
+        return new BookIdFilterListener(bookIdFilter);
+    }
+}
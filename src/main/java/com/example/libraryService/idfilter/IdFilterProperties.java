@@ -0,0 +1,37 @@
+package com.example.libraryService.idfilter;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings under {@code library.id-filter}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "library.id-filter")
+public class IdFilterProperties {
+
+    private boolean enabled = true;
+
+    /** Ids the first stage is sized for; further stages are added as the catalog grows. */
+    private long expectedIds = 1 << 16;
+
+    /** Upper bound on the share of unknown ids that still reach the database. */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * Ids generated this recently always go to the database: another node's
+     * create may not have reached this node's filter yet.
+     */
+    private Duration recentIdGrace = Duration.ofSeconds(30);
+
+    /** Ids read per query while the filter is built. */
+    private int loadBatchSize = 10_000;
+
+    /** The filter is rebuilt from the database this often, which sheds deleted ids. */
+    private Duration rebuildInterval = Duration.ofHours(1);
+}
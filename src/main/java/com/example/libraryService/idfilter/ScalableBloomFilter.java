@@ -0,0 +1,175 @@
+package com.example.libraryService.idfilter;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * ============================================================================
+ * Class: ScalableBloomFilter
+ *
+ * Description:
+ *   Set of longs with no false negatives and a bounded false positive rate,
+ *   whatever the number of insertions (Almeida et al., "Scalable Bloom
+ *   Filters").
+ *
+ *   It is a chain of plain Bloom filters. When the last one has taken its
+ *   capacity a new one is appended with twice the capacity and half the
+ *   error rate, so the compound rate stays below the configured one:
+ *   p * (1 - 1/2) * (1 + 1/2 + 1/4 + ...) <= p.
+ *
+ *   Bits are set with atomic ORs, so adds and lookups never lock; only
+ *   appending a stage is synchronized. Ids cannot be removed.
+ * ============================================================================
+ */
+public class ScalableBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+    private static final double TIGHTENING = 0.5;
+    private static final int GROWTH = 2;
+    private static final long MIN_CAPACITY = 1024;
+    private static final LongBinaryOperator OR = (word, mask) -> word | mask;
+
+    private volatile Stage[] stages;
+
+    public ScalableBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be in (0, 1) but was " + falsePositiveRate);
+        }
+        this.stages = new Stage[] {
+                new Stage(Math.max(MIN_CAPACITY, expectedInsertions), falsePositiveRate * (1 - TIGHTENING))
+        };
+    }
+
+    /** False when {@code value} was certainly never added. */
+    public boolean mightContain(long value) {
+        long hash = mix(value);
+        for (Stage stage : stages) {
+            if (stage.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return false when the value (probably) was already present */
+    public boolean add(long value) {
+        long hash = mix(value);
+        Stage[] current = stages;
+        for (Stage stage : current) {
+            if (stage.mightContain(hash)) {
+                return false;
+            }
+        }
+        Stage last = current[current.length - 1];
+        if (last.insertions.get() >= last.capacity) {
+            last = grow(last);
+        }
+        last.put(hash);
+        return true;
+    }
+
+    /** Distinct values added, give or take concurrent duplicates and false positives. */
+    public long approximateSize() {
+        long size = 0;
+        for (Stage stage : stages) {
+            size += stage.insertions.get();
+        }
+        return size;
+    }
+
+    /** The false positive rate implied by the bits currently set. */
+    public double expectedFalsePositiveRate() {
+        double allNegative = 1;
+        for (Stage stage : stages) {
+            allNegative *= 1 - stage.expectedFalsePositiveRate();
+        }
+        return 1 - allNegative;
+    }
+
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (Stage stage : stages) {
+            bytes += (long) stage.words.length() * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    public int stageCount() {
+        return stages.length;
+    }
+
+    private synchronized Stage grow(Stage full) {
+        Stage[] current = stages;
+        Stage last = current[current.length - 1];
+        if (last != full) {
+            return last;
+        }
+        Stage next = new Stage(full.capacity * GROWTH, full.falsePositiveRate * TIGHTENING);
+        Stage[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = next;
+        stages = grown;
+        return next;
+    }
+
+    /** MurmurHash3 finalizer: spreads sequential and time-ordered ids over all bits. */
+    static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Stage {
+        final long capacity;
+        final double falsePositiveRate;
+        final int hashes;
+        final long bits;
+        final AtomicLongArray words;
+        final AtomicLong bitsSet = new AtomicLong();
+        final AtomicLong insertions = new AtomicLong();
+
+        Stage(long capacity, double falsePositiveRate) {
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            this.words = new AtomicLongArray(Math.toIntExact((optimalBits + Long.SIZE - 1) / Long.SIZE));
+            this.bits = (long) words.length() * Long.SIZE;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * LN2));
+        }
+
+        boolean mightContain(long hash) {
+            // double hashing (Kirsch-Mitzenmacher): probe i is h1 + i * h2
+            long h2 = mix(hash) | 1;
+            long probe = hash;
+            for (int i = 0; i < hashes; i++, probe += h2) {
+                long bit = (probe & Long.MAX_VALUE) % bits;
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void put(long hash) {
+            long h2 = mix(hash) | 1;
+            long probe = hash;
+            for (int i = 0; i < hashes; i++, probe += h2) {
+                long bit = (probe & Long.MAX_VALUE) % bits;
+                long mask = 1L << bit;
+                if ((words.getAndAccumulate((int) (bit >>> 6), mask, OR) & mask) == 0) {
+                    bitsSet.incrementAndGet();
+                }
+            }
+            insertions.incrementAndGet();
+        }
+
+        double expectedFalsePositiveRate() {
+            return Math.pow((double) bitsSet.get() / bits, hashes);
+        }
+    }
+}
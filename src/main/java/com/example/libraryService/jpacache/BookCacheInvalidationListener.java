@@ -0,0 +1,44 @@
+package com.example.libraryService.jpacache;
+
+import org.hibernate.Cache;
+
+import com.example.libraryService.entity.Book;
+import com.example.libraryService.kafka.BookEventHandler;
+import com.example.libraryService.kafka.BookKafkaEvent;
+import com.example.libraryService.repository.BookRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: BookCacheInvalidationListener
+ *
+ * Description:
+ *   Hibernate invalidates its caches for writes made through this node only.
+ *   Every BOOKS event, whichever node wrote the book, evicts that book from
+ *   the entity region and drops the cached search results.
+ *
+ *   Fed by this instance's BookEventFanOut from the latest offset: older
+ *   events cannot be in the cache anymore.
+ *   Events of this node's own writes are evicted once more, which is harmless.
+ * ============================================================================
+ */
+@Slf4j
+public class BookCacheInvalidationListener implements BookEventHandler {
+
+    private final Cache cache;
+
+    public BookCacheInvalidationListener(Cache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void onBookEvent(BookKafkaEvent event, int partition, long offset) {
+        if (event.getId() == null) {
+            return;
+        }
+        cache.evictEntityData(Book.class, event.getId());
+        cache.evictQueryRegion(BookRepository.SEARCH_CACHE_REGION);
+        log.debug("Evicted book {} and cached searches after {}", event.getId(), event.getAction());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.libraryService.jpacache;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.libraryService.shard.ShardRouter;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Configuration Class: JpaCacheConfig
+ *
+ * Description:
+ *   Companion beans of the Hibernate second-level cache (configured under
+ *   spring.jpa.properties.hibernate.cache in application.yml): cross-node
+ *   invalidation from the BOOKS topic and the {@code jpacache} Actuator
+ *   endpoint.
+ *
+ *   The query cache key holds the SQL and its parameters but not the shard
+ *   the query ran on, so with more than one shard it would hand one shard's
+ *   search result to another. It is switched off in that case; entity
+ *   caching by id is unaffected because ids are unique across shards.
+ * ============================================================================
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class JpaCacheConfig {
+
+    /** A lazy listener would never subscribe, and other nodes' writes would not evict. */
+    @Bean
+    static LazyInitializationExcludeFilter eagerCacheInvalidation() {
+        return LazyInitializationExcludeFilter.forBeanTypes(BookCacheInvalidationListener.class);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardSafeQueryCache(ShardRouter shardRouter) {
+        return properties -> {
+            if (shardRouter.shardCount() > 1) {
+                log.info("Query cache disabled: results cannot be told apart across {} shards", shardRouter.shardCount());
+                properties.put(AvailableSettings.USE_QUERY_CACHE, "false");
+            }
+        };
+    }
+
+    @Bean
+    public JpaCacheEndpoint jpaCacheEndpoint(EntityManagerFactory entityManagerFactory) {
+        return new JpaCacheEndpoint(entityManagerFactory.unwrap(SessionFactory.class));
+    }
+
+    @Bean
+    public BookCacheInvalidationListener bookCacheInvalidationListener(EntityManagerFactory entityManagerFactory) {
+        return new BookCacheInvalidationListener(entityManagerFactory.unwrap(SessionFactory.class).getCache());
+    }
+}
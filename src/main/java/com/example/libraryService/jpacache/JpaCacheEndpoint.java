@@ -0,0 +1,64 @@
+package com.example.libraryService.jpacache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Actuator endpoint {@code /actuator/jpacache}: GET shows hit, miss and put
+ * counts per second-level cache region, DELETE empties every region.
+ */
+@Endpoint(id = "jpacache")
+public class JpaCacheEndpoint {
+
+    private final SessionFactory sessionFactory;
+
+    public JpaCacheEndpoint(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, RegionStatistics> regions = new LinkedHashMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics counts = statistics.getCacheRegionStatistics(region);
+            if (counts != null) {
+                regions.put(region, RegionStatistics.of(counts));
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        result.put("queryCacheEnabled",
+                Boolean.parseBoolean(String.valueOf(sessionFactory.getProperties().get(AvailableSettings.USE_QUERY_CACHE))));
+        result.put("regions", regions);
+        result.put("queryCache", Map.of(
+                "hits", statistics.getQueryCacheHitCount(),
+                "misses", statistics.getQueryCacheMissCount(),
+                "puts", statistics.getQueryCachePutCount()));
+        return result;
+    }
+
+    @DeleteOperation
+    public void evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    public record RegionStatistics(long hits, long misses, long puts, long elements, double hitRatio) {
+
+        static RegionStatistics of(CacheRegionStatistics statistics) {
+            long lookups = statistics.getHitCount() + statistics.getMissCount();
+            return new RegionStatistics(statistics.getHitCount(), statistics.getMissCount(), statistics.getPutCount(),
+                    statistics.getElementCountInMemory(),
+                    lookups == 0 ? 0 : (double) statistics.getHitCount() / lookups);
+        }
+    }
+}
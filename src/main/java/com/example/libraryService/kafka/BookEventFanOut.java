@@ -0,0 +1,102 @@
+package com.example.libraryService.kafka;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: BookEventFanOut
+ *
+ * Description:
+ *   Reads every partition of the BOOKS topic once per instance and hands
+ *   each event to the {@link BookEventHandler}s of this instance (catalog,
+ *   cache invalidation, change feed, id filter).
+ *
+ *   The consumer group is named after the instance, so it stays the same
+ *   across restarts, and it never commits offsets: a group without offsets
+ *   is dropped by the brokers as soon as its instance is gone. Reading
+ *   starts at the latest offset, or earlier where a handler asks for it;
+ *   each handler only sees events from its own start offset on.
+ * ============================================================================
+ */
+@Slf4j
+public class BookEventFanOut implements ConsumerSeekAware {
+
+    private final List<BookEventHandler> handlers;
+    private final String groupId;
+
+    /** partition -> first offset of each handler, by handler index */
+    private final Map<Integer, long[]> starts = new ConcurrentHashMap<>();
+
+    public BookEventFanOut(List<BookEventHandler> handlers, String groupId) {
+        this.handlers = List.copyOf(handlers);
+        this.groupId = groupId;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    @KafkaListener(topics = KafkaTopics.BOOKS,
+            groupId = "#{__listener.groupId}",
+            containerFactory = "localKafkaListenerFactory",
+            properties = {"auto.offset.reset=latest", "enable.auto.commit=false"})
+    public void onBookEvent(ConsumerRecord<String, BookKafkaEvent> record) {
+        if (record.value() == null) {
+            return;
+        }
+        long[] from = starts.get(record.partition());
+        for (int i = 0; i < handlers.size(); i++) {
+            if (from != null && record.offset() < from[i]) {
+                continue;
+            }
+            try {
+                handlers.get(i).onBookEvent(record.value(), record.partition(), record.offset());
+            } catch (RuntimeException e) {
+                // one handler failing must not hold the event back from the others
+                log.error("{} failed on BOOKS event at {}-{}: {}", handlers.get(i).getClass().getSimpleName(),
+                        record.partition(), record.offset(), e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        List<Map<Integer, Long>> handlerStarts = new ArrayList<>(handlers.size());
+        handlers.forEach(handler -> handlerStarts.add(new HashMap<>()));
+
+        // nothing is ever committed, so each position is the partition's latest offset
+        assignments.forEach((partition, latest) -> {
+            long[] from = new long[handlers.size()];
+            long earliest = latest;
+            for (int i = 0; i < handlers.size(); i++) {
+                Long start = handlers.get(i).startOffset(partition.partition());
+                from[i] = start != null ? start : latest;
+                earliest = Math.min(earliest, from[i]);
+                handlerStarts.get(i).put(partition.partition(), from[i]);
+            }
+            starts.put(partition.partition(), from);
+            if (earliest == 0) {
+                callback.seekToBeginning(partition.topic(), partition.partition());
+            } else if (earliest < latest) {
+                callback.seek(partition.topic(), partition.partition(), earliest);
+            }
+        });
+
+        for (int i = 0; i < handlers.size(); i++) {
+            handlers.get(i).assigned(handlerStarts.get(i));
+        }
+        log.info("📨 {} assigned {} partitions of {} for {} handlers", groupId, assignments.size(), KafkaTopics.BOOKS,
+                handlers.size());
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.libraryService.kafka;
+
+import java.util.Map;
+
+/**
+ * A component of this instance that follows every BOOKS event, whichever
+ * node wrote it. {@link BookEventFanOut} feeds all of them from one consumer.
+ */
+public interface BookEventHandler {
+
+    /**
+     * Offset to start reading {@code partition} from when it is assigned:
+     * 0 for the beginning of the topic, {@code null} for its latest offset.
+     */
+    default Long startOffset(int partition) {
+        return null;
+    }
+
+    /** The first offset this handler is given on each newly assigned partition. */
+    default void assigned(Map<Integer, Long> startOffsets) {
+    }
+
+    void onBookEvent(BookKafkaEvent event, int partition, long offset);
+}
@@ -3,8 +3,12 @@ package com.example.libraryService.kafka;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
 @Slf4j
@@ -16,13 +20,34 @@ public class LibraryKafkaProducer {
 @Autowired
     private KafkaTemplate<String, BookKafkaEvent> jsonKafkaTemplate;
 
-    public void sendStringEvent(String message) {
+    public CompletableFuture<SendResult<String, String>> sendStringEvent(String message) {
         log.info("Publishing string message to topic '{}': {}", KafkaTopics.EVENTS, message);
-        stringKafkaTemplate.send(KafkaTopics.EVENTS, message);
+        return stringKafkaTemplate.send(KafkaTopics.EVENTS, message);
     }
 
-    public void sendJsonEvent(BookKafkaEvent event) {
+    /**
+     * Events are keyed by book id so that all changes of one book land on the
+     * same partition and are consumed in order.
+     */
+    public CompletableFuture<SendResult<String, BookKafkaEvent>> sendJsonEvent(BookKafkaEvent event) {
         log.info("Publishing JSON event to topic '{}': {}", KafkaTopics.BOOKS, event);
-        jsonKafkaTemplate.send(KafkaTopics.BOOKS, event);
+        String key = event.getId() == null ? null : String.valueOf(event.getId());
+        return jsonKafkaTemplate.send(KafkaTopics.BOOKS, key, event);
+    }
+
+    /**
+     * Sends many events without waiting in between, so the producer can batch
+     * them per partition; logged once rather than per event.
+     *
+     * @return completes when every event is acknowledged
+     */
+    public CompletableFuture<Void> sendJsonEvents(List<BookKafkaEvent> events) {
+        log.info("Publishing {} JSON events to topic '{}'", events.size(), KafkaTopics.BOOKS);
+        CompletableFuture<?>[] acks = new CompletableFuture<?>[events.size()];
+        for (int i = 0; i < acks.length; i++) {
+            BookKafkaEvent event = events.get(i);
+            acks[i] = jsonKafkaTemplate.send(KafkaTopics.BOOKS, String.valueOf(event.getId()), event);
+        }
+        return CompletableFuture.allOf(acks);
     }
 }
@@ -0,0 +1,59 @@
+package com.example.libraryService.mapper;
+
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+import com.example.libraryService.dto.BookPatchDTO;
+import com.example.libraryService.dto.BookRequestDTO;
+import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.entity.Book;
+
+/**
+ * ============================================================================
+ * Interface: BookMapper
+ *
+ * Description:
+ *   Conversions between the book DTOs and the entity on the write paths.
+ *   MapStruct generates BookMapperImpl at compile time as plain getter and
+ *   setter calls, so a conversion is one allocation and no reflection.
+ *   Builders are disabled because each one would be a second allocation.
+ *
+ *   A target property nobody maps fails the build, so a new column cannot
+ *   be silently left out of a mapping.
+ * ============================================================================
+ */
+@Mapper(componentModel = "spring", builder = @Builder(disableBuilder = true),
+        unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface BookMapper {
+
+    /**
+     * A new book; {@code id} comes from the IdGenerator. The email template
+     * and recipient only shape the confirmation email and are not stored.
+     */
+    @Mapping(target = "id", source = "id")
+    @Mapping(target = "templateType", ignore = true)
+    @Mapping(target = "recipientName", ignore = true)
+    Book toEntity(Long id, BookRequestDTO dto);
+
+    BookResponseDTO toResponse(Book book);
+
+    /** PUT: replaces the catalog fields; the contact email and id stay. */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "email", ignore = true)
+    @Mapping(target = "templateType", ignore = true)
+    @Mapping(target = "recipientName", ignore = true)
+    void update(BookRequestDTO dto, @MappingTarget Book book);
+
+    /** PATCH: only the fields present in the request (BookPatchDTO.hasX) change. */
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "email", ignore = true)
+    @Mapping(target = "templateType", ignore = true)
+    @Mapping(target = "recipientName", ignore = true)
+    void patch(BookPatchDTO patch, @MappingTarget Book book);
+}
@@ -0,0 +1,188 @@
+package com.example.libraryService.patch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import com.example.libraryService.dto.BookPatchDTO;
+import com.example.libraryService.dto.BookResponseDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: PatchCoalescer
+ *
+ * Description:
+ *   Write-behind for PATCH bursts. Patches to the same book that arrive
+ *   within {@code window} are merged in arrival order and written once: one
+ *   read, one update, one event, one email.
+ *
+ *   Callers still get a durable acknowledgement. Their future completes only
+ *   after the merged write was saved, with the resulting book, so a caller
+ *   reads its own write (and everything merged before it). A failed write
+ *   fails every patch of the batch.
+ *
+ *   Each book id is bound to one writer lane (a single thread), so batches of
+ *   the same book never overlap. A lane only reads, merges and saves; what
+ *   follows the write (audit, events, email) runs on a separate follow-up
+ *   pool, so a slow mail server does not hold up the writes of other books.
+ * ============================================================================
+ */
+@Slf4j
+public class PatchCoalescer implements DisposableBean {
+
+    private final PatchCoalescingProperties properties;
+    private final ScheduledExecutorService[] lanes;
+    private final ExecutorService followUps;
+    private final Map<Long, Batch> open = new ConcurrentHashMap<>();
+
+    public PatchCoalescer(PatchCoalescingProperties properties) {
+        this.properties = properties;
+        this.lanes = new ScheduledExecutorService[properties.getLanes()];
+        for (int i = 0; i < lanes.length; i++) {
+            String name = "patch-writer-" + i;
+            ScheduledThreadPoolExecutor lane = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            // destroy() flushes open batches itself; pending window timers are not waited for
+            lane.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            lanes[i] = lane;
+        }
+        AtomicInteger followUpThreads = new AtomicInteger();
+        this.followUps = Executors.newFixedThreadPool(properties.getFollowUpThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "patch-follow-up-" + followUpThreads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a patch of book {@code id}.
+     *
+     * @param writer saves a (merged) patch on the writer lane and returns the follow-up
+     *               producing the saved book, run off the lane; used once per batch
+     * @return completes when the batch holding this patch has been written and
+     *         followed up, or fails with a TimeoutException after {@code timeout}
+     */
+    public CompletableFuture<BookResponseDTO> submit(Long id, BookPatchDTO patch,
+                                                     BiFunction<Long, BookPatchDTO, Supplier<BookResponseDTO>> writer) {
+        while (true) {
+            Batch batch = open.computeIfAbsent(id, key -> {
+                Batch created = new Batch(id, writer, followUps);
+                lane(id).schedule(() -> flush(created), properties.getWindow().toMillis(), TimeUnit.MILLISECONDS);
+                return created;
+            });
+            int size = batch.add(patch);
+            if (size > 0) {
+                if (size == properties.getMaxPatches()) {
+                    lane(id).execute(() -> flush(batch));
+                }
+                return batch.result.copy().orTimeout(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            }
+            // the batch was closed between lookup and add; the next one takes the patch
+        }
+    }
+
+    private void flush(Batch batch) {
+        open.remove(batch.id, batch);
+        List<BookPatchDTO> patches = batch.close();
+        if (patches == null) {
+            return;
+        }
+        if (patches.size() > 1) {
+            log.debug("Coalesced {} patches of book {} into one write", patches.size(), batch.id);
+        }
+        try {
+            batch.written.complete(batch.writer.apply(batch.id, merge(patches)));
+        } catch (RuntimeException e) {
+            batch.written.completeExceptionally(e);
+        }
+    }
+
+    /** Later patches win field by field; fields absent from all of them stay unchanged. */
+    static BookPatchDTO merge(List<BookPatchDTO> patches) {
+        BookPatchDTO merged = new BookPatchDTO();
+        for (BookPatchDTO patch : patches) {
+            if (patch.hasTitle()) {
+                merged.setTitle(patch.getTitle());
+            }
+            if (patch.hasAuthor()) {
+                merged.setAuthor(patch.getAuthor());
+            }
+            if (patch.hasPrice()) {
+                merged.setPrice(patch.getPrice());
+            }
+            if (patch.hasStock()) {
+                merged.setStock(patch.getStock());
+            }
+        }
+        return merged;
+    }
+
+    private ScheduledExecutorService lane(long id) {
+        return lanes[(int) Math.floorMod(id, (long) lanes.length)];
+    }
+
+    /** Writes what is still open, then stops the writer and follow-up threads. */
+    @Override
+    public void destroy() throws InterruptedException {
+        for (Batch batch : List.copyOf(open.values())) {
+            lane(batch.id).execute(() -> flush(batch));
+        }
+        for (ScheduledExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        for (ScheduledExecutorService lane : lanes) {
+            lane.awaitTermination(properties.getWindow().toMillis() + 5_000, TimeUnit.MILLISECONDS);
+        }
+        followUps.shutdown();
+        followUps.awaitTermination(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static final class Batch {
+        final Long id;
+        final BiFunction<Long, BookPatchDTO, Supplier<BookResponseDTO>> writer;
+        /** Completed on the lane once saved, with the follow-up. */
+        final CompletableFuture<Supplier<BookResponseDTO>> written = new CompletableFuture<>();
+        /** The follow-up's result, produced once per batch on the follow-up pool. */
+        final CompletableFuture<BookResponseDTO> result;
+        private List<BookPatchDTO> patches = new ArrayList<>();
+
+        Batch(Long id, BiFunction<Long, BookPatchDTO, Supplier<BookResponseDTO>> writer, ExecutorService followUps) {
+            this.id = id;
+            this.writer = writer;
+            this.result = written.thenApplyAsync(Supplier::get, followUps);
+        }
+
+        /** @return the batch size after adding, or 0 when the batch is already being written */
+        synchronized int add(BookPatchDTO patch) {
+            if (patches == null) {
+                return 0;
+            }
+            patches.add(patch);
+            return patches.size();
+        }
+
+        /** @return the collected patches, or null when another flush got them first */
+        synchronized List<BookPatchDTO> close() {
+            List<BookPatchDTO> collected = patches;
+            patches = null;
+            return collected;
+        }
+    }
+}
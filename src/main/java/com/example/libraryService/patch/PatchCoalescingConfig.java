@@ -0,0 +1,21 @@
+package com.example.libraryService.patch;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables write-behind for PATCH requests when
+ * {@code library.patch-coalescing.enabled} is true (off by default).
+ */
+@Configuration
+@EnableConfigurationProperties(PatchCoalescingProperties.class)
+@ConditionalOnProperty(prefix = "library.patch-coalescing", name = "enabled", havingValue = "true")
+public class PatchCoalescingConfig {
+
+    @Bean
+    public PatchCoalescer patchCoalescer(PatchCoalescingProperties properties) {
+        return new PatchCoalescer(properties);
+    }
+}
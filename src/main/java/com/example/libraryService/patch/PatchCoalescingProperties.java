@@ -0,0 +1,34 @@
+package com.example.libraryService.patch;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings under {@code library.patch-coalescing}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "library.patch-coalescing")
+public class PatchCoalescingProperties {
+
+    private boolean enabled;
+
+    /** How long patches to the same book are collected before they are written together. */
+    private Duration window = Duration.ofMillis(50);
+
+    /** A batch reaching this many patches is written without waiting for the window to end. */
+    private int maxPatches = 64;
+
+    /** Writer threads; all patches of one book go through the same thread, in order. */
+    private int lanes = 4;
+
+    /** Threads auditing, publishing and emailing written batches, off the writer threads. */
+    private int followUpThreads = 8;
+
+    /** How long a PATCH waits for its batch to be written before it fails with 503. */
+    private Duration timeout = Duration.ofSeconds(10);
+}
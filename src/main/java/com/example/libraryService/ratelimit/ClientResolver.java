@@ -0,0 +1,200 @@
+package com.example.libraryService.ratelimit;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.naming.InvalidNameException;
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.Rdn;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.shared.Application;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Names the client of a request, trying library.rate-limit.client-sources in
+ * order. Callers matched by none are keyed by their address.
+ *
+ * The client header is not authenticated, so its value is taken as is only
+ * from library.rate-limit.trusted-header-sources (a gateway, say) and from
+ * services registered in Eureka. From anyone else it only names a client
+ * within the caller's address: it can neither borrow another client's
+ * budget nor, past library.rate-limit.max-clients-per-address, open new
+ * buckets (see {@link RateLimiter}).
+ */
+@Slf4j
+public class ClientResolver {
+
+    static final String CERTIFICATE_ATTRIBUTE = "jakarta.servlet.request.X509Certificate";
+    private static final int MAX_CLIENT_ID_LENGTH = 100;
+
+    private final RateLimitProperties properties;
+    private final EurekaClient eurekaClient;
+
+    /** Registered address to lower-cased application name, replaced on each reload. */
+    private volatile Map<String, String> servicesByAddress = Map.of();
+
+    /** library.rate-limit.trusted-header-sources as parsed, redone when a refresh rebinds the list. */
+    private volatile TrustedSources trusted = new TrustedSources(null, List.of());
+
+    /** @param eurekaClient null when the Eureka client is disabled */
+    public ClientResolver(RateLimitProperties properties, EurekaClient eurekaClient) {
+        this.properties = properties;
+        this.eurekaClient = eurekaClient;
+    }
+
+    /** The client's id alone, as other filters key their state by client. */
+    public String clientId(HttpServletRequest request) {
+        return resolve(request).id();
+    }
+
+    /** The client's id and whether it was identified (certificate, header, Eureka) or only addressed. */
+    Client resolve(HttpServletRequest request) {
+        for (RateLimitProperties.ClientSource source : properties.getClientSources()) {
+            String id = switch (source) {
+                case CERTIFICATE -> certificateName(request);
+                case HEADER -> headerValue(request);
+                case EUREKA -> servicesByAddress.get(request.getRemoteAddr());
+            };
+            if (id == null) {
+                continue;
+            }
+            if (source == RateLimitProperties.ClientSource.HEADER && !trustsHeaderFrom(request.getRemoteAddr())) {
+                return new Client(id + "@" + request.getRemoteAddr(), false, request.getRemoteAddr());
+            }
+            return new Client(id, true);
+        }
+        return new Client("addr:" + request.getRemoteAddr(), false);
+    }
+
+    /** Rebuilds the address map from the local copy of the Eureka registry; first run at startup. */
+    @Scheduled(fixedDelayString = "${library.rate-limit.sweep-interval:PT1M}")
+    public void reloadServiceAddresses() {
+        if (eurekaClient == null) {
+            return;
+        }
+        Map<String, String> addresses = new HashMap<>();
+        for (Application application : eurekaClient.getApplications().getRegisteredApplications()) {
+            String name = application.getName().toLowerCase(Locale.ROOT);
+            for (InstanceInfo instance : application.getInstances()) {
+                if (instance.getIPAddr() != null) {
+                    addresses.put(instance.getIPAddr(), name);
+                }
+            }
+        }
+        servicesByAddress = Map.copyOf(addresses);
+    }
+
+    private boolean trustsHeaderFrom(String address) {
+        if (servicesByAddress.containsKey(address)) {
+            return true;
+        }
+        List<String> configured = properties.getTrustedHeaderSources();
+        TrustedSources current = trusted;
+        if (current.configured() != configured) {
+            current = new TrustedSources(configured, parseRanges(configured));
+            trusted = current;
+        }
+        if (current.ranges().isEmpty()) {
+            return false;
+        }
+        byte[] bytes;
+        try {
+            // the remote address is always a literal, so this does no lookup
+            bytes = InetAddress.getByName(address).getAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+        return current.ranges().stream().anyMatch(range -> range.contains(bytes));
+    }
+
+    private static List<AddressRange> parseRanges(List<String> sources) {
+        List<AddressRange> ranges = new ArrayList<>();
+        for (String source : sources) {
+            try {
+                ranges.add(AddressRange.parse(source.trim()));
+            } catch (UnknownHostException | RuntimeException e) {
+                log.warn("Ignoring trusted header source '{}': {}", source, e.getMessage());
+            }
+        }
+        return List.copyOf(ranges);
+    }
+
+    private String headerValue(HttpServletRequest request) {
+        String value = request.getHeader(properties.getClientHeader());
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        value = value.trim();
+        return value.length() > MAX_CLIENT_ID_LENGTH ? value.substring(0, MAX_CLIENT_ID_LENGTH) : value;
+    }
+
+    private static String certificateName(HttpServletRequest request) {
+        if (!(request.getAttribute(CERTIFICATE_ATTRIBUTE) instanceof X509Certificate[] chain) || chain.length == 0) {
+            return null;
+        }
+        try {
+            for (Rdn rdn : new LdapName(chain[0].getSubjectX500Principal().getName()).getRdns()) {
+                if ("CN".equalsIgnoreCase(rdn.getType())) {
+                    return rdn.getValue().toString();
+                }
+            }
+        } catch (InvalidNameException e) {
+            log.debug("Unreadable client certificate subject: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * @param identified false when only the address is known; such clients
+     *                   are not tagged individually in the metrics
+     * @param address    set for clients named by an untrusted header, whose
+     *                   buckets count against that address's cap
+     */
+    record Client(String id, boolean identified, String address) {
+
+        Client(String id, boolean identified) {
+            this(id, identified, null);
+        }
+    }
+
+    private record TrustedSources(List<String> configured, List<AddressRange> ranges) {}
+
+    /** An address, or a CIDR range such as 10.0.0.0/8. */
+    private record AddressRange(byte[] network, int prefixLength) {
+
+        static AddressRange parse(String source) throws UnknownHostException {
+            int slash = source.indexOf('/');
+            byte[] network = InetAddress.getByName(slash < 0 ? source : source.substring(0, slash)).getAddress();
+            int prefixLength = slash < 0 ? network.length * 8 : Integer.parseInt(source.substring(slash + 1));
+            if (prefixLength < 0 || prefixLength > network.length * 8) {
+                throw new IllegalArgumentException("prefix length out of range");
+            }
+            return new AddressRange(network, prefixLength);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            for (int bit = 0; bit < prefixLength; bit += 8) {
+                int mask = prefixLength - bit >= 8 ? 0xFF : 0xFF << (8 - (prefixLength - bit)) & 0xFF;
+                if ((address[bit / 8] & mask) != (network[bit / 8] & mask)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.libraryService.ratelimit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Makes budgets cluster-wide: every sync-interval it reports the requests
+ * this instance admitted to the {@link RateLimitUsageStore} and charges the
+ * ones other instances admitted since the last exchange to the local
+ * buckets. A client can therefore overshoot by what it sends in one
+ * interval, but not by the number of instances. If the store is down,
+ * each instance keeps enforcing its own budget.
+ */
+@Slf4j
+public class ClusterUsageSync {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitUsageStore store;
+    private final RateLimitProperties properties;
+    private final String instanceId;
+
+    /** Other instances' totals at the last exchange; null until the first one. */
+    private Map<String, Long> seen;
+
+    public ClusterUsageSync(RateLimiter rateLimiter, RateLimitUsageStore store, RateLimitProperties properties,
+                            String applicationName) {
+        this.rateLimiter = rateLimiter;
+        this.store = store;
+        this.properties = properties;
+        this.instanceId = applicationName + "-" + UUID.randomUUID().toString().substring(0, 8);
+        rateLimiter.trackAdmitted();
+    }
+
+    @Scheduled(fixedDelayString = "${library.rate-limit.cluster.sync-interval:PT1S}")
+    public synchronized void sync() {
+        Map<String, Long> others;
+        try {
+            others = store.exchange(instanceId, rateLimiter.drainAdmitted(), properties.getCluster().getRetention());
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Rate limit usage exchange failed, budgets are per instance until it recovers: {}",
+                    e.getMessage());
+            return;
+        }
+        if (seen != null) {
+            others.forEach((key, total) -> {
+                // a total that went down belongs to an instance that was dropped; nothing to charge
+                long added = total - seen.getOrDefault(key, 0L);
+                if (added > 0) {
+                    int separator = key.indexOf(':');
+                    rateLimiter.charge(key.substring(separator + 1),
+                            RateLimitCategory.valueOf(key.substring(0, separator)), added);
+                }
+            });
+        }
+        // the first exchange only takes the baseline: older requests were charged where they ran
+        seen = new HashMap<>(others);
+    }
+
+    String getInstanceId() {
+        return instanceId;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.libraryService.ratelimit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link RateLimitUsageStore} in this JVM: a stand-in for running several
+ * instances locally or in tests, where they share one bean.
+ */
+public class InMemoryRateLimitUsageStore implements RateLimitUsageStore {
+
+    private final Map<String, Map<String, Long>> totals = new HashMap<>();
+    private final Map<String, Long> reportedAt = new HashMap<>();
+    private final Clock clock;
+
+    public InMemoryRateLimitUsageStore() {
+        this(Clock.systemUTC());
+    }
+
+    InMemoryRateLimitUsageStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized Map<String, Long> exchange(String instanceId, Map<String, Long> admitted,
+                                                   Duration activeWithin) {
+        long now = clock.millis();
+        Map<String, Long> own = totals.computeIfAbsent(instanceId, id -> new HashMap<>());
+        admitted.forEach((key, count) -> own.merge(key, count, Long::sum));
+        reportedAt.put(instanceId, now);
+
+        Map<String, Long> others = new HashMap<>();
+        totals.forEach((id, usage) -> {
+            if (!id.equals(instanceId) && reportedAt.get(id) > now - activeWithin.toMillis()) {
+                usage.forEach((key, count) -> others.merge(key, count, Long::sum));
+            }
+        });
+        return others;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.libraryService.ratelimit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * {@link RateLimitUsageStore} shared by all instances through the
+ * {@code rate_limit_usage} table. Each instance only writes its own rows,
+ * so adding to them needs no locking; rows not reported to for the
+ * retention are deleted, and start again from zero.
+ */
+public class JdbcRateLimitUsageStore implements RateLimitUsageStore {
+
+    private final JdbcTemplate jdbc;
+    private final Clock clock;
+
+    public JdbcRateLimitUsageStore(JdbcTemplate jdbc) {
+        this(jdbc, Clock.systemUTC());
+    }
+
+    JdbcRateLimitUsageStore(JdbcTemplate jdbc, Clock clock) {
+        this.jdbc = jdbc;
+        this.clock = clock;
+    }
+
+    @Override
+    public Map<String, Long> exchange(String instanceId, Map<String, Long> admitted, Duration activeWithin) {
+        long now = clock.millis();
+        List<Object[]> added = new ArrayList<>(admitted.size());
+        admitted.forEach((key, count) -> added.add(new Object[] {count, now, instanceId, key}));
+        int[] updated = jdbc.batchUpdate("UPDATE rate_limit_usage SET admitted = admitted + ?, reported_at = ? "
+                + "WHERE instance_id = ? AND usage_key = ?", added);
+        List<Object[]> inserted = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Object[] row = added.get(i);
+                inserted.add(new Object[] {row[2], row[3], row[0], row[1]});
+            }
+        }
+        if (!inserted.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO rate_limit_usage (instance_id, usage_key, admitted, reported_at) "
+                    + "VALUES (?, ?, ?, ?)", inserted);
+        }
+
+        long activeSince = now - activeWithin.toMillis();
+        jdbc.update("DELETE FROM rate_limit_usage WHERE reported_at <= ?", activeSince);
+        Map<String, Long> others = new HashMap<>();
+        jdbc.query("SELECT usage_key, SUM(admitted) AS total FROM rate_limit_usage "
+                        + "WHERE instance_id <> ? GROUP BY usage_key",
+                rs -> {
+                    others.put(rs.getString("usage_key"), rs.getLong("total"));
+                },
+                instanceId);
+        return others;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.libraryService.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Endpoint groups with separate budgets, so a client's searches cannot use
+ * up its lookups or writes.
+ */
+public enum RateLimitCategory {
+
+    /** Lookups and listings: GET /api/**, POST /api/books/batch-get. */
+    READ,
+    /** GET /api/books/search and /api/books/suggest. */
+    SEARCH,
+    /** Every other POST, PUT, PATCH and DELETE. */
+    WRITE;
+
+    static RateLimitCategory of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if ("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())) {
+            return path.startsWith("/api/books/search") || path.startsWith("/api/books/suggest") ? SEARCH : READ;
+        }
+        return path.equals("/api/books/batch-get") ? READ : WRITE;
+    }
+}
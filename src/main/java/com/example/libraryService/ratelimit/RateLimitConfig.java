@@ -0,0 +1,101 @@
+package com.example.libraryService.ratelimit;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.discovery.EurekaClient;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registers per-client rate limiting of the API when
+ * {@code library.rate-limit.enabled} is true (the default), and the
+ * cluster-wide usage exchange when {@code library.rate-limit.cluster.enabled}
+ * is true.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "library.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    /** Usage is exchanged on schedule whether or not a request has come in yet. */
+    @Bean
+    static LazyInitializationExcludeFilter eagerClusterUsageSync() {
+        return LazyInitializationExcludeFilter.forBeanTypes(ClusterUsageSync.class);
+    }
+
+    /** Before the idempotency filter, so a throttled retry does not claim its key. */
+    private static final int FILTER_ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        RateLimiter limiter = new RateLimiter(properties, meterRegistry.getIfAvailable());
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("library.rate_limit.clients", limiter, RateLimiter::clientCount)
+                    .description("Clients with a partly used budget")
+                    .register(registry);
+            FunctionCounter.builder("library.rate_limit.throttled", limiter, RateLimiter::throttledCount)
+                    .description("Requests refused with 429, all clients")
+                    .register(registry);
+        });
+        return limiter;
+    }
+
+    @Bean
+    public ClientResolver clientResolver(RateLimitProperties properties, ObjectProvider<EurekaClient> eurekaClient) {
+        return new ClientResolver(properties, eurekaClient.getIfAvailable());
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimiter rateLimiter,
+                                                                    ClientResolver clientResolver,
+                                                                    RateLimitProperties properties,
+                                                                    ObjectMapper objectMapper) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(rateLimiter, clientResolver, properties, objectMapper));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(FILTER_ORDER);
+        return registration;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "library.rate-limit.cluster", name = "enabled", havingValue = "true")
+    static class ClusterConfig {
+
+        @Bean
+        @ConditionalOnProperty(prefix = "library.rate-limit.cluster", name = "backing", havingValue = "memory",
+                matchIfMissing = true)
+        public RateLimitUsageStore inMemoryRateLimitUsageStore() {
+            return new InMemoryRateLimitUsageStore();
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "library.rate-limit.cluster", name = "backing", havingValue = "jdbc")
+        public RateLimitUsageStore jdbcRateLimitUsageStore(DataSource dataSource) {
+            // without a shard in ShardContext the routing DataSource uses shard 0
+            return new JdbcRateLimitUsageStore(new JdbcTemplate(dataSource));
+        }
+
+        @Bean
+        public ClusterUsageSync clusterUsageSync(RateLimiter rateLimiter, RateLimitUsageStore store,
+                                                 RateLimitProperties properties,
+                                                 @Value("${spring.application.name:library-service}") String applicationName) {
+            return new ClusterUsageSync(rateLimiter, store, properties, applicationName);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.libraryService.ratelimit;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.libraryService.response.ApiCode;
+import com.example.libraryService.response.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Filter: RateLimitFilter
+ *
+ * Description:
+ *   Charges every API request to its client's budget for the endpoint
+ *   category (read, search or write). Admitted requests carry the budget in
+ *   X-RateLimit-Limit and X-RateLimit-Remaining. Requests over budget are
+ *   answered 429 with Retry-After and never reach the controllers, so they
+ *   cost no database or Kafka work.
+ * ============================================================================
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final RateLimiter rateLimiter;
+    private final ClientResolver clientResolver;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ClientResolver clientResolver, RateLimitProperties properties,
+                           ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.clientResolver = clientResolver;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ClientResolver.Client client = clientResolver.resolve(request);
+        RateLimitCategory category = RateLimitCategory.of(request);
+        long result = rateLimiter.tryAcquire(client, category);
+        response.setHeader(LIMIT_HEADER, String.valueOf(properties.limitFor(client.id(), category).getCapacity()));
+        if (result >= 0) {
+            response.setHeader(REMAINING_HEADER, String.valueOf(result));
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(-result + TimeUnit.SECONDS.toNanos(1) - 1));
+        log.debug("Throttled {} {} from {} ({} budget), retry in {} s",
+                request.getMethod(), request.getRequestURI(), client.id(), category, retryAfterSeconds);
+        response.setHeader(REMAINING_HEADER, "0");
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setStatus(ApiCode.TOO_MANY_REQUESTS.getStatusCode());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.builder()
+                .status(ApiCode.TOO_MANY_REQUESTS.getStatusCode())
+                .message("Rate limit of the " + category.name().toLowerCase() + " endpoints exceeded for "
+                        + client.id() + "; retry in " + retryAfterSeconds + " s")
+                .data(null)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.libraryService.ratelimit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Settings under {@code library.rate-limit}. Limits are read on every
+ * request, so a refresh from the Config Server applies to the next one;
+ * a refresh with a limit that is not positive is rejected.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "library.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Header naming the calling service when it has no client certificate. */
+    private String clientHeader = "X-Client-Id";
+
+    /**
+     * Addresses or CIDR ranges (a gateway, a sidecar) whose client header is
+     * taken as is. From other callers it only names a client within their
+     * address; services registered in Eureka are trusted as well.
+     */
+    private List<String> trustedHeaderSources = new ArrayList<>();
+
+    /** Where the client id is taken from, first match wins; otherwise the remote address. */
+    private List<ClientSource> clientSources = new ArrayList<>(
+            List.of(ClientSource.CERTIFICATE, ClientSource.HEADER, ClientSource.EUREKA));
+
+    /** Budgets of every client without its own. */
+    @Valid
+    private Budgets defaults = new Budgets(
+            new Limit(2000, 1000), new Limit(400, 200), new Limit(400, 200));
+
+    /** Budgets by client id; categories left out use the defaults. */
+    private Map<String, @Valid Budgets> clients = new LinkedHashMap<>();
+
+    /** Clients tracked at once; beyond that, new clients share one "other" budget. */
+    private int maxClients = 10_000;
+
+    /**
+     * Clients one address may name through an untrusted header; further
+     * ones share the address's own budget.
+     */
+    private int maxClientsPerAddress = 16;
+
+    /** How often clients with full buckets are forgotten and Eureka addresses reloaded. */
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    private Cluster cluster = new Cluster();
+
+    /** The budget of {@code client} for {@code category}. */
+    public Limit limitFor(String client, RateLimitCategory category) {
+        Budgets own = clients.get(client);
+        Limit limit = own != null ? own.get(category) : null;
+        return limit != null ? limit : defaults.get(category);
+    }
+
+    public enum ClientSource {
+        /** Common name of the TLS client certificate. */
+        CERTIFICATE,
+        /** Value of {@link #clientHeader}. */
+        HEADER,
+        /** Eureka application registered with the caller's address. */
+        EUREKA
+    }
+
+    /** A budget per endpoint category, see {@link RateLimitCategory}. */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Budgets {
+
+        @Valid
+        private Limit read;
+        @Valid
+        private Limit search;
+        @Valid
+        private Limit write;
+
+        public Budgets(Limit read, Limit search, Limit write) {
+            this.read = read;
+            this.search = search;
+            this.write = write;
+        }
+
+        Limit get(RateLimitCategory category) {
+            return switch (category) {
+                case READ -> read;
+                case SEARCH -> search;
+                case WRITE -> write;
+            };
+        }
+    }
+
+    /** A token bucket: up to {@code capacity} requests at once, refilled at {@code refillPerSecond}. */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Limit {
+
+        @Positive
+        private long capacity;
+        @Positive
+        private double refillPerSecond;
+
+        public Limit(long capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        /** Time for one token to come back, at least 1ns; a rate that is not positive never refills. */
+        long nanosPerToken() {
+            return refillPerSecond > 0 ? Math.max(1, (long) (1e9 / refillPerSecond)) : Long.MAX_VALUE;
+        }
+    }
+
+    /** Budgets shared by all instances instead of granted by each. */
+    @Getter
+    @Setter
+    public static class Cluster {
+
+        private boolean enabled = false;
+
+        /** memory (instances in one JVM, for local runs and tests) or jdbc (through the database). */
+        private Backing backing = Backing.MEMORY;
+
+        /** How often usage is exchanged; other instances' requests are charged this late at most. */
+        private Duration syncInterval = Duration.ofSeconds(1);
+
+        /** Usage of instances that stopped reporting is dropped after this long. */
+        private Duration retention = Duration.ofHours(1);
+
+        public enum Backing {
+            MEMORY, JDBC
+        }
+    }
+}
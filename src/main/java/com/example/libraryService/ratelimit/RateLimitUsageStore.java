@@ -0,0 +1,19 @@
+package com.example.libraryService.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Where instances add up the requests they admitted, for cluster-wide
+ * budgets. Keys are {@link RateLimiter#usageKey}s.
+ */
+public interface RateLimitUsageStore {
+
+    /**
+     * Adds {@code admitted} to this instance's totals.
+     *
+     * @param activeWithin only instances that reported within this window count
+     * @return the totals of all other instances, by key, since they started
+     */
+    Map<String, Long> exchange(String instanceId, Map<String, Long> admitted, Duration activeWithin);
+}
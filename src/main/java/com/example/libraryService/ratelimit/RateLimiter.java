@@ -0,0 +1,287 @@
+package com.example.libraryService.ratelimit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: RateLimiter
+ *
+ * Description:
+ *   A token bucket per client and {@link RateLimitCategory}, without locks.
+ *   Each bucket is a single long: the time at which it will be full again
+ *   (GCRA, the generic cell rate algorithm). A request adds one token's
+ *   refill time to it with a compare-and-set, and is refused when that
+ *   would put the bucket more than {@code capacity} tokens in debt.
+ *
+ *   Limits are not stored in the buckets but looked up per request, so a
+ *   changed limit applies at once and keeps the client's usage.
+ *
+ *   A bucket that is full again is the same as no bucket, so clients idle
+ *   that long are forgotten by {@link #sweep()}.
+ *
+ *   Clients named by an untrusted header get at most
+ *   library.rate-limit.max-clients-per-address buckets per address; a caller
+ *   inventing more names shares its address's budget instead.
+ *
+ *   In cluster mode the requests admitted elsewhere are charged through
+ *   {@link #charge}, and the ones admitted here are counted for
+ *   {@link ClusterUsageSync} to report.
+ * ============================================================================
+ */
+@Slf4j
+public class RateLimiter {
+
+    /** Clients beyond library.rate-limit.max-clients share this budget. */
+    static final String OVERFLOW_CLIENT = "other";
+
+    /** Clients tagged by name in the metrics; the rest are tagged "other". */
+    private static final int MAX_TAGGED_CLIENTS = 100;
+    private static final RateLimitCategory[] CATEGORIES = RateLimitCategory.values();
+    /** Most a bucket can owe, about 73 years; with the clock offset it stays far from overflow. */
+    private static final long MAX_DEBT_NANOS = Long.MAX_VALUE / 4;
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoTime;
+    /** Keeps clock values positive, so 0 means "full" for a new bucket. */
+    private final long origin;
+    private final Map<String, ClientBuckets> clients = new ConcurrentHashMap<>();
+    private final Set<String> taggedClients = ConcurrentHashMap.newKeySet();
+    /** Buckets of clients named by an untrusted header, by address. */
+    private final Map<String, Integer> clientsPerAddress = new ConcurrentHashMap<>();
+    private final LongAdder throttled = new LongAdder();
+
+    /** Admissions since the last {@link #drainAdmitted}, by {@link #usageKey}; null outside cluster mode. */
+    private volatile Map<String, LongAdder> admitted;
+
+    /** @param meterRegistry null when there is no registry */
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nanoTime = nanoTime;
+        this.origin = nanoTime.getAsLong() - 1;
+    }
+
+    /**
+     * Takes a token from the client's bucket for {@code category}.
+     *
+     * @return the tokens left when admitted (0 or more), or minus the
+     *         nanoseconds until a token is back when refused
+     */
+    public long tryAcquire(ClientResolver.Client client, RateLimitCategory category) {
+        ClientBuckets buckets = bucketsOf(client);
+        RateLimitProperties.Limit limit = properties.limitFor(buckets.id, category);
+        long result = buckets.take(category.ordinal(), limit.getCapacity(), limit.nanosPerToken(), now());
+        if (result >= 0) {
+            buckets.count(category, true);
+            Map<String, LongAdder> pending = admitted;
+            if (pending != null) {
+                pending.computeIfAbsent(usageKey(buckets.id, category), key -> new LongAdder()).increment();
+            }
+        } else {
+            throttled.increment();
+            buckets.count(category, false);
+        }
+        return result;
+    }
+
+    /** Uses up {@code requests} tokens admitted by other instances, down to an empty bucket. */
+    public void charge(String client, RateLimitCategory category, long requests) {
+        ClientBuckets buckets = bucketsOf(new ClientResolver.Client(client, true));
+        RateLimitProperties.Limit limit = properties.limitFor(buckets.id, category);
+        buckets.charge(category.ordinal(), requests, limit.getCapacity(), limit.nanosPerToken(), now());
+    }
+
+    /** Forgets clients whose buckets are all full again. */
+    @Scheduled(fixedDelayString = "${library.rate-limit.sweep-interval:PT1M}")
+    public void sweep() {
+        long now = now();
+        clients.values().removeIf(buckets -> {
+            if (!buckets.idle(now)) {
+                return false;
+            }
+            if (buckets.address != null) {
+                clientsPerAddress.computeIfPresent(buckets.address, (address, count) -> count > 1 ? count - 1 : null);
+            }
+            return true;
+        });
+    }
+
+    /** Starts counting admissions for the cluster exchange. */
+    void trackAdmitted() {
+        admitted = new ConcurrentHashMap<>();
+    }
+
+    /** The admissions counted since the last call, by {@link #usageKey}. */
+    Map<String, Long> drainAdmitted() {
+        Map<String, LongAdder> pending = admitted;
+        Map<String, Long> drained = new HashMap<>();
+        pending.forEach((key, count) -> {
+            long value = count.sumThenReset();
+            if (value > 0) {
+                drained.put(key, value);
+            }
+        });
+        // idle keys go; an increment racing with the removal can be lost, the exchange is approximate anyway
+        pending.values().removeIf(count -> count.sum() == 0);
+        return drained;
+    }
+
+    static String usageKey(String client, RateLimitCategory category) {
+        return category.name() + ':' + client;
+    }
+
+    public int clientCount() {
+        return clients.size();
+    }
+
+    public long throttledCount() {
+        return throttled.sum();
+    }
+
+    private ClientBuckets bucketsOf(ClientResolver.Client client) {
+        ClientBuckets buckets = clients.get(client.id());
+        if (buckets != null) {
+            return buckets;
+        }
+        ClientResolver.Client tracked = client;
+        if (clients.size() >= properties.getMaxClients()) {
+            log.debug("{} rate-limited clients tracked, {} shares the '{}' budget",
+                    clients.size(), client.id(), OVERFLOW_CLIENT);
+            tracked = new ClientResolver.Client(OVERFLOW_CLIENT, false);
+        } else if (client.address() != null
+                && clientsPerAddress.getOrDefault(client.address(), 0) >= properties.getMaxClientsPerAddress()) {
+            log.debug("{} already names {} clients, {} shares its budget",
+                    client.address(), properties.getMaxClientsPerAddress(), client.id());
+            tracked = new ClientResolver.Client("addr:" + client.address(), false);
+            buckets = clients.get(tracked.id());
+            if (buckets != null) {
+                return buckets;
+            }
+        }
+        ClientResolver.Client created = tracked;
+        return clients.computeIfAbsent(created.id(), key -> {
+            if (created.address() != null) {
+                clientsPerAddress.merge(created.address(), 1, Integer::sum);
+            }
+            return new ClientBuckets(key, metricTag(created), created.address());
+        });
+    }
+
+    private String metricTag(ClientResolver.Client client) {
+        if (meterRegistry == null) {
+            return null;
+        }
+        boolean named = client.identified()
+                && (properties.getClients().containsKey(client.id()) || taggedClients.contains(client.id())
+                || taggedClients.size() < MAX_TAGGED_CLIENTS && taggedClients.add(client.id()));
+        return named ? client.id() : OVERFLOW_CLIENT;
+    }
+
+    /**
+     * Time {@code tokens} take to come back, clamped to {@link #MAX_DEBT_NANOS}
+     * so that bucket times never overflow, whatever limits a refresh brings.
+     */
+    static long debtOf(long tokens, long nanosPerToken) {
+        if (tokens <= 0) {
+            return 0;
+        }
+        return nanosPerToken > MAX_DEBT_NANOS / tokens ? MAX_DEBT_NANOS : tokens * nanosPerToken;
+    }
+
+    private long now() {
+        return nanoTime.getAsLong() - origin;
+    }
+
+    /** One client's buckets, by category ordinal, and their counters. */
+    private final class ClientBuckets {
+
+        final String id;
+        /** Set for a client named by an untrusted header. */
+        final String address;
+        /** Time each bucket is full again; at or before now means full. */
+        private final AtomicLongArray fullAt = new AtomicLongArray(CATEGORIES.length);
+        private final Counter[] allowed = new Counter[CATEGORIES.length];
+        private final Counter[] refused = new Counter[CATEGORIES.length];
+
+        ClientBuckets(String id, String metricTag, String address) {
+            this.id = id;
+            this.address = address;
+            if (metricTag != null) {
+                for (RateLimitCategory category : CATEGORIES) {
+                    allowed[category.ordinal()] = counter(metricTag, category, "allowed");
+                    refused[category.ordinal()] = counter(metricTag, category, "throttled");
+                }
+            }
+        }
+
+        long take(int bucket, long capacity, long nanosPerToken, long now) {
+            long limit = debtOf(capacity, nanosPerToken);
+            long cost = debtOf(1, nanosPerToken);
+            while (true) {
+                long current = fullAt.get(bucket);
+                long next = Math.max(current, now) + cost;
+                long debt = next - now;
+                if (debt > limit) {
+                    return -(debt - limit);
+                }
+                if (fullAt.compareAndSet(bucket, current, next)) {
+                    return (limit - debt) / nanosPerToken;
+                }
+            }
+        }
+
+        void charge(int bucket, long tokens, long capacity, long nanosPerToken, long now) {
+            long limit = debtOf(capacity, nanosPerToken);
+            long cost = debtOf(tokens, nanosPerToken);
+            while (true) {
+                long current = fullAt.get(bucket);
+                long next = Math.min(Math.max(current, now) + cost, now + limit);
+                if (next <= current || fullAt.compareAndSet(bucket, current, next)) {
+                    return;
+                }
+            }
+        }
+
+        boolean idle(long now) {
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                if (fullAt.get(i) > now) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void count(RateLimitCategory category, boolean admitted) {
+            Counter counter = (admitted ? allowed : refused)[category.ordinal()];
+            if (counter != null) {
+                counter.increment();
+            }
+        }
+
+        private Counter counter(String client, RateLimitCategory category, String outcome) {
+            return Counter.builder("library.rate_limit.requests")
+                    .description("API requests by client, endpoint category and rate limit outcome")
+                    .tag("client", client)
+                    .tag("category", category.name().toLowerCase())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -2,18 +2,71 @@ package com.example.libraryService.repository;
 
 
 
+import java.util.Collection;
 import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.example.libraryService.entity.Book;
 
+import jakarta.persistence.QueryHint;
+
+/**
+ * Every query must be backed by an index; see BookRepositoryQueryPlanTest.
+ * Search terms are expected to be normalized with {@link Book#normalize(String)},
+ * substring patterns built with {@link BookSearchGrams#containsPattern(String)}.
+ * Search results are kept in the query cache region {@link #SEARCH_CACHE_REGION};
+ * Hibernate drops them whenever the books table is written.
+ * List and search queries return rows ordered by id: ShardTemplate.scatter
+ * merges the shards' results on that order.
+ */
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
 
+    String SEARCH_CACHE_REGION = "books-search";
+
     // Optional is used to avoid null
-	List<Book> findByTitleContainingIgnoreCase(String title);
-	List<Book> findByAuthorContainingIgnoreCase(String author);
-	List<Book> findByTitleContainingIgnoreCaseAndAuthorContainingIgnoreCase(String title, String author);
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SEARCH_CACHE_REGION) })
+	List<Book> findByTitleNormalizedStartingWithOrderById(String title);
+
+	/**
+	 * Books whose normalized title and author match both LIKE patterns,
+	 * among those holding every one of {@code grams} (see BookSearchGrams).
+	 */
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SEARCH_CACHE_REGION) })
+	@Query("select b from Book b where b.titleNormalized like :title escape '\\' "
+			+ "and b.authorNormalized like :author escape '\\' "
+			+ "and b.id in (select g.bookId from BookSearchGram g where g.gram in :grams "
+			+ "group by g.bookId having count(g.gram) = :gramCount) order by b.id")
+	List<Book> searchByGrams(String title, String author, Collection<String> grams, long gramCount);
+
+	/** Substring search for terms too short to have grams; scans the table. */
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SEARCH_CACHE_REGION) })
+	@Query("select b from Book b where b.titleNormalized like :title escape '\\' "
+			+ "and b.authorNormalized like :author escape '\\' order by b.id")
+	List<Book> searchByPatterns(String title, String author);
+
+	/** First rows by id; unlike findAll(Pageable) it runs no count query. */
+	@Query("select b from Book b order by b.id")
+	List<Book> findFirstRows(Pageable page);
+
+	/** Keyset page of books, for walking the whole table in bounded reads. */
+	@Query("select b from Book b where b.id > :after order by b.id")
+	List<Book> findBooksAfter(long after, Pageable page);
+
+	/** Keyset page of ids, for walking the whole table without loading books. */
+	@Query("select b.id from Book b where b.id > :after order by b.id")
+	List<Long> findIdsAfter(long after, Pageable page);
 
 }
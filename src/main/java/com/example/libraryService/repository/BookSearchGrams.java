@@ -0,0 +1,130 @@
+package com.example.libraryService.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.libraryService.entity.Book;
+
+/**
+ * ============================================================================
+ * Component: BookSearchGrams
+ *
+ * Description:
+ *   Maintains the {@code book_search_grams} table behind substring search:
+ *   every trigram of a book's normalized title and author, each prefixed
+ *   with the field it came from. A search looks up the books holding all
+ *   trigrams of its terms through the gram index and then checks the actual
+ *   '%term%' match on those rows only.
+ *
+ *   The final LIKE decides, so the grams only ever need to be a superset of
+ *   the true ones. Writes outside a transaction therefore add the new grams
+ *   before the book row changes and drop the stale ones after it.
+ *
+ *   Runs on the caller's shard (see ShardTemplate) like the repository.
+ * ============================================================================
+ */
+@Component
+public class BookSearchGrams {
+
+    /** Terms shorter than this have no gram and cannot use the index. */
+    public static final int GRAM_LENGTH = 3;
+
+    private static final char TITLE = 't';
+    private static final char AUTHOR = 'a';
+    /** Ids per {@code WHERE book_id IN (...)} statement. */
+    private static final int IN_LIST_SIZE = 500;
+
+    private final JdbcTemplate jdbc;
+
+    @Autowired
+    public BookSearchGrams(DataSource dataSource) {
+        this(new JdbcTemplate(dataSource));
+    }
+
+    public BookSearchGrams(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * The grams of a book, or the grams a book must have to match search
+     * terms; either value may be null.
+     */
+    public static Set<String> of(String title, String author) {
+        Set<String> grams = new LinkedHashSet<>();
+        addGrams(grams, TITLE, Book.normalize(title));
+        addGrams(grams, AUTHOR, Book.normalize(author));
+        return grams;
+    }
+
+    /** LIKE pattern matching values that contain the normalized term; "%" for no term. */
+    public static String containsPattern(String term) {
+        String normalized = Book.normalize(term);
+        if (normalized == null) {
+            return "%";
+        }
+        return "%" + normalized.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    /** Adds grams a book is about to have; existing ones are kept. */
+    public void add(long bookId, Set<String> grams) {
+        if (grams.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(grams.size());
+        grams.forEach(gram -> rows.add(new Object[] {bookId, gram}));
+        jdbc.batchUpdate("INSERT IGNORE INTO book_search_grams (book_id, gram) VALUES (?, ?)", rows);
+    }
+
+    /** Drops the grams a book no longer has. */
+    public void retainOnly(long bookId, Set<String> grams) {
+        if (grams.isEmpty()) {
+            remove(bookId);
+            return;
+        }
+        List<Object> args = new ArrayList<>(grams.size() + 1);
+        args.add(bookId);
+        args.addAll(grams);
+        jdbc.update("DELETE FROM book_search_grams WHERE book_id = ? AND gram NOT IN ("
+                + String.join(",", Collections.nCopies(grams.size(), "?")) + ")", args.toArray());
+    }
+
+    public void remove(long bookId) {
+        jdbc.update("DELETE FROM book_search_grams WHERE book_id = ?", bookId);
+    }
+
+    /** Sets the grams of many books at once; meant to run in a transaction with the book rows. */
+    public void replace(Map<Long, Set<String>> gramsByBook) {
+        List<Long> ids = new ArrayList<>(gramsByBook.keySet());
+        for (int from = 0; from < ids.size(); from += IN_LIST_SIZE) {
+            List<Long> slice = ids.subList(from, Math.min(from + IN_LIST_SIZE, ids.size()));
+            jdbc.update("DELETE FROM book_search_grams WHERE book_id IN ("
+                    + String.join(",", Collections.nCopies(slice.size(), "?")) + ")", slice.toArray());
+        }
+        List<Object[]> rows = new ArrayList<>();
+        gramsByBook.forEach((bookId, grams) -> grams.forEach(gram -> rows.add(new Object[] {bookId, gram})));
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate("INSERT INTO book_search_grams (book_id, gram) VALUES (?, ?)", rows);
+    }
+
+    private static void addGrams(Set<String> grams, char field, String value) {
+        if (value == null) {
+            return;
+        }
+        int[] codePoints = value.codePoints().toArray();
+        for (int i = 0; i + GRAM_LENGTH <= codePoints.length; i++) {
+            grams.add(field + new String(codePoints, i, GRAM_LENGTH));
+        }
+    }
+}
@@ -7,10 +7,14 @@ import lombok.Getter;
 public enum ApiCode {
     SUCCESS(200, "Request processed successfully"),
     CREATED(201, "Resource created successfully"),
+    ACCEPTED(202, "Request accepted for processing"),
     UPDATED(200, "Resource updated successfully"),
     DELETED(200, "Resource deleted successfully"),
     VALIDATION_ERROR(400, "Validation failed"),
     NOT_FOUND(404, "Resource not found"),
+    CONFLICT(409, "Request conflicts with another request"),
+    UNPROCESSABLE(422, "Request cannot be processed"),
+    TOO_MANY_REQUESTS(429, "Too many requests, slow down"),
     INTERNAL_ERROR(500, "Internal server error"),
     SERVICE_UNAVAILABLE(503, "Service temporarily unavailable");
 
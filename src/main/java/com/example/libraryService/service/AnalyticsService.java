@@ -0,0 +1,17 @@
+package com.example.libraryService.service;
+
+import java.util.List;
+
+import com.example.libraryService.dto.AuthorStockValueDTO;
+import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.dto.PriceBucketDTO;
+
+public interface AnalyticsService {
+
+    List<AuthorStockValueDTO> getStockValueByAuthor(int limit);
+
+    /** Books with at most {@code threshold} units in stock, lowest first. */
+    List<BookResponseDTO> getLowStock(int threshold, int limit);
+
+    List<PriceBucketDTO> getPriceHistogram();
+}
@@ -0,0 +1,56 @@
+package com.example.libraryService.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.libraryService.analytics.AnalyticsProperties;
+import com.example.libraryService.analytics.CatalogAnalytics;
+import com.example.libraryService.dto.AuthorStockValueDTO;
+import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.dto.PriceBucketDTO;
+import com.example.libraryService.exception.BadRequestException;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AnalyticsProperties properties;
+
+    /** Incrementally maintained aggregates; absent when library.catalog.enabled=false. */
+    @Autowired(required = false)
+    private CatalogAnalytics catalogAnalytics;
+
+    @Override
+    public List<AuthorStockValueDTO> getStockValueByAuthor(int limit) {
+        return analytics().stockValueByAuthor(limit);
+    }
+
+    @Override
+    public List<BookResponseDTO> getLowStock(int threshold, int limit) {
+        if (threshold < 0 || threshold > properties.getLowStockThreshold()) {
+            throw new BadRequestException("threshold must be between 0 and " + properties.getLowStockThreshold());
+        }
+        return analytics().lowStock(threshold, limit);
+    }
+
+    @Override
+    public List<PriceBucketDTO> getPriceHistogram() {
+        return analytics().priceHistogram();
+    }
+
+    private CatalogAnalytics analytics() {
+        if (catalogAnalytics != null && catalogAnalytics.isReady()) {
+            return catalogAnalytics;
+        }
+        log.debug("No in-process catalog, computing analytics from all books");
+        return CatalogAnalytics.of(bookService.getAllBooks(), properties);
+    }
+}
@@ -2,8 +2,12 @@ package com.example.libraryService.service;
 import java.util.List;
 import java.util.Optional;
 
+import com.example.libraryService.dto.BookAuditEntryDTO;
+import com.example.libraryService.dto.BookBatchResponseDTO;
+import com.example.libraryService.dto.BookPatchDTO;
 import com.example.libraryService.dto.BookRequestDTO;
 import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.dto.SuggestionDTO;
 
 public interface BookService {
 
@@ -11,14 +15,26 @@ public interface BookService {
 
     BookResponseDTO getBookById(Long id);
 
+    /** Looks up many books at once; duplicate ids are returned once. */
+    BookBatchResponseDTO getBooksByIds(List<Long> ids);
+
     List<BookResponseDTO> getAllBooks();
 
+    /** One page of the catalog ordered by id, {@code page} starting at 0. */
+    List<BookResponseDTO> getBooks(int page, int size);
+
     BookResponseDTO updateBook(Long id, BookRequestDTO requestDTO);
 
-    BookResponseDTO patchBook(Long id, BookRequestDTO requestDTO);
+    BookResponseDTO patchBook(Long id, BookPatchDTO patch);
     
     List<BookResponseDTO> searchBooks(Optional<String> title, Optional<String> author);
 
+    /** Typeahead: the best titles and authors starting with {@code prefix}, by stock. */
+    List<SuggestionDTO> suggestBooks(String prefix, int limit);
+
     void deleteBook(Long id);
+
+    /** The writes of a book recorded by this instance's audit log, oldest first, at most {@code limit}. */
+    List<BookAuditEntryDTO> getBookHistory(Long id, int limit);
     
 }
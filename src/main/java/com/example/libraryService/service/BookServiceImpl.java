@@ -1,19 +1,41 @@
 package com.example.libraryService.service;
 
+import com.example.libraryService.audit.BookAuditLog;
+import com.example.libraryService.catalog.CatalogState;
+import com.example.libraryService.dto.BookAuditEntryDTO;
+import com.example.libraryService.dto.BookBatchResponseDTO;
+import com.example.libraryService.dto.BookPatchDTO;
 import com.example.libraryService.dto.BookRequestDTO;
 import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.dto.SuggestionDTO;
 import com.example.libraryService.entity.Book;
 import com.example.libraryService.exception.ResourceNotFoundException;
+import com.example.libraryService.exception.ServiceUnavailableException;
+import com.example.libraryService.id.IdGenerator;
+import com.example.libraryService.idfilter.BookIdFilter;
 import com.example.libraryService.kafka.BookKafkaEvent;
 import com.example.libraryService.kafka.LibraryKafkaProducer;
+import com.example.libraryService.mapper.BookMapper;
+import com.example.libraryService.patch.PatchCoalescer;
 import com.example.libraryService.repository.BookRepository;
+import com.example.libraryService.repository.BookSearchGrams;
+import com.example.libraryService.shard.ShardTemplate;
+import com.example.libraryService.suggest.SuggestionIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -23,29 +45,71 @@ public class BookServiceImpl implements BookService {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private BookSearchGrams searchGrams;
+
+    @Autowired
+    private ShardTemplate shards;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
     @Autowired
     private LibraryKafkaProducer kafkaProducer;
 
+    /** Generated DTO/entity conversions; request DTOs arrive validated, so entities are not validated again. */
+    @Autowired
+    private BookMapper bookMapper;
+
+    @Lazy
     @Autowired
     private EmailService emailService;
 
+    /** In-process catalog serving reads; absent when library.catalog.enabled=false. */
+    @Autowired(required = false)
+    private CatalogState catalog;
+
+    /** Typeahead trie over the catalog; absent when library.catalog.enabled=false. */
+    @Autowired(required = false)
+    private SuggestionIndex suggestionIndex;
+
+    /** Bloom filter of existing ids; absent when library.id-filter.enabled=false. */
+    @Autowired(required = false)
+    private BookIdFilter bookIdFilter;
+
+    /** Merges PATCH bursts per book; absent unless library.patch-coalescing.enabled=true. */
+    @Autowired(required = false)
+    private PatchCoalescer patchCoalescer;
+
+    /** Local log of before/after images of every write; absent when library.audit.enabled=false. */
+    @Autowired(required = false)
+    private BookAuditLog auditLog;
+
+    /** In CDC mode events are produced from the database change log (see cdc package). */
+    @Value("${library.cdc.enabled:false}")
+    private boolean cdcEnabled;
+
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    /** Ids per {@code WHERE id IN (...)} query of a batch lookup. */
+    private static final int BATCH_CHUNK_SIZE = 500;
+
+    /** Merge order for results gathered from several shards. */
+    private static final Comparator<Book> BY_ID = Comparator.comparing(Book::getId);
+
     @Override
     public BookResponseDTO createBook(BookRequestDTO dto) {
         log.info("Creating book with title: {}", dto.getTitle());
 
-        Book book = Book.builder()
-                .title(dto.getTitle())
-                .author(dto.getAuthor())
-                .price(dto.getPrice())
-                .stock(dto.getStock())
-                .email(dto.getEmail())
-                .build();
+        Book book = bookMapper.toEntity(idGenerator.nextId(), dto);
 
-        Book savedBook = bookRepository.save(book);
+        Book savedBook = shards.onShardFor(book.getId(), () -> {
+            searchGrams.add(book.getId(), BookSearchGrams.of(book.getTitle(), book.getAuthor()));
+            return bookRepository.save(book);
+        });
         log.debug("Book saved with ID: {}", savedBook.getId());
 
+        audit("CREATE", null, savedBook);
         publishKafkaEvents(savedBook, "CREATE");
 
         if (savedBook.getEmail() != null && !savedBook.getEmail().isBlank()) {
@@ -76,51 +140,143 @@ public class BookServiceImpl implements BookService {
 
     @Override
     public BookResponseDTO getBookById(Long id) {
-        return bookRepository.findById(id)
-                .map(this::mapToResponse)
+        if (catalogReady()) {
+            Optional<BookResponseDTO> cached = catalog.getStore().get(id);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+        Optional<Book> book = shards.onShardFor(id, () -> bookRepository.findById(id));
+        if (book.isEmpty() && bookIdFilter != null) {
+            bookIdFilter.recordMiss(id);
+        }
+        return book.map(this::mapToResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with ID: " + id));
     }
     
     @Override
-    public List<BookResponseDTO> searchBooks(Optional<String> title, Optional<String> author) {
-        List<Book> books;
+    public BookBatchResponseDTO getBooksByIds(List<Long> ids) {
+        List<Long> requested = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, BookResponseDTO> found = new HashMap<>();
+        List<CompletableFuture<List<Book>>> lookups = new ArrayList<>();
+
+        // each chunk's catalog misses are queried while the next chunk is read from the catalog
+        for (int from = 0; from < requested.size(); from += BATCH_CHUNK_SIZE) {
+            List<Long> misses = new ArrayList<>();
+            for (Long id : requested.subList(from, Math.min(from + BATCH_CHUNK_SIZE, requested.size()))) {
+                Optional<BookResponseDTO> cached = catalogReady() ? catalog.getStore().get(id) : Optional.empty();
+                if (cached.isPresent()) {
+                    found.put(id, cached.get());
+                } else if (bookIdFilter == null || !bookIdFilter.definitelyAbsent(id)) {
+                    misses.add(id);
+                }
+            }
+            if (!misses.isEmpty()) {
+                lookups.add(shards.gather(misses, BATCH_CHUNK_SIZE, bookRepository::findAllById));
+            }
+        }
+
+        for (CompletableFuture<List<Book>> lookup : lookups) {
+            try {
+                lookup.join().forEach(book -> found.put(book.getId(), mapToResponse(book)));
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        List<BookResponseDTO> books = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            BookResponseDTO book = found.get(id);
+            if (book != null) {
+                books.add(book);
+            } else {
+                missingIds.add(id);
+                if (bookIdFilter != null) {
+                    bookIdFilter.recordMiss(id);
+                }
+            }
+        }
+        return new BookBatchResponseDTO(books, missingIds);
+    }
 
-        if (title.isPresent() && author.isPresent()) {
-            books = bookRepository.findByTitleContainingIgnoreCaseAndAuthorContainingIgnoreCase(
-                    title.get(), author.get());
-        } else if (title.isPresent()) {
-            books = bookRepository.findByTitleContainingIgnoreCase(title.get());
-        } else if (author.isPresent()) {
-            books = bookRepository.findByAuthorContainingIgnoreCase(author.get());
-        } else {
-            books = Collections.emptyList();
+    @Override
+    public List<BookResponseDTO> searchBooks(Optional<String> title, Optional<String> author) {
+        if (title.isEmpty() && author.isEmpty()) {
+            return Collections.emptyList();
         }
 
+        // case-insensitive substring match, narrowed down through the gram index when the terms allow it
+        String titlePattern = BookSearchGrams.containsPattern(title.orElse(null));
+        String authorPattern = BookSearchGrams.containsPattern(author.orElse(null));
+        Set<String> grams = BookSearchGrams.of(title.orElse(null), author.orElse(null));
+        List<Book> books = grams.isEmpty()
+                ? shards.scatter(() -> bookRepository.searchByPatterns(titlePattern, authorPattern), BY_ID)
+                : shards.scatter(() -> bookRepository.searchByGrams(titlePattern, authorPattern, grams, grams.size()),
+                        BY_ID);
+
         return books.stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<SuggestionDTO> suggestBooks(String prefix, int limit) {
+        if (suggestionIndex != null && suggestionIndex.isReady()) {
+            return suggestionIndex.suggest(prefix, limit).stream()
+                    .map(suggestion -> new SuggestionDTO(suggestion.text(), suggestion.kind().name().toLowerCase(Locale.ROOT),
+                            suggestion.bookId(), suggestion.score()))
+                    .collect(Collectors.toList());
+        }
+
+        // no in-process catalog: title prefixes from the index, best stocked first
+        String titlePrefix = Book.normalize(prefix);
+        return shards.scatter(() -> bookRepository.findByTitleNormalizedStartingWithOrderById(titlePrefix), BY_ID).stream()
+                .sorted(Comparator.comparingInt(Book::getStock).reversed())
+                .limit(limit)
+                .map(book -> new SuggestionDTO(book.getTitle(), "title", book.getId(), book.getStock()))
+                .collect(Collectors.toList());
+    }
 
     @Override
     public List<BookResponseDTO> getAllBooks() {
-        return bookRepository.findAll()
+        if (catalogReady()) {
+            List<BookResponseDTO> books = new ArrayList<>(catalog.getStore().size());
+            catalog.getStore().forEach((id, title, author, price, stock) ->
+                    books.add(new BookResponseDTO(id, title, author, price, stock)));
+            books.sort(Comparator.comparing(BookResponseDTO::getId));
+            return books;
+        }
+        return shards.scatter(() -> bookRepository.findAll(Sort.by("id")), BY_ID)
                 .stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<BookResponseDTO> getBooks(int page, int size) {
+        // Every shard returns its first (page + 1) * size rows; the merged list holds the global page
+        int upTo = Math.multiplyExact(page + 1, size);
+        List<Book> firstRows = shards.scatter(
+                () -> bookRepository.findFirstRows(PageRequest.of(0, upTo)), BY_ID, upTo);
+
+        return firstRows.stream()
+                .skip((long) page * size)
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public BookResponseDTO updateBook(Long id, BookRequestDTO dto) {
-        Book existing = bookRepository.findById(id)
+        Book existing = shards.onShardFor(id, () -> bookRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with ID: " + id));
 
-        existing.setTitle(dto.getTitle());
-        existing.setAuthor(dto.getAuthor());
-        existing.setPrice(dto.getPrice());
-        existing.setStock(dto.getStock());
+        BookResponseDTO before = mapToResponse(existing);
 
-        Book updated = bookRepository.save(existing);
+        bookMapper.update(dto, existing);
+
+        Book updated = saveWithGrams(existing);
+        audit("UPDATE", before, updated);
         publishKafkaEvents(updated, "UPDATE");
 
         if (existing.getEmail() != null && !existing.getEmail().isBlank()) {
@@ -138,24 +294,44 @@ public class BookServiceImpl implements BookService {
     }
 
     @Override
-    public BookResponseDTO patchBook(Long id, BookRequestDTO dto) {
-        Book book = bookRepository.findById(id)
+    public BookResponseDTO patchBook(Long id, BookPatchDTO patch) {
+        if (patchCoalescer == null) {
+            return savePatch(id, patch).get();
+        }
+        try {
+            // returns once the merged patch is saved and followed up, so the caller's write is durable
+            return patchCoalescer.submit(id, patch, this::savePatch).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new ServiceUnavailableException(
+                        "Patch of book " + id + " was not written in time; it may still be applied");
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /** Reads, merges and saves the patch; the returned step audits, publishes and emails the saved book. */
+    private Supplier<BookResponseDTO> savePatch(Long id, BookPatchDTO patch) {
+        Book book = shards.onShardFor(id, () -> bookRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with ID: " + id));
+        BookResponseDTO before = mapToResponse(book);
+
+        bookMapper.patch(patch, book);
 
-        Optional.ofNullable(dto.getTitle()).ifPresent(book::setTitle);
-        Optional.ofNullable(dto.getAuthor()).ifPresent(book::setAuthor);
-        Optional.ofNullable(dto.getPrice()).ifPresent(book::setPrice);
-        if (dto.getStock() > 0) book.setStock(dto.getStock());
+        Book patched = saveWithGrams(book);
+        return () -> afterPatch(before, patched);
+    }
 
-        Book patched = bookRepository.save(book);
+    private BookResponseDTO afterPatch(BookResponseDTO before, Book patched) {
+        audit("PATCH", before, patched);
         publishKafkaEvents(patched, "PATCH");
 
-        if (book.getEmail() != null && !book.getEmail().isBlank()) {
+        if (patched.getEmail() != null && !patched.getEmail().isBlank()) {
             try {
-                String subject = "Book Patched: " + book.getTitle();
-                String body = "The book \"" + book.getTitle() + "\" has been patched successfully.";
-                emailService.sendSimpleMail(book.getEmail(), subject, body);
-                log.info("Patch email sent to {}", book.getEmail());
+                String subject = "Book Patched: " + patched.getTitle();
+                String body = "The book \"" + patched.getTitle() + "\" has been patched successfully.";
+                emailService.sendSimpleMail(patched.getEmail(), subject, body);
+                log.info("Patch email sent to {}", patched.getEmail());
             } catch (Exception e) {
                 log.error("Failed to send patch email: {}", e.getMessage(), e);
             }
@@ -166,10 +342,14 @@ public class BookServiceImpl implements BookService {
 
     @Override
     public void deleteBook(Long id) {
-        Book book = bookRepository.findById(id)
+        Book book = shards.onShardFor(id, () -> bookRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with ID: " + id));
 
-        bookRepository.delete(book);
+        shards.onShardFor(id, () -> {
+            bookRepository.delete(book);
+            searchGrams.remove(id);
+        });
+        audit("DELETE", mapToResponse(book), null);
         publishKafkaEvents(book, "DELETE");
 
         if (book.getEmail() != null && !book.getEmail().isBlank()) {
@@ -184,21 +364,63 @@ public class BookServiceImpl implements BookService {
         }
     }
 
+    @Override
+    public List<BookAuditEntryDTO> getBookHistory(Long id, int limit) {
+        if (auditLog == null) {
+            throw new ServiceUnavailableException("The audit log is disabled");
+        }
+        return auditLog.history(id, limit);
+    }
+
+    /** Grams of the new title/author go in before the row changes, stale ones after (see BookSearchGrams). */
+    private Book saveWithGrams(Book book) {
+        Set<String> grams = BookSearchGrams.of(book.getTitle(), book.getAuthor());
+        return shards.onShardFor(book.getId(), () -> {
+            searchGrams.add(book.getId(), grams);
+            Book saved = bookRepository.save(book);
+            searchGrams.retainOnly(book.getId(), grams);
+            return saved;
+        });
+    }
+
+    /** The write is already committed; a failed audit append is logged, not raised. */
+    private void audit(String action, BookResponseDTO before, Book after) {
+        if (auditLog == null) {
+            return;
+        }
+        try {
+            auditLog.append(action, before, after != null ? mapToResponse(after) : null);
+        } catch (RuntimeException e) {
+            log.error("Failed to audit {} of book: {}", action, e.getMessage(), e);
+        }
+    }
+
     private void publishKafkaEvents(Book book, String actionType) {
+        BookKafkaEvent event = BookKafkaEvent.builder()
+                .id(book.getId())
+                .title(book.getTitle())
+                .author(book.getAuthor())
+                .price(book.getPrice() != null ? book.getPrice() : 0)
+                .stock(book.getStock())
+                .action(actionType)
+                .timestamp(formatter.format(LocalDateTime.now()))
+                .build();
+
+        // read-your-writes on this node; the replayed event applies the same image again
+        if (catalog != null) {
+            catalog.apply(event);
+        }
+        if (bookIdFilter != null) {
+            bookIdFilter.apply(event);
+        }
+
+        if (cdcEnabled) {
+            return;
+        }
         try {
             String message = actionType + " Book: " + book.getTitle();
             kafkaProducer.sendStringEvent(message);
 
-            BookKafkaEvent event = BookKafkaEvent.builder()
-                    .id(book.getId())
-                    .title(book.getTitle())
-                    .author(book.getAuthor())
-                    .price(book.getPrice())
-                    .stock(book.getStock())
-                    .action(actionType)
-                    .timestamp(formatter.format(LocalDateTime.now()))
-                    .build();
-
             kafkaProducer.sendJsonEvent(event);
             log.info("Kafka events published for {} action on book: {}", actionType, book.getTitle());
         } catch (Exception e) {
@@ -206,13 +428,11 @@ public class BookServiceImpl implements BookService {
         }
     }
 
+    private boolean catalogReady() {
+        return catalog != null && catalog.isReady();
+    }
+
     private BookResponseDTO mapToResponse(Book book) {
-        return BookResponseDTO.builder()
-                .id(book.getId())
-                .title(book.getTitle())
-                .author(book.getAuthor())
-                .price(book.getPrice())
-                .stock(book.getStock())
-                .build();
+        return bookMapper.toResponse(book);
     }
 }
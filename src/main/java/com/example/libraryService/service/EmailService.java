@@ -3,6 +3,7 @@ package com.example.libraryService.service;
 
 import java.util.Map;
 
+import org.springframework.context.annotation.Lazy;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -16,6 +17,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 
+/** Created on first use so SMTP and Thymeleaf setup stay off the startup path. */
+@Lazy
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -6,6 +6,7 @@ import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -18,7 +19,8 @@ public class InventoryClientService {
     @Autowired
     private RestTemplate restTemplate;
 
-    private static final String INVENTORY_SERVICE_URL = "http://localhost:8087/api/products";
+    @Value("${library.inventory.url:http://localhost:8087/api/products}")
+    private String inventoryServiceUrl;
 
     @CircuitBreaker(name = "inventoryService", fallbackMethod = "fallback")
     @Retry(name = "inventoryService")
@@ -26,7 +28,7 @@ public class InventoryClientService {
     public CompletableFuture<String> getAllProducts() {
         log.info("🔁 Calling InventoryService...");
         return CompletableFuture.supplyAsync(() ->
-            restTemplate.getForObject(INVENTORY_SERVICE_URL, String.class)
+            restTemplate.getForObject(inventoryServiceUrl, String.class)
         );
     }
 
@@ -0,0 +1,23 @@
+package com.example.libraryService.shard;
+
+/**
+ * Holds the shard the current thread talks to; read by {@link ShardRoutingDataSource}.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void set(int shard) {
+        CURRENT.set(shard);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.libraryService.shard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+/**
+ * The physical DataSource of every shard, indexed by shard number.
+ */
+public class ShardDataSources implements Closeable {
+
+    private final List<DataSource> dataSources;
+
+    public ShardDataSources(List<DataSource> dataSources) {
+        this.dataSources = List.copyOf(dataSources);
+    }
+
+    public DataSource get(int shard) {
+        return dataSources.get(shard);
+    }
+
+    public int size() {
+        return dataSources.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
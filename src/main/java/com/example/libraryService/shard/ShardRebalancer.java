@@ -0,0 +1,117 @@
+package com.example.libraryService.shard;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.libraryService.repository.BookSearchGrams;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: ShardRebalancer
+ *
+ * Description:
+ *   Moves every book row that is stored on a shard other than the one the
+ *   router assigns to its id. Used after shards are added or removed.
+ *   Rows are copied before they are deleted from the source, and a row that
+ *   already exists on its target is only deleted, so an interrupted run can
+ *   simply be started again. Search grams are rebuilt on the target rather
+ *   than copied.
+ * ============================================================================
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    static final int BATCH_SIZE = 500;
+
+    private final ShardDataSources dataSources;
+    private final ShardRouter router;
+
+    public ShardRebalancer(ShardDataSources dataSources, ShardRouter router) {
+        this.dataSources = dataSources;
+        this.router = router;
+    }
+
+    /** Row count per shard. */
+    public Map<Integer, Long> rowCounts() {
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        for (int shard = 0; shard < dataSources.size(); shard++) {
+            counts.put(shard, jdbc(shard).queryForObject("SELECT COUNT(*) FROM books", Long.class));
+        }
+        return counts;
+    }
+
+    /**
+     * @return number of rows moved away from each shard.
+     */
+    public Map<Integer, Integer> rebalance() {
+        Map<Integer, Integer> moved = new LinkedHashMap<>();
+        for (int shard = 0; shard < dataSources.size(); shard++) {
+            moved.put(shard, rebalanceShard(shard));
+        }
+        log.info("Shard rebalance finished, rows moved per source shard: {}", moved);
+        return moved;
+    }
+
+    private int rebalanceShard(int source) {
+        JdbcTemplate sourceJdbc = jdbc(source);
+        int moved = 0;
+        long lastId = Long.MIN_VALUE;
+
+        while (true) {
+            List<Map<String, Object>> rows = sourceJdbc.queryForList(
+                    "SELECT * FROM books WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE, lastId);
+            if (rows.isEmpty()) {
+                return moved;
+            }
+
+            for (Map<String, Object> row : rows) {
+                long id = ((Number) value(row, "id")).longValue();
+                lastId = id;
+                int target = router.shardFor(id);
+                if (target == source) {
+                    continue;
+                }
+                JdbcTemplate targetJdbc = jdbc(target);
+                new BookSearchGrams(targetJdbc).replace(Map.of(id,
+                        BookSearchGrams.of((String) value(row, "title"), (String) value(row, "author"))));
+                copy(row, targetJdbc);
+                sourceJdbc.update("DELETE FROM books WHERE id = ?", id);
+                new BookSearchGrams(sourceJdbc).remove(id);
+                moved++;
+            }
+        }
+    }
+
+    private static void copy(Map<String, Object> row, JdbcTemplate target) {
+        List<String> columns = new ArrayList<>(row.keySet());
+        String sql = "INSERT INTO books (" + String.join(", ", columns) + ") VALUES ("
+                + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+        try {
+            target.update(sql, columns.stream().map(row::get).toArray());
+        } catch (DuplicateKeyException e) {
+            log.debug("Book {} already present on target shard", value(row, "id"));
+        }
+    }
+
+    /** Column labels come back upper-cased from some drivers. */
+    private static Object value(Map<String, Object> row, String column) {
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(column)) {
+                return entry.getValue();
+            }
+        }
+        throw new IllegalStateException("Column " + column + " missing from books row");
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(dataSources.get(shard));
+    }
+}
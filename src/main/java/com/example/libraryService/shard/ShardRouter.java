@@ -0,0 +1,34 @@
+package com.example.libraryService.shard;
+
+/**
+ * Maps a book id to its shard by hashing the id.
+ */
+public class ShardRouter {
+
+    private final int shardCount;
+
+    public ShardRouter(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardFor(long id) {
+        return (int) Long.remainderUnsigned(mix(id), shardCount);
+    }
+
+    /** MurmurHash3 finalizer: time-ordered ids differ mostly in their high bits. */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb93fe53e87ebL;
+        key ^= key >>> 33;
+        return key;
+    }
+}
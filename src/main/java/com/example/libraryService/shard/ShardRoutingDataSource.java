@@ -0,0 +1,15 @@
+package com.example.libraryService.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections of the shard selected in {@link ShardContext}.
+ * Without a selected shard, shard 0 is used (schema metadata, migrations).
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
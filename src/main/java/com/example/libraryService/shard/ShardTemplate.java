@@ -0,0 +1,186 @@
+package com.example.libraryService.shard;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Component: ShardTemplate
+ *
+ * Description:
+ *   Runs repository calls against the right shard. Single-book operations are
+ *   routed by id; list and search queries are scattered to every shard in
+ *   parallel and their (individually ordered) results merged. Lookups of many
+ *   ids are grouped by shard and chunked, and the chunks run in parallel.
+ *   With a single shard, scatter queries run inline on the caller's thread.
+ * ============================================================================
+ */
+@Slf4j
+@Component
+public class ShardTemplate implements DisposableBean {
+
+    private final ShardRouter router;
+    private final ExecutorService scatterExecutor;
+
+    public ShardTemplate(ShardRouter router, ShardingProperties properties) {
+        this.router = router;
+        this.scatterExecutor = Executors.newFixedThreadPool(properties.getScatterThreads(), scatterThreadFactory());
+    }
+
+    public int shardCount() {
+        return router.shardCount();
+    }
+
+    public int shardFor(long id) {
+        return router.shardFor(id);
+    }
+
+    public <T> T onShardFor(long id, Supplier<T> action) {
+        return onShard(router.shardFor(id), action);
+    }
+
+    public void onShardFor(long id, Runnable action) {
+        onShardFor(id, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T onShard(int shard, Supplier<T> action) {
+        Integer previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                ShardContext.clear();
+            } else {
+                ShardContext.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs the query on every shard and merges the results. Each shard's result
+     * must already be sorted by {@code order}.
+     */
+    public <T> List<T> scatter(Supplier<List<T>> query, Comparator<? super T> order) {
+        return scatter(query, order, Integer.MAX_VALUE);
+    }
+
+    /** Same as {@link #scatter(Supplier, Comparator)} but stops merging after {@code limit} rows. */
+    public <T> List<T> scatter(Supplier<List<T>> query, Comparator<? super T> order, int limit) {
+        if (router.shardCount() == 1) {
+            List<T> rows = onShard(0, query);
+            return rows.size() <= limit ? rows : new ArrayList<>(rows.subList(0, limit));
+        }
+
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(router.shardCount());
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> onShard(target, query), scatterExecutor));
+        }
+
+        List<List<T>> perShard = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<List<T>> future : futures) {
+                perShard.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return merge(perShard, order, limit);
+    }
+
+    /**
+     * Runs {@code query} for {@code ids}: the ids are grouped by shard and split
+     * into chunks of at most {@code chunkSize}, and every chunk runs in parallel
+     * against its shard (e.g. one {@code WHERE id IN (...)} each).
+     *
+     * @return the concatenated rows, in no particular order
+     */
+    public <T> CompletableFuture<List<T>> gather(Collection<Long> ids, int chunkSize,
+                                                 Function<List<Long>, List<T>> query) {
+        Map<Integer, List<Long>> byShard = new TreeMap<>();
+        for (Long id : ids) {
+            byShard.computeIfAbsent(router.shardFor(id), shard -> new ArrayList<>()).add(id);
+        }
+
+        List<CompletableFuture<List<T>>> chunks = new ArrayList<>();
+        byShard.forEach((shard, shardIds) -> {
+            for (int from = 0; from < shardIds.size(); from += chunkSize) {
+                List<Long> chunk = shardIds.subList(from, Math.min(from + chunkSize, shardIds.size()));
+                chunks.add(CompletableFuture.supplyAsync(() -> onShard(shard, () -> query.apply(chunk)), scatterExecutor));
+            }
+        });
+
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            List<T> rows = new ArrayList<>();
+            chunks.forEach(chunk -> rows.addAll(chunk.join()));
+            return rows;
+        });
+    }
+
+    /** k-way merge of already ordered shard results. */
+    static <T> List<T> merge(List<List<T>> sortedLists, Comparator<? super T> order, int limit) {
+        record Cursor<T>(List<T> rows, int index) {
+            T head() {
+                return rows.get(index);
+            }
+        }
+
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.head(), b.head()));
+        int total = 0;
+        for (List<T> rows : sortedLists) {
+            if (!rows.isEmpty()) {
+                heads.add(new Cursor<>(rows, 0));
+                total += rows.size();
+            }
+        }
+
+        List<T> merged = new ArrayList<>(Math.min(total, limit));
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Cursor<T> cursor = heads.poll();
+            merged.add(cursor.head());
+            if (cursor.index() + 1 < cursor.rows().size()) {
+                heads.add(new Cursor<>(cursor.rows(), cursor.index() + 1));
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    public void destroy() {
+        scatterExecutor.shutdown();
+    }
+
+    private static ThreadFactory scatterThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.libraryService.shard;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Configuration Class: ShardingConfig
+ *
+ * Description:
+ *   Wires the shard router and, when {@code library.sharding.enabled=true},
+ *   one connection pool per configured shard behind a routing DataSource.
+ *   Every shard is migrated with the same Flyway scripts.
+ * ============================================================================
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties) {
+        int shardCount = properties.isEnabled() ? properties.getShards().size() : 1;
+        log.info("Book storage uses {} shard(s)", shardCount);
+        return new ShardRouter(shardCount);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "library.sharding", name = "enabled", havingValue = "true")
+    public ShardDataSources shardDataSources(ShardingProperties properties) {
+        List<DataSource> dataSources = properties.getShards().stream()
+                .map(ShardingConfig::createPool)
+                .map(DataSource.class::cast)
+                .toList();
+
+        for (int shard = 0; shard < dataSources.size(); shard++) {
+            log.info("Migrating shard {}", shard);
+            Flyway.configure()
+                    .dataSource(dataSources.get(shard))
+                    .baselineOnMigrate(true)
+                    .baselineVersion("0")
+                    .load()
+                    .migrate();
+        }
+        return new ShardDataSources(dataSources);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "library.sharding", name = "enabled", havingValue = "true")
+    public DataSource shardRoutingDataSource(ShardDataSources shardDataSources) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            targets.put(shard, shardDataSources.get(shard));
+        }
+
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(shardDataSources.get(0));
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "library.sharding", name = "enabled", havingValue = "true")
+    public ShardRebalancer shardRebalancer(ShardDataSources shardDataSources, ShardRouter shardRouter) {
+        return new ShardRebalancer(shardDataSources, shardRouter);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "library.sharding", name = "enabled", havingValue = "true")
+    public ShardsEndpoint shardsEndpoint(ShardRebalancer shardRebalancer) {
+        return new ShardsEndpoint(shardRebalancer);
+    }
+
+    private static HikariDataSource createPool(ShardingProperties.Shard shard) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(shard.getUrl());
+        dataSource.setUsername(shard.getUsername());
+        dataSource.setPassword(shard.getPassword());
+        dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+        return dataSource;
+    }
+}
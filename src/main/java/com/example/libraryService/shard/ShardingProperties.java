@@ -0,0 +1,36 @@
+package com.example.libraryService.shard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings under {@code library.sharding}. When disabled the service uses the
+ * regular {@code spring.datasource} as its only shard.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "library.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    /** One entry per physical database; the list index is the shard number. */
+    private List<Shard> shards = new ArrayList<>();
+
+    /** Threads used to scatter list/search queries across shards. */
+    private int scatterThreads = 8;
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.libraryService.shard;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+/**
+ * Actuator endpoint {@code /actuator/shards}: GET shows rows per shard,
+ * POST runs the {@link ShardRebalancer}.
+ */
+@Endpoint(id = "shards")
+public class ShardsEndpoint {
+
+    private final ShardRebalancer rebalancer;
+
+    public ShardsEndpoint(ShardRebalancer rebalancer) {
+        this.rebalancer = rebalancer;
+    }
+
+    @ReadOperation
+    public Map<Integer, Long> rowCounts() {
+        return rebalancer.rowCounts();
+    }
+
+    @WriteOperation
+    public Map<Integer, Integer> rebalance() {
+        return rebalancer.rebalance();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.libraryService.suggest;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.libraryService.catalog.CatalogState;
+
+/**
+ * Keeps the {@link SuggestionIndex} current from the in-process catalog.
+ * Without the catalog, suggestions fall back to title prefix queries.
+ */
+@Configuration
+@EnableConfigurationProperties(SuggestProperties.class)
+public class SuggestConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "library.catalog", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SuggestionIndex suggestionIndex(CatalogState catalogState, SuggestProperties properties) {
+        SuggestionIndex index = new SuggestionIndex(properties.getMaxResults());
+        catalogState.addListener(index);
+        return index;
+    }
+}
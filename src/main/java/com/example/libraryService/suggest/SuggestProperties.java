@@ -0,0 +1,18 @@
+package com.example.libraryService.suggest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings under {@code library.suggest}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "library.suggest")
+public class SuggestProperties {
+
+    /** Suggestions cached per trie node, which is also the most a request can ask for. */
+    private int maxResults = 10;
+}
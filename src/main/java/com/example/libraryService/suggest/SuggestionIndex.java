@@ -0,0 +1,346 @@
+package com.example.libraryService.suggest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+import com.example.libraryService.catalog.CatalogState;
+import com.example.libraryService.catalog.CatalogStore;
+import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.entity.Book;
+
+/**
+ * ============================================================================
+ * Class: SuggestionIndex
+ *
+ * Description:
+ *   Typeahead over normalized titles and authors. It is a radix trie (edges
+ *   hold whole label runs) keyed by the full text and by each word start, so
+ *   "mess" finds "Dune Messiah".
+ *
+ *   Every node caches the best {@code k} suggestions of its subtree, ranked
+ *   by stock (titles) or total stock (authors). A lookup walks the prefix and
+ *   returns that cached list: no subtree scan, no sorting.
+ *
+ *   Changes arrive one at a time from CatalogState. Inserts offer the new
+ *   entry to the caches on their path; removals recompute a cache only where
+ *   it held the removed entry, and drop or merge emptied nodes.
+ * ============================================================================
+ */
+public class SuggestionIndex implements CatalogState.ChangeListener {
+
+    public enum Kind { TITLE, AUTHOR }
+
+    /**
+     * @param key    identity of the suggested title or author; an entry is stored under several trie keys
+     * @param bookId the book of a title suggestion, null for authors
+     */
+    public record Suggestion(String key, String text, Kind kind, Long bookId, long score) {}
+
+    private static final Comparator<Suggestion> BEST_FIRST = Comparator.comparingLong(Suggestion::score).reversed()
+            .thenComparing(Suggestion::text)
+            .thenComparing(Suggestion::key);
+
+    private static final Suggestion[] NONE = new Suggestion[0];
+
+    private final int k;
+    private final StampedLock lock = new StampedLock();
+
+    private Node root = new Node("");
+    /** normalized author -> totals over the author's books */
+    private final Map<String, AuthorTotals> authors = new HashMap<>();
+    private volatile boolean ready;
+
+    public SuggestionIndex(int k) {
+        this.k = k;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** The best suggestions whose title, author or one of their words starts with {@code prefix}. */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = Book.normalize(prefix);
+        if (key == null || key.isEmpty()) {
+            return List.of();
+        }
+        long stamp = lock.readLock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                node = node.children.get(key.charAt(i));
+                if (node == null || !key.regionMatches(i, node.edge, 0, Math.min(node.edge.length(), key.length() - i))) {
+                    return List.of();
+                }
+                i += node.edge.length();
+            }
+            return List.of(node.top).subList(0, Math.min(limit, node.top.length));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void onReset(CatalogStore store) {
+        long stamp = lock.writeLock();
+        try {
+            root = new Node("");
+            authors.clear();
+            store.forEach((id, title, author, price, stock) -> {
+                Suggestion entry = titleEntry(id, title, stock);
+                keysOf(title).forEach(key -> insert(key, entry, false));
+                String normalized = Book.normalize(author);
+                if (normalized != null && !normalized.isBlank()) {
+                    authors.computeIfAbsent(normalized, name -> new AuthorTotals(author)).add(stock);
+                }
+            });
+            authors.forEach((normalized, totals) ->
+                    keysOf(totals.display).forEach(key -> insert(key, totals.entry(normalized), false)));
+            computeTops(root);
+            ready = true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void onChange(BookResponseDTO before, BookResponseDTO after) {
+        long stamp = lock.writeLock();
+        try {
+            if (before != null) {
+                Suggestion entry = titleEntry(before.getId(), before.getTitle(), before.getStock());
+                keysOf(before.getTitle()).forEach(key -> remove(key, entry));
+                changeAuthor(before.getAuthor(), -before.getStock(), -1);
+            }
+            if (after != null) {
+                Suggestion entry = titleEntry(after.getId(), after.getTitle(), after.getStock());
+                keysOf(after.getTitle()).forEach(key -> insert(key, entry, true));
+                changeAuthor(after.getAuthor(), after.getStock(), 1);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void changeAuthor(String author, long stockDelta, int booksDelta) {
+        String normalized = Book.normalize(author);
+        if (normalized == null || normalized.isBlank()) {
+            return;
+        }
+        AuthorTotals totals = authors.get(normalized);
+        if (totals != null) {
+            Suggestion old = totals.entry(normalized);
+            keysOf(totals.display).forEach(key -> remove(key, old));
+        } else {
+            totals = new AuthorTotals(author);
+            authors.put(normalized, totals);
+        }
+        totals.stock += stockDelta;
+        totals.books += booksDelta;
+        if (totals.books <= 0) {
+            authors.remove(normalized);
+            return;
+        }
+        Suggestion updated = totals.entry(normalized);
+        keysOf(totals.display).forEach(key -> insert(key, updated, true));
+    }
+
+    private static Suggestion titleEntry(long id, String title, int stock) {
+        return new Suggestion("t:" + id, title, Kind.TITLE, id, stock);
+    }
+
+    /** The normalized text and every suffix that starts a word. */
+    static Set<String> keysOf(String text) {
+        String normalized = Book.normalize(text);
+        if (normalized == null || normalized.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(normalized);
+        for (int i = 1; i < normalized.length(); i++) {
+            if (Character.isWhitespace(normalized.charAt(i - 1)) && !Character.isWhitespace(normalized.charAt(i))) {
+                keys.add(normalized.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    // ------------------------------------------------------------------ trie
+
+    private void insert(String key, Suggestion entry, boolean updateTops) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.children.put(key.charAt(i), child);
+                node = child;
+                path.add(node);
+                break;
+            }
+            int common = commonPrefix(child.edge, key, i);
+            if (common < child.edge.length()) {
+                // split the edge; the new inner node covers the same subtree as before
+                Node inner = new Node(child.edge.substring(0, common));
+                child.edge = child.edge.substring(common);
+                inner.children.put(child.edge.charAt(0), child);
+                inner.top = child.top;
+                node.children.put(inner.edge.charAt(0), inner);
+                child = inner;
+            }
+            node = child;
+            path.add(node);
+            i += common;
+        }
+        node.terminals.add(entry);
+        if (updateTops) {
+            for (Node onPath : path) {
+                onPath.top = offer(onPath.top, entry);
+            }
+        }
+    }
+
+    private void remove(String key, Suggestion entry) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            node = node.children.get(key.charAt(i));
+            if (node == null || !key.startsWith(node.edge, i)) {
+                return;
+            }
+            path.add(node);
+            i += node.edge.length();
+        }
+        if (!node.terminals.removeIf(terminal -> terminal.key().equals(entry.key()))) {
+            return;
+        }
+
+        // bottom-up, so every child of the node at hand is already up to date
+        for (int j = path.size() - 1; j >= 0; j--) {
+            Node current = path.get(j);
+            if (j > 0 && current.terminals.isEmpty() && current.children.size() <= 1) {
+                Node parent = path.get(j - 1);
+                if (current.children.isEmpty()) {
+                    parent.children.remove(current.edge.charAt(0));
+                } else {
+                    Node only = current.children.values().iterator().next();
+                    only.edge = current.edge + only.edge;
+                    parent.children.put(only.edge.charAt(0), only);
+                }
+                continue;
+            }
+            if (contains(current.top, entry.key())) {
+                current.top = recompute(current);
+            }
+        }
+    }
+
+    private Suggestion[] computeTops(Node node) {
+        for (Node child : node.children.values()) {
+            computeTops(child);
+        }
+        node.top = recompute(node);
+        return node.top;
+    }
+
+    private Suggestion[] recompute(Node node) {
+        List<Suggestion> candidates = new ArrayList<>(node.terminals);
+        for (Node child : node.children.values()) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(BEST_FIRST);
+        List<Suggestion> best = new ArrayList<>(k);
+        Set<String> seen = new HashSet<>();
+        for (Suggestion candidate : candidates) {
+            if (best.size() == k) {
+                break;
+            }
+            if (seen.add(candidate.key())) {
+                best.add(candidate);
+            }
+        }
+        return best.toArray(NONE);
+    }
+
+    /** Inserts {@code entry} into a top list if it ranks within the best k. */
+    private Suggestion[] offer(Suggestion[] top, Suggestion entry) {
+        if (contains(top, entry.key())) {
+            return top;
+        }
+        int position = Arrays.binarySearch(top, entry, BEST_FIRST);
+        position = position >= 0 ? position : -position - 1;
+        if (position >= k) {
+            return top;
+        }
+        int length = Math.min(top.length + 1, k);
+        Suggestion[] updated = new Suggestion[length];
+        System.arraycopy(top, 0, updated, 0, position);
+        updated[position] = entry;
+        System.arraycopy(top, position, updated, position + 1, length - position - 1);
+        return updated;
+    }
+
+    private static boolean contains(Suggestion[] top, String key) {
+        for (Suggestion suggestion : top) {
+            if (suggestion.key().equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int commonPrefix(String edge, String key, int offset) {
+        int max = Math.min(edge.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && edge.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        String edge;
+        final Map<Character, Node> children = new HashMap<>(4);
+        /** Entries whose key ends at this node */
+        final List<Suggestion> terminals = new ArrayList<>(1);
+        /** Best k entries of this subtree, best first */
+        Suggestion[] top = NONE;
+
+        Node(String edge) {
+            this.edge = edge;
+        }
+    }
+
+    private static final class AuthorTotals {
+        final String display;
+        long stock;
+        int books;
+
+        AuthorTotals(String display) {
+            this.display = display;
+        }
+
+        void add(long units) {
+            stock += units;
+            books++;
+        }
+
+        Suggestion entry(String normalized) {
+            return new Suggestion("a:" + normalized, display, Kind.AUTHOR, null, stock);
+        }
+    }
+}
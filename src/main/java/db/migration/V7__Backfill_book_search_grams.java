@@ -0,0 +1,43 @@
+package db.migration;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import com.example.libraryService.repository.BookSearchGrams;
+
+/**
+ * Computes the search trigrams of the books stored before V6. The grams are
+ * derived in Java, with the same code the application uses, because the
+ * databases have no portable way of splitting a string into them.
+ */
+public class V7__Backfill_book_search_grams extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        BookSearchGrams grams = new BookSearchGrams(jdbc);
+        long lastId = Long.MIN_VALUE;
+        while (true) {
+            List<Map<String, Object>> rows = jdbc.queryForList(
+                    "SELECT id, title, author FROM books WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE, lastId);
+            if (rows.isEmpty()) {
+                return;
+            }
+            Map<Long, Set<String>> batch = new LinkedHashMap<>();
+            for (Map<String, Object> row : rows) {
+                lastId = ((Number) row.get("id")).longValue();
+                batch.put(lastId, BookSearchGrams.of((String) row.get("title"), (String) row.get("author")));
+            }
+            grams.replace(batch);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+-- Baseline schema, previously created by Hibernate's DDL handling
+CREATE TABLE IF NOT EXISTS books (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    title          VARCHAR(100) NOT NULL,
+    author         VARCHAR(255) NOT NULL,
+    price          DOUBLE       NOT NULL,
+    stock          INT          NOT NULL,
+    email          VARCHAR(255) NOT NULL,
+    template_type  VARCHAR(255),
+    recipient_name VARCHAR(255),
+    PRIMARY KEY (id)
+);
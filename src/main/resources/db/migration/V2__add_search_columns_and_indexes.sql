@@ -0,0 +1,11 @@
+-- Lower-cased copies of title/author so case-insensitive search can use a B-tree index
+ALTER TABLE books ADD COLUMN title_normalized VARCHAR(100);
+ALTER TABLE books ADD COLUMN author_normalized VARCHAR(255);
+
+UPDATE books
+   SET title_normalized  = LOWER(TRIM(title)),
+       author_normalized = LOWER(TRIM(author));
+
+CREATE INDEX idx_books_title_normalized ON books (title_normalized);
+CREATE INDEX idx_books_author_normalized ON books (author_normalized);
+CREATE INDEX idx_books_email ON books (email);
@@ -0,0 +1,2 @@
+-- Book ids are generated by the service (globally unique across shards)
+ALTER TABLE books MODIFY id BIGINT NOT NULL;
@@ -0,0 +1,13 @@
+-- Idempotency-Key claims and recorded responses shared by all instances
+-- (library.idempotency.backing=jdbc). A claim has no status yet.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint     VARCHAR(64),
+    status          INT,
+    content_type    VARCHAR(255),
+    body            LONGBLOB,
+    expires_at      BIGINT       NOT NULL,
+    PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,11 @@
+-- Requests admitted per instance and rate-limit budget, for cluster-wide budgets
+-- (library.rate-limit.cluster.backing=jdbc). usage_key is "<CATEGORY>:<client id>".
+CREATE TABLE IF NOT EXISTS rate_limit_usage (
+    instance_id VARCHAR(64)  NOT NULL,
+    usage_key   VARCHAR(120) NOT NULL,
+    admitted    BIGINT       NOT NULL,
+    reported_at BIGINT       NOT NULL,
+    PRIMARY KEY (instance_id, usage_key)
+);
+
+CREATE INDEX idx_rate_limit_usage_reported_at ON rate_limit_usage (reported_at);
@@ -0,0 +1,10 @@
+-- Trigrams of the normalized title ('t' prefix) and author ('a' prefix) of every
+-- book, so that substring search is answered from an index instead of '%term%'
+-- scans. Filled by V7 and kept current by the application (BookSearchGrams).
+CREATE TABLE IF NOT EXISTS book_search_grams (
+    book_id BIGINT     NOT NULL,
+    gram    VARCHAR(8) NOT NULL,
+    PRIMARY KEY (book_id, gram)
+);
+
+CREATE INDEX idx_book_search_grams_gram ON book_search_grams (gram, book_id);
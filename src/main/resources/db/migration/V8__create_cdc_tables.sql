@@ -0,0 +1,15 @@
+-- Change data capture (library.cdc.enabled=true): the lease naming the one
+-- instance that reads the change logs (kept on shard 0), and the position
+-- each shard's change log was published up to (kept on that shard).
+CREATE TABLE IF NOT EXISTS cdc_leader (
+    name       VARCHAR(64)  NOT NULL,
+    owner      VARCHAR(128) NOT NULL,
+    expires_at BIGINT       NOT NULL,
+    PRIMARY KEY (name)
+);
+
+CREATE TABLE IF NOT EXISTS cdc_positions (
+    source   VARCHAR(64)  NOT NULL,
+    position VARCHAR(255) NOT NULL,
+    PRIMARY KEY (source)
+);
@@ -0,0 +1,319 @@
+package com.example.libraryService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestClient;
+
+import com.example.libraryService.feed.ChangeFeed;
+import com.example.libraryService.grpc.GrpcServer;
+import com.example.libraryService.grpc.proto.Book;
+import com.example.libraryService.grpc.proto.BookLookupGrpc;
+import com.example.libraryService.grpc.proto.GetBookRequest;
+import com.example.libraryService.grpc.proto.GetBooksRequest;
+import com.example.libraryService.grpc.proto.GetBooksResponse;
+import com.example.libraryService.grpc.proto.ListBooksRequest;
+import com.example.libraryService.grpc.proto.SearchBooksRequest;
+import com.example.libraryService.kafka.BookKafkaEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+/**
+ * Boots the whole service against local stand-ins and exercises every
+ * {@code BookController} endpoint over HTTP. Runs on the JVM with
+ * {@code mvn test} and as a native image with {@code mvn -PnativeTest test}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("smoke")
+@Import(LocalStandInsConfig.class)
+class BookControllerSmokeTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MockProducer<String, BookKafkaEvent> jsonMockProducer;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private GrpcServer grpcServer;
+
+    private RestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = RestClient.builder()
+                .baseUrl("http://localhost:" + port + "/api/books")
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .build();
+    }
+
+    @Test
+    void exercisesEveryEndpoint() {
+        Map<String, Object> dune = Map.of(
+                "title", "Dune",
+                "author", "Frank Herbert",
+                "price", 19.99,
+                "stock", 5,
+                "email", "reader@library.com");
+        JsonNode created = client.post()
+                .header("Idempotency-Key", "create-dune")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(dune)
+                .retrieve()
+                .body(JsonNode.class);
+        assertThat(created.get("status").asInt()).isEqualTo(201);
+        long id = created.get("data").get("id").asLong();
+
+        // a retried create is answered from the idempotency store and does not insert again
+        JsonNode retried = client.post()
+                .header("Idempotency-Key", "create-dune")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(dune)
+                .retrieve()
+                .body(JsonNode.class);
+        assertThat(retried.get("data").get("id").asLong()).isEqualTo(id);
+
+        JsonNode all = client.get().retrieve().body(JsonNode.class);
+        assertThat(all.get("data").size()).isGreaterThanOrEqualTo(1);
+
+        JsonNode byId = client.get().uri("/{id}", id).retrieve().body(JsonNode.class);
+        assertThat(byId.get("data").get("title").asText()).isEqualTo("Dune");
+
+        JsonNode batch = client.get().uri("?ids={id},42,{id}", id, id).retrieve().body(JsonNode.class);
+        assertThat(batch.get("data").get("books").findValues("id")).extracting(JsonNode::asLong).containsExactly(id);
+        assertThat(batch.get("data").get("missingIds")).extracting(JsonNode::asLong).containsExactly(42L);
+
+        JsonNode batchPost = client.post().uri("/batch-get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("ids", List.of(42, id)))
+                .retrieve()
+                .body(JsonNode.class);
+        assertThat(batchPost.get("data").get("books").get(0).get("title").asText()).isEqualTo("Dune");
+
+        JsonNode updated = client.put().uri("/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of(
+                        "title", "Dune Messiah",
+                        "author", "Frank Herbert",
+                        "price", 21.50,
+                        "stock", 3,
+                        "email", "reader@library.com"))
+                .retrieve()
+                .body(JsonNode.class);
+        assertThat(updated.get("data").get("title").asText()).isEqualTo("Dune Messiah");
+
+        JsonNode patched = client.patch().uri("/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("price", 9.99))
+                .retrieve()
+                .body(JsonNode.class);
+        assertThat(patched.get("data").get("price").asDouble()).isEqualTo(9.99);
+
+        JsonNode negativeStock = client.patch().uri("/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("stock", -1))
+                .retrieve()
+                .body(JsonNode.class);
+        assertThat(negativeStock.get("status").asInt()).isEqualTo(400);
+
+        JsonNode search = client.get().uri("/search?title=DUNE m").retrieve().body(JsonNode.class);
+        assertThat(search.get("data").size()).isEqualTo(1);
+        JsonNode infix = client.get().uri("/search?title=messiah&author=herb").retrieve().body(JsonNode.class);
+        assertThat(infix.get("data").findValues("id")).extracting(JsonNode::asLong).containsExactly(id);
+
+        JsonNode suggestions = client.get().uri("/suggest?q=mess").retrieve().body(JsonNode.class);
+        assertThat(suggestions.get("data").get(0).get("text").asText()).isEqualTo("Dune Messiah");
+
+        JsonNode lowStock = client.get().uri("http://localhost:" + port + "/api/analytics/low-stock?threshold=3")
+                .retrieve().body(JsonNode.class);
+        assertThat(lowStock.get("data").findValues("id")).extracting(JsonNode::asLong).contains(id);
+
+        JsonNode byAuthor = client.get().uri("http://localhost:" + port + "/api/analytics/stock-value-by-author")
+                .retrieve().body(JsonNode.class);
+        assertThat(byAuthor.get("data").get(0).get("stockValue").asDouble()).isEqualTo(29.97);
+
+        JsonNode inventory = client.get().uri("/inventory-products").retrieve().body(JsonNode.class);
+        assertThat(inventory.get("status").asInt()).isEqualTo(200);
+
+        JsonNode deleted = client.delete().uri("/{id}", id).retrieve().body(JsonNode.class);
+        assertThat(deleted.get("status").asInt()).isEqualTo(200);
+
+        JsonNode missing = client.get().uri("/{id}", id).retrieve().body(JsonNode.class);
+        assertThat(missing.get("status").asInt()).isEqualTo(404);
+
+        // never existed: answered by the id filter
+        JsonNode unknown = client.get().uri("/{id}", 123).retrieve().body(JsonNode.class);
+        assertThat(unknown.get("status").asInt()).isEqualTo(404);
+        assertThat(unknown.get("message").asText()).isEqualTo("Book not found with ID: 123");
+
+        assertThat(jsonMockProducer.history())
+                .extracting(record -> record.value().getAction())
+                .containsExactly("CREATE", "UPDATE", "PATCH", "DELETE");
+
+        JsonNode history = client.get().uri("/{id}/audit", id).retrieve().body(JsonNode.class).get("data");
+        assertThat(history.findValuesAsText("action")).containsExactly("CREATE", "UPDATE", "PATCH", "DELETE");
+        assertThat(history.get(0).get("before").isNull()).isTrue();
+        assertThat(history.get(3).get("before").get("price").asDouble()).isEqualTo(9.99);
+        assertThat(history.get(3).get("after").isNull()).isTrue();
+    }
+
+    @Test
+    void throttlesAClientOverItsSearchBudget() {
+        for (int i = 0; i < 2; i++) {
+            int status = client.get().uri("/search?title=dune")
+                    .header("X-Client-Id", "smoke-throttled")
+                    .exchange((request, response) -> response.getStatusCode().value());
+            assertThat(status).isEqualTo(200);
+        }
+
+        HttpHeaders headers = client.get().uri("/search?title=dune")
+                .header("X-Client-Id", "smoke-throttled")
+                .exchange((request, response) -> {
+                    assertThat(response.getStatusCode().value()).isEqualTo(429);
+                    return response.getHeaders();
+                });
+        assertThat(headers.getFirst(HttpHeaders.RETRY_AFTER)).isNotNull();
+
+        // lookups have a budget of their own
+        int lookup = client.get().uri("/{id}", 123)
+                .header("X-Client-Id", "smoke-throttled")
+                .exchange((request, response) -> response.getStatusCode().value());
+        assertThat(lookup).isEqualTo(200);
+    }
+
+    @Test
+    void streamsBookChanges() throws Exception {
+        HttpResponse<Stream<String>> stream = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/books/changes?author=frank%20herbert"))
+                        .header("Accept", "text/event-stream")
+                        .build(),
+                HttpResponse.BodyHandlers.ofLines());
+        assertThat(stream.headers().firstValue("Content-Type")).hasValueSatisfying(
+                type -> assertThat(type).startsWith("text/event-stream"));
+
+        // listeners do not run in the smoke profile; publish as the BOOKS consumer would
+        changeFeed.publish(BookKafkaEvent.builder().id(7L).author("Ursula Le Guin").action("CREATE").build(), 0, 0);
+        changeFeed.publish(BookKafkaEvent.builder().id(8L).author("Frank Herbert").action("CREATE").build(), 0, 1);
+
+        try (Stream<String> lines = stream.body()) {
+            assertThat(lines.filter(line -> !line.isEmpty() && !line.startsWith(":")).limit(3)).containsExactly("id:0:1", "event:create", "data:{\"id\":8,\"title\":null,"
+                    + "\"author\":\"Frank Herbert\",\"price\":0.0,\"stock\":0,\"action\":\"CREATE\",\"timestamp\":null}");
+        }
+    }
+
+    @Test
+    void importsACatalogFile() throws Exception {
+        jsonMockProducer.clear();
+        Path inbox = Files.createDirectories(Path.of("target/import-smoke/inbox"));
+        String file = "smoke-" + System.nanoTime() + ".csv";
+        // the second row with the same id updates the first
+        Files.writeString(inbox.resolve(file), String.join("\n",
+                "id,title,author,price,stock,email",
+                "9000001,Emma,Jane Austen,7.5,2,a@library.com",
+                "9000001,Emma (Annotated),Jane Austen,2.5,4,a@library.com",
+                ",Persuasion,Jane Austen,7.0,1,b@library.com",
+                ",X,Nobody,1.0,1,c@library.com") + "\n");
+
+        JsonNode queued = client.post()
+                .uri("/imports")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("file", file))
+                .retrieve()
+                .body(JsonNode.class);
+        assertThat(queued.get("status").asInt()).isEqualTo(202);
+        long job = queued.get("data").get("id").asLong();
+
+        JsonNode status = null;
+        for (int i = 0; i < 100; i++) {
+            status = client.get().uri("/imports/{id}", job).retrieve().body(JsonNode.class).get("data");
+            if (!List.of("QUEUED", "RUNNING").contains(status.get("status").asText())) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        assertThat(status.get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(status.get("rejected").asInt()).isEqualTo(1);
+        assertThat(status.get("errors").get(0).get("line").asLong()).isEqualTo(5);
+
+        JsonNode emma = client.get().uri("/{id}", 9_000_001L).retrieve().body(JsonNode.class).get("data");
+        assertThat(emma.get("title").asText()).isEqualTo("Emma (Annotated)");
+        assertThat(emma.get("stock").asInt()).isEqualTo(4);
+        assertThat(status.get("created").asInt()).isEqualTo(2);
+        assertThat(jsonMockProducer.history()).extracting(record -> record.value().getAction())
+                .containsExactly("CREATE", "UPDATE", "CREATE");
+        // leave the producer history to the other tests
+        jsonMockProducer.clear();
+    }
+
+    @Test
+    void answersLookupsOverGrpc() throws Exception {
+        jsonMockProducer.clear();
+        long id = client.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("title", "Kindred", "author", "Octavia Butler", "price", 0.5, "stock", 1,
+                        "email", "reader@library.com"))
+                .retrieve()
+                .body(JsonNode.class)
+                .get("data").get("id").asLong();
+
+        ManagedChannel channel = ManagedChannelBuilder.forAddress("localhost", grpcServer.getPort())
+                .usePlaintext()
+                .build();
+        try {
+            BookLookupGrpc.BookLookupBlockingStub books = BookLookupGrpc.newBlockingStub(channel)
+                    .withDeadlineAfter(10, TimeUnit.SECONDS);
+
+            assertThat(books.getBook(GetBookRequest.newBuilder().setId(id).build()).getTitle()).isEqualTo("Kindred");
+            assertThatThrownBy(() -> books.getBook(GetBookRequest.newBuilder().setId(123).build()))
+                    .isInstanceOfSatisfying(StatusRuntimeException.class,
+                            e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.NOT_FOUND));
+
+            GetBooksResponse batch = books.getBooks(GetBooksRequest.newBuilder().addIds(42).addIds(id).build());
+            assertThat(batch.getBooksList()).extracting(Book::getId).containsExactly(id);
+            assertThat(batch.getMissingIdsList()).containsExactly(42L);
+            assertThatThrownBy(() -> books.getBooks(GetBooksRequest.getDefaultInstance()))
+                    .isInstanceOfSatisfying(StatusRuntimeException.class,
+                            e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT));
+
+            assertThat(books.searchBooks(SearchBooksRequest.newBuilder().setAuthor("octavia").build()).getBooksList())
+                    .extracting(Book::getId).containsExactly(id);
+
+            Iterator<Book> all = books.listBooks(ListBooksRequest.getDefaultInstance());
+            assertThat(all).toIterable().extracting(Book::getId).contains(id);
+        } finally {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+            client.delete().uri("/{id}", id).retrieve().body(JsonNode.class);
+            jsonMockProducer.clear();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.libraryService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.example.libraryService.kafka.BookKafkaEvent;
+
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Replaces the Kafka brokers and the SMTP server with in-process stand-ins.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class LocalStandInsConfig {
+
+    @Bean
+    public MockProducer<String, String> stringMockProducer() {
+        return new SharedMockProducer<>(new StringSerializer(), new StringSerializer());
+    }
+
+    @Bean
+    public MockProducer<String, BookKafkaEvent> jsonMockProducer() {
+        return new SharedMockProducer<>(new StringSerializer(), new JsonSerializer<>());
+    }
+
+    @Bean
+    @Primary
+    public KafkaTemplate<String, String> standInStringKafkaTemplate(MockProducer<String, String> stringMockProducer) {
+        return new KafkaTemplate<>(() -> stringMockProducer);
+    }
+
+    @Bean
+    @Primary
+    public KafkaTemplate<String, BookKafkaEvent> standInJsonKafkaTemplate(
+            MockProducer<String, BookKafkaEvent> jsonMockProducer) {
+        return new KafkaTemplate<>(() -> jsonMockProducer);
+    }
+
+    @Bean
+    public RecordingMailSender mailSender() {
+        return new RecordingMailSender();
+    }
+
+    /** KafkaTemplate closes non-transactional producers after each send; keep the shared mock open. */
+    public static class SharedMockProducer<K, V> extends MockProducer<K, V> {
+
+        public SharedMockProducer(Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+            super(true, keySerializer, valueSerializer);
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void close(Duration timeout) {
+        }
+    }
+
+    /** Captures outgoing mail instead of talking to an SMTP server. */
+    public static class RecordingMailSender extends JavaMailSenderImpl {
+
+        private final List<MimeMessage> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+            sent.addAll(List.of(mimeMessages));
+        }
+
+        public List<MimeMessage> getSent() {
+            return sent;
+        }
+    }
+}
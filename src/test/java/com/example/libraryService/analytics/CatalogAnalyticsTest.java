@@ -0,0 +1,61 @@
+package com.example.libraryService.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.libraryService.catalog.CatalogState;
+import com.example.libraryService.catalog.OffHeapCatalogStore;
+import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.kafka.BookKafkaEvent;
+
+class CatalogAnalyticsTest {
+
+    private final AnalyticsProperties properties = new AnalyticsProperties();
+
+    @Test
+    void incrementalUpdatesMatchAFullRebuild() {
+        CatalogState state = new CatalogState(new OffHeapCatalogStore());
+        CatalogAnalytics incremental = new CatalogAnalytics(properties, id -> state.getStore().get(id));
+        state.addListener(incremental);
+        incremental.onReset(state.getStore());
+
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextInt(2_000);
+            String action = random.nextInt(5) == 0 ? "DELETE" : "UPDATE";
+            state.apply(BookKafkaEvent.builder().id(id).title("Title " + id).author("Author " + id % 37)
+                    .price(random.nextInt(15_000) / 100.0).stock(random.nextInt(30)).action(action).build());
+        }
+
+        CatalogAnalytics rebuilt = new CatalogAnalytics(properties, id -> state.getStore().get(id));
+        rebuilt.onReset(state.getStore());
+
+        assertThat(incremental.priceHistogram()).isEqualTo(rebuilt.priceHistogram());
+        assertThat(incremental.lowStock(10, Integer.MAX_VALUE)).isEqualTo(rebuilt.lowStock(10, Integer.MAX_VALUE));
+        assertThat(incremental.stockValueByAuthor(100)).zipSatisfy(rebuilt.stockValueByAuthor(100), (actual, expected) -> {
+            assertThat(actual.getAuthor()).isEqualTo(expected.getAuthor());
+            assertThat(actual.getUnits()).isEqualTo(expected.getUnits());
+            assertThat(actual.getStockValue()).isEqualTo(expected.getStockValue());
+        });
+    }
+
+    @Test
+    void computesOneOffAnalyticsFromAList() {
+        CatalogAnalytics analytics = CatalogAnalytics.of(List.of(
+                new BookResponseDTO(1L, "Dune", "Frank Herbert", 10.0, 3),
+                new BookResponseDTO(3L, "Dune Messiah", "frank herbert ", 0.1, 3),
+                new BookResponseDTO(2L, "Emma", null, 7.5, 0)), properties);
+
+        assertThat(analytics.stockValueByAuthor(10)).extracting("author")
+                .containsExactly("Frank Herbert", CatalogAnalytics.UNKNOWN_AUTHOR);
+        assertThat(analytics.stockValueByAuthor(1).get(0).getBooks()).isEqualTo(2);
+        assertThat(analytics.stockValueByAuthor(1).get(0).getStockValue()).isEqualTo(30.3);
+        assertThat(analytics.lowStock(0, 10)).extracting(BookResponseDTO::getId).containsExactly(2L);
+        assertThat(analytics.priceHistogram().get(1).getBooks()).isEqualTo(1);
+        assertThat(analytics.priceHistogram().get(2).getBooks()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.libraryService.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.libraryService.dto.BookAuditEntryDTO;
+import com.example.libraryService.dto.BookResponseDTO;
+
+class BookAuditLogTest {
+
+    @TempDir
+    Path dir;
+
+    private BookAuditLog auditLog;
+
+    @AfterEach
+    void tearDown() {
+        if (auditLog != null) {
+            auditLog.destroy();
+        }
+    }
+
+    @Test
+    void readsTheHistoryOfABookAcrossSegmentsAndRestarts() throws Exception {
+        auditLog = open(1024, 1L << 30);
+        for (int i = 0; i < 50; i++) {
+            auditLog.append("CREATE", null, book(i, "Other " + i, 1));
+        }
+        auditLog.append("CREATE", null, book(7_000, "Dune", 5));
+        for (int i = 50; i < 100; i++) {
+            auditLog.append("CREATE", null, book(i, "Other " + i, 1));
+        }
+        auditLog.append("PATCH", book(7_000, "Dune", 5), book(7_000, "Dune", 4));
+        assertThat(auditLog.segmentCount()).isGreaterThan(2);
+
+        // a new instance, as after a restart, reads the sealed segments
+        auditLog.destroy();
+        auditLog = open(1024, 1L << 30);
+        auditLog.append("DELETE", book(7_000, "Dune", 4), null);
+
+        List<BookAuditEntryDTO> history = auditLog.history(7_000, 100);
+        assertThat(history).extracting(BookAuditEntryDTO::getAction).containsExactly("CREATE", "PATCH", "DELETE");
+        assertThat(history.get(1).getBefore().getStock()).isEqualTo(5);
+        assertThat(history.get(1).getAfter()).isEqualTo(book(7_000, "Dune", 4));
+        assertThat(history.get(2).getAfter()).isNull();
+        assertThat(auditLog.history(7_000, 1)).extracting(BookAuditEntryDTO::getAction).containsExactly("DELETE");
+        assertThat(auditLog.history(8_000, 100)).isEmpty();
+    }
+
+    @Test
+    void restartsWithoutWritesSinceTheLastStart() throws Exception {
+        auditLog = open(1 << 16, 1L << 30);
+        auditLog.append("CREATE", null, book(1, "Emma", 2));
+        auditLog.destroy();
+
+        // the second start leaves an empty segment behind
+        auditLog = open(1 << 16, 1L << 30);
+        auditLog.destroy();
+        auditLog = open(1 << 16, 1L << 30);
+        auditLog.append("UPDATE", book(1, "Emma", 2), book(1, "Emma", 3));
+
+        assertThat(auditLog.history(1, 100)).extracting(BookAuditEntryDTO::getAction).containsExactly("CREATE", "UPDATE");
+        assertThat(auditLog.segmentCount()).isEqualTo(2);
+    }
+
+    @Test
+    void stopsAtATornRecordAndDeletesSegmentsBeyondTheRetainedSize() throws Exception {
+        // room for the two patches below, not for the create before them
+        long retentionBytes = 2L * AuditRecords.encode(1, 0, "PATCH", book(1, "Emma", 3), book(1, "Emma", 4)).length;
+        auditLog = open(1 << 16, retentionBytes);
+        auditLog.append("CREATE", null, book(1, "Emma", 2));
+        auditLog.append("UPDATE", book(1, "Emma", 2), book(1, "Emma", 3));
+        auditLog.destroy();
+
+        // as if the service died during the second append: no index, a corrupt record
+        Path segment = dir.resolve(AuditSegment.fileName(0) + AuditSegment.LOG_SUFFIX);
+        Files.delete(dir.resolve(AuditSegment.fileName(0) + AuditSegment.INDEX_SUFFIX));
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long secondRecord = AuditRecords.HEADER_BYTES + file.readInt();
+            file.seek(secondRecord + AuditRecords.HEADER_BYTES + 20);
+            file.write(0x7F);
+        }
+
+        auditLog = open(1 << 16, retentionBytes);
+        assertThat(auditLog.history(1, 100)).extracting(BookAuditEntryDTO::getAction).containsExactly("CREATE");
+
+        auditLog.append("PATCH", book(1, "Emma", 3), book(1, "Emma", 4));
+        auditLog.destroy();
+        auditLog = open(1 << 16, retentionBytes);
+        auditLog.append("PATCH", book(1, "Emma", 4), book(1, "Emma", 5));
+        auditLog.destroy();
+        // the first segment no longer fits in the retained size
+        auditLog = open(1 << 16, retentionBytes);
+
+        assertThat(auditLog.history(1, 100)).extracting(entry -> entry.getAfter().getStock()).containsExactly(4, 5);
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files).noneMatch(file -> file.equals(segment));
+        }
+    }
+
+    private BookAuditLog open(int segmentBytes, long retentionBytes) throws Exception {
+        AuditProperties properties = new AuditProperties();
+        properties.setDir(dir.toString());
+        properties.setSegmentBytes(segmentBytes);
+        properties.setIndexIntervalBytes(256);
+        properties.setFlushInterval(Duration.ofMillis(1));
+        properties.setSyncWrites(true);
+        properties.setRetentionBytes(retentionBytes);
+        BookAuditLog opened = new BookAuditLog(properties);
+        opened.open();
+        return opened;
+    }
+
+    private static BookResponseDTO book(long id, String title, int stock) {
+        return new BookResponseDTO(id, title, "Some Author", 9.5, stock);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.libraryService.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.libraryService.audit.AuditProperties;
+import com.example.libraryService.audit.BookAuditLog;
+import com.example.libraryService.dto.BookResponseDTO;
+
+/**
+ * Latency of auditing one PATCH, which every write pays on top of its
+ * database round trip. Asynchronous appends never wait for the disk; with
+ * sync-writes each append waits for the next group commit.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=AuditLogBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditLogBenchmark {
+
+    @Param({"false", "true"})
+    private boolean syncWrites;
+
+    private final AtomicLong ids = new AtomicLong();
+    private Path dir;
+    private BookAuditLog auditLog;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("audit-benchmark");
+        AuditProperties properties = new AuditProperties();
+        properties.setDir(dir.toString());
+        properties.setSyncWrites(syncWrites);
+        properties.setFlushInterval(Duration.ofMillis(1));
+        auditLog = new BookAuditLog(properties);
+        auditLog.afterSingletonsInstantiated();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        auditLog.destroy();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void singleWriter() {
+        append();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void eightWriters() {
+        append();
+    }
+
+    private void append() {
+        long id = ids.incrementAndGet();
+        auditLog.append("PATCH", new BookResponseDTO(id, "The Left Hand of Darkness", "Ursula K. Le Guin", 12.5, 4),
+                new BookResponseDTO(id, "The Left Hand of Darkness", "Ursula K. Le Guin", 11.0, 3));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.libraryService.benchmark;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.libraryService.dto.BookPatchDTO;
+import com.example.libraryService.dto.BookRequestDTO;
+import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.entity.Book;
+import com.example.libraryService.mapper.BookMapper;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * What a create and a patch cost between the request body and the response,
+ * without the database: validation, DTO to entity, entity to DTO.
+ *
+ * The "before" methods are the previous write path: builders for the entity
+ * and the response, and the same constraints checked twice (on the request,
+ * then by Hibernate on the entity before the insert; validating the request
+ * again stands in for the second pass). The "after" methods are BookMapper
+ * with a single validation pass.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=BookMappingBenchmark
+ * (gc.alloc.rate.norm in the output is bytes allocated per operation)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookMappingBenchmark {
+
+    private final BookMapper mapper = Mappers.getMapper(BookMapper.class);
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private BookRequestDTO request;
+    private BookPatchDTO patch;
+    private BookRequestDTO legacyPatch;
+    private Book stored;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        request = BookRequestDTO.builder()
+                .title("The Left Hand of Darkness").author("Ursula K. Le Guin").price(14.99).stock(12)
+                .email("reader@library.com")
+                .build();
+        patch = new BookPatchDTO();
+        patch.setPrice(12.5);
+        patch.setStock(3);
+        legacyPatch = BookRequestDTO.builder().price(12.5).stock(3).build();
+        stored = mapper.toEntity(1L, request);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public BookResponseDTO createBefore(Blackhole blackhole) {
+        blackhole.consume(validator.validate(request));
+        Book book = Book.builder()
+                .id(1L)
+                .title(request.getTitle())
+                .author(request.getAuthor())
+                .price(request.getPrice())
+                .stock(request.getStock())
+                .email(request.getEmail())
+                .build();
+        blackhole.consume(validator.validate(request));
+        return BookResponseDTO.builder()
+                .id(book.getId())
+                .title(book.getTitle())
+                .author(book.getAuthor())
+                .price(book.getPrice())
+                .stock(book.getStock())
+                .build();
+    }
+
+    @Benchmark
+    public BookResponseDTO createAfter(Blackhole blackhole) {
+        blackhole.consume(validator.validate(request));
+        return mapper.toResponse(mapper.toEntity(1L, request));
+    }
+
+    @Benchmark
+    public BookResponseDTO patchBefore(Blackhole blackhole) {
+        BookRequestDTO dto = legacyPatch;
+        Book book = stored;
+        Optional.ofNullable(dto.getTitle()).ifPresent(book::setTitle);
+        Optional.ofNullable(dto.getAuthor()).ifPresent(book::setAuthor);
+        Optional.ofNullable(dto.getPrice()).ifPresent(book::setPrice);
+        if (dto.getStock() > 0) book.setStock(dto.getStock());
+        blackhole.consume(validator.validate(request));
+        return BookResponseDTO.builder()
+                .id(book.getId())
+                .title(book.getTitle())
+                .author(book.getAuthor())
+                .price(book.getPrice())
+                .stock(book.getStock())
+                .build();
+    }
+
+    @Benchmark
+    public BookResponseDTO patchAfter(Blackhole blackhole) {
+        blackhole.consume(validator.validate(patch));
+        mapper.patch(patch, stored);
+        return mapper.toResponse(stored);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.libraryService.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.libraryService.catalog.CatalogStore;
+import com.example.libraryService.catalog.HeapCatalogStore;
+import com.example.libraryService.catalog.OffHeapCatalogStore;
+import com.example.libraryService.dto.BookResponseDTO;
+
+/**
+ * Memory per book and lookup throughput of the catalog stores. The retained
+ * heap and direct memory per book are printed once the store is filled; add
+ * {@code -prof gc} to the JMH arguments to compare allocation and GC time.
+ *
+ * Titles are unique and authors repeat (one per 20 books), as in a real catalog.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=CatalogStoreBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-XX:MaxDirectMemorySize=4g"})
+public class CatalogStoreBenchmark {
+
+    @Param({"heap", "off-heap"})
+    private String store;
+
+    @Param({"1000000"})
+    private int books;
+
+    private CatalogStore catalog;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        long heapBefore = usedHeap();
+        OffHeapCatalogStore offHeap = null;
+        if ("heap".equals(store)) {
+            catalog = new HeapCatalogStore();
+        } else {
+            catalog = offHeap = new OffHeapCatalogStore(books);
+        }
+        for (long id = 1; id <= books; id++) {
+            catalog.upsert(id, "Title " + id, "Author " + (id % (books / 20)), 9.99 + id % 100, (int) (id % 50));
+        }
+        long heapPerBook = (usedHeap() - heapBefore) / books;
+        long directPerBook = offHeap != null ? offHeap.offHeapBytes() / books : 0;
+        System.out.printf("%n[%s] %,d books: %d heap bytes/book, %d direct bytes/book%n",
+                store, books, heapPerBook, directPerBook);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public BookResponseDTO getById() {
+        return catalog.get(ThreadLocalRandom.current().nextLong(1, books + 1)).orElseThrow();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void updateStock() {
+        long id = ThreadLocalRandom.current().nextLong(1, books + 1);
+        catalog.upsert(id, "Title " + id, "Author " + (id % (books / 20)), 19.99, (int) (id % 7));
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
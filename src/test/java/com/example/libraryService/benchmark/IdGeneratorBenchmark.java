@@ -0,0 +1,47 @@
+package com.example.libraryService.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.libraryService.id.SnowflakeIdGenerator;
+
+/**
+ * Ids per second for one node, single-threaded and contended.
+ * The layout caps a node at 4,096 ids per millisecond (~4.1M/s); above that
+ * the generator borrows future milliseconds.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=IdGeneratorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    // a generous skew budget so that borrowing ahead of the clock never throws
+    private final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, Long.MAX_VALUE / 2);
+
+    @Benchmark
+    @Threads(1)
+    public long singleThread() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long eightThreads() {
+        return generator.nextId();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.libraryService.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.libraryService.catalog.OffHeapCatalogStore;
+import com.example.libraryService.suggest.SuggestionIndex;
+
+/**
+ * Typeahead latency percentiles (p50/p99/p99.9 in the sample-time output)
+ * for one- to three-letter prefixes, with 8 concurrent readers.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=SuggestionIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SuggestionIndexBenchmark {
+
+    private static final List<String> WORDS = List.of("the", "dune", "war", "peace", "night", "river", "house",
+            "dark", "light", "garden", "empire", "winter", "song", "fire", "city", "stone", "king", "sea");
+
+    @Param({"200000"})
+    private int books;
+
+    private SuggestionIndex index;
+    private String[] prefixes;
+
+    @Setup(Level.Trial)
+    public void build() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        OffHeapCatalogStore store = new OffHeapCatalogStore(books);
+        for (long id = 1; id <= books; id++) {
+            String title = WORDS.get(random.nextInt(WORDS.size())) + " " + WORDS.get(random.nextInt(WORDS.size())) + " " + id;
+            store.upsert(id, title, "Author " + random.nextInt(books / 10), 9.99, random.nextInt(100));
+        }
+        index = new SuggestionIndex(10);
+        index.onReset(store);
+
+        prefixes = WORDS.stream().flatMap(word -> List.of(word.substring(0, 1), word.substring(0, 2),
+                word.substring(0, Math.min(3, word.length()))).stream()).toArray(String[]::new);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public List<SuggestionIndex.Suggestion> suggest() {
+        return index.suggest(prefixes[ThreadLocalRandom.current().nextInt(prefixes.length)], 10);
+    }
+}
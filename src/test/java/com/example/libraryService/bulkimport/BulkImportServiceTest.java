@@ -0,0 +1,153 @@
+package com.example.libraryService.bulkimport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.libraryService.bulkimport.BookImportWriter.BookRow;
+import com.example.libraryService.dto.ImportErrorDTO;
+import com.example.libraryService.dto.ImportJobDTO;
+import com.example.libraryService.dto.ImportJobDTO.Status;
+import com.example.libraryService.id.SnowflakeIdGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validation;
+
+class BulkImportServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final RecordingWriter writer = new RecordingWriter();
+    private BulkImportService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void importsCsvChunksAndReportsRejectedRowsByLine() throws Exception {
+        write("books.csv",
+                "\uFEFFTitle,author,Price,stock,email,id",
+                "\"Dune, Part One\",Frank Herbert,19.99,5,a@library.com,",
+                "\"The \"\"Hobbit\"\"\",J. R. R. Tolkien,9.5,3,b@library.com,42",
+                "X,Nobody,1.0,1,c@library.com,",
+                "Emma,Jane Austen,abc,1,d@library.com,",
+                "",
+                "Persuasion,Jane Austen,7.0,2,e@library.com,43");
+        service = service();
+
+        ImportJobDTO job = awaitFinished(service.submit("books.csv", null).getId());
+
+        assertThat(job.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(writer.writes).containsExactly("Dune, Part One", "The \"Hobbit\"", "Persuasion");
+        assertThat(writer.rows.get("The \"Hobbit\"").id()).isEqualTo(42);
+        assertThat(job.getCreated()).isEqualTo(3);
+        assertThat(job.getRejected()).isEqualTo(2);
+        assertThat(job.getErrors()).extracting(ImportErrorDTO::getLine, ImportErrorDTO::getMessage).containsExactly(
+                tuple(4L, "title: Title must be between 2 and 100 characters"),
+                tuple(5L, "Invalid price 'abc'"));
+        assertThat(job.getLinesProcessed()).isEqualTo(7);
+        assertThat(job.getProcessedBytes()).isEqualTo(job.getTotalBytes());
+    }
+
+    @Test
+    void resumesAFailedImportWithTheIdsItAlreadyUsed() throws Exception {
+        write("books.ndjson",
+                "{\"title\":\"Dune\",\"author\":\"Frank Herbert\",\"price\":19.99,\"stock\":5,\"email\":\"a@library.com\"}",
+                "{\"title\":\"Emma\",\"author\":\"Jane Austen\",\"price\":7.5,\"stock\":2,\"email\":\"b@library.com\"}",
+                "{\"title\":\"Persuasion\",\"author\":\"Jane Austen\",\"price\":7.0,\"stock\":1,\"email\":\"c@library.com\"}");
+        service = service();
+        // the second chunk is written, then the job dies before its checkpoint
+        writer.failAfter = "Emma";
+
+        ImportJobDTO failed = awaitFinished(service.submit("books.ndjson", null).getId());
+        assertThat(failed.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(failed.getCreated()).isEqualTo(1);
+        long emmaId = writer.rows.get("Emma").id();
+
+        // a new instance, as after a restart, finds the job in its checkpoint
+        writer.failAfter = null;
+        service.destroy();
+        service = service();
+        service.resume(failed.getId());
+        ImportJobDTO resumed = awaitFinished(failed.getId());
+
+        assertThat(resumed.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(resumed.getCreated()).isEqualTo(2);
+        assertThat(resumed.getUpdated()).isEqualTo(1);
+        assertThat(writer.rows.get("Emma").id()).isEqualTo(emmaId);
+        assertThat(writer.writes).containsExactly("Dune", "Emma", "Emma", "Persuasion");
+    }
+
+    private BulkImportService service() throws Exception {
+        ImportProperties properties = new ImportProperties();
+        properties.setInboxDir(dir.resolve("inbox").toString());
+        properties.setWorkDir(dir.resolve("jobs").toString());
+        properties.setChunkBytes(64);
+        properties.setParallelism(2);
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        BulkImportService created = new BulkImportService(properties,
+                new ImportJobStore(Path.of(properties.getWorkDir()), mapper), writer,
+                new SnowflakeIdGenerator(1, 1_000), mapper,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        created.afterSingletonsInstantiated();
+        return created;
+    }
+
+    private void write(String file, String... lines) throws Exception {
+        Files.createDirectories(dir.resolve("inbox"));
+        Files.writeString(dir.resolve("inbox").resolve(file), String.join("\n", lines) + "\n");
+    }
+
+    private ImportJobDTO awaitFinished(long id) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ImportJobDTO job = service.getJob(id);
+            if (job.getStatus() == Status.COMPLETED || job.getStatus() == Status.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Import " + id + " did not finish");
+    }
+
+    /** Keeps the last image of every written book by title. */
+    static class RecordingWriter extends BookImportWriter {
+
+        final Map<String, BookRow> rows = new ConcurrentHashMap<>();
+        final List<String> writes = new ArrayList<>();
+        volatile String failAfter;
+
+        RecordingWriter() {
+            super(null, null, null, null, null, null, null, true, new ImportProperties());
+        }
+
+        @Override
+        Result write(String file, List<BookRow> chunk) {
+            int created = 0;
+            for (BookRow row : chunk) {
+                writes.add(row.book().getTitle());
+                if (rows.put(row.book().getTitle(), row) == null) {
+                    created++;
+                }
+            }
+            if (chunk.stream().anyMatch(row -> row.book().getTitle().equals(failAfter))) {
+                throw new IllegalStateException("Kafka did not acknowledge");
+            }
+            return new Result(created, chunk.size() - created);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.libraryService.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.libraryService.kafka.BookKafkaEvent;
+
+class CatalogSnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsBooksAndOffsets() throws IOException {
+        HeapCatalogStore source = new HeapCatalogStore();
+        source.upsert(1L, "Dune", "Frank Herbert", 9.99, 3);
+        source.upsert(2L, "Солярис", "Станислав Лем", 12.5, 0);
+        Path file = dir.resolve("catalog.snapshot");
+
+        CatalogSnapshotFile.write(file, source, Map.of(0, 17L, 1, 4L));
+
+        HeapCatalogStore target = new HeapCatalogStore();
+        Map<Integer, Long> offsets = CatalogSnapshotFile.load(file, target);
+
+        assertThat(offsets).containsExactlyInAnyOrderEntriesOf(Map.of(0, 17L, 1, 4L));
+        assertThat(target.size()).isEqualTo(2);
+        assertThat(target.get(2L)).hasValueSatisfying(book -> {
+            assertThat(book.getTitle()).isEqualTo("Солярис");
+            assertThat(book.getStock()).isZero();
+        });
+    }
+
+    @Test
+    void rejectsCorruptedSnapshot() throws IOException {
+        HeapCatalogStore source = new HeapCatalogStore();
+        source.upsert(1L, "Dune", "Frank Herbert", 9.99, 3);
+        Path file = dir.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(file, source, Map.of(0, 1L));
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(file, bytes);
+
+        assertThatThrownBy(() -> CatalogSnapshotFile.load(file, new HeapCatalogStore()))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void replaySkipsEventsAlreadyInTheSnapshot() {
+        CatalogState state = new CatalogState(new HeapCatalogStore());
+        state.restoreOffsets(Map.of(0, 5L));
+
+        state.apply(event(1L, "Old", "CREATE"), 0, 4);
+        state.apply(event(2L, "New", "CREATE"), 0, 5);
+        state.apply(event(2L, null, "DELETE"), 0, 6);
+
+        assertThat(state.getStore().get(1L)).isEmpty();
+        assertThat(state.getStore().size()).isZero();
+        assertThat(state.nextOffset(0)).isEqualTo(7L);
+    }
+
+    private static BookKafkaEvent event(long id, String title, String action) {
+        return BookKafkaEvent.builder().id(id).title(title).author("A").price(1.0).stock(1).action(action).build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.libraryService.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.libraryService.dto.BookResponseDTO;
+
+class OffHeapCatalogStoreTest {
+
+    @Test
+    void matchesAMapUnderRandomUpsertsAndRemoves() {
+        OffHeapCatalogStore store = new OffHeapCatalogStore();
+        Map<Long, BookResponseDTO> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            // a small key space forces collisions, growth and long probe runs
+            long id = random.nextInt(5_000) * 4_096L;
+            if (random.nextInt(3) == 0) {
+                assertThat(store.remove(id)).isEqualTo(expected.remove(id) != null);
+            } else {
+                String author = random.nextInt(10) == 0 ? null : "Author " + random.nextInt(50);
+                BookResponseDTO book = new BookResponseDTO(id, "Title " + i, author, i / 100.0, i % 13);
+                store.upsert(id, book.getTitle(), book.getAuthor(), book.getPrice(), book.getStock());
+                expected.put(id, book);
+            }
+        }
+
+        assertThat(store.size()).isEqualTo(expected.size());
+        expected.forEach((id, book) -> assertThat(store.get(id)).contains(book));
+
+        Map<Long, BookResponseDTO> visited = new HashMap<>();
+        store.forEach((id, title, author, price, stock) ->
+                visited.put(id, new BookResponseDTO(id, title, author, price, stock)));
+        assertThat(visited).isEqualTo(expected);
+    }
+
+    @Test
+    void releasesInternedStringsNoLongerReferenced() {
+        OffHeapCatalogStore store = new OffHeapCatalogStore();
+        store.upsert(1L, "Dune", "Frank Herbert", 9.99, 1);
+        store.upsert(2L, "Dune Messiah", "Frank Herbert", 9.99, 1);
+        assertThat(store.internedStrings()).isEqualTo(3);
+
+        store.upsert(2L, "Children of Dune", "Frank Herbert", 9.99, 1);
+        store.remove(1L);
+
+        assertThat(store.internedStrings()).isEqualTo(2);
+        assertThat(store.get(2L)).hasValueSatisfying(book -> assertThat(book.getTitle()).isEqualTo("Children of Dune"));
+    }
+
+    @Test
+    void snapshotIsUnaffectedByLaterWrites() {
+        OffHeapCatalogStore store = new OffHeapCatalogStore();
+        store.upsert(1L, "Dune", "Frank Herbert", 9.99, 1);
+        store.upsert(2L, "Emma", "Jane Austen", 4.99, 2);
+
+        CatalogStore snapshot = store.snapshot();
+        store.remove(1L);
+        store.upsert(2L, "Persuasion", "Jane Austen", 5.99, 3);
+        store.upsert(3L, "Ubik", "Philip K. Dick", 7.99, 4);
+
+        Map<Long, BookResponseDTO> visited = new HashMap<>();
+        snapshot.forEach((id, title, author, price, stock) ->
+                visited.put(id, new BookResponseDTO(id, title, author, price, stock)));
+        assertThat(visited).containsOnly(
+                Map.entry(1L, new BookResponseDTO(1L, "Dune", "Frank Herbert", 9.99, 1)),
+                Map.entry(2L, new BookResponseDTO(2L, "Emma", "Jane Austen", 4.99, 2)));
+        assertThat(snapshot.get(2L)).hasValueSatisfying(book -> assertThat(book.getTitle()).isEqualTo("Emma"));
+    }
+}
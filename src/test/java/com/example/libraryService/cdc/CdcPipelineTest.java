@@ -0,0 +1,99 @@
+package com.example.libraryService.cdc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.libraryService.LocalStandInsConfig;
+import com.example.libraryService.dto.BookRequestDTO;
+import com.example.libraryService.kafka.BookKafkaEvent;
+import com.example.libraryService.service.BookService;
+import com.example.libraryService.shard.ShardTemplate;
+
+/**
+ * CDC mode against the embedded change log: events come from the database,
+ * including changes made with plain SQL, the position is persisted in the
+ * shard, and only the lease holder captures.
+ */
+@SpringBootTest(properties = {
+        "library.cdc.enabled=true",
+        "library.cdc.batch-size=2"
+})
+@ActiveProfiles("smoke")
+@Import({LocalStandInsConfig.class, CdcPipelineTest.EmbeddedSource.class})
+class CdcPipelineTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockProducer<String, BookKafkaEvent> jsonMockProducer;
+
+    @Autowired
+    private ShardTemplate shards;
+
+    @Autowired
+    private CdcLeader cdcLeader;
+
+    @Test
+    void publishesServiceAndOutOfBandChangesInOrder() throws InterruptedException {
+        jdbcTemplate.execute(EmbeddedChangeLog.createTriggerSql());
+        jsonMockProducer.clear();
+
+        long id = bookService.createBook(BookRequestDTO.builder()
+                .title("Captured").author("Binlog").price(5.0).stock(1).email("reader@library.com")
+                .build()).getId();
+        jdbcTemplate.update("UPDATE books SET stock = 7 WHERE id = ?", id);
+        jdbcTemplate.update("DELETE FROM books WHERE id = ?", id);
+
+        awaitTrue(() -> jsonMockProducer.history().size() >= 3);
+
+        List<BookKafkaEvent> events = jsonMockProducer.history().stream().map(record -> record.value()).toList();
+        assertThat(events).extracting(BookKafkaEvent::getAction).containsExactly("CREATE", "UPDATE", "DELETE");
+        assertThat(events.get(1).getStock()).isEqualTo(7);
+
+        awaitTrue(() -> new JdbcPositionStore(jdbcTemplate, shards, 0).load() != null);
+        assertThat(new JdbcPositionStore(jdbcTemplate, shards, 0).load().file()).isEqualTo(EmbeddedChangeLog.FILE);
+    }
+
+    @Test
+    void anotherInstanceStandsByWhileThisOneLeads() {
+        assertThat(cdcLeader.isLeading()).isTrue();
+        assertThat(new CdcLeaderLease(jdbcTemplate, shards, "other-instance", Duration.ofSeconds(15)).acquire())
+                .isFalse();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class EmbeddedSource {
+
+        @Bean
+        @Primary
+        ChangeSource.Factory embeddedChangeLogs() {
+            return shard -> new EmbeddedChangeLog();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.libraryService.cdc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.h2.api.Trigger;
+
+import com.example.libraryService.kafka.BookKafkaEvent;
+
+/**
+ * Embedded stand-in for the MySQL binlog: an H2 row trigger appends every
+ * change of the books table to an in-memory log, which this source tails.
+ * Positions are ("embedded", index of the next entry).
+ */
+public class EmbeddedChangeLog implements ChangeSource {
+
+    static final String FILE = "embedded";
+
+    private static final List<BookKafkaEvent> LOG = new ArrayList<>();
+
+    private volatile boolean running;
+    private Thread reader;
+
+    public static String createTriggerSql() {
+        return "CREATE TRIGGER IF NOT EXISTS books_cdc AFTER INSERT, UPDATE, DELETE ON books "
+                + "FOR EACH ROW CALL \"" + Capture.class.getName() + "\"";
+    }
+
+    @Override
+    public void start(ChangePosition from, TransactionSink sink) {
+        running = true;
+        long start = from != null ? from.offset() : size();
+        reader = new Thread(() -> tail(start, sink), "embedded-change-log");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        running = false;
+        if (reader != null) {
+            reader.interrupt();
+            reader.join();
+        }
+    }
+
+    private void tail(long position, TransactionSink sink) {
+        try {
+            while (running) {
+                BookKafkaEvent next = null;
+                synchronized (LOG) {
+                    if (position < LOG.size()) {
+                        next = LOG.get((int) position);
+                    } else {
+                        LOG.wait(100);
+                    }
+                }
+                if (next != null) {
+                    position++;
+                    sink.accept(List.of(new BookChange(next, new ChangePosition(FILE, position))));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int size() {
+        synchronized (LOG) {
+            return LOG.size();
+        }
+    }
+
+    /** H2 trigger feeding the log. */
+    public static class Capture implements Trigger {
+
+        private final List<String> columns = new ArrayList<>();
+
+        @Override
+        public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                         boolean before, int type) throws SQLException {
+            try (ResultSet rs = conn.getMetaData().getColumns(null, schemaName, tableName, null)) {
+                while (rs.next()) {
+                    columns.add(rs.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+
+        @Override
+        public void fire(Connection conn, Object[] oldRow, Object[] newRow) {
+            String action = oldRow == null ? "CREATE" : newRow == null ? "DELETE" : "UPDATE";
+            Object[] row = newRow != null ? newRow : oldRow;
+
+            BookKafkaEvent event = BookKafkaEvent.builder()
+                    .id(((Number) value(row, "id")).longValue())
+                    .title((String) value(row, "title"))
+                    .author((String) value(row, "author"))
+                    .price(((Number) value(row, "price")).doubleValue())
+                    .stock(((Number) value(row, "stock")).intValue())
+                    .action(action)
+                    .build();
+            synchronized (LOG) {
+                LOG.add(event);
+                LOG.notifyAll();
+            }
+        }
+
+        private Object value(Object[] row, String column) {
+            return row[columns.indexOf(column)];
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.libraryService.feed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.libraryService.kafka.BookKafkaEvent;
+
+class ChangeFeedTest {
+
+    private ChangeFeed feed;
+
+    @AfterEach
+    void stop() {
+        feed.destroy();
+    }
+
+    @Test
+    void deliversMatchingEventsWithCursorIds() throws InterruptedException {
+        feed = new ChangeFeed(properties(100, 10));
+        RecordingSink herbert = new RecordingSink();
+        RecordingSink book2 = new RecordingSink();
+        feed.subscribe(event -> "Frank Herbert".equals(event.getAuthor()), null, herbert);
+        feed.subscribe(event -> event.getId() == 2L, null, book2);
+
+        feed.publish(event(1, "Frank Herbert", "CREATE"), 0, 10);
+        feed.publish(event(2, "Ursula Le Guin", "CREATE"), 1, 4);
+        feed.publish(event(1, "Frank Herbert", "PATCH"), 0, 11);
+        feed.publish(event(1, "Frank Herbert", "PATCH"), 0, 11);
+
+        assertThat(herbert.take(2)).containsExactly("create 1 @0:10", "patch 1 @0:11,1:4");
+        assertThat(book2.take(1)).containsExactly("create 2 @0:10,1:4");
+        assertThat(herbert.events).isEmpty();
+    }
+
+    @Test
+    void resumesFromACursorAndResetsWhenTheRingNoLongerReachesIt() throws InterruptedException {
+        feed = new ChangeFeed(properties(3, 10));
+        for (long offset = 0; offset < 5; offset++) {
+            feed.publish(event(offset, "A", "UPDATE"), 0, offset);
+        }
+
+        RecordingSink resumed = new RecordingSink();
+        feed.subscribe(event -> true, "0:2", resumed);
+        assertThat(resumed.take(2)).containsExactly("update 3 @0:3", "update 4 @0:4");
+
+        RecordingSink tooOld = new RecordingSink();
+        feed.subscribe(event -> true, "0:0", tooOld);
+        assertThat(tooOld.take(1)).containsExactly("reset @0:4");
+
+        feed.publish(event(5, "A", "DELETE"), 0, 5);
+        assertThat(tooOld.take(1)).containsExactly("delete 5 @0:5");
+    }
+
+    @Test
+    void resetsCursorsFromBeforeTheAssignedOffsetsOrForUnknownPartitions() throws InterruptedException {
+        feed = new ChangeFeed(properties(100, 10));
+        feed.assigned(Map.of(0, 100L));
+        feed.publish(event(1, "A", "UPDATE"), 0, 100);
+
+        RecordingSink current = new RecordingSink();
+        feed.subscribe(event -> true, "0:99", current);
+        assertThat(current.take(1)).containsExactly("update 1 @0:100");
+
+        RecordingSink beforeStart = new RecordingSink();
+        feed.subscribe(event -> true, "0:50", beforeStart);
+        assertThat(beforeStart.take(1)).containsExactly("reset @0:100");
+
+        RecordingSink otherPartition = new RecordingSink();
+        feed.subscribe(event -> true, "0:100,7:3", otherPartition);
+        assertThat(otherPartition.take(1)).containsExactly("reset @0:100");
+    }
+
+    @Test
+    void waitsForASinkWithoutRoomInsteadOfBlockingASender() throws InterruptedException {
+        feed = new ChangeFeed(properties(100, 10));
+        // more stalled subscribers than sender threads
+        List<StalledSink> stalled = List.of(new StalledSink(), new StalledSink(), new StalledSink());
+        stalled.forEach(sink -> feed.subscribe(event -> true, null, sink));
+        RecordingSink fast = new RecordingSink();
+        feed.subscribe(event -> true, null, fast);
+
+        feed.publish(event(1, "A", "CREATE"), 0, 0);
+        feed.publish(event(1, "A", "UPDATE"), 0, 1);
+        assertThat(fast.take(2)).containsExactly("create 1 @0:0", "update 1 @0:1");
+        assertThat(stalled.get(0).events).isEmpty();
+
+        stalled.forEach(StalledSink::makeRoom);
+        for (StalledSink sink : stalled) {
+            assertThat(sink.take(2)).containsExactly("create 1 @0:0", "update 1 @0:1");
+        }
+    }
+
+    @Test
+    void disconnectsASubscriberThatFallsBehind() throws InterruptedException {
+        feed = new ChangeFeed(properties(100, 4));
+        CountDownLatch stuck = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink() {
+            @Override
+            public void send(String id, String name, Object data) throws IOException {
+                try {
+                    stuck.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(id, name, data);
+            }
+        };
+        RecordingSink fast = new RecordingSink();
+        feed.subscribe(event -> true, null, slow);
+        feed.subscribe(event -> true, null, fast);
+
+        // the fast subscriber keeps up with every event while the slow one is stuck on its first
+        for (long offset = 0; offset < 10; offset++) {
+            feed.publish(event(offset, "A", "UPDATE"), 0, offset);
+            assertThat(fast.take(1)).containsExactly("update " + offset + " @0:" + offset);
+        }
+
+        assertThat(feed.evictions()).isEqualTo(1);
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+        stuck.countDown();
+        assertThat(slow.closed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static BookKafkaEvent event(long id, String author, String action) {
+        return BookKafkaEvent.builder().id(id).title("Book " + id).author(author).price(10).stock(1).action(action).build();
+    }
+
+    private static ChangeFeedProperties properties(int replayBuffer, int subscriberBuffer) {
+        ChangeFeedProperties properties = new ChangeFeedProperties();
+        properties.setReplayBuffer(replayBuffer);
+        properties.setSubscriberBuffer(subscriberBuffer);
+        properties.setSenderThreads(2);
+        properties.setHeartbeat(Duration.ofMinutes(1));
+        return properties;
+    }
+
+    static class RecordingSink implements ChangeFeedSink {
+
+        final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        @Override
+        public void send(String id, String name, Object data) throws IOException {
+            events.add(data instanceof BookKafkaEvent event ? name + " " + event.getId() + " @" + id : name + " @" + id);
+        }
+
+        @Override
+        public void comment(String text) {
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+
+        List<String> take(int count) throws InterruptedException {
+            List<String> taken = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String event = events.poll(5, TimeUnit.SECONDS);
+                assertThat(event).as("event %d of %d", i + 1, count).isNotNull();
+                taken.add(event);
+            }
+            return taken;
+        }
+    }
+
+    /** Has no room until {@link #makeRoom()}, like a connection whose client stopped reading. */
+    static class StalledSink extends RecordingSink {
+
+        private volatile boolean ready;
+        private volatile Runnable onReady;
+
+        @Override
+        public void open(Runnable onReady) {
+            this.onReady = onReady;
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        void makeRoom() {
+            ready = true;
+            onReady.run();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.libraryService.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = SnowflakeIdGenerator.EPOCH + 1_000_000L;
+
+    @Test
+    void idsAreUniqueAndIncreasingAcrossThreads() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, 5_000);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                long previous = Long.MIN_VALUE;
+                for (int i = 0; i < 50_000; i++) {
+                    long id = generator.nextId();
+                    assertThat(id).isGreaterThan(previous);
+                    previous = id;
+                    ids.add(id);
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(ids).hasSize(8 * 50_000);
+        assertThat(ids).allSatisfy(id -> assertThat(SnowflakeIdGenerator.nodeIdOf(id)).isEqualTo(7));
+    }
+
+    @Test
+    void toleratesSmallBackwardClockJumps() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 100, clock::get);
+
+        long before = generator.nextId();
+        clock.addAndGet(-50);
+        long after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(SnowflakeIdGenerator.timestampOf(after)).isEqualTo(NOW);
+    }
+
+    @Test
+    void refusesIdsWhenClockIsTooFarBehind() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 100, clock::get);
+
+        generator.nextId();
+        clock.addAndGet(-500);
+
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void exhaustedSequenceBorrowsTheNextMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 100, () -> NOW);
+
+        long last = 0;
+        for (int i = 0; i <= 4096; i++) {
+            last = generator.nextId();
+        }
+
+        assertThat(SnowflakeIdGenerator.timestampOf(last)).isEqualTo(NOW + 1);
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.libraryService.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.libraryService.exception.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+class IdempotencyFilterTest {
+
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    /** Stands in for the controller: counts executions and can be held until released. */
+    private final AtomicInteger executions = new AtomicInteger();
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final FilterChain createBook = (request, response) -> {
+        String body = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        int execution = executions.incrementAndGet();
+        entered.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        response.setContentType("application/json");
+        response.getWriter().write("{\"execution\":" + execution + ",\"echo\":" + body + "}");
+    };
+
+    @Test
+    void concurrentDuplicatesWaitForTheFirstResponseAndRetriesReplayIt() throws Exception {
+        IdempotencyFilter filter = new IdempotencyFilter(new InMemoryIdempotencyStore(100), properties, objectMapper);
+
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> post(filter, "key-1", "{}"));
+        entered.await(5, TimeUnit.SECONDS);
+        CompletableFuture<MockHttpServletResponse> duplicate = CompletableFuture.supplyAsync(() -> post(filter, "key-1", "{}"));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(first.get().getContentAsString()).isEqualTo("{\"execution\":1,\"echo\":{}}");
+        assertThat(duplicate.get().getContentAsString()).isEqualTo(first.get().getContentAsString());
+
+        MockHttpServletResponse retry = post(filter, "key-1", "{}");
+        assertThat(retry.getContentAsString()).isEqualTo(first.get().getContentAsString());
+        assertThat(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void rejectsAKeyReusedForADifferentRequest() {
+        release.countDown();
+        IdempotencyFilter filter = new IdempotencyFilter(new InMemoryIdempotencyStore(100), properties, objectMapper);
+
+        post(filter, "key-2", "{\"title\":\"Dune\"}");
+        MockHttpServletResponse reused = post(filter, "key-2", "{\"title\":\"Emma\"}");
+
+        assertThat(reused.getStatus()).isEqualTo(422);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void releasesTheKeyWhenTheServiceThrows() throws Exception {
+        release.countDown();
+        IdempotencyFilter filter = new IdempotencyFilter(new InMemoryIdempotencyStore(100), properties, objectMapper);
+        // the first attempt fails the way the application answers it: HTTP 200 with status 500 in the body
+        FilterChain failingOnce = (request, response) -> {
+            if (executions.get() == 0) {
+                executions.incrementAndGet();
+                response.setContentType("application/json");
+                objectMapper.writeValue(response.getOutputStream(),
+                        new GlobalExceptionHandler().handleAll(new IllegalStateException("database down")));
+            } else {
+                createBook.doFilter(request, response);
+            }
+        };
+
+        MockHttpServletResponse failed = post(filter, "key-4", "{}", failingOnce);
+        MockHttpServletResponse retried = post(filter, "key-4", "{}", failingOnce);
+
+        assertThat(failed.getContentAsString()).contains("\"status\":500");
+        assertThat(retried.getContentAsString()).isEqualTo("{\"execution\":2,\"echo\":{}}");
+        assertThat(retried.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+    }
+
+    @Test
+    void keepsTheSameKeyOfDifferentClientsApart() throws Exception {
+        release.countDown();
+        IdempotencyFilter filter = new IdempotencyFilter(new InMemoryIdempotencyStore(100), properties, objectMapper,
+                request -> request.getRemoteAddr());
+
+        MockHttpServletResponse first = post(filter, "key-5", "{}", createBook, "10.0.0.1");
+        MockHttpServletResponse other = post(filter, "key-5", "{\"title\":\"Emma\"}", createBook, "10.0.0.2");
+
+        assertThat(other.getStatus()).isEqualTo(200);
+        assertThat(other.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(first.getContentAsString()).isNotEqualTo(other.getContentAsString());
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void servesTheCachedBodyToNonBlockingReaders() throws Exception {
+        IdempotencyFilter filter = new IdempotencyFilter(new InMemoryIdempotencyStore(100), properties, objectMapper);
+        FilterChain readAsync = (request, response) -> {
+            ServletInputStream in = request.getInputStream();
+            StringBuilder body = new StringBuilder();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (in.isReady() && !in.isFinished()) {
+                        body.append((char) in.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    response.getWriter().write(body.toString());
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                }
+            });
+        };
+
+        assertThat(post(filter, "key-6", "{\"a\":1}", readAsync).getContentAsString()).isEqualTo("{\"a\":1}");
+    }
+
+    @Test
+    void sharesKeysAcrossInstancesThroughTheDatabase() throws Exception {
+        release.countDown();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:idempotency-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V4__create_idempotency_keys_table.sql"))
+                .execute(dataSource);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        IdempotencyFilter instanceA = new IdempotencyFilter(
+                new JdbcIdempotencyStore(jdbc, new InMemoryIdempotencyStore(100)), properties, objectMapper);
+        IdempotencyFilter instanceB = new IdempotencyFilter(
+                new JdbcIdempotencyStore(jdbc, new InMemoryIdempotencyStore(100)), properties, objectMapper);
+
+        MockHttpServletResponse original = post(instanceA, "key-3", "{}");
+        MockHttpServletResponse retried = post(instanceB, "key-3", "{}");
+
+        assertThat(retried.getContentAsString()).isEqualTo(original.getContentAsString());
+        assertThat(retried.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(executions).hasValue(1);
+    }
+
+    private MockHttpServletResponse post(IdempotencyFilter filter, String key, String body) {
+        return post(filter, key, body, createBook);
+    }
+
+    private MockHttpServletResponse post(IdempotencyFilter filter, String key, String body, FilterChain chain) {
+        return post(filter, key, body, chain, "127.0.0.1");
+    }
+
+    private MockHttpServletResponse post(IdempotencyFilter filter, String key, String body, FilterChain chain,
+                                         String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/books");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader(properties.getHeaderName(), key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
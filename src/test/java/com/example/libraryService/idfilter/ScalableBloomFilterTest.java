@@ -0,0 +1,46 @@
+package com.example.libraryService.idfilter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.libraryService.id.SnowflakeIdGenerator;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    void neverForgetsAnIdWhileGrowing() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(7, 1_000);
+        long[] added = LongStream.generate(ids::nextId).limit(50_000).toArray();
+
+        for (long id : added) {
+            filter.add(id);
+        }
+
+        assertThat(filter.stageCount()).isGreaterThan(1);
+        assertThat(LongStream.of(added).allMatch(filter::mightContain)).isTrue();
+    }
+
+    @Test
+    void keepsTheFalsePositiveRateBelowTheTargetAcrossStages() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (long id = 0; id < 100_000; id++) {
+            filter.add(id * 2);
+        }
+
+        Random random = new Random(5);
+        int trials = 200_000;
+        long falsePositives = random.longs(trials, 0, Long.MAX_VALUE / 2)
+                .map(value -> value * 2 + 1)
+                .filter(filter::mightContain)
+                .count();
+
+        assertThat((double) falsePositives / trials).isLessThan(0.01);
+        assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.01);
+        assertThat(filter.approximateSize()).isBetween(99_000L, 100_000L);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.libraryService.jpacache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.libraryService.entity.Book;
+import com.example.libraryService.kafka.BookKafkaEvent;
+import com.example.libraryService.repository.BookRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that books by id and search results are served from the
+ * second-level cache, and that writes (local or announced on the BOOKS topic)
+ * evict them. Runs without a test transaction so that saves commit.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("smoke")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookSecondLevelCacheTest {
+
+    private static final long ID = 7_000_001L;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        bookRepository.save(Book.builder()
+                .id(ID).title("Hyperion").author("Dan Simmons").price(12.0).stock(4).email("reader@library.com")
+                .build());
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteById(ID);
+    }
+
+    @Test
+    void servesBooksByIdFromTheEntityRegion() {
+        bookRepository.findById(ID);
+        bookRepository.findById(ID);
+
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(0);
+        assertThat(statistics.getCacheRegionStatistics(Book.CACHE_REGION).getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void cachesSearchesUntilTheTableIsWritten() {
+        assertThat(titles()).containsExactly("Hyperion");
+        assertThat(titles()).containsExactly("Hyperion");
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        Book book = bookRepository.findById(ID).orElseThrow();
+        book.setTitle("Hyperion Cantos");
+        bookRepository.save(book);
+
+        assertThat(titles()).containsExactly("Hyperion Cantos");
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsWhatAnotherNodeWrote() {
+        bookRepository.findById(ID);
+        titles();
+        assertThat(sessionFactory.getCache().containsEntity(Book.class, ID)).isTrue();
+
+        new BookCacheInvalidationListener(sessionFactory.getCache())
+                .onBookEvent(BookKafkaEvent.builder().id(ID).action("UPDATE").build(), 0, 0);
+
+        assertThat(sessionFactory.getCache().containsEntity(Book.class, ID)).isFalse();
+        titles();
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+    }
+
+    private List<String> titles() {
+        return bookRepository.findByTitleNormalizedStartingWithOrderById("hyperion").stream().map(Book::getTitle).toList();
+    }
+}
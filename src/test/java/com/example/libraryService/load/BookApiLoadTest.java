@@ -0,0 +1,343 @@
+package com.example.libraryService.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.libraryService.LocalStandInsConfig;
+import com.example.libraryService.load.LoadProfile.Operation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: BookApiLoadTest
+ *
+ * Description:
+ *   End-to-end load test of the {@code BookController} API. The whole service
+ *   runs against local stand-ins: H2, a mock Kafka producer, a recording mail
+ *   sender and {@link FakeInventoryServer}.
+ *
+ *   Load is open-loop. Requests start on a fixed schedule ({@code load.rps})
+ *   whether or not earlier ones have finished. Latency is measured from the
+ *   scheduled start, so time spent queued behind a slow request counts, and
+ *   a stall cannot hide by slowing the client down (coordinated omission).
+ *
+ *   After a warmup the test records an HdrHistogram per operation. It writes
+ *   target/load-test/summary.txt and latency.hgrm, then fails if the p99 or
+ *   error-rate SLO is missed or the target rate could not be sustained.
+ *
+ *   Tagged "load": excluded from {@code mvn test}, run with
+ *   {@code mvn -Pload-test test}. See {@link LoadProfile} for the knobs.
+ * ============================================================================
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("smoke")
+@Import(LocalStandInsConfig.class)
+class BookApiLoadTest {
+
+    private static final String[] WORDS = {"silent", "river", "dune", "empire", "shadow", "garden", "winter",
+            "stone", "glass", "ocean", "iron", "forest", "night", "crown", "ember", "atlas"};
+    private static final String[] AUTHORS = {"Frank Herbert", "Ursula Le Guin", "Iain Banks", "Ann Leckie",
+            "Octavia Butler", "Ted Chiang", "N. K. Jemisin", "Gene Wolfe"};
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final Path REPORT_DIR = Path.of("target", "load-test");
+
+    private static final FakeInventoryServer inventory = startInventory();
+
+    @LocalServerPort
+    private int port;
+
+    private final LoadProfile profile = LoadProfile.fromSystemProperties();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+
+    private final List<Long> seeded = new ArrayList<>();
+    private final Queue<Long> deletable = new ConcurrentLinkedQueue<>();
+
+    @DynamicPropertySource
+    static void inventoryUrl(DynamicPropertyRegistry registry) {
+        registry.add("library.inventory.url", inventory::productsUrl);
+    }
+
+    @AfterAll
+    static void stopInventory() {
+        inventory.close();
+    }
+
+    @Test
+    void meetsLatencyAndErrorSlos() throws Exception {
+        seed();
+        run(profile.warmup(), new Recording());
+        Recording recording = new Recording();
+        long elapsedNanos = run(profile.duration(), recording);
+
+        String summary = recording.summary(profile, elapsedNanos);
+        log.info("📈 Load test results\n{}", summary);
+        Files.createDirectories(REPORT_DIR);
+        Files.writeString(REPORT_DIR.resolve("summary.txt"), summary);
+        try (PrintStream hgrm = new PrintStream(REPORT_DIR.resolve("latency.hgrm").toFile())) {
+            recording.total().outputPercentileDistribution(hgrm, 1_000.0);
+        }
+
+        long requests = recording.total().getTotalCount();
+        double seconds = elapsedNanos / 1e9;
+        SoftAssertions slo = new SoftAssertions();
+        slo.assertThat(recording.total().getValueAtPercentile(99) / 1_000)
+                .as("p99 latency in ms (SLO %d ms)", profile.sloP99Millis())
+                .isLessThanOrEqualTo(profile.sloP99Millis());
+        slo.assertThat(recording.errorRate())
+                .as("error rate (SLO %.2f%%)", profile.sloErrorRate() * 100)
+                .isLessThanOrEqualTo(profile.sloErrorRate());
+        slo.assertThat(requests / seconds)
+                .as("throughput in requests/s (target %.0f)", profile.rps())
+                .isGreaterThanOrEqualTo(profile.rps() * 0.9);
+        slo.assertAll();
+    }
+
+    /** Creates the books the run reads and updates; not measured. */
+    private void seed() throws Exception {
+        Random random = new Random(42);
+        for (int i = 0; i < profile.books(); i++) {
+            JsonNode created = send(HttpRequest.newBuilder(uri("/api/books"))
+                    .header("Content-Type", "application/json")
+                    .POST(json(newBook(random))));
+            assertThat(created.get("status").asInt()).as("seeding book %d", i).isEqualTo(201);
+            seeded.add(created.get("data").get("id").asLong());
+        }
+    }
+
+    /**
+     * Starts requests on a fixed schedule for {@code duration}, waits for them
+     * to finish and returns how long that took.
+     */
+    private long run(Duration duration, Recording recording) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(profile.workers());
+        Random random = new Random();
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / profile.rps());
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long scheduled = start; scheduled - end < 0; scheduled += interval) {
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = profile.pick(random);
+            long intendedStart = scheduled;
+            workers.execute(() -> recording.record(operation, intendedStart, execute(operation)));
+        }
+        workers.shutdown();
+        assertThat(workers.awaitTermination(1, TimeUnit.MINUTES)).as("requests drained").isTrue();
+        return System.nanoTime() - start;
+    }
+
+    /** @return true if the request succeeded */
+    private boolean execute(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            JsonNode response = switch (operation) {
+                case READ -> send(get("/api/books/" + anySeeded(random)));
+                case BATCH_READ -> send(get("/api/books?ids=" + random.ints(20, 0, seeded.size())
+                        .mapToObj(i -> seeded.get(i).toString())
+                        .collect(Collectors.joining(","))));
+                case LIST -> send(get("/api/books"));
+                case SEARCH -> send(get("/api/books/search?title=" + WORDS[random.nextInt(WORDS.length)]
+                        .substring(0, 1 + random.nextInt(3))));
+                case SUGGEST -> send(get("/api/books/suggest?q=" + WORDS[random.nextInt(WORDS.length)]
+                        .substring(0, 1 + random.nextInt(4))));
+                case INVENTORY -> send(get("/api/books/inventory-products"));
+                case CREATE -> create(random);
+                case UPDATE -> send(HttpRequest.newBuilder(uri("/api/books/" + anySeeded(random)))
+                        .header("Content-Type", "application/json")
+                        .PUT(json(newBook(random))));
+                case PATCH -> send(HttpRequest.newBuilder(uri("/api/books/" + anySeeded(random)))
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", json(Map.of("price", 5 + random.nextInt(40), "stock", 1 + random.nextInt(50)))));
+                case DELETE -> {
+                    // only books created during the run are deleted, so reads keep hitting existing ones
+                    Long id = deletable.poll();
+                    yield id != null
+                            ? send(HttpRequest.newBuilder(uri("/api/books/" + id)).DELETE())
+                            : create(random);
+                }
+            };
+            return succeeded(operation, response);
+        } catch (IOException | RuntimeException e) {
+            log.debug("{} failed: {}", operation, e.toString());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private JsonNode create(Random random) throws IOException, InterruptedException {
+        JsonNode created = send(HttpRequest.newBuilder(uri("/api/books"))
+                .header("Content-Type", "application/json")
+                .POST(json(newBook(random))));
+        if (created.path("status").asInt() == 201) {
+            deletable.add(created.get("data").get("id").asLong());
+        }
+        return created;
+    }
+
+    /** Errors are answered with HTTP 200 and their code in the body, so the body decides. */
+    private static boolean succeeded(Operation operation, JsonNode response) {
+        int status = response.path("status").asInt();
+        if (status < 200 || status >= 300) {
+            return false;
+        }
+        // the inventory fallback answers 200 too
+        return operation != Operation.INVENTORY || response.path("data").asText().startsWith("[");
+    }
+
+    private JsonNode send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = http.send(request.timeout(REQUEST_TIMEOUT).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400) {
+            throw new IOException("HTTP " + response.statusCode());
+        }
+        return mapper.readTree(response.body());
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body));
+    }
+
+    private long anySeeded(Random random) {
+        return seeded.get(random.nextInt(seeded.size()));
+    }
+
+    private static Map<String, Object> newBook(Random random) {
+        String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                + " " + random.nextInt(1_000);
+        return Map.of(
+                "title", Character.toUpperCase(title.charAt(0)) + title.substring(1),
+                "author", AUTHORS[random.nextInt(AUTHORS.length)],
+                "price", 5 + random.nextInt(40) + 0.99,
+                "stock", 1 + random.nextInt(50),
+                "email", "load@library.com");
+    }
+
+    private static FakeInventoryServer startInventory() {
+        try {
+            return new FakeInventoryServer();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the fake inventory service", e);
+        }
+    }
+
+    /** Latencies in microseconds per operation, plus the failures. */
+    private static final class Recording {
+
+        private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+        private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+
+        Recording() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new ConcurrentHistogram(MAX_MICROS, 3));
+                errors.put(operation, new AtomicLong());
+            }
+        }
+
+        void record(Operation operation, long intendedStart, boolean succeeded) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+            latencies.get(operation).recordValue(Math.min(micros, MAX_MICROS));
+            if (!succeeded) {
+                errors.get(operation).incrementAndGet();
+            }
+        }
+
+        Histogram total() {
+            Histogram total = new Histogram(MAX_MICROS, 3);
+            latencies.values().forEach(total::add);
+            return total;
+        }
+
+        double errorRate() {
+            long requests = total().getTotalCount();
+            long failed = errors.values().stream().mapToLong(AtomicLong::get).sum();
+            return requests == 0 ? 0 : (double) failed / requests;
+        }
+
+        String summary(LoadProfile profile, long elapsedNanos) {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format("target %.0f req/s for %s, %d workers, %d seeded books%n",
+                    profile.rps(), profile.duration(), profile.workers(), profile.books()));
+            out.append(String.format("%-11s %8s %7s %9s %9s %9s %9s %9s%n",
+                    "operation", "requests", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+            latencies.forEach((operation, histogram) -> {
+                if (histogram.getTotalCount() > 0) {
+                    out.append(row(operation.name().toLowerCase(), histogram, errors.get(operation).get()));
+                }
+            });
+            Histogram total = total();
+            long failed = errors.values().stream().mapToLong(AtomicLong::get).sum();
+            out.append(row("all", total, failed));
+            out.append(String.format("throughput %.1f req/s, error rate %.3f%%, SLO p99 <= %d ms, errors <= %.2f%%%n",
+                    total.getTotalCount() / (elapsedNanos / 1e9), errorRate() * 100,
+                    profile.sloP99Millis(), profile.sloErrorRate() * 100));
+            return out.toString();
+        }
+
+        private static String row(String name, Histogram histogram, long failed) {
+            return String.format("%-11s %8d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name,
+                    histogram.getTotalCount(), failed,
+                    histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(90) / 1e3,
+                    histogram.getValueAtPercentile(99) / 1e3, histogram.getValueAtPercentile(99.9) / 1e3,
+                    histogram.getMaxValue() / 1e3);
+        }
+    }
+}
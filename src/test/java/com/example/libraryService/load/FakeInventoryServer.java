@@ -0,0 +1,48 @@
+package com.example.libraryService.load;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Answers {@code GET /api/products} in place of the inventory service, with
+ * the same fixed product list every time.
+ */
+class FakeInventoryServer implements AutoCloseable {
+
+    private static final byte[] PRODUCTS =
+            "[{\"id\":1,\"name\":\"Bookmark\",\"quantity\":120},{\"id\":2,\"name\":\"Reading lamp\",\"quantity\":8}]"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+
+    FakeInventoryServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "fake-inventory");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.createContext("/api/products", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, PRODUCTS.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(PRODUCTS);
+            }
+        });
+        server.start();
+    }
+
+    String productsUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/api/products";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.libraryService.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.libraryService.LocalStandInsConfig;
+import com.example.libraryService.grpc.GrpcServer;
+import com.example.libraryService.grpc.proto.BookLookupGrpc;
+import com.example.libraryService.grpc.proto.GetBookRequest;
+import com.example.libraryService.grpc.proto.GetBooksRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.management.OperatingSystemMXBean;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ============================================================================
+ * Class: GrpcVsRestComparisonTest
+ *
+ * Description:
+ *   Compares the REST API with the internal gRPC API for the calls other
+ *   services make most: a book by id and a batch of books by id. Each call
+ *   is made {@code compare.requests} times, one at a time, over REST (JSON
+ *   on HTTP/1.1, as our services call it today) and over gRPC (protobuf on
+ *   HTTP/2).
+ *
+ *   For each it records latency in an HdrHistogram and the process CPU time
+ *   per request. Client and server share the JVM, so the CPU figure is
+ *   client and server together: encoding, transport and decoding on both
+ *   ends. It writes target/load-test/grpc-vs-rest.txt and only fails if a
+ *   call fails.
+ *
+ *   Tagged "load": excluded from {@code mvn test}, run with
+ *   {@code mvn -Pload-test test -Dtest=GrpcVsRestComparisonTest}.
+ *   Knobs: compare.books, compare.warmup, compare.requests, compare.batch.
+ * ============================================================================
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("smoke")
+@Import(LocalStandInsConfig.class)
+class GrpcVsRestComparisonTest {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final Path REPORT = Path.of("target", "load-test", "grpc-vs-rest.txt");
+    private static final long MAX_MICROS = TimeUnit.SECONDS.toMicros(10);
+
+    private final int books = Integer.getInteger("compare.books", 500);
+    private final int warmup = Integer.getInteger("compare.warmup", 5_000);
+    private final int requests = Integer.getInteger("compare.requests", 20_000);
+    private final int batch = Integer.getInteger("compare.batch", 20);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private GrpcServer grpcServer;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+    private final OperatingSystemMXBean os =
+            (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    private final List<Long> seeded = new ArrayList<>();
+    private ManagedChannel channel;
+    private BookLookupGrpc.BookLookupBlockingStub grpc;
+
+    @BeforeEach
+    void setUp() {
+        channel = ManagedChannelBuilder.forAddress("localhost", grpcServer.getPort()).usePlaintext().build();
+        grpc = BookLookupGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void comparesLatencyAndCpuPerRequest() throws Exception {
+        seed();
+        Random random = new Random(7);
+        List<Call> calls = List.of(
+                new Call("rest get", () -> {
+                    JsonNode book = restGet("/api/books/" + anySeeded(random));
+                    assertThat(book.get("status").asInt()).isEqualTo(200);
+                }),
+                new Call("grpc get", () -> grpc.withDeadlineAfter(REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                        .getBook(GetBookRequest.newBuilder().setId(anySeeded(random)).build())),
+                new Call("rest multi-get", () -> {
+                    JsonNode found = restGet("/api/books?ids=" + anyBatch(random).stream()
+                            .map(String::valueOf)
+                            .collect(Collectors.joining(",")));
+                    assertThat(found.get("status").asInt()).isEqualTo(200);
+                }),
+                new Call("grpc multi-get", () -> grpc.withDeadlineAfter(REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                        .getBooks(GetBooksRequest.newBuilder().addAllIds(anyBatch(random)).build())));
+
+        for (Call call : calls) {
+            measure(call, warmup);
+        }
+        StringBuilder report = new StringBuilder(String.format(
+                "%d requests per call after %d warmup, %d seeded books, batches of %d, %d CPUs%n",
+                requests, warmup, books, batch, Runtime.getRuntime().availableProcessors()));
+        report.append(String.format("%-15s %9s %9s %9s %9s %12s%n",
+                "call", "p50 us", "p90 us", "p99 us", "max us", "cpu us/req"));
+        for (Call call : calls) {
+            report.append(measure(call, requests));
+        }
+
+        log.info("📈 gRPC vs REST\n{}", report);
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, report);
+    }
+
+    /** Runs {@code call} {@code count} times back to back; returns its report row. */
+    private String measure(Call call, int count) throws Exception {
+        Histogram latency = new Histogram(MAX_MICROS, 3);
+        long cpuStart = os.getProcessCpuTime();
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            call.body().run();
+            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), MAX_MICROS));
+        }
+        double cpuMicrosPerRequest = (os.getProcessCpuTime() - cpuStart) / 1e3 / count;
+        return String.format("%-15s %9d %9d %9d %9d %12.1f%n", call.name(),
+                latency.getValueAtPercentile(50), latency.getValueAtPercentile(90),
+                latency.getValueAtPercentile(99), latency.getMaxValue(), cpuMicrosPerRequest);
+    }
+
+    /** Creates the books the run reads; not measured. */
+    private void seed() throws Exception {
+        for (int i = 0; i < books; i++) {
+            HttpResponse<byte[]> response = http.send(HttpRequest.newBuilder(uri("/api/books"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(Map.of(
+                            "title", "Comparison " + i,
+                            "author", "Benchmark Author",
+                            "price", 10.99,
+                            "stock", 1 + i % 50,
+                            "email", "load@library.com"))))
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            JsonNode created = mapper.readTree(response.body());
+            assertThat(created.get("status").asInt()).as("seeding book %d", i).isEqualTo(201);
+            seeded.add(created.get("data").get("id").asLong());
+        }
+    }
+
+    private JsonNode restGet(String path) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = http.send(HttpRequest.newBuilder(uri(path)).timeout(REQUEST_TIMEOUT).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        return mapper.readTree(response.body());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private long anySeeded(Random random) {
+        return seeded.get(random.nextInt(seeded.size()));
+    }
+
+    private List<Long> anyBatch(Random random) {
+        List<Long> ids = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            ids.add(anySeeded(random));
+        }
+        return ids;
+    }
+
+    private record Call(String name, Body body) {}
+
+    @FunctionalInterface
+    private interface Body {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.libraryService.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * What {@link BookApiLoadTest} sends and what it must achieve. Every value can
+ * be overridden with a system property, e.g. {@code -Dload.rps=500}.
+ *
+ * @param rps          requests started per second, independent of how fast they complete
+ * @param workers      client threads; a request waits for a free one, and that wait counts as latency
+ * @param books        books created before the run; reads, searches and updates target them
+ * @param mix          relative weight of each operation
+ * @param sloP99Millis highest acceptable p99 over all operations
+ * @param sloErrorRate highest acceptable share of failed requests
+ */
+record LoadProfile(double rps, Duration warmup, Duration duration, int workers, int books,
+                   Map<Operation, Integer> mix, long sloP99Millis, double sloErrorRate) {
+
+    enum Operation { READ, BATCH_READ, LIST, SEARCH, SUGGEST, INVENTORY, CREATE, UPDATE, PATCH, DELETE }
+
+    static final String DEFAULT_MIX =
+            "read=45,batch_read=5,list=2,search=10,suggest=15,inventory=2,create=8,update=3,patch=8,delete=2";
+
+    static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Double.parseDouble(System.getProperty("load.rps", "100")),
+                Duration.parse(System.getProperty("load.warmup", "PT10S")),
+                Duration.parse(System.getProperty("load.duration", "PT30S")),
+                Integer.getInteger("load.workers", 64),
+                Integer.getInteger("load.books", 500),
+                parseMix(System.getProperty("load.mix", DEFAULT_MIX)),
+                Long.getLong("load.slo.p99-millis", 250),
+                Double.parseDouble(System.getProperty("load.slo.error-rate", "0.01")));
+    }
+
+    /** Parses {@code "read=60,create=5"}; operations that are not listed are not sent. */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight, got '" + entry + "'");
+            }
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("The mix has no positive weight: " + mix);
+        }
+        return weights;
+    }
+
+    /** Draws an operation with probability proportional to its weight. */
+    Operation pick(Random random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int ticket = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+}
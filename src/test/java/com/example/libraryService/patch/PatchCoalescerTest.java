@@ -0,0 +1,148 @@
+package com.example.libraryService.patch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.libraryService.dto.BookPatchDTO;
+import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.exception.ResourceNotFoundException;
+
+class PatchCoalescerTest {
+
+    private PatchCoalescer coalescer;
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        coalescer.destroy();
+    }
+
+    @Test
+    void mergesABurstIntoOneWriteAndSharesItsResult() {
+        coalescer = new PatchCoalescer(properties(Duration.ofMillis(200), 64));
+        List<BookPatchDTO> writes = new ArrayList<>();
+        BookResponseDTO current = new BookResponseDTO(7L, "Dune", "Herbert", 10.0, 5);
+
+        List<CompletableFuture<BookResponseDTO>> results = List.of(
+                coalescer.submit(7L, patch("Dune Messiah", null, 3), (id, patch) -> write(current, patch, writes)),
+                coalescer.submit(7L, patch(null, 12.5, 0), (id, patch) -> write(current, patch, writes)),
+                coalescer.submit(7L, patch("Children of Dune", null, null), (id, patch) -> write(current, patch, writes)));
+
+        BookResponseDTO saved = results.get(0).join();
+        assertThat(writes).hasSize(1);
+        assertThat(saved.getTitle()).isEqualTo("Children of Dune");
+        assertThat(saved.getAuthor()).isEqualTo("Herbert");
+        assertThat(saved.getPrice()).isEqualTo(12.5);
+        // a stock of 0 is a value, not an absent field
+        assertThat(saved.getStock()).isEqualTo(0);
+        assertThat(results).allSatisfy(result -> assertThat(result.join()).isSameAs(saved));
+    }
+
+    @Test
+    void flushesEarlyWhenTheBatchIsFull() {
+        coalescer = new PatchCoalescer(properties(Duration.ofMinutes(1), 2));
+        AtomicInteger writes = new AtomicInteger();
+
+        coalescer.submit(1L, patch(null, null, 1), (id, patch) -> count(writes));
+        CompletableFuture<BookResponseDTO> full = coalescer.submit(1L, patch(null, null, 2), (id, patch) -> count(writes));
+
+        assertThat(full.orTimeout(5, TimeUnit.SECONDS).join()).isNotNull();
+        assertThat(writes).hasValue(1);
+    }
+
+    @Test
+    void keepsBooksApartAndFailsEveryPatchOfAFailedWrite() {
+        coalescer = new PatchCoalescer(properties(Duration.ofMillis(50), 64));
+        AtomicInteger writes = new AtomicInteger();
+
+        CompletableFuture<BookResponseDTO> missing = coalescer.submit(1L, new BookPatchDTO(), (id, patch) -> {
+            throw new ResourceNotFoundException("Book not found with ID: " + id);
+        });
+        CompletableFuture<BookResponseDTO> other = coalescer.submit(2L, new BookPatchDTO(), (id, patch) -> count(writes));
+
+        assertThatThrownBy(missing::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ResourceNotFoundException.class);
+        assertThat(other.join()).isNotNull();
+        assertThat(writes).hasValue(1);
+    }
+
+    @Test
+    void followsUpOnceAndOffTheWriterLane() {
+        coalescer = new PatchCoalescer(properties(Duration.ofMillis(50), 64));
+        List<String> followUpThreads = new ArrayList<>();
+
+        List<CompletableFuture<BookResponseDTO>> results = List.of(
+                coalescer.submit(3L, patch(null, null, 1), (id, patch) -> followUp(followUpThreads)),
+                coalescer.submit(3L, patch(null, null, 2), (id, patch) -> followUp(followUpThreads)));
+
+        results.forEach(CompletableFuture::join);
+        assertThat(followUpThreads).hasSize(1);
+        assertThat(followUpThreads.get(0)).startsWith("patch-follow-up-");
+    }
+
+    @Test
+    void failsWithATimeoutWhenTheWriteDoesNotFinish() {
+        PatchCoalescingProperties properties = properties(Duration.ofMillis(10), 64);
+        properties.setTimeout(Duration.ofMillis(100));
+        coalescer = new PatchCoalescer(properties);
+        CompletableFuture<Void> release = new CompletableFuture<>();
+
+        CompletableFuture<BookResponseDTO> result = coalescer.submit(4L, new BookPatchDTO(), (id, patch) -> {
+            release.join();
+            return BookResponseDTO::new;
+        });
+
+        assertThatThrownBy(result::join).hasCauseInstanceOf(TimeoutException.class);
+        release.complete(null);
+    }
+
+    private static Supplier<BookResponseDTO> followUp(List<String> threads) {
+        return () -> {
+            threads.add(Thread.currentThread().getName());
+            return new BookResponseDTO();
+        };
+    }
+
+    private static BookPatchDTO patch(String title, Double price, Integer stock) {
+        BookPatchDTO patch = new BookPatchDTO();
+        patch.setTitle(title);
+        patch.setPrice(price);
+        patch.setStock(stock);
+        return patch;
+    }
+
+    private static Supplier<BookResponseDTO> write(BookResponseDTO current, BookPatchDTO patch,
+                                                   List<BookPatchDTO> writes) {
+        writes.add(patch);
+        BookResponseDTO saved = new BookResponseDTO(current.getId(),
+                patch.hasTitle() ? patch.getTitle() : current.getTitle(),
+                patch.hasAuthor() ? patch.getAuthor() : current.getAuthor(),
+                patch.hasPrice() ? patch.getPrice() : current.getPrice(),
+                patch.hasStock() ? patch.getStock() : current.getStock());
+        return () -> saved;
+    }
+
+    private static Supplier<BookResponseDTO> count(AtomicInteger writes) {
+        writes.incrementAndGet();
+        return BookResponseDTO::new;
+    }
+
+    private static PatchCoalescingProperties properties(Duration window, int maxPatches) {
+        PatchCoalescingProperties properties = new PatchCoalescingProperties();
+        properties.setWindow(window);
+        properties.setMaxPatches(maxPatches);
+        return properties;
+    }
+}
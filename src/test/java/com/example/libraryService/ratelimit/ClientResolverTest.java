@@ -0,0 +1,37 @@
+package com.example.libraryService.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class ClientResolverTest {
+
+    @Test
+    void takesTheClientHeaderAsIsOnlyFromTrustedSources() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setTrustedHeaderSources(List.of("10.1.0.0/16", "192.168.5.5"));
+        ClientResolver resolver = new ClientResolver(properties, null);
+
+        assertThat(resolver.resolve(request("10.1.200.3", "reporting-service")))
+                .isEqualTo(new ClientResolver.Client("reporting-service", true));
+        assertThat(resolver.resolve(request("192.168.5.5", "reporting-service")))
+                .isEqualTo(new ClientResolver.Client("reporting-service", true));
+        // anyone else only names a client within its own address
+        assertThat(resolver.resolve(request("10.2.0.1", "reporting-service")))
+                .isEqualTo(new ClientResolver.Client("reporting-service@10.2.0.1", false, "10.2.0.1"));
+        assertThat(resolver.resolve(request("10.2.0.1", null)))
+                .isEqualTo(new ClientResolver.Client("addr:10.2.0.1", false));
+    }
+
+    private static MockHttpServletRequest request(String address, String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/search");
+        request.setRemoteAddr(address);
+        if (clientId != null) {
+            request.addHeader("X-Client-Id", clientId);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.libraryService.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.libraryService.ratelimit.RateLimitProperties.Budgets;
+import com.example.libraryService.ratelimit.RateLimitProperties.Limit;
+
+class RateLimiterTest {
+
+    private static final ClientResolver.Client REPORTING = new ClientResolver.Client("reporting-service", true);
+
+    @Test
+    void admitsABurstThenRefillsAtTheConfiguredRate() {
+        AtomicLong clock = new AtomicLong();
+        RateLimiter limiter = new RateLimiter(properties(3, 20), null, clock::get);
+
+        assertThat(limiter.tryAcquire(REPORTING, RateLimitCategory.SEARCH)).isEqualTo(2);
+        assertThat(limiter.tryAcquire(REPORTING, RateLimitCategory.SEARCH)).isEqualTo(1);
+        assertThat(limiter.tryAcquire(REPORTING, RateLimitCategory.SEARCH)).isEqualTo(0);
+        long refused = limiter.tryAcquire(REPORTING, RateLimitCategory.SEARCH);
+        assertThat(-refused).isEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+
+        // the other categories and clients have budgets of their own
+        assertThat(limiter.tryAcquire(REPORTING, RateLimitCategory.READ)).isEqualTo(2);
+        assertThat(limiter.tryAcquire(new ClientResolver.Client("inventory-service", true), RateLimitCategory.SEARCH))
+                .isEqualTo(2);
+
+        clock.addAndGet(-refused);
+        assertThat(limiter.tryAcquire(REPORTING, RateLimitCategory.SEARCH)).isEqualTo(0);
+        assertThat(limiter.throttledCount()).isEqualTo(1);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        limiter.sweep();
+        assertThat(limiter.clientCount()).isEqualTo(1);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        limiter.sweep();
+        assertThat(limiter.clientCount()).isZero();
+    }
+
+    @Test
+    void appliesAChangedLimitToTheNextRequest() {
+        RateLimitProperties properties = properties(100, 1);
+        RateLimiter limiter = new RateLimiter(properties, null);
+        assertThat(limiter.tryAcquire(REPORTING, RateLimitCategory.WRITE)).isEqualTo(99);
+
+        // as a refresh from the Config Server rebinds it
+        properties.getClients().put("reporting-service", new Budgets(null, null, new Limit(2, 1)));
+
+        assertThat(limiter.tryAcquire(REPORTING, RateLimitCategory.WRITE)).isEqualTo(0);
+        assertThat(limiter.tryAcquire(REPORTING, RateLimitCategory.WRITE)).isNegative();
+        assertThat(limiter.tryAcquire(REPORTING, RateLimitCategory.READ)).isEqualTo(99);
+    }
+
+    @Test
+    void doesNotOverflowWithLimitsThatNeverRefill() {
+        RateLimitProperties properties = properties(Long.MAX_VALUE, 1);
+        properties.getClients().put("reporting-service", new Budgets(null, null, new Limit(3, 0)));
+        RateLimiter limiter = new RateLimiter(properties, null);
+
+        assertThat(limiter.tryAcquire(REPORTING, RateLimitCategory.READ)).isPositive();
+        assertThat(limiter.tryAcquire(REPORTING, RateLimitCategory.WRITE)).isZero();
+        assertThat(limiter.tryAcquire(REPORTING, RateLimitCategory.WRITE)).isNegative();
+        limiter.charge("reporting-service", RateLimitCategory.READ, Long.MAX_VALUE);
+        assertThat(limiter.tryAcquire(REPORTING, RateLimitCategory.READ)).isNegative();
+    }
+
+    @Test
+    void capsTheClientsAnAddressCanNameThroughAnUntrustedHeader() {
+        RateLimitProperties properties = properties(1, 1);
+        properties.setMaxClientsPerAddress(2);
+        RateLimiter limiter = new RateLimiter(properties, null);
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(limiter.tryAcquire(untrusted("client-" + i, "10.0.0.9"), RateLimitCategory.SEARCH)).isZero();
+        }
+        // further names from the address share one bucket
+        assertThat(limiter.tryAcquire(untrusted("client-2", "10.0.0.9"), RateLimitCategory.SEARCH)).isZero();
+        assertThat(limiter.tryAcquire(untrusted("client-3", "10.0.0.9"), RateLimitCategory.SEARCH)).isNegative();
+        assertThat(limiter.tryAcquire(untrusted("client-3", "10.0.0.7"), RateLimitCategory.SEARCH)).isZero();
+        assertThat(limiter.clientCount()).isEqualTo(4);
+    }
+
+    @Test
+    void sharesBudgetsAcrossInstancesInClusterMode() {
+        RateLimitProperties properties = properties(5, 0.001);
+        InMemoryRateLimitUsageStore store = new InMemoryRateLimitUsageStore();
+        RateLimiter first = new RateLimiter(properties, null);
+        RateLimiter second = new RateLimiter(properties, null);
+        ClusterUsageSync firstSync = new ClusterUsageSync(first, store, properties, "library-service");
+        ClusterUsageSync secondSync = new ClusterUsageSync(second, store, properties, "library-service");
+        firstSync.sync();
+        secondSync.sync();
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(first.tryAcquire(REPORTING, RateLimitCategory.READ)).isNotNegative();
+        }
+        firstSync.sync();
+        secondSync.sync();
+
+        assertThat(second.tryAcquire(REPORTING, RateLimitCategory.READ)).isEqualTo(0);
+        assertThat(second.tryAcquire(REPORTING, RateLimitCategory.READ)).isNegative();
+    }
+
+    private static RateLimitProperties properties(long capacity, double refillPerSecond) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setDefaults(new Budgets(new Limit(capacity, refillPerSecond), new Limit(capacity, refillPerSecond),
+                new Limit(capacity, refillPerSecond)));
+        return properties;
+    }
+
+    private static ClientResolver.Client untrusted(String header, String address) {
+        return new ClientResolver.Client(header + "@" + address, false, address);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.libraryService.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.libraryService.entity.Book;
+
+/**
+ * Runs EXPLAIN for every {@link BookRepository} query against the embedded
+ * database (schema created by the Flyway migrations) and fails when one of
+ * them falls back to a full scan of the books table.
+ *
+ * <p>{@code findAll} is a deliberate full read and is not checked, nor is
+ * {@code searchByPatterns}, the fallback for search terms too short to have
+ * grams.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.libraryService.repository.BookRepositoryQueryPlanTest$RecordingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("smoke")
+class BookRepositoryQueryPlanTest {
+
+    private static final List<String> RECORDED = new CopyOnWriteArrayList<>();
+
+    private static final Set<String> SCANS = Set.of("searchByPatterns");
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    /** Query method name -> invocation and the parameter values used for EXPLAIN. */
+    private final Map<String, QueryCase> cases = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        Long id = entityManager.persistAndFlush(Book.builder()
+                .id(42L).title("Dune").author("Frank Herbert").price(19.99).stock(5).email("reader@library.com")
+                .build()).getId();
+        entityManager.clear();
+
+        cases.put("findById", new QueryCase(repo -> repo.findById(id), id));
+        cases.put("findByTitleNormalizedStartingWithOrderById",
+                new QueryCase(repo -> repo.findByTitleNormalizedStartingWithOrderById("dune"), "dune%"));
+        Set<String> grams = BookSearchGrams.of("dune", "frank");
+        List<Object> gramParameters = new ArrayList<>(List.of("%dune%", "%frank%"));
+        gramParameters.addAll(grams);
+        gramParameters.add((long) grams.size());
+        cases.put("searchByGrams", new QueryCase(repo -> repo.searchByGrams("%dune%", "%frank%", grams, grams.size()),
+                gramParameters.toArray()));
+        cases.put("findFirstRows", new QueryCase(repo -> repo.findFirstRows(PageRequest.of(0, 100)), 100));
+        cases.put("findBooksAfter", new QueryCase(repo -> repo.findBooksAfter(0L, PageRequest.of(0, 100)), 0L, 100));
+        cases.put("findIdsAfter", new QueryCase(repo -> repo.findIdsAfter(0L, PageRequest.of(0, 100)), 0L, 100));
+    }
+
+    @Test
+    void everyRepositoryQueryHasAPlanCheck() {
+        List<String> declared = Arrays.stream(BookRepository.class.getDeclaredMethods())
+                .map(Method::getName)
+                .toList();
+        assertThat(cases.keySet()).containsAll(declared.stream().filter(name -> !SCANS.contains(name)).toList());
+    }
+
+    @TestFactory
+    Stream<DynamicTest> noQueryScansTheBooksTable() {
+        return cases.entrySet().stream().map(entry -> DynamicTest.dynamicTest(entry.getKey(), () -> {
+            RECORDED.clear();
+            entry.getValue().invocation().accept(bookRepository);
+
+            List<String> selects = RECORDED.stream()
+                    .filter(sql -> sql.toLowerCase().startsWith("select"))
+                    .toList();
+            assertThat(selects).as("SQL issued by %s", entry.getKey()).isNotEmpty();
+
+            for (String sql : selects) {
+                String plan = explain(sql, entry.getValue().parameters());
+                assertThat(plan)
+                        .as("plan for %s", entry.getKey())
+                        .doesNotContainIgnoringCase("BOOKS.tableScan");
+            }
+        }));
+    }
+
+    private String explain(String sql, Object[] parameters) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            List<String> rows = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rows.add(resultSet.getString(1));
+                }
+            }
+            return String.join("\n", rows);
+        }
+    }
+
+    private record QueryCase(Consumer<BookRepository> invocation, Object... parameters) {
+    }
+
+    /** Captures the SQL Hibernate generates for each repository call. */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            RECORDED.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.libraryService.shard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.libraryService.LocalStandInsConfig;
+import com.example.libraryService.dto.BookRequestDTO;
+import com.example.libraryService.dto.BookBatchResponseDTO;
+import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.service.BookService;
+
+/**
+ * Runs the service on three embedded databases and checks routing,
+ * scatter-gather ordering/pagination and rebalancing.
+ */
+@SpringBootTest(properties = {
+        "library.sharding.enabled=true",
+        "library.sharding.shards[0].url=jdbc:h2:mem:shard0;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "library.sharding.shards[1].url=jdbc:h2:mem:shard1;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "library.sharding.shards[2].url=jdbc:h2:mem:shard2;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        // reads must hit the shards, not the in-process catalog or the second-level cache
+        "library.catalog.enabled=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@ActiveProfiles("smoke")
+@Import(LocalStandInsConfig.class)
+class ShardedBookStorageTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @Test
+    void routesScattersAndRebalances() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ids.add(bookService.createBook(request("Sharded Title " + i, "Author " + (i % 3))).getId());
+        }
+
+        // every book lives on exactly the shard its id hashes to
+        for (Long id : ids) {
+            for (int shard = 0; shard < shardDataSources.size(); shard++) {
+                int expected = shard == shardRouter.shardFor(id) ? 1 : 0;
+                assertThat(count(shard, id)).as("book %d on shard %d", id, shard).isEqualTo(expected);
+            }
+        }
+        assertThat(shardRebalancer.rowCounts().values()).allSatisfy(rows -> assertThat(rows).isPositive());
+
+        // merged ordering and pagination across shards
+        List<Long> sorted = ids.stream().sorted().toList();
+        assertThat(bookService.getBooks(1, 10)).extracting(BookResponseDTO::getId)
+                .containsExactlyElementsOf(sorted.subList(10, 20));
+        assertThat(bookService.getAllBooks()).extracting(BookResponseDTO::getId)
+                .containsExactlyElementsOf(sorted);
+        assertThat(bookService.searchBooks(Optional.of("sharded"), Optional.of("author 1"))).hasSize(10);
+        assertThat(bookService.searchBooks(Optional.of("title 2"), Optional.empty())).hasSize(11);
+
+        // batch lookups fan out per shard and keep the requested order
+        List<Long> requested = new ArrayList<>(ids.subList(0, 12));
+        Collections.reverse(requested);
+        requested.add(1, -1L);
+        BookBatchResponseDTO batch = bookService.getBooksByIds(requested);
+        assertThat(batch.getBooks()).extracting(BookResponseDTO::getId)
+                .containsExactlyElementsOf(requested.stream().filter(id -> id > 0).toList());
+        assertThat(batch.getMissingIds()).containsExactly(-1L);
+
+        // rows written to the wrong shard (e.g. before a shard was added) are moved
+        long misplacedId = ids.stream().filter(id -> shardRouter.shardFor(id) != 0).findFirst().orElseThrow();
+        int home = shardRouter.shardFor(misplacedId);
+        jdbc(home).update("DELETE FROM books WHERE id = ?", misplacedId);
+        jdbc(0).update("INSERT INTO books (id, title, author, price, stock, email, title_normalized, author_normalized) "
+                + "VALUES (?, 'Misplaced', 'Nobody', 1.0, 1, 'x@library.com', 'misplaced', 'nobody')", misplacedId);
+
+        assertThat(shardRebalancer.rebalance().get(0)).isEqualTo(1);
+        assertThat(count(0, misplacedId)).isZero();
+        assertThat(count(home, misplacedId)).isEqualTo(1);
+        assertThat(bookService.getBookById(misplacedId).getTitle()).isEqualTo("Misplaced");
+        assertThat(bookService.searchBooks(Optional.of("placed"), Optional.empty()))
+                .extracting(BookResponseDTO::getId).containsExactly(misplacedId);
+    }
+
+    private long count(int shard, long id) {
+        return jdbc(shard).queryForObject("SELECT COUNT(*) FROM books WHERE id = ?", Long.class, id);
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(shardDataSources.get(shard));
+    }
+
+    private static BookRequestDTO request(String title, String author) {
+        return BookRequestDTO.builder()
+                .title(title)
+                .author(author)
+                .price(10.0)
+                .stock(2)
+                .email("reader@library.com")
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.libraryService.suggest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.libraryService.catalog.CatalogState;
+import com.example.libraryService.catalog.HeapCatalogStore;
+import com.example.libraryService.dto.BookResponseDTO;
+import com.example.libraryService.kafka.BookKafkaEvent;
+import com.example.libraryService.suggest.SuggestionIndex.Kind;
+import com.example.libraryService.suggest.SuggestionIndex.Suggestion;
+
+class SuggestionIndexTest {
+
+    private static final String[] WORDS = {"dune", "dust", "dusk", "messiah", "mess", "me", "emma", "e", "dark", "dawn"};
+
+    @Test
+    void matchesABruteForceRankingUnderRandomChanges() {
+        CatalogState state = new CatalogState(new HeapCatalogStore());
+        SuggestionIndex index = new SuggestionIndex(5);
+        state.addListener(index);
+        index.onReset(state.getStore());
+
+        Random random = new Random(3);
+        for (int i = 0; i < 5_000; i++) {
+            long id = random.nextInt(300);
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            String author = "Author " + WORDS[random.nextInt(4)];
+            String action = random.nextInt(4) == 0 ? "DELETE" : "UPDATE";
+            state.apply(BookKafkaEvent.builder().id(id).title(title).author(author).price(1.0)
+                    .stock(random.nextInt(100)).action(action).build());
+
+            if (i % 250 == 0) {
+                assertMatchesBruteForce(index, state);
+            }
+        }
+        assertMatchesBruteForce(index, state);
+
+        SuggestionIndex rebuilt = new SuggestionIndex(5);
+        rebuilt.onReset(state.getStore());
+        for (String prefix : List.of("d", "du", "dus", "m", "mes", "author", "author d", "e", "emma d", "x")) {
+            assertThat(rebuilt.suggest(prefix, 5)).isEqualTo(index.suggest(prefix, 5));
+        }
+    }
+
+    @Test
+    void suggestsTitlesAndAuthorsByWordStart() {
+        CatalogState state = new CatalogState(new HeapCatalogStore());
+        SuggestionIndex index = new SuggestionIndex(10);
+        state.addListener(index);
+        index.onReset(state.getStore());
+
+        state.apply(BookKafkaEvent.builder().id(1L).title("Dune Messiah").author("Frank Herbert").stock(3).action("CREATE").build());
+        state.apply(BookKafkaEvent.builder().id(2L).title("Herbs of the World").author("Ann Smith").stock(9).action("CREATE").build());
+
+        assertThat(index.suggest("HER", 10)).extracting(Suggestion::text, Suggestion::kind)
+                .containsExactly(
+                        tuple("Herbs of the World", Kind.TITLE),
+                        tuple("Frank Herbert", Kind.AUTHOR));
+        assertThat(index.suggest("mes", 10)).extracting(Suggestion::bookId).containsExactly(1L);
+    }
+
+    private static void assertMatchesBruteForce(SuggestionIndex index, CatalogState state) {
+        List<BookResponseDTO> books = new ArrayList<>();
+        state.getStore().forEach((id, title, author, price, stock) ->
+                books.add(new BookResponseDTO(id, title, author, price, stock)));
+
+        Map<String, long[]> authorStock = new HashMap<>();
+        books.forEach(book -> authorStock.computeIfAbsent(book.getAuthor(), a -> new long[1])[0] += book.getStock());
+
+        for (String prefix : List.of("d", "du", "dus", "dusk", "m", "me", "mess", "e", "emma", "author", "author du", "dune d", "zz")) {
+            List<String> expected = Stream.concat(
+                            books.stream()
+                                    .filter(book -> SuggestionIndex.keysOf(book.getTitle()).stream().anyMatch(key -> key.startsWith(prefix)))
+                                    .map(book -> new Suggestion("t:" + book.getId(), book.getTitle(), Kind.TITLE, book.getId(), book.getStock())),
+                            authorStock.entrySet().stream()
+                                    .filter(entry -> SuggestionIndex.keysOf(entry.getKey()).stream().anyMatch(key -> key.startsWith(prefix)))
+                                    .map(entry -> new Suggestion("a:" + entry.getKey().toLowerCase(), entry.getKey(), Kind.AUTHOR, null, entry.getValue()[0])))
+                    .sorted(Comparator.comparingLong(Suggestion::score).reversed()
+                            .thenComparing(Suggestion::text).thenComparing(Suggestion::key))
+                    .limit(5)
+                    .map(Suggestion::key)
+                    .collect(Collectors.toList());
+
+            assertThat(index.suggest(prefix, 5)).extracting(Suggestion::key).as("prefix '%s'", prefix).isEqualTo(expected);
+        }
+    }
+}